@@ -0,0 +1,75 @@
+package org.broadinstitute.hellbender.tools.walkers.genotyper;
+
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.GenotypeLikelihoods;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.genotyper.AlleleLikelihoods;
+import org.broadinstitute.hellbender.utils.genotyper.IndexedAlleleList;
+import org.broadinstitute.hellbender.utils.genotyper.IndexedSampleList;
+import org.broadinstitute.hellbender.utils.genotyper.LikelihoodMatrix;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the calculation of genotype likelihoods from read likelihoods for a range of ploidies and allele counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenotypeLikelihoodCalculatorBenchmark {
+
+    private static final String SAMPLE = "sample";
+
+    @Param({"2", "4"})
+    public int ploidy;
+
+    @Param({"2", "4", "6"})
+    public int alleleCount;
+
+    @Param({"100", "1000"})
+    public int readCount;
+
+    private GenotypeLikelihoodCalculator calculator;
+    private LikelihoodMatrix<GATKRead, Allele> likelihoods;
+
+    @Setup
+    public void setup() {
+        final List<Allele> alleles = new ArrayList<>(alleleCount);
+        alleles.add(Allele.create("A", true));
+        for (int i = 1; i < alleleCount; i++) {
+            alleles.add(Allele.create("A" + Utils.dupString("C", i), false));
+        }
+
+        final List<GATKRead> reads = new ArrayList<>(readCount);
+        for (int i = 0; i < readCount; i++) {
+            reads.add(ArtificialReadUtils.createArtificialRead("100M"));
+        }
+
+        final AlleleLikelihoods<GATKRead, Allele> alleleLikelihoods = new AlleleLikelihoods<>(new IndexedSampleList(SAMPLE),
+                new IndexedAlleleList<>(alleles), Collections.singletonMap(SAMPLE, reads));
+        likelihoods = alleleLikelihoods.sampleMatrix(0);
+        final Random random = new Random(13);
+        for (int a = 0; a < alleleCount; a++) {
+            for (int r = 0; r < readCount; r++) {
+                likelihoods.set(a, r, -random.nextDouble() * 10);
+            }
+        }
+
+        calculator = new GenotypeLikelihoodCalculators().getInstance(ploidy, alleleCount);
+    }
+
+    @Benchmark
+    public GenotypeLikelihoods genotypeLikelihoods() {
+        return calculator.genotypeLikelihoods(likelihoods);
+    }
+}
@@ -0,0 +1,76 @@
+package org.broadinstitute.hellbender.tools.walkers.haplotypecaller.readthreading;
+
+import htsjdk.samtools.SAMFileHeader;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.engine.AssemblyRegion;
+import org.broadinstitute.hellbender.engine.ReadsPathDataSource;
+import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.AssemblyBasedCallerUtils;
+import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.HaplotypeCallerArgumentCollection;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.fasta.CachingIndexedFastaSequenceFile;
+import org.broadinstitute.hellbender.utils.genotyper.IndexedSampleList;
+import org.broadinstitute.hellbender.utils.haplotype.Haplotype;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.broadinstitute.hellbender.utils.read.ReadUtils;
+import org.broadinstitute.hellbender.utils.smithwaterman.SmithWatermanJavaAligner;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks local assembly of a single HaplotypeCaller assembly region from the NA12878 chr17 test bam,
+ * with the default HaplotypeCaller assembly arguments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadThreadingAssemblerBenchmark {
+
+    private static final SimpleInterval ACTIVE_SPAN = new SimpleInterval("17", 69400, 69700);
+    private static final int REGION_PADDING = 100;
+    private static final int REFERENCE_PADDING = 500;
+
+    private ReadThreadingAssembler assembler;
+    private AssemblyRegion region;
+    private Haplotype refHaplotype;
+    private byte[] fullReferenceWithPadding;
+    private SimpleInterval paddedReferenceLoc;
+    private SAMFileHeader header;
+
+    @Setup
+    public void setup() {
+        final HaplotypeCallerArgumentCollection hcArgs = new HaplotypeCallerArgumentCollection();
+        assembler = hcArgs.createReadThreadingAssembler();
+
+        try (final ReadsPathDataSource reads = new ReadsPathDataSource(Paths.get(GATKBaseTest.NA12878_chr17_1k_BAM));
+             final CachingIndexedFastaSequenceFile reference = new CachingIndexedFastaSequenceFile(Paths.get(GATKBaseTest.v37_chr17_1Mb_Reference))) {
+            header = reads.getHeader();
+            region = new AssemblyRegion(ACTIVE_SPAN, true, REGION_PADDING, header);
+            final Iterator<GATKRead> readIterator = reads.query(region.getPaddedSpan());
+            while (readIterator.hasNext()) {
+                final GATKRead read = readIterator.next();
+                if (!read.isUnmapped() && read.getMappingQuality() > 0 && !read.isDuplicate() && region.getPaddedSpan().overlaps(read)) {
+                    region.add(read);
+                }
+            }
+
+            AssemblyBasedCallerUtils.finalizeRegion(region, hcArgs.assemblerArgs.errorCorrectReads, hcArgs.dontUseSoftClippedBases,
+                    (byte) (hcArgs.minBaseQualityScore - 1), header, new IndexedSampleList(ReadUtils.getSamplesFromHeader(header)),
+                    !hcArgs.doNotCorrectOverlappingBaseQualities, hcArgs.softClipLowQualityEnds);
+            fullReferenceWithPadding = region.getAssemblyRegionReference(reference, REFERENCE_PADDING);
+            paddedReferenceLoc = AssemblyBasedCallerUtils.getPaddedReferenceLoc(region, REFERENCE_PADDING, reference);
+            refHaplotype = AssemblyBasedCallerUtils.createReferenceHaplotype(region, paddedReferenceLoc, reference);
+        }
+    }
+
+    @Benchmark
+    public AssemblyResultSet runLocalAssembly() {
+        return assembler.runLocalAssembly(region, refHaplotype, fullReferenceWithPadding, paddedReferenceLoc, null, header,
+                SmithWatermanJavaAligner.getInstance());
+    }
+}
@@ -0,0 +1,58 @@
+package org.broadinstitute.hellbender.transformers;
+
+import htsjdk.samtools.SAMFileHeader;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.engine.ReadsPathDataSource;
+import org.broadinstitute.hellbender.tools.ApplyBQSRArgumentCollection;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks ApplyBQSR's per-read work, recalibrating the HiSeq test bam with its 20mb recalibration table, both with
+ * the flattened quality lookup and by evaluating the model from the recalibration tables for every base.
+ *
+ * Each read is copied before it is recalibrated, since recalibration modifies it in place; both variants pay for that.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BQSRReadTransformerBenchmark {
+
+    private static final String BQSR_DIR = GATKBaseTest.toolsTestDir + "BQSR/";
+
+    private final List<GATKRead> reads = new ArrayList<>();
+    private BQSRReadTransformer transformer;
+
+    @Setup
+    public void setup() {
+        try (final ReadsPathDataSource readsSource = new ReadsPathDataSource(Paths.get(BQSR_DIR + "HiSeq.1mb.1RG.2k_lines.alternate.bam"))) {
+            final SAMFileHeader header = readsSource.getHeader();
+            readsSource.forEach(reads::add);
+            transformer = new BQSRReadTransformer(header, new File(BQSR_DIR + "HiSeq.20mb.1RG.table.gz"), new ApplyBQSRArgumentCollection());
+        }
+    }
+
+    @Benchmark
+    public void recalibrateWithLookup(final Blackhole blackhole) {
+        for (final GATKRead read : reads) {
+            blackhole.consume(transformer.apply(read.copy()));
+        }
+    }
+
+    @Benchmark
+    public void recalibrateFromTables(final Blackhole blackhole) {
+        for (final GATKRead read : reads) {
+            blackhole.consume(transformer.applyWithoutLookup(read.copy()));
+        }
+    }
+}
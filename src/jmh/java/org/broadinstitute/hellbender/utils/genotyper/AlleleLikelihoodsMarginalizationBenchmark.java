@@ -0,0 +1,90 @@
+package org.broadinstitute.hellbender.utils.genotyper;
+
+import htsjdk.variant.variantcontext.Allele;
+import org.broadinstitute.hellbender.utils.haplotype.Haplotype;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the marginalization of read-haplotype likelihoods to read-allele likelihoods, as done by the
+ * HaplotypeCaller for each event it genotypes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlleleLikelihoodsMarginalizationBenchmark {
+
+    private static final int SAMPLE_COUNT = 3;
+    private static final int ALLELE_COUNT = 3;
+    private static final byte[] BASES = {'A', 'C', 'G', 'T'};
+
+    @Param({"8", "32", "128"})
+    public int haplotypeCount;
+
+    @Param({"100", "1000"})
+    public int readsPerSample;
+
+    private AlleleLikelihoods<GATKRead, Haplotype> haplotypeLikelihoods;
+    private Map<Allele, List<Haplotype>> allelesToHaplotypes;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(17);
+        final List<Haplotype> haplotypes = new ArrayList<>(haplotypeCount);
+        for (int h = 0; h < haplotypeCount; h++) {
+            final byte[] bases = new byte[300];
+            for (int i = 0; i < bases.length; i++) {
+                bases[i] = BASES[random.nextInt(BASES.length)];
+            }
+            haplotypes.add(new Haplotype(bases, h == 0));
+        }
+
+        final List<String> samples = new ArrayList<>(SAMPLE_COUNT);
+        final Map<String, List<GATKRead>> readsBySample = new LinkedHashMap<>();
+        for (int s = 0; s < SAMPLE_COUNT; s++) {
+            final List<GATKRead> reads = new ArrayList<>(readsPerSample);
+            for (int r = 0; r < readsPerSample; r++) {
+                reads.add(ArtificialReadUtils.createArtificialRead("100M"));
+            }
+            samples.add("sample" + s);
+            readsBySample.put("sample" + s, reads);
+        }
+
+        haplotypeLikelihoods = new AlleleLikelihoods<>(new IndexedSampleList(samples), new IndexedAlleleList<>(haplotypes), readsBySample);
+        for (int s = 0; s < SAMPLE_COUNT; s++) {
+            final LikelihoodMatrix<GATKRead, Haplotype> matrix = haplotypeLikelihoods.sampleMatrix(s);
+            for (int h = 0; h < haplotypeCount; h++) {
+                for (int r = 0; r < readsPerSample; r++) {
+                    matrix.set(h, r, -random.nextDouble() * 50);
+                }
+            }
+        }
+
+        // the reference haplotype supports the reference allele and the others are split between the alternate alleles
+        allelesToHaplotypes = new LinkedHashMap<>();
+        final List<Allele> alleles = new ArrayList<>(ALLELE_COUNT);
+        alleles.add(Allele.create("A", true));
+        alleles.add(Allele.create("C", false));
+        alleles.add(Allele.create("G", false));
+        alleles.forEach(allele -> allelesToHaplotypes.put(allele, new ArrayList<>()));
+        for (int h = 0; h < haplotypeCount; h++) {
+            allelesToHaplotypes.get(alleles.get(h == 0 ? 0 : 1 + h % (ALLELE_COUNT - 1))).add(haplotypes.get(h));
+        }
+    }
+
+    @Benchmark
+    public AlleleLikelihoods<GATKRead, Allele> marginalize() {
+        return haplotypeLikelihoods.marginalize(allelesToHaplotypes);
+    }
+}
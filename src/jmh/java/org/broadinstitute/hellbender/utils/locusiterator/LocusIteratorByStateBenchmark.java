@@ -0,0 +1,51 @@
+package org.broadinstitute.hellbender.utils.locusiterator;
+
+import htsjdk.samtools.SAMFileHeader;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.engine.ReadsPathDataSource;
+import org.broadinstitute.hellbender.utils.downsampling.DownsamplingMethod;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.broadinstitute.hellbender.utils.read.ReadUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks pileup construction by LocusIteratorByState over the in-memory reads of the NA12878 chr17 test bam.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocusIteratorByStateBenchmark {
+
+    private final List<GATKRead> reads = new ArrayList<>();
+    private SAMFileHeader header;
+
+    @Setup
+    public void setup() {
+        try (final ReadsPathDataSource readsSource = new ReadsPathDataSource(Paths.get(GATKBaseTest.NA12878_chr17_1k_BAM))) {
+            header = readsSource.getHeader();
+            for (final GATKRead read : readsSource) {
+                if (!read.isUnmapped()) {
+                    reads.add(read);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void iteratePileups(final Blackhole blackhole) {
+        final LocusIteratorByState libs = new LocusIteratorByState(reads.iterator(), DownsamplingMethod.NONE, false,
+                ReadUtils.getSamplesFromHeader(header), header, true);
+        while (libs.hasNext()) {
+            blackhole.consume(libs.next().getBasePileup().size());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.broadinstitute.hellbender.utils.pairhmm;
+
+import org.broadinstitute.gatk.nativebindings.pairhmm.PairHMMNativeArguments;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.StandardPairHMMInputScoreImputator;
+import org.broadinstitute.hellbender.utils.genotyper.AlleleLikelihoods;
+import org.broadinstitute.hellbender.utils.genotyper.IndexedAlleleList;
+import org.broadinstitute.hellbender.utils.genotyper.IndexedSampleList;
+import org.broadinstitute.hellbender.utils.haplotype.Haplotype;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.broadinstitute.hellbender.utils.read.ReadUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import picard.util.BasicInputParser;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the PairHMM implementations on the read-haplotype pairs in pairhmm-testdata.txt, computing the likelihoods
+ * of every read against every haplotype in the file in a single call, as the HaplotypeCaller does for each region.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PairHMMBenchmark {
+
+    private static final String PAIR_HMM_TEST_DATA = GATKBaseTest.publicTestDir + "pairhmm-testdata.txt";
+    private static final byte CONSTANT_GCP = 10;
+    private static final String SAMPLE = "sample";
+
+    /**
+     * FASTEST_AVAILABLE is the native AVX implementation where the native library can be loaded
+     */
+    @Param({"LOGLESS_CACHING", "JAVA_VECTOR_LOGLESS_CACHING", "FASTEST_AVAILABLE"})
+    public PairHMM.Implementation implementation;
+
+    private PairHMM hmm;
+    private List<Haplotype> haplotypes;
+    private List<GATKRead> reads;
+    private PairHMMInputScoreImputator inputScoreImputator;
+
+    @Setup
+    public void setup() throws IOException {
+        final Map<String, Haplotype> haplotypesByBases = new LinkedHashMap<>();
+        reads = new ArrayList<>();
+        try (final FileInputStream input = new FileInputStream(PAIR_HMM_TEST_DATA)) {
+            final BasicInputParser parser = new BasicInputParser(true, input);
+            while (parser.hasNext()) {
+                final String[] tokens = parser.next();
+                haplotypesByBases.computeIfAbsent(tokens[0], bases -> new Haplotype(bases.getBytes(), haplotypesByBases.isEmpty()));
+
+                final byte[] bases = tokens[1].getBytes();
+                final GATKRead read = ArtificialReadUtils.createArtificialRead(bases, phredToQuals(tokens[2], 6), bases.length + "M");
+                ReadUtils.setInsertionBaseQualities(read, phredToQuals(tokens[3], 0));
+                ReadUtils.setDeletionBaseQualities(read, phredToQuals(tokens[4], 0));
+                reads.add(read);
+            }
+        }
+        haplotypes = new ArrayList<>(haplotypesByBases.values());
+        inputScoreImputator = StandardPairHMMInputScoreImputator.newInstance(CONSTANT_GCP);
+
+        final PairHMMNativeArguments args = new PairHMMNativeArguments();
+        args.maxNumberOfThreads = 1;
+        args.useDoublePrecision = false;
+        hmm = implementation.makeNewHMM(args);
+    }
+
+    @TearDown
+    public void tearDown() {
+        hmm.close();
+    }
+
+    @Benchmark
+    public void computeLikelihoods(final Blackhole blackhole) {
+        final AlleleLikelihoods<GATKRead, Haplotype> likelihoods = new AlleleLikelihoods<>(new IndexedSampleList(SAMPLE),
+                new IndexedAlleleList<>(haplotypes), Collections.singletonMap(SAMPLE, reads));
+        final int maxReadLength = reads.stream().mapToInt(GATKRead::getLength).max().orElse(0);
+        final int maxHaplotypeLength = haplotypes.stream().mapToInt(Haplotype::length).max().orElse(0);
+        hmm.initialize(haplotypes, null, maxReadLength, maxHaplotypeLength);
+        hmm.computeLog10Likelihoods(likelihoods.sampleMatrix(0), reads, inputScoreImputator);
+        blackhole.consume(likelihoods);
+    }
+
+    private static byte[] phredToQuals(final String phredString, final int minQual) {
+        final byte[] quals = phredString.getBytes();
+        for (int i = 0; i < quals.length; i++) {
+            quals[i] = (byte) Math.max(quals[i] - 33, minQual);
+        }
+        return quals;
+    }
+}
@@ -0,0 +1,73 @@
+package org.broadinstitute.hellbender.utils.recalibration;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.util.Locatable;
+import htsjdk.variant.variantcontext.VariantContext;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.engine.FeatureDataSource;
+import org.broadinstitute.hellbender.engine.ReadsPathDataSource;
+import org.broadinstitute.hellbender.engine.ReferenceDataSource;
+import org.broadinstitute.hellbender.engine.filters.ReadFilter;
+import org.broadinstitute.hellbender.tools.walkers.bqsr.BaseRecalibrator;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the per-read work of BaseRecalibrator (covariate computation and recalibration table updates) on the
+ * NA12878 chr17 test bam, with the test known sites already resolved for each read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BaseRecalibrationEngineBenchmark {
+
+    private static final String KNOWN_SITES = GATKBaseTest.toolsTestDir + "BQSR/bqsr.fakeSitesForTesting.b37.chr17.vcf";
+
+    private final List<GATKRead> reads = new ArrayList<>();
+    private final List<List<? extends Locatable>> knownSitesByRead = new ArrayList<>();
+    private SAMFileHeader header;
+    private ReferenceDataSource reference;
+    private BaseRecalibrationEngine engine;
+
+    @Setup
+    public void setup() {
+        try (final ReadsPathDataSource readsSource = new ReadsPathDataSource(Paths.get(GATKBaseTest.NA12878_chr17_1k_BAM));
+             final FeatureDataSource<VariantContext> knownSites = new FeatureDataSource<>(KNOWN_SITES)) {
+            header = readsSource.getHeader();
+            final ReadFilter filter = ReadFilter.fromList(BaseRecalibrator.getStandardBQSRReadFilterList(), header);
+            for (final GATKRead read : readsSource) {
+                if (filter.test(read)) {
+                    reads.add(read);
+                    knownSitesByRead.add(knownSites.queryAndPrefetch(read));
+                }
+            }
+        }
+        reference = ReferenceDataSource.of(Paths.get(GATKBaseTest.v37_chr17_1Mb_Reference));
+    }
+
+    @Setup(Level.Iteration)
+    public void createEngine() {
+        engine = new BaseRecalibrationEngine(new RecalibrationArgumentCollection(), header);
+    }
+
+    @TearDown
+    public void tearDown() {
+        reference.close();
+    }
+
+    @Benchmark
+    public BaseRecalibrationEngine processReads() {
+        for (int i = 0; i < reads.size(); i++) {
+            engine.processRead(reads.get(i), reference, knownSitesByRead.get(i));
+        }
+        return engine;
+    }
+}
@@ -0,0 +1,60 @@
+package org.broadinstitute.hellbender.utils.smithwaterman;
+
+import org.broadinstitute.gatk.nativebindings.smithwaterman.SWOverhangStrategy;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.utils.read.CigarUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import picard.util.BasicInputParser;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks SmithWatermanJavaAligner on the read-haplotype pairs in pairhmm-testdata.txt, with the parameters the
+ * HaplotypeCaller uses to align reads to their best haplotype and haplotypes to the reference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SmithWatermanJavaAlignerBenchmark {
+
+    private static final String PAIR_HMM_TEST_DATA = GATKBaseTest.publicTestDir + "pairhmm-testdata.txt";
+
+    private final SmithWatermanJavaAligner aligner = SmithWatermanJavaAligner.getInstance();
+    private final List<byte[]> haplotypes = new ArrayList<>();
+    private final List<byte[]> reads = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException {
+        try (final FileInputStream input = new FileInputStream(PAIR_HMM_TEST_DATA)) {
+            final BasicInputParser parser = new BasicInputParser(true, input);
+            while (parser.hasNext()) {
+                final String[] tokens = parser.next();
+                haplotypes.add(tokens[0].getBytes());
+                reads.add(tokens[1].getBytes());
+            }
+        }
+    }
+
+    @Benchmark
+    public void alignReadsToHaplotypes(final Blackhole blackhole) {
+        for (int i = 0; i < reads.size(); i++) {
+            blackhole.consume(aligner.align(haplotypes.get(i), reads.get(i), CigarUtils.ALIGNMENT_TO_BEST_HAPLOTYPE_SW_PARAMETERS, SWOverhangStrategy.SOFTCLIP));
+        }
+    }
+
+    @Benchmark
+    public void alignHaplotypesToReference(final Blackhole blackhole) {
+        // consecutive lines of the test data mostly share a locus, so use the previous haplotype as the reference
+        for (int i = 1; i < haplotypes.size(); i++) {
+            blackhole.consume(aligner.align(haplotypes.get(i - 1), haplotypes.get(i), CigarUtils.NEW_SW_PARAMETERS, SWOverhangStrategy.INDEL));
+        }
+    }
+}
@@ -6,6 +6,7 @@ import htsjdk.samtools.util.Locatable;
 import org.broadinstitute.hellbender.utils.HasGenomeLocation;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.pileup.ReadPileup;
+import org.broadinstitute.hellbender.utils.pileup.ReusablePileupView;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -14,6 +15,12 @@ import java.util.Map;
 
 /**
  * Bundles together a pileup and a location.
+ *
+ * The pileup is either a {@link ReadPileup}, or a {@link ReusablePileupView} (see
+ * {@link org.broadinstitute.hellbender.utils.locusiterator.LocusIteratorByState#useReusablePileupViews}).
+ * Either form can be requested from any context: the other one is made from it on demand. A context backed by a
+ * reusable view can only be used until the view is refilled for a later locus, after which any request for its
+ * pileup throws an {@link IllegalStateException}.
  */
 public final class AlignmentContext implements Locatable, HasGenomeLocation {
     // Definitions:
@@ -24,7 +31,10 @@ public final class AlignmentContext implements Locatable, HasGenomeLocation {
     public enum ReadOrientation { COMPLETE, FORWARD, REVERSE }
 
     private final Locatable loc;
-    private final ReadPileup basePileup;
+    private ReadPileup basePileup;
+
+    private ReusablePileupView pileupView;
+    private long pileupViewGeneration;
 
     private boolean hasPileupBeenDownsampled;
 
@@ -41,12 +51,28 @@ public final class AlignmentContext implements Locatable, HasGenomeLocation {
         this.hasPileupBeenDownsampled = hasPileupBeenDownsampled;
     }
 
+    /**
+     * Create a context whose pileup is held in a reusable view. The context is only valid until the view is
+     * {@link ReusablePileupView#reset} for another locus.
+     *
+     * @param loc location of the context
+     * @param pileupView view holding the pileup at loc
+     */
+    public AlignmentContext(final Locatable loc, final ReusablePileupView pileupView) {
+        Utils.nonNull(loc, "BUG: GenomeLoc in Alignment context is null");
+        Utils.nonNull(pileupView, "BUG: pileup view in Alignment context is null");
+
+        this.loc = loc;
+        this.pileupView = pileupView;
+        this.pileupViewGeneration = pileupView.getGeneration();
+    }
+
     /**
      * How many reads cover this locus?
      * @return
      */
     public int size() {
-        return basePileup.size();
+        return basePileup != null ? basePileup.size() : getPileupView().size();
     }
 
     @Override
@@ -76,9 +102,32 @@ public final class AlignmentContext implements Locatable, HasGenomeLocation {
     public boolean hasPileupBeenDownsampled() { return hasPileupBeenDownsampled; }
 
     public ReadPileup getBasePileup() {
+        if ( basePileup == null ) {
+            basePileup = getPileupView().makeReadPileup();
+        }
         return basePileup;
     }
 
+    /**
+     * Get the pileup of this context as a {@link ReusablePileupView}, which gives cheaper access to the bases and
+     * qualities of the pileup than {@link #getBasePileup()} when the context was produced with reusable views.
+     * For other contexts, a new view is made from the pileup the first time this is called.
+     *
+     * @return the pileup of this context as a view, which must not be modified
+     * @throws IllegalStateException if the view has already been refilled for another locus
+     */
+    public ReusablePileupView getPileupView() {
+        if ( pileupView == null ) {
+            pileupView = ReusablePileupView.of(basePileup);
+            pileupViewGeneration = pileupView.getGeneration();
+        }
+        if ( pileupView.getGeneration() != pileupViewGeneration ) {
+            throw new IllegalStateException("The pileup view of the alignment context at " + loc +
+                    " has been reused for a later locus; the context can only be used until the iterator that produced it advances");
+        }
+        return pileupView;
+    }
+
     /**
      * Returns a potentially derived subcontext containing only forward, reverse, or in fact all reads
      * in alignment context context.
@@ -88,9 +137,9 @@ public final class AlignmentContext implements Locatable, HasGenomeLocation {
             case COMPLETE:
                 return this;
             case FORWARD:
-                return new AlignmentContext(loc, basePileup.makeFilteredPileup(pe -> !pe.getRead().isReverseStrand()));
+                return new AlignmentContext(loc, getBasePileup().makeFilteredPileup(pe -> !pe.getRead().isReverseStrand()));
             case REVERSE:
-                return new AlignmentContext(loc, basePileup.makeFilteredPileup(pe -> pe.getRead().isReverseStrand()));
+                return new AlignmentContext(loc, getBasePileup().makeFilteredPileup(pe -> pe.getRead().isReverseStrand()));
             default:
                 throw new IllegalArgumentException("Unable to get alignment context for type = " + type);
         }
@@ -134,7 +183,7 @@ public final class AlignmentContext implements Locatable, HasGenomeLocation {
     public String toString() {
         return "AlignmentContext{" +
                 "loc=" + loc +
-                ", basePileup=" + basePileup +
+                ", basePileup=" + (basePileup != null ? basePileup : pileupView) +
                 ", hasPileupBeenDownsampled=" + hasPileupBeenDownsampled +
                 '}';
     }
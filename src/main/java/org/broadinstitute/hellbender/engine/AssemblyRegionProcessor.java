@@ -0,0 +1,32 @@
+package org.broadinstitute.hellbender.engine;
+
+/**
+ * Per-thread processor of assembly regions, used by an {@link AssemblyRegionWalker} when it runs with more than
+ * one region thread (see {@link AssemblyRegionWalker#makeAssemblyRegionProcessor()}).
+ *
+ * Each worker thread has exclusive use of one processor, so implementations may hold engine state that is not
+ * thread-safe. {@link #process} runs on a worker thread, and the {@link Runnable} it returns is run later on the
+ * traversal thread, in the genomic order of the regions. Output (eg., writing to a VariantContextWriter) must
+ * therefore happen in the returned {@link Runnable} rather than in {@link #process} itself.
+ */
+public interface AssemblyRegionProcessor extends AutoCloseable {
+
+    /**
+     * Process a single assembly region on a worker thread.
+     *
+     * @param region region to process (pre-marked as either active or inactive)
+     * @param referenceContext reference data overlapping the padded span of the assembly region
+     * @param featureContext features overlapping the padded span of the assembly region
+     * @return the work to be done on the traversal thread once all previous regions have been completed
+     */
+    Runnable process( final AssemblyRegion region, final ReferenceContext referenceContext, final FeatureContext featureContext );
+
+    /**
+     * Release any resources held by this processor. Called on the traversal thread once traversal is over.
+     * The default implementation does nothing.
+     */
+    @Override
+    default void close() {
+        //do nothing
+    }
+}
@@ -12,6 +12,7 @@ import org.broadinstitute.hellbender.engine.spark.AssemblyRegionArgumentCollecti
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.utils.IGVUtils;
 import org.broadinstitute.hellbender.utils.IntervalUtils;
+import org.broadinstitute.hellbender.utils.OrderedWorkerPool;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.downsampling.PositionalDownsampler;
 import org.broadinstitute.hellbender.utils.downsampling.ReadsDownsampler;
@@ -39,6 +40,10 @@ import java.util.List;
  *
  * Internally, the reads are loaded in chunks called read shards, which are then subdivided into active/inactive regions
  * for processing by the tool implementation. One read shard is created per contig.
+ *
+ * Tools that implement {@link #makeAssemblyRegionProcessor} can additionally be run with {@code --region-threads}
+ * greater than 1, in which case regions are processed concurrently by a pool of per-thread
+ * {@link AssemblyRegionProcessor}s instead of by {@link #apply}, and their results are completed in genomic order.
  */
 public abstract class AssemblyRegionWalker extends WalkerBase {
 
@@ -56,6 +61,19 @@ public abstract class AssemblyRegionWalker extends WalkerBase {
     @Argument(fullName = AssemblyRegionArgumentCollection.ASSEMBLY_REGION_OUT_LONG_NAME, doc="Output the assembly region to this IGV formatted file", optional = true)
     protected String assemblyRegionOut = null;
 
+    public static final String REGION_THREADS_LONG_NAME = "region-threads";
+
+    /**
+     * Number of threads used to process assembly regions. Region boundaries are still determined on the main
+     * traversal thread, but the regions themselves are processed concurrently and their output is written in
+     * genomic order. Results match a single-threaded run except for values that draw on the shared random number
+     * generator, since the order of draws depends on thread scheduling. Only tools that provide a per-thread
+     * {@link AssemblyRegionProcessor} support values greater than 1.
+     */
+    @Advanced
+    @Argument(fullName = REGION_THREADS_LONG_NAME, doc = "Number of threads to use for processing assembly regions", optional = true, minValue = 1)
+    public int regionThreads = 1;
+
     private PrintStream assemblyRegionOutStream;
 
     @Override
@@ -93,6 +111,11 @@ public abstract class AssemblyRegionWalker extends WalkerBase {
      * We pad the intervals within each shard by the same amount as the assembly region padding
      * to avoid boundary artifacts.
      *
+     * Since padded intervals never cross contigs and the intervals within a shard are merged after
+     * padding and queried together, no read is ever fetched by more than one shard. Splitting contigs
+     * into smaller shards would give up this property: neighbouring shards would decode and filter
+     * the reads in their padded overlap again.
+     *
      * @param intervals unmodified intervals for traversal
      * @return List of {@link MultiIntervalLocalReadShard} objects, sharded and padded as necessary
      */
@@ -162,20 +185,58 @@ public abstract class AssemblyRegionWalker extends WalkerBase {
         // meter to check the time more frequently (every 10 regions instead of every 1000 regions).
         progressMeter.setRecordsBetweenTimeChecks(10L);
 
-        for ( final MultiIntervalLocalReadShard readShard : readShards ) {
-            // Since reads in each shard are lazily fetched, we need to pass the filter and transformers to the window
-            // instead of filtering the reads directly here
-            readShard.setPreReadFilterTransformer(makePreReadFilterTransformer());
-            readShard.setReadFilter(countedFilter);
-            readShard.setDownsampler(createDownsampler());
-            readShard.setPostReadFilterTransformer(makePostReadFilterTransformer());
+        final OrderedWorkerPool<AssemblyRegionProcessor> regionProcessorPool = regionThreads > 1 ? makeRegionProcessorPool() : null;
+        try {
+            for ( final MultiIntervalLocalReadShard readShard : readShards ) {
+                // Since reads in each shard are lazily fetched, we need to pass the filter and transformers to the window
+                // instead of filtering the reads directly here
+                readShard.setPreReadFilterTransformer(makePreReadFilterTransformer());
+                readShard.setReadFilter(countedFilter);
+                readShard.setDownsampler(createDownsampler());
+                readShard.setPostReadFilterTransformer(makePostReadFilterTransformer());
+                readShard.setReadPrefetcher(this::prefetchReads);
+
+                try {
+                    processReadShard(readShard, reference, features, regionProcessorPool);
+                } finally {
+                    readShard.close();
+                }
+            }
 
-            processReadShard(readShard, reference, features);
+            if ( regionProcessorPool != null ) {
+                regionProcessorPool.drain();
+            }
+        } finally {
+            if ( regionProcessorPool != null ) {
+                regionProcessorPool.close();
+                regionProcessorPool.getWorkers().forEach(AssemblyRegionProcessor::close);
+            }
         }
 
         logger.info(countedFilter.getSummaryLine());
     }
 
+    /**
+     * Create one {@link AssemblyRegionProcessor} per region thread, and a pool to run them.
+     */
+    private OrderedWorkerPool<AssemblyRegionProcessor> makeRegionProcessorPool() {
+        final List<AssemblyRegionProcessor> processors = new ArrayList<>(regionThreads);
+        for ( int i = 0; i < regionThreads; i++ ) {
+            final AssemblyRegionProcessor processor = makeAssemblyRegionProcessor();
+            if ( processor == null ) {
+                processors.forEach(AssemblyRegionProcessor::close);
+                throw new CommandLineException.BadArgumentValue(REGION_THREADS_LONG_NAME, String.valueOf(regionThreads),
+                        getClass().getSimpleName() + " does not support multithreaded assembly region processing");
+            }
+            processors.add(processor);
+        }
+
+        logger.info("Processing assembly regions using " + regionThreads + " threads");
+        // Keep enough regions in flight that a slow region doesn't leave the other threads idle, while bounding
+        // the number of regions (and their reads) held in memory at once
+        return new OrderedWorkerPool<>(processors, 2 * regionThreads, "assembly-region-thread-%d");
+    }
+
     /**
      * Divide the given Shard up into active/inactive AssemblyRegions using the {@link #assemblyRegionEvaluator},
      * and send each region to the tool implementation for processing.
@@ -183,9 +244,16 @@ public abstract class AssemblyRegionWalker extends WalkerBase {
      * @param shard MultiIntervalLocalReadShard to process
      * @param reference Reference data source
      * @param features FeatureManager
+     * @param regionProcessorPool pool of per-thread region processors, or {@code null} to process regions with {@link #apply}
+     *                            on the traversal thread
      */
-    private void processReadShard(MultiIntervalLocalReadShard shard, ReferenceDataSource reference, FeatureManager features ) {
-        final Iterator<AssemblyRegion> assemblyRegionIter = new AssemblyRegionIterator(shard, getHeaderForReads(), reference, features, assemblyRegionEvaluator(), assemblyRegionArgs);
+    private void processReadShard(MultiIntervalLocalReadShard shard, ReferenceDataSource reference, FeatureManager features,
+                                  final OrderedWorkerPool<AssemblyRegionProcessor> regionProcessorPool ) {
+        // Worker threads query the reference concurrently with the region iterator, so they must share it safely
+        // (a memory-mapped reference is safe to share as is)
+        final ReferenceDataSource regionReference = regionProcessorPool != null && !(reference instanceof ReferenceMappedSource) ?
+                new SynchronizedReferenceDataSource(reference) : reference;
+        final Iterator<AssemblyRegion> assemblyRegionIter = new AssemblyRegionIterator(shard, getHeaderForReads(), regionReference, features, assemblyRegionEvaluator(), assemblyRegionArgs);
 
         // Call into the tool implementation to process each assembly region from this shard.
         while ( assemblyRegionIter.hasNext() ) {
@@ -197,12 +265,23 @@ public abstract class AssemblyRegionWalker extends WalkerBase {
             logger.debug("Processing assembly region at " + assemblyRegion.getSpan() + " isActive: " + assemblyRegion.isActive() + " numReads: " + assemblyRegion.getReads().size());
             writeAssemblyRegion(assemblyRegion);
 
-            apply(assemblyRegion,
-                    new ReferenceContext(reference, assemblyRegion.getPaddedSpan()),
-                    new FeatureContext(features, assemblyRegion.getPaddedSpan()));
-
-            // For this traversal, the progress meter unit is the assembly region rather than the read shard
-            progressMeter.update(assemblyRegion.getSpan());
+            final ReferenceContext referenceContext = new ReferenceContext(regionReference, assemblyRegion.getPaddedSpan());
+            final FeatureContext featureContext = new FeatureContext(features, assemblyRegion.getPaddedSpan());
+
+            if ( regionProcessorPool == null ) {
+                apply(assemblyRegion, referenceContext, featureContext);
+
+                // For this traversal, the progress meter unit is the assembly region rather than the read shard
+                progressMeter.update(assemblyRegion.getSpan());
+            } else {
+                regionProcessorPool.submit(processor -> {
+                    final Runnable completion = processor.process(assemblyRegion, referenceContext, featureContext);
+                    return () -> {
+                        completion.run();
+                        progressMeter.update(assemblyRegion.getSpan());
+                    };
+                });
+            }
         }
     }
 
@@ -248,4 +327,19 @@ public abstract class AssemblyRegionWalker extends WalkerBase {
      * @param featureContext features overlapping the padded span of the assembly region
      */
     public abstract void apply( final AssemblyRegion region, final ReferenceContext referenceContext, final FeatureContext featureContext );
+
+    /**
+     * Create a new, independent processor for assembly regions, to be used exclusively by one thread when the tool
+     * is run with {@code --region-threads} greater than 1. In that mode regions are passed to these processors instead
+     * of to {@link #apply}. Called once per region thread, after {@link #onTraversalStart}.
+     *
+     * The default implementation returns {@code null}, indicating that the tool does not support multithreaded
+     * region processing. Tools that override this must not share mutable state between processors, and must
+     * only write output from the {@link Runnable} returned by {@link AssemblyRegionProcessor#process}.
+     *
+     * @return a new processor, or {@code null} if multithreaded region processing is not supported by this tool
+     */
+    protected AssemblyRegionProcessor makeAssemblyRegionProcessor() {
+        return null;
+    }
 }
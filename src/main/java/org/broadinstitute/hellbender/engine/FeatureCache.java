@@ -135,14 +135,16 @@ class FeatureCache<CACHED_FEATURE extends Feature> {
      * @param featureIter iterator from which to pull Features with which to populate our cache
      *                    (replacing existing cache contents)
      * @param interval all Features from featureIter overlap this interval
+     * @return the number of Features now in our cache
      */
-    public void fill( final Iterator<CACHED_FEATURE> featureIter, final SimpleInterval interval ) {
+    public int fill( final Iterator<CACHED_FEATURE> featureIter, final SimpleInterval interval ) {
         cache.clear();
         while ( featureIter.hasNext() ) {
             cache.add(featureIter.next());
         }
 
         cachedInterval = interval;
+        return cache.size();
     }
 
     /**
@@ -1,5 +1,6 @@
 package org.broadinstitute.hellbender.engine;
 
+import com.google.common.annotations.VisibleForTesting;
 import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.samtools.util.IOUtil;
 import htsjdk.samtools.util.Locatable;
@@ -31,8 +32,12 @@ import java.lang.reflect.InvocationTargetException;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -62,6 +67,13 @@ import static org.broadinstitute.hellbender.utils.io.BlockCompressedIntervalStre
  * random, involves queries over intervals with DECREASING start positions instead of INCREASING start positions,
  * or involves lots of very large jumps forward on the genome or lots of contig switches. Query caching
  * can be disabled, if desired.
+ * <p>
+ * The lookahead used to refill the cache adapts to the access pattern: it grows while queries keep running
+ * just past the end of the cache (up to a limit set by the Feature density seen on the previous refill),
+ * and shrinks back to its configured value after jumps. If the intervals that will be queried are known ahead
+ * of time, they can be provided via {@link #setExpectedQueryIntervals(List)}, in which case refills stop the
+ * configured lookahead past the end of an expected interval instead of reading Features from the whole gap
+ * that follows it.
  *
  * @param <T> The type of Feature returned by this data source
  */
@@ -106,6 +118,25 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
      */
     private final int queryLookaheadBases;
 
+    /**
+     * The lookahead used for the next cache refill. Never less than {@link #queryLookaheadBases}; grows while
+     * queries follow on from the end of the cache, and shrinks back after jumps.
+     */
+    private int currentLookaheadBases;
+
+    /**
+     * The interval that was queried on disk by the most recent cache refill, and the number of Features
+     * it returned (null/0 before the first refill). Used to adapt {@link #currentLookaheadBases}.
+     */
+    private SimpleInterval lastRefillInterval;
+    private int lastRefillFeatureCount;
+
+    /**
+     * Intervals that queries are expected to fall within, sorted and merged, keyed by contig (null if not provided).
+     * See {@link #setExpectedQueryIntervals(List)}.
+     */
+    private Map<String, List<SimpleInterval>> expectedQueryIntervals;
+
     /**
      * Holds information about the path this datasource reads from.
      */
@@ -132,6 +163,17 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
      */
     public static final int DEFAULT_QUERY_LOOKAHEAD_BASES = 1000;
 
+    /**
+     * Upper bound on the adaptive lookahead, unless a larger queryLookaheadBases was requested explicitly.
+     */
+    private static final int MAX_ADAPTIVE_QUERY_LOOKAHEAD_BASES = 1_000_000;
+
+    /**
+     * The adaptive lookahead stops growing once the Feature density seen on the previous refill predicts that
+     * a refill would return more than this many Features, so that the cache stays small for dense inputs.
+     */
+    private static final int TARGET_FEATURES_PER_REFILL = 10_000;
+
     /**
      * Creates a FeatureDataSource backed by the provided File. The data source will have an automatically
      * generated name, and will look ahead the default number of bases ({@link #DEFAULT_QUERY_LOOKAHEAD_BASES})
@@ -343,6 +385,7 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
         this.intervalsForTraversal = null;
         this.queryCache = new FeatureCache<>();
         this.queryLookaheadBases = queryLookaheadBases;
+        this.currentLookaheadBases = queryLookaheadBases;
     }
 
     final void printCacheStats() {
@@ -511,6 +554,50 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
     }
 
 
+    /**
+     * Tells this data source which intervals subsequent calls to {@link #query(SimpleInterval)} and/or
+     * {@link #queryAndPrefetch(Locatable)} are expected to fall within (typically the traversal intervals of
+     * the tool). When the lookahead of a cache refill would end in a gap between these intervals, the refill
+     * stops the configured lookahead past the end of the preceding interval (or of the query, if that is later)
+     * instead, so that queries padded a little past the end of an interval are still cache hits. Expected
+     * intervals that lie within the lookahead are still fetched together in one query. Queries outside of these
+     * intervals are still answered correctly, they just don't benefit from this.
+     * <p>
+     * Does not affect traversals via {@link #iterator}. Passing in a null or empty interval List clears the
+     * expected intervals.
+     *
+     * @param intervals intervals that future queries are expected to fall within, in any order
+     */
+    public void setExpectedQueryIntervals(final List<SimpleInterval> intervals) {
+        if (intervals == null || intervals.isEmpty()) {
+            expectedQueryIntervals = null;
+            return;
+        }
+
+        final Map<String, List<SimpleInterval>> intervalsByContig = new HashMap<>();
+        for (final SimpleInterval interval : intervals) {
+            intervalsByContig.computeIfAbsent(interval.getContig(), contig -> new ArrayList<>()).add(interval);
+        }
+        for (final Map.Entry<String, List<SimpleInterval>> entry : intervalsByContig.entrySet()) {
+            final List<SimpleInterval> contigIntervals = entry.getValue();
+            contigIntervals.sort(Comparator.comparingInt(SimpleInterval::getStart));
+
+            final List<SimpleInterval> merged = new ArrayList<>(contigIntervals.size());
+            SimpleInterval current = contigIntervals.get(0);
+            for (final SimpleInterval next : contigIntervals.subList(1, contigIntervals.size())) {
+                if (next.getStart() <= current.getEnd() + 1) {
+                    current = new SimpleInterval(current.getContig(), current.getStart(), Math.max(current.getEnd(), next.getEnd()));
+                } else {
+                    merged.add(current);
+                    current = next;
+                }
+            }
+            merged.add(current);
+            entry.setValue(merged);
+        }
+        expectedQueryIntervals = intervalsByContig;
+    }
+
     /**
      * Gets an iterator over all Features in this data source, restricting traversal to Features
      * overlapping our intervals if intervals were provided via {@link #setIntervalsForTraversal(List)}
@@ -597,8 +684,8 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
 
     /**
      * Refill our cache from disk after a cache miss. Will prefetch Features overlapping an additional
-     * queryLookaheadBases bases after the end of the provided interval, in addition to those overlapping
-     * the interval itself.
+     * (adaptive) number of lookahead bases after the end of the provided interval, in addition to those overlapping
+     * the interval itself. The lookahead is cut short if it would end in a gap between expected query intervals.
      * <p>
      * Calling this has the side effect of invalidating (closing) any currently-open iteration over
      * this data source.
@@ -610,22 +697,101 @@ public final class FeatureDataSource<T extends Feature> implements GATKDataSourc
         // results in undefined behavior
         closeOpenIterationIfNecessary();
 
-        // Expand the end of our query by the configured number of bases, in anticipation of probable future
+        // Expand the end of our query by the lookahead, in anticipation of probable future
         // queries with slightly larger start/stop positions.
         //
         // Note that it doesn't matter if we go off the end of the contig in the process, since
         // our reader's query operation is not aware of (and does not care about) contig boundaries.
         // Note: we use addExact to blow up on overflow rather than propagate negative results downstream
-        final SimpleInterval queryInterval = new SimpleInterval(interval.getContig(), interval.getStart(), Math.addExact(interval.getEnd(), queryLookaheadBases));
+        updateLookahead(interval);
+        final int queryEnd = trimToExpectedQueryIntervals(interval, Math.addExact(interval.getEnd(), currentLookaheadBases));
+        final SimpleInterval queryInterval = new SimpleInterval(interval.getContig(), interval.getStart(), queryEnd);
 
         // Query iterator over our reader will be immediately closed after re-populating our cache
         try (final CloseableTribbleIterator<T> queryIter = featureReader.query(queryInterval.getContig(), queryInterval.getStart(), queryInterval.getEnd())) {
-            queryCache.fill(queryIter, queryInterval);
+            lastRefillFeatureCount = queryCache.fill(queryIter, queryInterval);
+            lastRefillInterval = queryInterval;
         } catch (final IOException e) {
             throw new GATKException("Error querying file " + featureInput + " over interval " + interval, e);
         }
     }
 
+    /**
+     * Adapt the lookahead for a refill caused by a query over the provided interval. If the query starts at or
+     * shortly after the end of the previous refill, we are moving steadily along the genome and a larger
+     * lookahead will save refills, so double it (without exceeding the number of bases predicted to hold
+     * {@link #TARGET_FEATURES_PER_REFILL} Features). Otherwise, halve it, but never below the configured value.
+     *
+     * @param interval the query interval that produced a cache miss
+     */
+    private void updateLookahead(final Locatable interval) {
+        final boolean followsPreviousRefill = lastRefillInterval != null &&
+                lastRefillInterval.getContig().equals(interval.getContig()) &&
+                interval.getStart() >= lastRefillInterval.getStart() &&
+                interval.getStart() <= (long)lastRefillInterval.getEnd() + currentLookaheadBases;
+
+        if (followsPreviousRefill) {
+            long maxLookahead = Math.max(queryLookaheadBases, MAX_ADAPTIVE_QUERY_LOOKAHEAD_BASES);
+            if (lastRefillFeatureCount > 0) {
+                final long basesForTargetFeatures = (long)TARGET_FEATURES_PER_REFILL * lastRefillInterval.size() / lastRefillFeatureCount;
+                maxLookahead = Math.min(maxLookahead, Math.max(queryLookaheadBases, basesForTargetFeatures));
+            }
+            currentLookaheadBases = (int)Math.min(maxLookahead, 2L * currentLookaheadBases);
+        } else {
+            currentLookaheadBases = Math.max(queryLookaheadBases, currentLookaheadBases / 2);
+        }
+    }
+
+    /**
+     * If the end of a refill falls in a gap between expected query intervals, move it back to the configured
+     * {@link #queryLookaheadBases} past the end of the expected interval preceding the gap, or past the end of
+     * the query itself if that is later. Queries are often padded past the end of the interval they come from,
+     * so trimming right at the end of the interval would leave no lookahead for the next, similarly padded query.
+     *
+     * @param interval the query interval that produced a cache miss
+     * @param queryEnd the end of the refill, including lookahead
+     * @return the end to use for the refill
+     */
+    private int trimToExpectedQueryIntervals(final Locatable interval, final int queryEnd) {
+        final List<SimpleInterval> contigIntervals = expectedQueryIntervals == null ? null : expectedQueryIntervals.get(interval.getContig());
+        if (contigIntervals == null) {
+            return queryEnd;
+        }
+
+        // find the last expected interval starting at or before queryEnd
+        int low = 0;
+        int high = contigIntervals.size() - 1;
+        int preceding = -1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (contigIntervals.get(mid).getStart() <= queryEnd) {
+                preceding = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        final long neededEnd = preceding < 0 ? interval.getEnd() : Math.max(interval.getEnd(), contigIntervals.get(preceding).getEnd());
+        return (int)Math.min(queryEnd, neededEnd + queryLookaheadBases);
+    }
+
+    /**
+     * @return the number of lookahead bases that the next cache refill will start from
+     */
+    @VisibleForTesting
+    int getCurrentLookaheadBases() {
+        return currentLookaheadBases;
+    }
+
+    /**
+     * @return the interval queried on disk by the most recent cache refill, or null if there hasn't been one
+     */
+    @VisibleForTesting
+    SimpleInterval getLastRefillInterval() {
+        return lastRefillInterval;
+    }
+
     /**
      * Get the logical name of this data source.
      *
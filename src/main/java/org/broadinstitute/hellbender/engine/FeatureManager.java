@@ -342,13 +342,16 @@ public final class FeatureManager implements AutoCloseable {
      * FeatureManager was initialized with, or was not an @Argument-annotated field in the tool
      * (or parent classes).
      *
+     * Queries are serialized, so this method may be called from several threads (eg., by an
+     * {@link AssemblyRegionWalker} running with more than one region thread).
+     *
      * @param featureDescriptor FeatureInput argument from our tool representing the Feature source to query
      * @param interval interval to query over (returned Features will overlap this interval)
      * @param <T> type of Feature in the source represented by featureDescriptor
      * @return A List of all Features in the backing data source for the provided FeatureInput that overlap
      *         the provided interval (may be empty if there are none, but never null)
      */
-    public <T extends Feature> List<T> getFeatures( final FeatureInput<T> featureDescriptor, final Locatable interval ) {
+    public synchronized <T extends Feature> List<T> getFeatures( final FeatureInput<T> featureDescriptor, final Locatable interval ) {
         final FeatureDataSource<T> dataSource = lookupDataSource(featureDescriptor);
 
         // No danger of a ClassCastException here, since we verified that the FeatureDataSource for this
@@ -403,7 +406,7 @@ public final class FeatureManager implements AutoCloseable {
      * @param <T> type of Feature in our FeatureInput
      * @return header for the provided FeatureInput
      */
-    public <T extends Feature> Object getHeader( final FeatureInput<T> featureDescriptor ) {
+    public synchronized <T extends Feature> Object getHeader( final FeatureInput<T> featureDescriptor ) {
         final FeatureDataSource<T> dataSource = lookupDataSource(featureDescriptor);
         return dataSource.getHeader();
     }
@@ -541,6 +544,17 @@ public final class FeatureManager implements AutoCloseable {
         return Files.exists(file) && ! getCandidateCodecsForFile(file).isEmpty();
     }
 
+    /**
+     * Tells all of our data sources which intervals subsequent queries are expected to fall within, so that
+     * cache refills don't read Features from the gaps between them.
+     * See {@link FeatureDataSource#setExpectedQueryIntervals(List)}.
+     *
+     * @param intervals intervals that future queries are expected to fall within (null or empty to clear)
+     */
+    public synchronized void setExpectedQueryIntervals( final List<SimpleInterval> intervals ) {
+        featureSources.values().forEach(ds -> ds.setExpectedQueryIntervals(intervals));
+    }
+
     /**
      * Permanently closes this manager by closing all backing data sources
      */
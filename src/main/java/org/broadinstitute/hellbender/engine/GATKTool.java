@@ -16,6 +16,7 @@ import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.stream.Stream;
 
+import org.broadinstitute.barclay.argparser.Advanced;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.ArgumentCollection;
 import org.broadinstitute.barclay.argparser.CommandLinePluginDescriptor;
@@ -39,6 +40,10 @@ import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.config.ConfigFactory;
 import org.broadinstitute.hellbender.utils.config.GATKConfig;
+import org.broadinstitute.hellbender.utils.io.ParallelBlockCompressedInputStream;
+import org.broadinstitute.hellbender.utils.iterators.PrefetchingIterator;
+import org.broadinstitute.hellbender.utils.iterators.ReadFilteringIterator;
+import org.broadinstitute.hellbender.utils.iterators.ReadTransformingIterator;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.read.ReadUtils;
 import org.broadinstitute.hellbender.utils.read.SAMFileGATKReadWriter;
@@ -123,10 +128,66 @@ public abstract class GATKTool extends CommandLineProgram {
             optional = true)
     public boolean disableBamIndexCaching = false;
 
+    /**
+     * If greater than 0, reads are decoded, filtered and transformed on a background thread, up to this many batches
+     * of {@link #READ_PREFETCH_BATCH_SIZE} reads ahead of the tool. A summary of how often the tool had to wait for
+     * reads (or the background thread for the tool) is logged at the end of traversal, to help choose a value.
+     */
+    @Advanced
+    @Argument(fullName = StandardArgumentDefinitions.READ_PREFETCH_BATCHES_LONG_NAME,
+            doc = "Number of batches of reads to decode, filter and transform ahead of the tool on a background thread (0 to disable)",
+            optional = true, minValue = 0)
+    public int readPrefetchBatches = 0;
+
+    /**
+     * Number of reads in each batch handed over by the read prefetching thread.
+     */
+    public static final int READ_PREFETCH_BATCH_SIZE = 1000;
+
+    private final PrefetchingIterator.Statistics readPrefetchStatistics = new PrefetchingIterator.Statistics();
+
+    // prefetching iterators that may still be reading, closed at shutdown before the reads data source in case the
+    // traversal didn't close them (eg., because it failed)
+    private final List<PrefetchingIterator<GATKRead>> readPrefetchers = new ArrayList<>();
+
+    /**
+     * If greater than 0, the BGZF blocks of BAM inputs are inflated on this many background threads whenever all of
+     * their reads are traversed (ie., when no intervals are given), leaving only the decoding of the reads to the
+     * traversal. The amount of data inflated is reported by the progress meter. Traversals of intervals, and other
+     * input formats, are not affected.
+     */
+    @Advanced
+    @Argument(fullName = StandardArgumentDefinitions.READ_INFLATER_THREADS_LONG_NAME,
+            doc = "Number of threads to use for inflating BAM inputs during traversals of whole files (0 to inflate on the traversal thread)",
+            optional = true, minValue = 0)
+    public int readInflaterThreads = 0;
+
+    private final ParallelBlockCompressedInputStream.Statistics readInflationStatistics = new ParallelBlockCompressedInputStream.Statistics();
+
     @Argument(fullName = StandardArgumentDefinitions.SITES_ONLY_LONG_NAME,
             doc = "If true, don't emit genotype fields when writing vcf file output.", optional = true)
     public boolean outputSitesOnlyVCFs = false;
 
+    /**
+     * If true, variants added to the writers created by {@link #createVCFWriter(Path)} are encoded, compressed and indexed
+     * on a background thread, in the order in which they were added, so that the output is the same as when they are
+     * written on the calling thread.  Variants must not be modified after they are handed to such a writer.
+     */
+    @Advanced
+    @Argument(fullName = StandardArgumentDefinitions.ASYNC_VARIANT_OUTPUT_LONG_NAME,
+            doc = "If true, encode, compress and index variant output on a background thread", optional = true)
+    public boolean asyncVariantOutput = ConfigFactory.getInstance().getGATKConfig().samjdk_use_async_io_write_tribble();
+
+    /**
+     * If true, the reference is memory-mapped (see {@link ReferenceMappedSource}) rather than read through a single
+     * cached window, which helps tools that query positions scattered across the genome.  The reference must be an
+     * uncompressed fasta on a local filesystem.
+     */
+    @Advanced
+    @Argument(fullName = StandardArgumentDefinitions.MEMORY_MAP_REFERENCE_LONG_NAME,
+            doc = "If true, memory-map the reference instead of reading it through a cache (requires an uncompressed local fasta)", optional = true)
+    public boolean memoryMapReference = false;
+
     /**
      * Master sequence dictionary to be used instead of all other dictionaries (if provided).
      */
@@ -381,6 +442,13 @@ public abstract class GATKTool extends CommandLineProgram {
         if (hasReads()) {
             final ReadTransformer preTransformer = makePreReadFilterTransformer();
             final ReadTransformer postTransformer = makePostReadFilterTransformer();
+            if ( readPrefetchBatches > 0 ) {
+                // do the transforming and filtering on the prefetching thread as well
+                final Iterator<GATKRead> transformedReads = new ReadTransformingIterator(
+                        new ReadFilteringIterator(new ReadTransformingIterator(reads.iterator(), preTransformer), filter), postTransformer);
+                final PrefetchingIterator<GATKRead> prefetchedReads = startReadPrefetching(transformedReads);
+                return Utils.stream(prefetchedReads).onClose(prefetchedReads::close);
+            }
             return Utils.stream(reads)
                     .map(preTransformer)
                     .filter(filter)
@@ -390,6 +458,30 @@ public abstract class GATKTool extends CommandLineProgram {
         return Stream.empty();
     }
 
+    /**
+     * Wrap an iterator of reads so that it is consumed on a background thread, if read prefetching was requested
+     * with {@code --read-prefetch-batches}. The reads source backing {@code readIterator} must not be queried
+     * by anyone else until the returned iterator is exhausted or closed, and callers should close it once they are
+     * done with it, even if it is not exhausted.
+     *
+     * @param readIterator iterator of reads, with any filtering and transformation already applied
+     * @return {@code readIterator} itself if prefetching is disabled, otherwise a prefetching iterator over it,
+     *         which should be closed with {@link htsjdk.samtools.util.CloserUtil#close(Object)}
+     */
+    protected final Iterator<GATKRead> prefetchReads(final Iterator<GATKRead> readIterator) {
+        return readPrefetchBatches > 0 ? startReadPrefetching(readIterator) : readIterator;
+    }
+
+    private PrefetchingIterator<GATKRead> startReadPrefetching(final Iterator<GATKRead> readIterator) {
+        final PrefetchingIterator<GATKRead> prefetcher = new PrefetchingIterator<>(readIterator, READ_PREFETCH_BATCH_SIZE,
+                readPrefetchBatches, readPrefetchStatistics);
+        synchronized ( readPrefetchers ) {
+            readPrefetchers.removeIf(p -> ! p.isPrefetching());
+            readPrefetchers.add(prefetcher);
+        }
+        return prefetcher;
+    }
+
     /**
      * @return Default size in MB of the cloud prefetch buffer. May be overridden by individual tools.
      *         The default implementation returns a value (40 MB) that is suitable for tools with a small
@@ -436,7 +528,19 @@ public abstract class GATKTool extends CommandLineProgram {
      * May be overridden by traversals that require custom initialization of the reference data source.
      */
     void initializeReference() {
-        reference = referenceArguments.getReferencePath() != null ? ReferenceDataSource.of(referenceArguments.getReferencePath()) : null;
+        reference = referenceArguments.getReferencePath() != null ? openReference() : null;
+    }
+
+    /**
+     * Open a new data source over the reference provided on the command line, memory-mapped if requested with
+     * {@link #memoryMapReference}.  The caller is responsible for closing it.
+     *
+     * @return a new reference data source
+     */
+    protected final ReferenceDataSource openReference() {
+        Utils.nonNull(referenceArguments.getReferencePath(), "no reference was provided");
+        return memoryMapReference ? ReferenceDataSource.ofMemoryMapped(referenceArguments.getReferencePath())
+                : ReferenceDataSource.of(referenceArguments.getReferencePath());
     }
 
     /**
@@ -447,16 +551,30 @@ public abstract class GATKTool extends CommandLineProgram {
      */
     void initializeReads() {
         if (! readArguments.getReadPathSpecifiers().isEmpty()) {
-            final SamReaderFactory factory = makeSamReaderFactory();
-
-            reads = new ReadsPathDataSource(readArguments.getReadPaths(), readArguments.getReadIndexPaths(), factory, cloudPrefetchBuffer,
-                (cloudIndexPrefetchBuffer < 0 ? cloudPrefetchBuffer : cloudIndexPrefetchBuffer));
+            reads = openReads();
         }
         else {
             reads = null;
         }
     }
 
+    /**
+     * Open a new data source over the reads provided on the command line.  The caller is responsible for closing it.
+     *
+     * @return a new reads data source
+     */
+    protected final ReadsPathDataSource openReads() {
+        Utils.validate(! readArguments.getReadPathSpecifiers().isEmpty(), "no reads were provided");
+        final SamReaderFactory factory = makeSamReaderFactory();
+
+        final ReadsPathDataSource readsSource = new ReadsPathDataSource(readArguments.getReadPaths(), readArguments.getReadIndexPaths(), factory, cloudPrefetchBuffer,
+            (cloudIndexPrefetchBuffer < 0 ? cloudPrefetchBuffer : cloudIndexPrefetchBuffer));
+        if ( readInflaterThreads > 0 ) {
+            readsSource.enableParallelInflation(readInflaterThreads, readInflationStatistics);
+        }
+        return readsSource;
+    }
+
     protected final SamReaderFactory makeSamReaderFactory() {
         SamReaderFactory factory = SamReaderFactory.makeDefault().validationStringency(readArguments.getReadValidationStringency());
         if (hasReference()) { // pass in reference if available, because CRAM files need it
@@ -523,6 +641,12 @@ public abstract class GATKTool extends CommandLineProgram {
             }
 
             userIntervals = transformTraversalIntervals(intervalArgumentCollection.getIntervals(sequenceDictionary), sequenceDictionary);
+
+            // Feature queries made while traversing will mostly fall within these intervals, although padded queries
+            // (assembly region padding, read and reference context windows) can extend somewhat past their ends
+            if ( features != null ) {
+                features.setExpectedQueryIntervals(userIntervals);
+            }
         }
     }
 
@@ -742,6 +866,9 @@ public abstract class GATKTool extends CommandLineProgram {
     protected final void initializeProgressMeter(final String progressMeterRecordLabel) {
         progressMeter = new ProgressMeter(secondsBetweenProgressUpdates, disableProgressMeter());
         progressMeter.setRecordLabel(progressMeterRecordLabel);
+        if ( readInflaterThreads > 0 && hasReads() ) {
+            progressMeter.setDecodedBytesSupplier(readInflationStatistics::getUncompressedBytes);
+        }
     }
 
     /**
@@ -912,6 +1039,10 @@ public abstract class GATKTool extends CommandLineProgram {
             options.add(Options.DO_NOT_WRITE_GENOTYPES);
         }
 
+        if (asyncVariantOutput) {
+            options.add(Options.USE_ASYNC_IO);
+        }
+
         if (maxVariantsPerShard > 0) {
             return new ShardingVCFWriter(
                     outPath,
@@ -1037,6 +1168,12 @@ public abstract class GATKTool extends CommandLineProgram {
     protected void onShutdown() {
         super.onShutdown();
 
+        // stop any read prefetching before closing the data source it reads from
+        synchronized ( readPrefetchers ) {
+            readPrefetchers.forEach(PrefetchingIterator::close);
+            readPrefetchers.clear();
+        }
+
         if ( hasReference() ) {
             reference.close();
         }
@@ -1083,6 +1220,12 @@ public abstract class GATKTool extends CommandLineProgram {
             onTraversalStart();
             progressMeter.start();
             traverse();
+            if ( readPrefetchStatistics.getNumBatches() > 0 ) {
+                logger.info("Read prefetching: " + readPrefetchStatistics.getSummaryLine());
+            }
+            if ( readInflationStatistics.getCompressedBytes() > 0 ) {
+                logger.info("Read inflation: " + readInflationStatistics.getSummaryLine());
+            }
             if (!progressMeter.stopped()) {
                 progressMeter.stop();
             }
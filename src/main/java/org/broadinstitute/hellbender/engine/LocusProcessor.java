@@ -0,0 +1,33 @@
+package org.broadinstitute.hellbender.engine;
+
+/**
+ * Per-thread processor of loci, used by a {@link LocusWalker} when it runs with more than one locus thread
+ * (see {@link LocusWalker#makeLocusProcessor()}).
+ *
+ * Each worker thread has exclusive use of one processor, so implementations may hold state that is not thread-safe.
+ * {@link #process} runs on a worker thread, and the {@link Runnable} it returns is run later on the traversal thread,
+ * in the genomic order of the loci. Output (eg., writing to a file, or adding to a collection that is written at the
+ * end of traversal) must therefore happen in the returned {@link Runnable} rather than in {@link #process} itself.
+ */
+public interface LocusProcessor extends AutoCloseable {
+
+    /**
+     * Process a single locus on a worker thread.
+     *
+     * @param alignmentContext current alignment context
+     * @param referenceContext reference bases spanning the current locus
+     * @param featureContext features spanning the current locus
+     * @return the work to be done on the traversal thread once all previous loci have been completed,
+     *         or {@code null} if there is nothing to do for this locus
+     */
+    Runnable process( final AlignmentContext alignmentContext, final ReferenceContext referenceContext, final FeatureContext featureContext );
+
+    /**
+     * Release any resources held by this processor. Called on the traversal thread once traversal is over.
+     * The default implementation does nothing.
+     */
+    @Override
+    default void close() {
+        //do nothing
+    }
+}
@@ -2,6 +2,7 @@ package org.broadinstitute.hellbender.engine;
 
 import htsjdk.samtools.SAMFileHeader;
 import htsjdk.samtools.SAMReadGroupRecord;
+import org.broadinstitute.barclay.argparser.Advanced;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.hellbender.engine.filters.CountingReadFilter;
@@ -9,7 +10,11 @@ import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilterLibrary;
 import org.broadinstitute.hellbender.engine.filters.WellformedReadFilter;
 import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.transformers.ReadTransformer;
+import org.broadinstitute.hellbender.utils.IntervalUtils;
+import org.broadinstitute.hellbender.utils.OrderedWorkerPool;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.locusiterator.AlignmentContextIteratorBuilder;
 import org.broadinstitute.hellbender.utils.locusiterator.LIBSDownsamplingInfo;
 import org.broadinstitute.hellbender.utils.locusiterator.LocusIteratorByState;
@@ -35,6 +40,11 @@ import java.util.stream.Collectors;
  * LocusWalker authors must implement the apply() method to process each position, and may optionally implement
  * onTraversalStart(), onTraversalSuccess() and/or closeTool().
  *
+ * Tools that implement {@link #makeLocusProcessor} can additionally be run with {@code --locus-threads} greater than 1,
+ * in which case the traversal intervals are split into contiguous chunks that are processed concurrently, each with its
+ * own reads, reference and Feature data sources, by a pool of per-thread {@link LocusProcessor}s instead of by
+ * {@link #apply}. The results of each locus are completed in genomic order.
+ *
  * @author Daniel Gomez-Sanchez (magicDGS)
  */
 public abstract class LocusWalker extends WalkerBase {
@@ -43,6 +53,30 @@ public abstract class LocusWalker extends WalkerBase {
     @Argument(fullName = MAX_DEPTH_PER_SAMPLE_NAME, shortName = MAX_DEPTH_PER_SAMPLE_NAME, doc = "Maximum number of reads to retain per sample per locus. Reads above this threshold will be downsampled. Set to 0 to disable.", optional = true)
     protected int maxDepthPerSample = defaultMaxDepthPerSample();
 
+    public static final String LOCUS_THREADS_LONG_NAME = "locus-threads";
+    public static final String LOCUS_CHUNK_SIZE_LONG_NAME = "locus-chunk-size";
+
+    /**
+     * Number of threads used to process loci. The traversal intervals (or the whole sequence dictionary, if no intervals
+     * were given) are split into chunks of {@link #locusChunkSize} bases, and each chunk is read and processed by one
+     * thread with its own reads, reference and Feature data sources, while the output is completed in genomic order.
+     * Reads that span a chunk boundary are read (and counted by the read filters) once for each chunk they overlap.
+     * Results match a single-threaded run, except when downsampling with {@link #MAX_DEPTH_PER_SAMPLE_NAME}, since
+     * reads are then downsampled separately within each chunk. Only tools that provide a per-thread
+     * {@link LocusProcessor} support values greater than 1.
+     */
+    @Advanced
+    @Argument(fullName = LOCUS_THREADS_LONG_NAME, doc = "Number of threads to use for processing loci", optional = true, minValue = 1)
+    public int locusThreads = 1;
+
+    /**
+     * Number of bases of the traversal intervals handed to a locus thread at a time when {@link #locusThreads} is greater
+     * than 1. The output of a chunk is held in memory until all previous chunks have been completed.
+     */
+    @Advanced
+    @Argument(fullName = LOCUS_CHUNK_SIZE_LONG_NAME, doc = "Number of bases handed to a locus thread at a time", optional = true, minValue = 1)
+    public int locusChunkSize = 100_000;
+
     /**
      * Should the LIBS keep unique reads? Tools that do should override to return {@code true}.
      */
@@ -50,6 +84,16 @@ public abstract class LocusWalker extends WalkerBase {
         return false;
     }
 
+    /**
+     * Should the pileups be held in reusable {@link org.broadinstitute.hellbender.utils.pileup.ReusablePileupView}s
+     * rather than in new {@link org.broadinstitute.hellbender.utils.pileup.ReadPileup}s at every locus? Tools that
+     * only look at each pileup within {@link #apply} (or {@link LocusProcessor#process}), through
+     * {@link AlignmentContext#getPileupView()}, should override to return {@code true}.
+     */
+    protected boolean useReusablePileupViews() {
+        return false;
+    }
+
     /**
      * LocusWalkers requires read sources
      */
@@ -153,6 +197,11 @@ public abstract class LocusWalker extends WalkerBase {
      */
     @Override
     public void traverse() {
+        if ( locusThreads > 1 ) {
+            traverseChunksConcurrently();
+            return;
+        }
+
         final CountingReadFilter countedFilter = makeReadFilter();
         final Iterator<AlignmentContext> iterator = getAlignmentContextIterator(countedFilter);
 
@@ -181,18 +230,191 @@ public abstract class LocusWalker extends WalkerBase {
         // get the filter and transformed iterator
         final Iterator<GATKRead> readIterator = getTransformedReadStream(readFilterToUse).iterator();
 
+        return makeAlignmentContextIterator(readIterator, userIntervals);
+    }
+
+    /**
+     * Create an AlignmentContext Iterator over the given (filtered and transformed) reads, configured for this walker.
+     *
+     * @param readIterator reads to pile up
+     * @param intervals intervals to restrict the loci to, or {@code null} for no restriction
+     */
+    private Iterator<AlignmentContext> makeAlignmentContextIterator(final Iterator<GATKRead> readIterator, final List<SimpleInterval> intervals) {
+        final SAMFileHeader header = getHeaderForReads();
         final AlignmentContextIteratorBuilder alignmentContextIteratorBuilder = new AlignmentContextIteratorBuilder();
         alignmentContextIteratorBuilder.setDownsamplingInfo(getDownsamplingInfo());
         alignmentContextIteratorBuilder.setEmitEmptyLoci(emitEmptyLoci());
         alignmentContextIteratorBuilder.setIncludeDeletions(includeDeletions());
         alignmentContextIteratorBuilder.setKeepUniqueReadListInLibs(keepUniqueReadListInLibs());
         alignmentContextIteratorBuilder.setIncludeNs(includeNs());
+        alignmentContextIteratorBuilder.setUseReusablePileupViews(useReusablePileupViews());
 
         return alignmentContextIteratorBuilder.build(
-                readIterator, header, userIntervals, getBestAvailableSequenceDictionary(),
+                readIterator, header, intervals, getBestAvailableSequenceDictionary(),
                 hasReference());
     }
 
+    /**
+     * Traverse the loci with {@link #locusThreads} threads, processing one chunk of the traversal intervals at a time
+     * on each thread, and completing the results on this thread in genomic order.
+     */
+    private void traverseChunksConcurrently() {
+        final List<LocusWorker> workers = makeLocusWorkers();
+        final List<SimpleInterval> traversalIntervals = hasUserSuppliedIntervals() ? userIntervals
+                : IntervalUtils.getAllIntervalsForReference(getBestAvailableSequenceDictionary());
+
+        logger.info("Processing loci using " + locusThreads + " threads");
+        // Keep enough chunks in flight that a slow chunk doesn't leave the other threads idle, while bounding
+        // the amount of output held in memory at once
+        try ( final OrderedWorkerPool<LocusWorker> workerPool = new OrderedWorkerPool<>(workers, 2 * locusThreads, "locus-thread-%d") ) {
+            for ( final List<SimpleInterval> chunk : makeLocusChunks(traversalIntervals, locusChunkSize) ) {
+                workerPool.submit(worker -> worker.processChunk(chunk));
+            }
+            workerPool.drain();
+        } finally {
+            workers.forEach(LocusWorker::close);
+        }
+
+        logger.info(workers.stream().mapToLong(worker -> worker.readFilter.getFilteredCount()).sum() +
+                " read(s) filtered (reads spanning several chunks are counted once per chunk)");
+    }
+
+    /**
+     * Create one {@link LocusWorker} per locus thread.
+     */
+    private List<LocusWorker> makeLocusWorkers() {
+        final List<LocusProcessor> processors = new ArrayList<>(locusThreads);
+        for ( int i = 0; i < locusThreads; i++ ) {
+            final LocusProcessor processor = makeLocusProcessor();
+            if ( processor == null ) {
+                processors.forEach(LocusProcessor::close);
+                throw new CommandLineException.BadArgumentValue(LOCUS_THREADS_LONG_NAME, String.valueOf(locusThreads),
+                        getClass().getSimpleName() + " does not support multithreaded locus processing");
+            }
+            processors.add(processor);
+        }
+        return processors.stream().map(LocusWorker::new).collect(Collectors.toList());
+    }
+
+    /**
+     * Split sorted, non-overlapping intervals into consecutive chunks covering {@code basesPerChunk} bases each
+     * (except for the last one). Intervals are split across chunks where necessary, and short intervals are
+     * grouped together.
+     *
+     * @param intervals sorted, non-overlapping intervals
+     * @param basesPerChunk number of bases in each chunk
+     * @return the chunks, in order
+     */
+    static List<List<SimpleInterval>> makeLocusChunks(final List<SimpleInterval> intervals, final int basesPerChunk) {
+        Utils.nonNull(intervals);
+        Utils.validateArg(basesPerChunk > 0, "basesPerChunk must be positive");
+
+        final List<List<SimpleInterval>> chunks = new ArrayList<>();
+        List<SimpleInterval> chunk = new ArrayList<>();
+        int chunkBases = 0;
+        for ( final SimpleInterval interval : intervals ) {
+            int start = interval.getStart();
+            while ( start <= interval.getEnd() ) {
+                final int end = (int)Math.min(interval.getEnd(), (long)start + (basesPerChunk - chunkBases) - 1);
+                chunk.add(new SimpleInterval(interval.getContig(), start, end));
+                chunkBases += end - start + 1;
+                if ( chunkBases == basesPerChunk ) {
+                    chunks.add(chunk);
+                    chunk = new ArrayList<>();
+                    chunkBases = 0;
+                }
+                start = end + 1;
+            }
+        }
+        if ( ! chunk.isEmpty() ) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * A {@link LocusProcessor}, along with the data sources and read filter/transformers it reads with, for the
+     * exclusive use of one locus thread.
+     */
+    private final class LocusWorker implements AutoCloseable {
+        private final LocusProcessor processor;
+        private final ReadsPathDataSource readsSource;
+        private final ReferenceDataSource referenceSource;
+        private final FeatureManager featureManager;
+        private final CountingReadFilter readFilter;
+        private final ReadTransformer preReadFilterTransformer;
+        private final ReadTransformer postReadFilterTransformer;
+
+        private LocusWorker( final LocusProcessor processor ) {
+            this.processor = processor;
+            readsSource = openReads();
+            // a memory-mapped reference can be queried by all threads at once
+            referenceSource = ! hasReference() ? null : reference instanceof ReferenceMappedSource ? reference : openReference();
+            if ( features != null ) {
+                featureManager = new FeatureManager(LocusWalker.this, FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES,
+                        cloudPrefetchBuffer, cloudIndexPrefetchBuffer, getGenomicsDBOptions());
+                featureManager.setExpectedQueryIntervals(userIntervals);
+            } else {
+                featureManager = null;
+            }
+            readFilter = makeReadFilter();
+            preReadFilterTransformer = makePreReadFilterTransformer();
+            postReadFilterTransformer = makePostReadFilterTransformer();
+        }
+
+        /**
+         * Process all loci within a chunk of the traversal intervals.
+         *
+         * @param chunk sorted, non-overlapping intervals
+         * @return the completion of the chunk, which runs the completions of its loci in order
+         */
+        private Runnable processChunk( final List<SimpleInterval> chunk ) {
+            readsSource.setTraversalBounds(chunk, false);
+            final Iterator<GATKRead> readIterator = Utils.stream(readsSource)
+                    .map(preReadFilterTransformer)
+                    .filter(readFilter)
+                    .map(postReadFilterTransformer)
+                    .iterator();
+            final Iterator<AlignmentContext> iterator = makeAlignmentContextIterator(readIterator, chunk);
+
+            final List<Runnable> completions = new ArrayList<>();
+            SimpleInterval lastLocus = null;
+            long numLoci = 0;
+            while ( iterator.hasNext() ) {
+                final AlignmentContext alignmentContext = iterator.next();
+                final SimpleInterval alignmentInterval = new SimpleInterval(alignmentContext);
+                final Runnable completion = processor.process(alignmentContext, new ReferenceContext(referenceSource, alignmentInterval),
+                        new FeatureContext(featureManager, alignmentInterval));
+                if ( completion != null ) {
+                    completions.add(completion);
+                }
+                lastLocus = alignmentInterval;
+                numLoci++;
+            }
+
+            final SimpleInterval chunkLastLocus = lastLocus;
+            final long chunkNumLoci = numLoci;
+            return () -> {
+                completions.forEach(Runnable::run);
+                if ( chunkLastLocus != null ) {
+                    progressMeter.update(chunkLastLocus, chunkNumLoci);
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            processor.close();
+            readsSource.close();
+            if ( referenceSource != null && referenceSource != reference ) {
+                referenceSource.close();
+            }
+            if ( featureManager != null ) {
+                featureManager.close();
+            }
+        }
+    }
+
     /**
      * Process an individual AlignmentContext (with optional contextual information). Must be implemented by tool authors.
      * In general, tool authors should simply stream their output from apply(), and maintain as little internal state
@@ -209,6 +431,22 @@ public abstract class LocusWalker extends WalkerBase {
      */
     public abstract void apply(AlignmentContext alignmentContext, ReferenceContext referenceContext, FeatureContext featureContext);
 
+    /**
+     * Create a new, independent processor for loci, to be used exclusively by one thread when the tool is run with
+     * {@code --locus-threads} greater than 1. In that mode loci are passed to these processors instead of to
+     * {@link #apply}. Called once per locus thread, after {@link #onTraversalStart}.
+     *
+     * The default implementation returns {@code null}, indicating that the tool does not support multithreaded
+     * locus processing. Tools that override this must not share mutable state between processors, and must
+     * only write output (or update state shared with the rest of the tool) from the {@link Runnable} returned by
+     * {@link LocusProcessor#process}.
+     *
+     * @return a new processor, or {@code null} if multithreaded locus processing is not supported by this tool
+     */
+    protected LocusProcessor makeLocusProcessor() {
+        return null;
+    }
+
     /**
      * Marked final so that tool authors don't override it. Tool authors should override onTraversalSuccess() instead.
      */
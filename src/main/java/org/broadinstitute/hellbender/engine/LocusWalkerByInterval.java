@@ -5,6 +5,7 @@ import htsjdk.samtools.SAMReadGroupRecord;
 import htsjdk.samtools.util.Locatable;
 import htsjdk.samtools.util.OverlapDetector;
 import org.apache.commons.collections4.SetUtils;
+import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.hellbender.engine.filters.CountingReadFilter;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.locusiterator.AlignmentContextIteratorBuilder;
@@ -40,9 +41,16 @@ public abstract class LocusWalkerByInterval extends LocusWalker {
      * global overlaps detector for all of the intervals which is used by the {@link #apply(AlignmentContext, ReferenceContext, FeatureContext)}
      * method to track which locatable still have active hooks. This method also makes sure to close out the list of previous intervals
      * when traversal has completed so that writers can be populated.
+     *
+     * Intervals are opened and closed in the order of the loci, so loci are always processed on a single thread.
      */
     @Override
     public void traverse() {
+        if ( locusThreads > 1 ) {
+            throw new CommandLineException.BadArgumentValue(LOCUS_THREADS_LONG_NAME, String.valueOf(locusThreads),
+                    getClass().getSimpleName() + " does not support multithreaded locus processing");
+        }
+
         final CountingReadFilter countedFilter = makeReadFilter();
         final Iterator<AlignmentContext> iterator = getAlignmentContextIterator(countedFilter);
 
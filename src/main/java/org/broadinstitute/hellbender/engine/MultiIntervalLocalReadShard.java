@@ -1,5 +1,6 @@
 package org.broadinstitute.hellbender.engine;
 
+import htsjdk.samtools.util.CloserUtil;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.transformers.ReadTransformer;
 import org.broadinstitute.hellbender.utils.IntervalUtils;
@@ -12,6 +13,7 @@ import org.broadinstitute.hellbender.utils.iterators.ReadTransformingIterator;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 
 import java.util.*;
+import java.util.function.UnaryOperator;
 
 /**
  * A class to represent shards of read data spanning multiple intervals.
@@ -26,7 +28,7 @@ import java.util.*;
  * This avoids the problem of decompressing the same file regions multiple times for
  * intervals that are close together, and is critical for performance!
  */
-public final class MultiIntervalLocalReadShard implements MultiIntervalShard<GATKRead> {
+public final class MultiIntervalLocalReadShard implements MultiIntervalShard<GATKRead>, AutoCloseable {
 
     private final List<SimpleInterval> intervals;
     private final List<SimpleInterval> paddedIntervals;
@@ -36,6 +38,8 @@ public final class MultiIntervalLocalReadShard implements MultiIntervalShard<GAT
     private ReadFilter readFilter;
     private ReadTransformer postReadFilterTransformer;
     private ReadsDownsampler downsampler;
+    private UnaryOperator<Iterator<GATKRead>> readPrefetcher;
+    private Iterator<GATKRead> prefetchedReads;
 
     /**
      * Create a new MultiIntervalLocalReadShard spanning the given intervals, with each interval expanded
@@ -120,6 +124,19 @@ public final class MultiIntervalLocalReadShard implements MultiIntervalShard<GAT
         postReadFilterTransformer = transformer;
     }
 
+    /**
+     * Reads in this shard will be passed through the provided function after all filtering, transformation and
+     * downsampling, typically to decode and process them ahead of the consumer on a background thread
+     * (see {@link GATKTool#prefetchReads}).
+     *
+     * Any background work started by the prefetcher is stopped by {@link #close}, or by the next call to {@link #iterator}.
+     *
+     * @param prefetcher function that wraps the final iterator over this shard's reads
+     */
+    public void setReadPrefetcher(final UnaryOperator<Iterator<GATKRead>> prefetcher) {
+        readPrefetcher = prefetcher;
+    }
+
     /**
      * @return an iterator over reads in this shard, as filtered using the configured read filter
      *         and downsampled using the configured downsampler; reads are lazily loaded rather than pre-loaded
@@ -128,6 +145,9 @@ public final class MultiIntervalLocalReadShard implements MultiIntervalShard<GAT
      */
     @Override
     public Iterator<GATKRead> iterator() {
+        // the reads source supports only one iteration at a time
+        close();
+
         // Query all intervals in this shard at once. This is critical for performance, to avoid
         // decompressing the same blocks multiple times for intervals that are close together!
         readsSource.setTraversalBounds(paddedIntervals);
@@ -149,7 +169,24 @@ public final class MultiIntervalLocalReadShard implements MultiIntervalShard<GAT
             readsIterator = new ReadsDownsamplingIterator(readsIterator, downsampler);
         }
 
+        if ( readPrefetcher != null ) {
+            readsIterator = readPrefetcher.apply(readsIterator);
+            prefetchedReads = readsIterator;
+        }
+
         return readsIterator;
     }
+
+    /**
+     * Stop any read prefetching started by the last call to {@link #iterator}, so that the reads source may be
+     * queried again or closed. The shard may still be iterated over again afterwards.
+     */
+    @Override
+    public void close() {
+        if ( prefetchedReads != null ) {
+            CloserUtil.close(prefetchedReads);
+            prefetchedReads = null;
+        }
+    }
 }
 
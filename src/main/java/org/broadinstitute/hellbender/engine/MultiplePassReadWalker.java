@@ -5,6 +5,8 @@ import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 
+import java.util.stream.Stream;
+
 /**
  * A MultiplePassReadWalker traverses input reads multiple times. To use this class, implement the
  * method {@link #traverseReads()}, calling {@link #forEachRead(GATKReadConsumer)} with a
@@ -55,14 +57,16 @@ public abstract class MultiplePassReadWalker extends ReadWalker {
             logger.info(String.format("Starting traversal pass %d", passCount));
         }
 
-        getTransformedReadStream(countedFilter).forEach( read -> {
-            final SimpleInterval readInterval = getReadInterval(read);
-            readHandler.consume(
-                    read,
-                    new ReferenceContext(reference, readInterval), // will be empty if reference or readInterval is null
-                    new FeatureContext(features, readInterval));   // will be empty if features or readInterval is null
-            progressMeter.update(readInterval);
-        });
+        try ( final Stream<GATKRead> readStream = getTransformedReadStream(countedFilter) ) {
+            readStream.forEach( read -> {
+                final SimpleInterval readInterval = getReadInterval(read);
+                readHandler.consume(
+                        read,
+                        new ReferenceContext(reference, readInterval), // will be empty if reference or readInterval is null
+                        new FeatureContext(features, readInterval));   // will be empty if features or readInterval is null
+                progressMeter.update(readInterval);
+            });
+        }
 
         logger.info(countedFilter.getSummaryLine());
         passCount++;
@@ -52,6 +52,11 @@ public final class ProgressMeter {
      */
     public static final long MILLISECONDS_PER_MINUTE = MILLISECONDS_PER_SECOND * 60L;
 
+    /**
+     * Number of bytes in a MB, as reported for decoded input
+     */
+    private static final double BYTES_PER_MB = 1e6;
+
     /**
      * Default label for records in logger messages. For display purposes only.
      */
@@ -131,6 +136,12 @@ public final class ProgressMeter {
      */
     private String recordLabel = DEFAULT_RECORD_LABEL;
 
+    /**
+     * If not null, returns the number of bytes of input decoded so far (eg., inflated from compressed files),
+     * which is reported alongside the number of records. See {@link #setDecodedBytesSupplier}.
+     */
+    private LongSupplier decodedBytesSupplier = null;
+
     /**
      * Create a progress meter with the default update interval of {@link #DEFAULT_SECONDS_BETWEEN_UPDATES} seconds
      * and the default time function {@link #DEFAULT_TIME_FUNCTION}.
@@ -215,6 +226,18 @@ public final class ProgressMeter {
         this.recordLabel = label;
     }
 
+    /**
+     * Also report how much input has been decoded, and how fast, in each progress line. Must be called before {@link #start}.
+     *
+     * @param decodedBytesSupplier returns the number of bytes of input decoded so far; must be thread-safe if
+     *                             decoding happens on other threads. Not null.
+     */
+    public void setDecodedBytesSupplier( final LongSupplier decodedBytesSupplier ) {
+        Utils.nonNull(decodedBytesSupplier);
+        Utils.validate( !started, "the progress meter has been started already");
+        this.decodedBytesSupplier = decodedBytesSupplier;
+    }
+
     /**
      * Start the progress meter and produce preliminary output such as column headings.
      * @throws IllegalStateException if the meter has been started before or has been stopped already
@@ -307,16 +330,20 @@ public final class ProgressMeter {
         // Output progress a final time at the end
         printProgress();
         logger.info(String.format("Traversal complete. Processed %d total %s in %.1f minutes.", numRecordsProcessed, recordLabel, elapsedTimeInMinutes()));
+        if ( decodedBytesSupplier != null ) {
+            logger.info(String.format("Decoded %.1f MB of input.", decodedBytesSupplier.getAsLong() / BYTES_PER_MB));
+        }
     }
 
     /**
      * Print column headings labelling the output from {@link #printProgress}
      */
     private void printHeader() {
-        logger.info(String.format("%20s  %15s  %20s  %15s",
+        final String header = String.format("%20s  %15s  %20s  %15s",
                                   "Current Locus", "Elapsed Minutes",
                                   StringUtils.capitalize(recordLabel) + " Processed",
-                                  StringUtils.capitalize(recordLabel) + "/Minute"));
+                                  StringUtils.capitalize(recordLabel) + "/Minute");
+        logger.info(decodedBytesSupplier == null ? header : header + String.format("  %17s", "Decoded MB/Minute"));
     }
 
     /**
@@ -324,8 +351,9 @@ public final class ProgressMeter {
      */
     private void printProgress() {
         ++numLoggerUpdates;
-        logger.info(String.format("%20s  %15.1f  %20d  %15.1f",
-                                  currentLocusString(), elapsedTimeInMinutes(), numRecordsProcessed, processingRate()));
+        final String progress = String.format("%20s  %15.1f  %20d  %15.1f",
+                                  currentLocusString(), elapsedTimeInMinutes(), numRecordsProcessed, processingRate());
+        logger.info(decodedBytesSupplier == null ? progress : progress + String.format("  %17.1f", decodingRate()));
     }
 
     /**
@@ -361,6 +389,17 @@ public final class ProgressMeter {
         return numRecordsProcessed / elapsedTimeInMinutes();
     }
 
+    /**
+     * @return number of MB of input we're decoding per minute, on average (only valid if we have a {@link #decodedBytesSupplier})
+     *
+     * This is only accurate at set polling intervals and should not be
+     * called directly except in tests.
+     */
+    @VisibleForTesting
+    double decodingRate() {
+        return decodedBytesSupplier.getAsLong() / BYTES_PER_MB / elapsedTimeInMinutes();
+    }
+
     /**
      * @return number of times we've outputted a progress line to the logger (for unit testing purposes)
      */
@@ -0,0 +1,35 @@
+package org.broadinstitute.hellbender.engine;
+
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+
+/**
+ * Per-thread processor of reads, used by a {@link ReadWalker} when it runs with more than one read thread
+ * (see {@link ReadWalker#makeReadProcessor()}).
+ *
+ * Each worker thread has exclusive use of one processor, so implementations may hold state that is not thread-safe.
+ * {@link #process} runs on a worker thread, and the {@link Runnable} it returns is run later on the traversal thread,
+ * in the order of the input reads. Output (eg., writing reads to a {@link org.broadinstitute.hellbender.utils.read.GATKReadWriter})
+ * must therefore happen in the returned {@link Runnable} rather than in {@link #process} itself.
+ */
+public interface ReadProcessor extends AutoCloseable {
+
+    /**
+     * Process a single read on a worker thread.
+     *
+     * @param read current read, after filtering and transformation
+     * @param referenceContext reference bases spanning the current read
+     * @param featureContext features spanning the current read
+     * @return the work to be done on the traversal thread once all previous reads have been completed,
+     *         or {@code null} if there is nothing to do for this read
+     */
+    Runnable process( final GATKRead read, final ReferenceContext referenceContext, final FeatureContext featureContext );
+
+    /**
+     * Release any resources held by this processor. Called on the traversal thread once traversal is over.
+     * The default implementation does nothing.
+     */
+    @Override
+    default void close() {
+        //do nothing
+    }
+}
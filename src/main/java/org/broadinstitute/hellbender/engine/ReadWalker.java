@@ -1,14 +1,27 @@
 package org.broadinstitute.hellbender.engine;
 
+import com.google.common.collect.Iterators;
 import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.util.CloserUtil;
+import org.broadinstitute.barclay.argparser.Advanced;
+import org.broadinstitute.barclay.argparser.Argument;
+import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.hellbender.engine.filters.CountingReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.engine.filters.WellformedReadFilter;
+import org.broadinstitute.hellbender.transformers.ReadTransformer;
+import org.broadinstitute.hellbender.utils.OrderedWorkerPool;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.iterators.ReadFilteringIterator;
+import org.broadinstitute.hellbender.utils.iterators.ReadTransformingIterator;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * A ReadWalker is a tool that processes a single read at a time from one or multiple sources of reads, with
@@ -27,6 +40,28 @@ import java.util.List;
  */
 public abstract class ReadWalker extends WalkerBase {
 
+    public static final String READ_THREADS_LONG_NAME = "read-threads";
+    public static final String READ_BATCH_SIZE_LONG_NAME = "read-batch-size";
+
+    /**
+     * Number of threads used to process reads. Reads are transformed with {@link #makePreReadFilterTransformer()} and
+     * filtered on the traversal thread, then handed out in batches of {@link #readBatchSize} to the read threads,
+     * which apply {@link #makePostReadFilterTransformer()} and process them with their own reference and Feature
+     * data sources, while the output is completed in the order of the input reads. Only tools that provide a
+     * per-thread {@link ReadProcessor} support values greater than 1.
+     */
+    @Advanced
+    @Argument(fullName = READ_THREADS_LONG_NAME, doc = "Number of threads to use for processing reads", optional = true, minValue = 1)
+    public int readThreads = 1;
+
+    /**
+     * Number of reads handed to a read thread at a time when {@link #readThreads} is greater than 1.
+     * The output of a batch is held in memory until all previous batches have been completed.
+     */
+    @Advanced
+    @Argument(fullName = READ_BATCH_SIZE_LONG_NAME, doc = "Number of reads handed to a read thread at a time", optional = true, minValue = 1)
+    public int readBatchSize = 1_000;
+
     @Override
     public boolean requiresReads() {
         return true;
@@ -91,22 +126,138 @@ public abstract class ReadWalker extends WalkerBase {
      */
     @Override
     public void traverse() {
+        if ( readThreads > 1 ) {
+            traverseBatchesConcurrently();
+            return;
+        }
+
         // Process each read in the input stream.
         // Supply reference bases spanning each read, if a reference is available.
         final CountingReadFilter countedFilter = makeReadFilter();
-        getTransformedReadStream(countedFilter)
-                .forEach(read -> {
-                    final SimpleInterval readInterval = getReadInterval(read);
-                    apply(read,
-                          new ReferenceContext(reference, readInterval), // Will create an empty ReferenceContext if reference or readInterval == null
-                          new FeatureContext(features, readInterval));   // Will create an empty FeatureContext if features or readInterval == null
+        try ( final Stream<GATKRead> readStream = getTransformedReadStream(countedFilter) ) {
+            readStream.forEach(read -> {
+                final SimpleInterval readInterval = getReadInterval(read);
+                apply(read,
+                      new ReferenceContext(reference, readInterval), // Will create an empty ReferenceContext if reference or readInterval == null
+                      new FeatureContext(features, readInterval));   // Will create an empty FeatureContext if features or readInterval == null
 
-                    progressMeter.update(readInterval);
-                });
+                progressMeter.update(readInterval);
+            });
+        }
 
         logger.info(countedFilter.getSummaryLine());
     }
 
+    /**
+     * Traverse the reads with {@link #readThreads} threads, processing one batch of reads at a time on each thread,
+     * and completing the results on this thread in the order of the input reads.
+     */
+    private void traverseBatchesConcurrently() {
+        final List<ReadWorker> workers = makeReadWorkers();
+        final CountingReadFilter countedFilter = makeReadFilter();
+
+        logger.info("Processing reads using " + readThreads + " threads");
+        // Keep enough batches in flight that a slow batch doesn't leave the other threads idle, while bounding
+        // the number of reads held in memory at once
+        Iterator<GATKRead> filteredReads = null;
+        try ( final OrderedWorkerPool<ReadWorker> workerPool = new OrderedWorkerPool<>(workers, 2 * readThreads, "read-thread-%d") ) {
+            // the post-filter transformation is done by the read threads, since it is often expensive (eg., BQSR)
+            filteredReads = prefetchReads(new ReadFilteringIterator(
+                    new ReadTransformingIterator(reads.iterator(), makePreReadFilterTransformer()), countedFilter));
+            Iterators.partition(filteredReads, readBatchSize)
+                    .forEachRemaining(batch -> workerPool.submit(worker -> worker.processBatch(batch)));
+            workerPool.drain();
+        } finally {
+            // stop any prefetching before the reads source is closed
+            if ( filteredReads != null ) {
+                CloserUtil.close(filteredReads);
+            }
+            workers.forEach(ReadWorker::close);
+        }
+
+        logger.info(countedFilter.getSummaryLine());
+    }
+
+    /**
+     * Create one {@link ReadWorker} per read thread.
+     */
+    private List<ReadWorker> makeReadWorkers() {
+        final List<ReadProcessor> processors = new ArrayList<>(readThreads);
+        for ( int i = 0; i < readThreads; i++ ) {
+            final ReadProcessor processor = makeReadProcessor();
+            if ( processor == null ) {
+                processors.forEach(ReadProcessor::close);
+                throw new CommandLineException.BadArgumentValue(READ_THREADS_LONG_NAME, String.valueOf(readThreads),
+                        getClass().getSimpleName() + " does not support multithreaded read processing");
+            }
+            processors.add(processor);
+        }
+        return processors.stream().map(ReadWorker::new).collect(Collectors.toList());
+    }
+
+    /**
+     * A {@link ReadProcessor}, along with the data sources and post-filter transformer it works with, for the
+     * exclusive use of one read thread.
+     */
+    private final class ReadWorker implements AutoCloseable {
+        private final ReadProcessor processor;
+        private final ReferenceDataSource referenceSource;
+        private final FeatureManager featureManager;
+        private final ReadTransformer postReadFilterTransformer;
+
+        private ReadWorker( final ReadProcessor processor ) {
+            this.processor = processor;
+            // a memory-mapped reference can be queried by all threads at once
+            referenceSource = ! hasReference() ? null : reference instanceof ReferenceMappedSource ? reference : openReference();
+            if ( features != null ) {
+                featureManager = new FeatureManager(ReadWalker.this, FEATURE_CACHE_LOOKAHEAD, cloudPrefetchBuffer,
+                        cloudIndexPrefetchBuffer, getGenomicsDBOptions());
+                featureManager.setExpectedQueryIntervals(userIntervals);
+            } else {
+                featureManager = null;
+            }
+            postReadFilterTransformer = makePostReadFilterTransformer();
+        }
+
+        /**
+         * Transform and process a batch of consecutive reads.
+         *
+         * @param batch filtered reads, in input order
+         * @return the completion of the batch, which runs the completions of its reads in order
+         */
+        private Runnable processBatch( final List<GATKRead> batch ) {
+            final List<Runnable> completions = new ArrayList<>(batch.size());
+            SimpleInterval lastReadInterval = null;
+            for ( final GATKRead filteredRead : batch ) {
+                final GATKRead read = postReadFilterTransformer.apply(filteredRead);
+                final SimpleInterval readInterval = getReadInterval(read);
+                final Runnable completion = processor.process(read, new ReferenceContext(referenceSource, readInterval),
+                        new FeatureContext(featureManager, readInterval));
+                if ( completion != null ) {
+                    completions.add(completion);
+                }
+                lastReadInterval = readInterval;
+            }
+
+            final SimpleInterval batchLastReadInterval = lastReadInterval;
+            return () -> {
+                completions.forEach(Runnable::run);
+                progressMeter.update(batchLastReadInterval, batch.size());
+            };
+        }
+
+        @Override
+        public void close() {
+            processor.close();
+            if ( referenceSource != null && referenceSource != reference ) {
+                referenceSource.close();
+            }
+            if ( featureManager != null ) {
+                featureManager.close();
+            }
+        }
+    }
+
     /**
      * Returns an interval for the read.
      * Note: some walkers must be able to work on any read, including those whose coordinates do not form a valid SimpleInterval.
@@ -161,6 +312,22 @@ public abstract class ReadWalker extends WalkerBase {
      */
     public abstract void apply( GATKRead read, ReferenceContext referenceContext, FeatureContext featureContext );
 
+    /**
+     * Create a new, independent processor for reads, to be used exclusively by one thread when the tool is run with
+     * {@code --read-threads} greater than 1. In that mode reads are passed to these processors instead of to
+     * {@link #apply}. Called once per read thread, after {@link #onTraversalStart}.
+     *
+     * The default implementation returns {@code null}, indicating that the tool does not support multithreaded
+     * read processing. Tools that override this must not share mutable state between processors, and must
+     * only write output (or update state shared with the rest of the tool) from the {@link Runnable} returned by
+     * {@link ReadProcessor#process}.
+     *
+     * @return a new processor, or {@code null} if multithreaded read processing is not supported by this tool
+     */
+    protected ReadProcessor makeReadProcessor() {
+        return null;
+    }
+
     /**
      * Shutdown data sources.
      *
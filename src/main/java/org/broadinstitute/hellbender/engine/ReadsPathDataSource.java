@@ -1,6 +1,7 @@
 package org.broadinstitute.hellbender.engine;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import htsjdk.samtools.MergingSamRecordIterator;
 import htsjdk.samtools.SAMException;
 import htsjdk.samtools.SAMFileHeader;
@@ -10,6 +11,7 @@ import htsjdk.samtools.SamFileHeaderMerger;
 import htsjdk.samtools.SamInputResource;
 import htsjdk.samtools.SamReader;
 import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.ValidationStringency;
 import htsjdk.samtools.util.CloseableIterator;
 import htsjdk.samtools.util.IOUtil;
 import org.apache.logging.log4j.LogManager;
@@ -20,13 +22,18 @@ import org.broadinstitute.hellbender.utils.IntervalUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.gcs.BucketUtils;
+import org.broadinstitute.hellbender.utils.io.ParallelBlockCompressedInputStream;
+import org.broadinstitute.hellbender.utils.iterators.BAMRecordStreamIterator;
 import org.broadinstitute.hellbender.utils.iterators.SAMRecordToReadIterator;
 import org.broadinstitute.hellbender.utils.iterators.SamReaderQueryingIterator;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.read.ReadConstants;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.nio.channels.Channels;
 import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -35,6 +42,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -63,6 +72,12 @@ public final class ReadsPathDataSource implements ReadsDataSource {
      */
     private final Map<SamReader, Path> backingPaths;
 
+    /**
+     * The channel wrapper each reader's data was opened with, so that reading the file directly goes through the
+     * same cloud prefetching as the reader does
+     */
+    private final Map<SamReader, Function<SeekableByteChannel, SeekableByteChannel>> dataWrappers;
+
     /**
      * Only reads that overlap these intervals (and unmapped reads, if {@link #traverseUnmapped} is set) will be returned
      * during a full iteration. Null if iteration is unbounded.
@@ -97,6 +112,29 @@ public final class ReadsPathDataSource implements ReadsDataSource {
      */
     private boolean isClosed;
 
+    /**
+     * Validation stringency of our readers, which also applies to reads decoded outside of htsjdk's readers
+     */
+    private final ValidationStringency validationStringency;
+
+    /**
+     * If not null, unbounded traversals of BAM files inflate BGZF blocks on these threads.
+     * See {@link #enableParallelInflation}.
+     */
+    private ExecutorService inflaterPool;
+    private int numInflaterThreads;
+    private ParallelBlockCompressedInputStream.Statistics inflationStatistics;
+
+    /**
+     * Number of BGZF blocks that may be waiting to be, or being, inflated for each inflater thread
+     */
+    private static final int BLOCKS_IN_FLIGHT_PER_INFLATER_THREAD = 4;
+
+    /**
+     * Size of the buffer for reading compressed data when inflating in parallel
+     */
+    private static final int COMPRESSED_BUFFER_SIZE = 1 << 20;
+
     /**
      * Initialize this data source with a single SAM/BAM file and validation stringency SILENT.
      *
@@ -210,12 +248,14 @@ public final class ReadsPathDataSource implements ReadsDataSource {
 
         readers = new LinkedHashMap<>(samPaths.size() * 2);
         backingPaths = new LinkedHashMap<>(samPaths.size() * 2);
+        dataWrappers = new LinkedHashMap<>(samPaths.size() * 2);
         indicesAvailable = true;
 
         final SamReaderFactory samReaderFactory =
                 customSamReaderFactory == null ?
                     SamReaderFactory.makeDefault().validationStringency(ReadConstants.DEFAULT_READ_VALIDATION_STRINGENCY) :
                     customSamReaderFactory;
+        validationStringency = samReaderFactory.validationStringency();
 
         int samCount = 0;
         for ( final Path samPath : samPaths ) {
@@ -258,6 +298,7 @@ public final class ReadsPathDataSource implements ReadsDataSource {
 
             readers.put(reader, null);
             backingPaths.put(reader, samPath);
+            dataWrappers.put(reader, wrapper);
             ++samCount;
         }
 
@@ -265,6 +306,25 @@ public final class ReadsPathDataSource implements ReadsDataSource {
         headerMerger = samPaths.size() > 1 ? createHeaderMerger() : null;
     }
 
+    /**
+     * Inflate the BGZF blocks of BAM inputs on a pool of threads during unbounded traversals, instead of on the thread
+     * that consumes the reads. The records are then decoded from the inflated data on the consuming thread.
+     * Traversals restricted by {@link #setTraversalBounds}, queries, and non-BAM inputs are not affected.
+     *
+     * @param numThreads number of inflater threads, shared by all inputs
+     * @param statistics where to record the amount of data inflated (may be shared with other data sources)
+     */
+    public void enableParallelInflation( final int numThreads, final ParallelBlockCompressedInputStream.Statistics statistics ) {
+        Utils.validateArg(numThreads > 0, "numThreads must be positive");
+        Utils.nonNull(statistics);
+        Utils.validate(inflaterPool == null, "parallel inflation has already been enabled");
+
+        inflaterPool = Executors.newFixedThreadPool(numThreads,
+                new ThreadFactoryBuilder().setNameFormat("bgzf-inflater-%d").setDaemon(true).build());
+        numInflaterThreads = numThreads;
+        inflationStatistics = statistics;
+    }
+
     /**
      * Are indices available for all files?
      */
@@ -414,6 +474,8 @@ public final class ReadsPathDataSource implements ReadsDataSource {
                                 queryUnmapped
                         )
                 );
+            } else if ( inflaterPool != null && readerEntry.getKey().type() == SamReader.Type.BAM_TYPE ) {
+                readerEntry.setValue(openParallelInflatingIterator(readerEntry.getKey()));
             } else {
                 readerEntry.setValue(readerEntry.getKey().iterator());
             }
@@ -432,6 +494,26 @@ public final class ReadsPathDataSource implements ReadsDataSource {
         return new SAMRecordToReadIterator(startingIterator);
     }
 
+    /**
+     * Open an iteration over all records of a BAM reader that reads the file directly, inflating its blocks on
+     * {@link #inflaterPool}. Since it doesn't go through the reader, it doesn't count against htsjdk's limit of
+     * one open iterator per reader, but is tracked in {@link #readers} as if it did. The file's channel is wrapped
+     * the same way as the reader's, so cloud inputs keep their prefetching.
+     */
+    private CloseableIterator<SAMRecord> openParallelInflatingIterator( final SamReader reader ) {
+        final Path path = backingPaths.get(reader);
+        final String source = path.toUri().toString();
+        try {
+            final SeekableByteChannel channel = dataWrappers.get(reader).apply(Files.newByteChannel(path));
+            final ParallelBlockCompressedInputStream uncompressedStream = new ParallelBlockCompressedInputStream(
+                    new BufferedInputStream(Channels.newInputStream(channel), COMPRESSED_BUFFER_SIZE), source,
+                    inflaterPool, BLOCKS_IN_FLIGHT_PER_INFLATER_THREAD * numInflaterThreads, inflationStatistics);
+            return new BAMRecordStreamIterator(uncompressedStream, reader.getFileHeader(), validationStringency, source);
+        } catch ( final IOException e ) {
+            throw new UserException.CouldNotReadInputFile(path, e);
+        }
+    }
+
     /**
      * Reduce the intervals down to only include ones that can actually intersect with this reader
      */
@@ -502,6 +584,11 @@ public final class ReadsPathDataSource implements ReadsDataSource {
         catch ( IOException e ) {
             throw new GATKException("Error closing SAMReader");
         }
+        finally {
+            if ( inflaterPool != null ) {
+                inflaterPool.shutdownNow();
+            }
+        }
     }
 
     boolean isClosed() {
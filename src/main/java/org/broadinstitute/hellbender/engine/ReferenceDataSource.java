@@ -43,6 +43,17 @@ public interface ReferenceDataSource extends GATKDataSource<Byte>, AutoCloseable
         return new ReferenceFileSource(fastaPath, preserveAmbiguityCodesAndCapitalization);
     }
 
+    /**
+     * Initialize this data source by memory-mapping a fasta file. The returned data source may be shared by several threads.
+     *
+     * The provided fasta file must be uncompressed, and must have companion .fai and .dict files.
+     *
+     * @param fastaPath reference fasta Path
+     */
+    public static ReferenceDataSource ofMemoryMapped(final Path fastaPath) {
+        return new ReferenceMappedSource(fastaPath);
+    }
+
     /**
      * Initialize this data source using ReferenceBases and corresponding sequence dictionary.
      */
@@ -0,0 +1,248 @@
+package org.broadinstitute.hellbender.engine;
+
+import com.google.common.annotations.VisibleForTesting;
+import htsjdk.samtools.SAMException;
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.reference.FastaSequenceIndex;
+import htsjdk.samtools.reference.FastaSequenceIndexEntry;
+import htsjdk.samtools.reference.ReferenceSequence;
+import htsjdk.samtools.reference.ReferenceSequenceFileFactory;
+import htsjdk.samtools.util.IOUtil;
+import htsjdk.samtools.util.StringUtil;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.BaseUtils;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.fasta.CachingIndexedFastaSequenceFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Manages queries over reference data by memory-mapping an uncompressed, indexed fasta file.
+ *
+ * The file is mapped when the source is opened, and queries copy their bases straight out of the mapping, using the
+ * .fai index to skip line breaks.  Consecutive contigs are packed into mappings of up to {@link #DEFAULT_MAX_MAPPING_SIZE}
+ * bytes rather than mapped one by one, so that references with many thousands of contigs (unplaced scaffolds, decoys,
+ * HLA alleles) need only a handful of mappings and stay well below the operating system's limit on mappings per
+ * process (vm.max_map_count on Linux).  Unlike {@link ReferenceFileSource}, there is no single cached window that
+ * is refilled whenever a query falls outside of it, so tools that jump around the genome pay the same for every
+ * query, and the operating system's page cache is the only copy of the reference held in memory.
+ *
+ * Queries do not modify any state, so one instance can be shared by several threads without wrapping it in a
+ * {@link SynchronizedReferenceDataSource}.
+ *
+ * Supports targeted queries over the reference by interval, but does not
+ * yet support complete iteration over the entire reference.
+ */
+public final class ReferenceMappedSource implements ReferenceDataSource {
+
+    @VisibleForTesting
+    static final long DEFAULT_MAX_MAPPING_SIZE = 1L << 30;
+
+    private final SAMSequenceDictionary sequenceDictionary;
+    private final boolean preserveFileBases;
+
+    private final MappedByteBuffer[] mappings;
+
+    // indexed by contig index in the sequence dictionary
+    private final int[] contigMapping;
+    private final int[] contigMappingOffset;
+    private final int[] basesPerLine;
+    private final int[] bytesPerLine;
+
+    /**
+     * Initialize this data source using a fasta file.
+     *
+     * The provided fasta file must be uncompressed, and must have companion .fai and .dict files.
+     *
+     * @param fastaPath reference fasta file
+     */
+    public ReferenceMappedSource(final Path fastaPath) {
+        this(fastaPath, false);
+    }
+
+    /**
+     * Initialize this data source using a fasta file.
+     *
+     * The provided fasta file must be uncompressed, and must have companion .fai and .dict files.
+     *
+     * If {@code preserveFileBases} is {@code true}, will NOT convert IUPAC bases in the file to `N` and will NOT capitalize lower-case bases.
+     * NOTE: Most GATK tools do not support data created by setting {@code preserveFileBases} to {@code true}.
+     *
+     * @param fastaPath reference fasta file
+     * @param preserveFileBases Whether to preserve the original bases in the given reference file path.
+     */
+    public ReferenceMappedSource(final Path fastaPath, final boolean preserveFileBases) {
+        this(fastaPath, preserveFileBases, DEFAULT_MAX_MAPPING_SIZE);
+    }
+
+    /**
+     * @param maxMappingSize contigs are packed into mappings of at most this many bytes, except that a single contig
+     *                       larger than this gets a mapping of its own
+     */
+    @VisibleForTesting
+    ReferenceMappedSource(final Path fastaPath, final boolean preserveFileBases, final long maxMappingSize) {
+        Utils.nonNull(fastaPath);
+        Utils.validateArg(maxMappingSize > 0 && maxMappingSize <= Integer.MAX_VALUE, "maxMappingSize must be positive and fit in an int");
+        if (IOUtil.hasBlockCompressedExtension(fastaPath)) {
+            throw new UserException.CouldNotReadInputFile(fastaPath, "a compressed fasta cannot be memory-mapped, use an uncompressed copy instead");
+        }
+        // Will throw a UserException if the .fai and/or .dict are missing
+        try (final CachingIndexedFastaSequenceFile fasta = new CachingIndexedFastaSequenceFile(fastaPath, preserveFileBases)) {
+            sequenceDictionary = fasta.getSequenceDictionary();
+        }
+        this.preserveFileBases = preserveFileBases;
+
+        final FastaSequenceIndex index = new FastaSequenceIndex(ReferenceSequenceFileFactory.getFastaIndexFileName(fastaPath));
+        final int numContigs = sequenceDictionary.size();
+        contigMapping = new int[numContigs];
+        contigMappingOffset = new int[numContigs];
+        basesPerLine = new int[numContigs];
+        bytesPerLine = new int[numContigs];
+
+        final FastaSequenceIndexEntry[] entries = new FastaSequenceIndexEntry[numContigs];
+        for (final SAMSequenceRecord contig : sequenceDictionary.getSequences()) {
+            if (!index.hasIndexEntry(contig.getSequenceName())) {
+                throw new UserException.CouldNotReadInputFile(fastaPath, "contig " + contig.getSequenceName() + " from the sequence dictionary is missing from the fasta index");
+            }
+            final FastaSequenceIndexEntry entry = index.getIndexEntry(contig.getSequenceName());
+            final int contigIndex = contig.getSequenceIndex();
+            basesPerLine[contigIndex] = entry.getBasesPerLine();
+            bytesPerLine[contigIndex] = entry.getBytesPerLine();
+            entries[contigIndex] = entry;
+        }
+
+        // contigs in the order they appear in the file, which need not be the order of the sequence dictionary
+        final List<Integer> contigsInFileOrder = new ArrayList<>(numContigs);
+        for (int contigIndex = 0; contigIndex < numContigs; contigIndex++) {
+            contigsInFileOrder.add(contigIndex);
+        }
+        contigsInFileOrder.sort(Comparator.comparingLong(contigIndex -> entries[contigIndex].getLocation()));
+
+        final List<MappedByteBuffer> mappingList = new ArrayList<>();
+        // mappings stay valid after the channel is closed
+        try (final FileChannel channel = FileChannel.open(fastaPath, StandardOpenOption.READ)) {
+            long mappingStart = -1;
+            long mappingEnd = -1;
+            for (final int contigIndex : contigsInFileOrder) {
+                final FastaSequenceIndexEntry entry = entries[contigIndex];
+                final long contigEnd = entry.getLocation() + (entry.getSize() == 0 ? 0 : fileOffset(contigIndex, entry.getSize() - 1) + 1);
+                if (contigEnd - entry.getLocation() > Integer.MAX_VALUE) {
+                    throw new UserException.CouldNotReadInputFile(fastaPath, "contig " + sequenceDictionary.getSequence(contigIndex).getSequenceName() + " is too large to be memory-mapped");
+                }
+                // start a new mapping if this contig would make the current one too large
+                if (mappingStart < 0 || contigEnd - mappingStart > maxMappingSize) {
+                    if (mappingStart >= 0) {
+                        mappingList.add(channel.map(FileChannel.MapMode.READ_ONLY, mappingStart, mappingEnd - mappingStart));
+                    }
+                    mappingStart = entry.getLocation();
+                }
+                mappingEnd = contigEnd;
+                contigMapping[contigIndex] = mappingList.size();
+                contigMappingOffset[contigIndex] = (int)(entry.getLocation() - mappingStart);
+            }
+            if (mappingStart >= 0) {
+                mappingList.add(channel.map(FileChannel.MapMode.READ_ONLY, mappingStart, mappingEnd - mappingStart));
+            }
+        } catch (final IOException e) {
+            throw new UserException.CouldNotReadInputFile(fastaPath, "could not memory-map the reference", e);
+        }
+        mappings = mappingList.toArray(new MappedByteBuffer[0]);
+    }
+
+    /**
+     * @return the number of separate memory mappings of the fasta file
+     */
+    @VisibleForTesting
+    int getNumberOfMappings() {
+        return mappings.length;
+    }
+
+    /**
+     * @return the offset of a (0-based) position within the mapped text of a contig
+     */
+    private long fileOffset(final int contigIndex, final long position) {
+        return (position / basesPerLine[contigIndex]) * bytesPerLine[contigIndex] + position % basesPerLine[contigIndex];
+    }
+
+    /**
+     * Start an iteration over the entire reference. Not yet supported!
+     *
+     * See the BaseUtils class for guidance on how to work with bases in this format.
+     *
+     * @return iterator over all bases in this reference
+     */
+    @Override
+    public Iterator<Byte> iterator() {
+        throw new UnsupportedOperationException("Iteration over entire reference not yet implemented");
+    }
+
+    /**
+     * Query a specific interval on this reference, and get back all bases spanning that interval at once.
+     * Call getBases() on the returned ReferenceSequence to get the actual reference bases. See the BaseUtils
+     * class for guidance on how to work with bases in this format.
+     *
+     * @param contig query interval contig
+     * @param start query interval start
+     * @param stop query interval stop (included)
+     * @return a ReferenceSequence containing all bases spanning the query interval, prefetched
+     */
+    @Override
+    public ReferenceSequence queryAndPrefetch( final String contig, final long start , final long stop) {
+        final SAMSequenceRecord contigInfo = sequenceDictionary.getSequence(contig);
+        if (contigInfo == null) {
+            throw new UserException.MissingContigInSequenceDictionary(contig, sequenceDictionary);
+        }
+        if (start < 1 || stop > contigInfo.getSequenceLength() || stop < start - 1) {
+            throw new SAMException("Malformed query or query past end of contig. Query contig " + contig + " start:" + start + " stop:" + stop + " contigLength:" + contigInfo.getSequenceLength());
+        }
+
+        final int contigIndex = contigInfo.getSequenceIndex();
+        final byte[] bases = new byte[(int)(stop - start + 1)];
+
+        // a duplicate has its own position, so concurrent queries never touch the position of the shared mapping
+        final ByteBuffer text = mappings[contigMapping[contigIndex]].duplicate();
+        final int contigOffset = contigMappingOffset[contigIndex];
+        final int lineLength = basesPerLine[contigIndex];
+        long position = start - 1;
+        int copied = 0;
+        while (copied < bases.length) {
+            final int lengthOnLine = (int)Math.min(lineLength - position % lineLength, bases.length - copied);
+            text.position(contigOffset + (int)fileOffset(contigIndex, position));
+            text.get(bases, copied, lengthOnLine);
+            copied += lengthOnLine;
+            position += lengthOnLine;
+        }
+
+        if (!preserveFileBases) {
+            StringUtil.toUpperCase(bases);
+            BaseUtils.convertIUPACtoN(bases, true, false);
+        }
+        return new ReferenceSequence(contigInfo.getSequenceName(), contigIndex, bases);
+    }
+
+    /**
+     * Get the sequence dictionary for this reference
+     *
+     * @return SAMSequenceDictionary for this reference
+     */
+    @Override
+    public SAMSequenceDictionary getSequenceDictionary() {
+        return sequenceDictionary;
+    }
+
+    /**
+     * no-op: the mappings are released once this data source is garbage collected
+     */
+    @Override
+    public void close() {}
+}
@@ -0,0 +1,41 @@
+package org.broadinstitute.hellbender.engine;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.reference.ReferenceSequence;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.Iterator;
+
+/**
+ * A {@link ReferenceDataSource} that serializes all queries to a wrapped data source, allowing
+ * {@link ReferenceContext}s that share a single (non-thread-safe) data source to be used from several threads.
+ *
+ * Closing this data source does NOT close the wrapped data source.
+ */
+public final class SynchronizedReferenceDataSource implements ReferenceDataSource {
+
+    private final ReferenceDataSource dataSource;
+
+    /**
+     * @param dataSource the data source to wrap
+     */
+    public SynchronizedReferenceDataSource(final ReferenceDataSource dataSource) {
+        this.dataSource = Utils.nonNull(dataSource);
+    }
+
+    @Override
+    public synchronized ReferenceSequence queryAndPrefetch(final String contig, final long start, final long stop) {
+        return dataSource.queryAndPrefetch(contig, start, stop);
+    }
+
+    @Override
+    public synchronized Iterator<Byte> iterator() {
+        return dataSource.iterator();
+    }
+
+    @Override
+    public SAMSequenceDictionary getSequenceDictionary() {
+        return dataSource.getSequenceDictionary();
+    }
+}
@@ -0,0 +1,39 @@
+package org.broadinstitute.hellbender.engine;
+
+import htsjdk.samtools.util.Locatable;
+import htsjdk.variant.variantcontext.VariantContext;
+
+import java.util.List;
+
+/**
+ * Per-thread processor of sites, used by a {@link VariantLocusWalker} when it runs with more than one site thread
+ * (see {@link VariantLocusWalker#makeVariantLocusProcessor()}).
+ *
+ * Each worker thread has exclusive use of one processor, so implementations may hold state that is not thread-safe.
+ * {@link #process} runs on a worker thread, and the {@link Runnable} it returns is run later on the traversal thread,
+ * in the order of the sites. Output (eg., writing to a {@link htsjdk.variant.variantcontext.writer.VariantContextWriter})
+ * must therefore happen in the returned {@link Runnable} rather than in {@link #process} itself.
+ */
+public interface VariantLocusProcessor extends AutoCloseable {
+
+    /**
+     * Process a single site on a worker thread.
+     *
+     * @param loc the current locus (in group by locus traversal), or the span of the current variant (in by-variants traversal)
+     * @param variants the variants at the current site, after filtering and transformation
+     * @param referenceContext reference bases spanning the current site
+     * @param featureContext features spanning the current site
+     * @return the work to be done on the traversal thread once all previous sites have been completed,
+     *         or {@code null} if there is nothing to do for this site
+     */
+    Runnable process( final Locatable loc, final List<VariantContext> variants, final ReferenceContext referenceContext, final FeatureContext featureContext );
+
+    /**
+     * Release any resources held by this processor. Called on the traversal thread once traversal is over.
+     * The default implementation does nothing.
+     */
+    @Override
+    default void close() {
+        //do nothing
+    }
+}
@@ -2,20 +2,26 @@ package org.broadinstitute.hellbender.engine;
 
 import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.samtools.util.Locatable;
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.LazyGenotypesContext;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFHeader;
+import org.broadinstitute.barclay.argparser.Advanced;
 import org.broadinstitute.barclay.argparser.Argument;
+import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.engine.filters.CountingReadFilter;
 import org.broadinstitute.hellbender.engine.filters.CountingVariantFilter;
 import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.transformers.VariantTransformer;
+import org.broadinstitute.hellbender.utils.OrderedWorkerPool;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.iterators.IntervalLocusIterator;
 import org.broadinstitute.hellbender.utils.iterators.ShardedIntervalIterator;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -27,9 +33,37 @@ import java.util.stream.Stream;
  *
  * VariantLocusWalker authors must implement the {@link #apply} method to process each variant, and may optionally implement
  * {@link #onTraversalStart}, {@link #onTraversalSuccess} and/or {@link #closeTool}.
+ *
+ * Tools that implement {@link #makeVariantLocusProcessor} can additionally be run with {@code --site-threads} greater
+ * than 1, in which case the sites are read on the traversal thread and handed out in batches to a pool of per-thread
+ * {@link VariantLocusProcessor}s, each with its own reference and Feature data sources, instead of to {@link #apply}.
+ * The results of each site are completed in the order of the sites.
  */
 public abstract class VariantLocusWalker extends VariantWalkerBase {
 
+    public static final String SITE_THREADS_LONG_NAME = "site-threads";
+    public static final String SITE_BATCH_SIZE_LONG_NAME = "site-batch-size";
+
+    /**
+     * Number of threads used to process sites. Sites are read, filtered and transformed on the traversal thread, then
+     * handed out in batches of {@link #siteBatchSize} to the site threads, which process them with their own reference
+     * and Feature data sources, while the output is completed in the order of the sites. Site threads are not given
+     * a source of reads. Only tools that provide a per-thread {@link VariantLocusProcessor} support values greater than 1.
+     */
+    @Advanced
+    @Argument(fullName = SITE_THREADS_LONG_NAME, doc = "Number of threads to use for processing sites", optional = true, minValue = 1)
+    public int siteThreads = 1;
+
+    /**
+     * Number of sites handed to a site thread at a time when {@link #siteThreads} is greater than 1.
+     * A batch is extended past this size while its sites are spanned by a deletion in one of its variants, so that
+     * a deletion is always processed by the same thread as the sites it spans.
+     * The output of a batch is held in memory until all previous batches have been completed.
+     */
+    @Advanced
+    @Argument(fullName = SITE_BATCH_SIZE_LONG_NAME, doc = "Number of sites handed to a site thread at a time", optional = true, minValue = 1)
+    public int siteBatchSize = 100;
+
     // NOTE: using String rather than FeatureInput<VariantContext> here so that we can keep this driving source
     //       of variants separate from any other potential sources of Features
     @Argument(fullName = StandardArgumentDefinitions.VARIANT_LONG_NAME, shortName = StandardArgumentDefinitions.VARIANT_SHORT_NAME, doc = "A VCF file containing variants", common = false, optional = false)
@@ -121,7 +155,30 @@ public abstract class VariantLocusWalker extends VariantWalkerBase {
      */
     @Override
     public void traverse() {
+        if ( siteThreads > 1 ) {
+            traverseSitesConcurrently();
+            return;
+        }
+
         final CountingReadFilter readFilter = makeReadFilter();
+        forEachSite((site, variants) -> {
+            apply(site,
+                    variants,
+                    new ReadsContext(reads, site, readFilter),
+                    new ReferenceContext(reference, site),
+                    new FeatureContext(features, site));
+
+            progressMeter.update(site);
+        });
+    }
+
+    /**
+     * Run an action on each site of the traversal, in order: on each variant when traversing by variant, otherwise on
+     * each locus with overlapping variants, along with all such variants.
+     *
+     * @param action action to run on the interval of each site and its filtered and transformed variants
+     */
+    private void forEachSite(final BiConsumer<SimpleInterval, List<VariantContext>> action) {
         final CountingVariantFilter variantFilter = makeVariantFilter();
         final VariantTransformer preTransformer  = makePreVariantFilterTransformer();
         final VariantTransformer postTransformer = makePostVariantFilterTransformer();
@@ -129,17 +186,7 @@ public abstract class VariantLocusWalker extends VariantWalkerBase {
         if (traverseByVariant) {
             // Process each variant in the input stream, one at a time.
             getTransformedVariantStream( getSpliteratorForDrivingVariants(), preTransformer, variantFilter, postTransformer )
-                    .forEachOrdered(variant -> {
-
-                        final SimpleInterval variantInterval = new SimpleInterval(variant);
-                        apply(variant,
-                                Collections.singletonList(variant),
-                                new ReadsContext(reads, variantInterval, readFilter),
-                                new ReferenceContext(reference, variantInterval),
-                                new FeatureContext(features, variantInterval));
-
-                        progressMeter.update(variantInterval);
-                    });
+                    .forEachOrdered(variant -> action.accept(new SimpleInterval(variant), Collections.singletonList(variant)));
         } else {
             // Traverse loci in shards. For any shard with overlapping variants, drop down to per-locus iteration,
             // calling apply for a single locus, only if there are overlapping variants, passing all such variants
@@ -158,13 +205,7 @@ public abstract class VariantLocusWalker extends VariantWalkerBase {
                                                     postTransformer)
                                                     .collect(Collectors.toList());
                                             if (!filteredVariants.isEmpty()) {
-                                                apply(locus,
-                                                        filteredVariants,
-                                                        new ReadsContext(reads, locus, readFilter),
-                                                        new ReferenceContext(reference, locus),
-                                                        new FeatureContext(features, locus));
-
-                                                progressMeter.update(locus);
+                                                action.accept(locus, filteredVariants);
                                             }
                                         }
                                     });
@@ -173,6 +214,178 @@ public abstract class VariantLocusWalker extends VariantWalkerBase {
         }
     }
 
+    /**
+     * Traverse the sites with {@link #siteThreads} threads, processing one batch of sites at a time on each thread,
+     * and completing the results on this thread in the order of the sites.
+     */
+    private void traverseSitesConcurrently() {
+        final List<SiteWorker> workers = makeSiteWorkers();
+
+        logger.info("Processing sites using " + siteThreads + " threads");
+        // Keep enough batches in flight that a slow batch doesn't leave the other threads idle, while bounding
+        // the number of sites held in memory at once
+        try ( final OrderedWorkerPool<SiteWorker> workerPool = new OrderedWorkerPool<>(workers, 2 * siteThreads, "site-thread-%d") ) {
+            final SiteBatch batch = new SiteBatch(siteBatchSize);
+            forEachSite((site, variants) -> {
+                // genotypes may still have to be parsed by the codec of the driving variants, which isn't thread-safe
+                variants.forEach(VariantLocusWalker::decodeGenotypes);
+                // tools such as GenotypeGVCFs keep track of deletions across sites in order to process the spanning
+                // deletion alleles of the sites they cover, so a batch never ends on a site spanned by a deletion
+                if ( batch.size() >= siteBatchSize && ! batch.isSpannedByDeletion(site) ) {
+                    batch.submitTo(workerPool);
+                }
+                batch.add(site, variants);
+            });
+            if ( batch.size() > 0 ) {
+                batch.submitTo(workerPool);
+            }
+            workerPool.drain();
+        } finally {
+            workers.forEach(SiteWorker::close);
+        }
+    }
+
+    /**
+     * Consecutive sites to be handed to a site thread together, along with the furthest end of any deletion among
+     * their variants.
+     */
+    private static final class SiteBatch {
+        private final List<SimpleInterval> sites;
+        private final List<List<VariantContext>> variants;
+        private String deletionContig = null;
+        private int deletionEnd = 0;
+
+        private SiteBatch( final int expectedSize ) {
+            sites = new ArrayList<>(expectedSize);
+            variants = new ArrayList<>(expectedSize);
+        }
+
+        private int size() {
+            return sites.size();
+        }
+
+        private void add( final SimpleInterval site, final List<VariantContext> siteVariants ) {
+            sites.add(site);
+            variants.add(siteVariants);
+            for ( final VariantContext variant : siteVariants ) {
+                for ( final Allele allele : variant.getAlternateAlleles() ) {
+                    final int deletionSize = variant.getReference().length() - allele.length();
+                    if ( allele.isSymbolic() || deletionSize <= 0 ) {
+                        continue;
+                    }
+                    final int end = variant.getStart() + deletionSize;
+                    if ( ! variant.getContig().equals(deletionContig) ) {
+                        deletionContig = variant.getContig();
+                        deletionEnd = end;
+                    } else {
+                        deletionEnd = Math.max(deletionEnd, end);
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return true if the site starts within a deletion of one of the sites added so far
+         */
+        private boolean isSpannedByDeletion( final SimpleInterval site ) {
+            return site.getContig().equals(deletionContig) && site.getStart() <= deletionEnd;
+        }
+
+        /**
+         * Submit a copy of the sites to the pool, and clear them. The deletions seen so far are kept, but since a
+         * batch is only submitted before a site that they don't span, they can't span any later site either.
+         */
+        private void submitTo( final OrderedWorkerPool<SiteWorker> workerPool ) {
+            final List<SimpleInterval> batchSites = new ArrayList<>(sites);
+            final List<List<VariantContext>> batchVariants = new ArrayList<>(variants);
+            sites.clear();
+            variants.clear();
+            workerPool.submit(worker -> worker.processBatch(batchSites, batchVariants));
+        }
+    }
+
+    private static void decodeGenotypes( final VariantContext variant ) {
+        if ( variant.getGenotypes() instanceof LazyGenotypesContext ) {
+            ((LazyGenotypesContext) variant.getGenotypes()).decode();
+        }
+    }
+
+    /**
+     * Create one {@link SiteWorker} per site thread.
+     */
+    private List<SiteWorker> makeSiteWorkers() {
+        final List<VariantLocusProcessor> processors = new ArrayList<>(siteThreads);
+        for ( int i = 0; i < siteThreads; i++ ) {
+            final VariantLocusProcessor processor = makeVariantLocusProcessor();
+            if ( processor == null ) {
+                processors.forEach(VariantLocusProcessor::close);
+                throw new CommandLineException.BadArgumentValue(SITE_THREADS_LONG_NAME, String.valueOf(siteThreads),
+                        getClass().getSimpleName() + " does not support multithreaded site processing");
+            }
+            processors.add(processor);
+        }
+        return processors.stream().map(SiteWorker::new).collect(Collectors.toList());
+    }
+
+    /**
+     * A {@link VariantLocusProcessor}, along with the data sources it works with, for the exclusive use of one site thread.
+     */
+    private final class SiteWorker implements AutoCloseable {
+        private final VariantLocusProcessor processor;
+        private final ReferenceDataSource referenceSource;
+        private final FeatureManager featureManager;
+
+        private SiteWorker( final VariantLocusProcessor processor ) {
+            this.processor = processor;
+            // a memory-mapped reference can be queried by all threads at once
+            referenceSource = ! hasReference() ? null : reference instanceof ReferenceMappedSource ? reference : openReference();
+            // the driving variants are read on the traversal thread, so this only holds the tool's other Feature inputs
+            if ( features != null ) {
+                featureManager = new FeatureManager(VariantLocusWalker.this, DEFAULT_DRIVING_VARIANTS_LOOKAHEAD_BASES,
+                        cloudPrefetchBuffer, cloudIndexPrefetchBuffer, getGenomicsDBOptions());
+                featureManager.setExpectedQueryIntervals(userIntervals);
+            } else {
+                featureManager = null;
+            }
+        }
+
+        /**
+         * Process a batch of consecutive sites.
+         *
+         * @param sites intervals of the sites, in order
+         * @param variants variants of each site
+         * @return the completion of the batch, which runs the completions of its sites in order
+         */
+        private Runnable processBatch( final List<SimpleInterval> sites, final List<List<VariantContext>> variants ) {
+            final List<Runnable> completions = new ArrayList<>(sites.size());
+            for ( int i = 0; i < sites.size(); i++ ) {
+                final SimpleInterval site = sites.get(i);
+                final Runnable completion = processor.process(site, variants.get(i),
+                        new ReferenceContext(referenceSource, site), new FeatureContext(featureManager, site));
+                if ( completion != null ) {
+                    completions.add(completion);
+                }
+            }
+
+            final SimpleInterval lastSite = sites.get(sites.size() - 1);
+            return () -> {
+                completions.forEach(Runnable::run);
+                progressMeter.update(lastSite, sites.size());
+            };
+        }
+
+        @Override
+        public void close() {
+            processor.close();
+            if ( referenceSource != null && referenceSource != reference ) {
+                referenceSource.close();
+            }
+            if ( featureManager != null ) {
+                featureManager.close();
+            }
+        }
+    }
+
     // Return a Stream of SimpleInterval covering the entire territory sketched out by requestedInterval
     private Stream<SimpleInterval> getLocusStream(final SimpleInterval requestedInterval) {
         return Utils.stream(new IntervalLocusIterator(Collections.singletonList(requestedInterval).iterator()));
@@ -204,6 +417,22 @@ public abstract class VariantLocusWalker extends VariantWalkerBase {
      */
     public abstract void apply(Locatable loc, List<VariantContext> variants, ReadsContext readsContext, ReferenceContext referenceContext, FeatureContext featureContext );
 
+    /**
+     * Create a new, independent processor for sites, to be used exclusively by one thread when the tool is run with
+     * {@code --site-threads} greater than 1. In that mode sites are passed to these processors instead of to
+     * {@link #apply}. Called once per site thread, after {@link #onTraversalStart}.
+     *
+     * The default implementation returns {@code null}, indicating that the tool does not support multithreaded
+     * site processing. Tools that override this must not share mutable state between processors, and must
+     * only write output (or update state shared with the rest of the tool) from the {@link Runnable} returned by
+     * {@link VariantLocusProcessor#process}.
+     *
+     * @return a new processor, or {@code null} if multithreaded site processing is not supported by this tool
+     */
+    protected VariantLocusProcessor makeVariantLocusProcessor() {
+        return null;
+    }
+
     /**
      * Close all data sources.
      *
@@ -9,6 +9,7 @@ import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.engine.GATKPath;
 import picard.cmdline.programgroups.ReadDataManipulationProgramGroup;
 import org.broadinstitute.hellbender.engine.FeatureContext;
+import org.broadinstitute.hellbender.engine.ReadProcessor;
 import org.broadinstitute.hellbender.engine.ReadWalker;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
@@ -105,6 +106,15 @@ public final class PrintReads extends ReadWalker {
         outputWriter.addRead(read);
     }
 
+    /**
+     * Reads are filtered and transformed by the read threads, so only the writing is left for the traversal thread,
+     * which keeps the output in the order of the input.
+     */
+    @Override
+    protected ReadProcessor makeReadProcessor() {
+        return (read, referenceContext, featureContext) -> () -> outputWriter.addRead(read);
+    }
+
     @Override
     public void closeTool() {
         if ( outputWriter != null ) {
@@ -9,6 +9,7 @@ import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.programgroups.CoverageAnalysisProgramGroup;
 import org.broadinstitute.hellbender.engine.AlignmentContext;
 import org.broadinstitute.hellbender.engine.FeatureContext;
+import org.broadinstitute.hellbender.engine.LocusProcessor;
 import org.broadinstitute.hellbender.engine.LocusWalker;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
 import org.broadinstitute.hellbender.engine.filters.MappingQualityReadFilter;
@@ -20,6 +21,7 @@ import org.broadinstitute.hellbender.tools.copynumber.formats.collections.Alleli
 import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.Metadata;
 import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.MetadataUtils;
 import org.broadinstitute.hellbender.tools.copynumber.formats.metadata.SampleLocatableMetadata;
+import org.broadinstitute.hellbender.tools.copynumber.formats.records.AllelicCount;
 import org.broadinstitute.hellbender.utils.Nucleotide;
 
 import java.io.File;
@@ -111,6 +113,11 @@ public final class CollectAllelicCounts extends LocusWalker {
         return true;
     }
 
+    @Override
+    protected boolean useReusablePileupViews() {
+        return true;
+    }
+
     @Override
     public boolean requiresReference() {
         return true;
@@ -160,6 +167,19 @@ public final class CollectAllelicCounts extends LocusWalker {
     @Override
     public void apply(AlignmentContext alignmentContext, ReferenceContext referenceContext, FeatureContext featureContext) {
         final byte refAsByte = referenceContext.getBase();
-        allelicCountCollector.collectAtLocus(Nucleotide.decode(refAsByte), alignmentContext.getBasePileup(), alignmentContext.getLocation(), minimumBaseQuality);
+        final AllelicCount allelicCount = AllelicCountCollector.countAtLocus(Nucleotide.decode(refAsByte),
+                alignmentContext.getPileupView(), alignmentContext.getLocation(), minimumBaseQuality);
+        if (allelicCount != null) {
+            allelicCountCollector.add(allelicCount);
+        }
+    }
+
+    @Override
+    protected LocusProcessor makeLocusProcessor() {
+        return (alignmentContext, referenceContext, featureContext) -> {
+            final AllelicCount allelicCount = AllelicCountCollector.countAtLocus(Nucleotide.decode(referenceContext.getBase()),
+                    alignmentContext.getPileupView(), alignmentContext.getLocation(), minimumBaseQuality);
+            return allelicCount == null ? null : () -> allelicCountCollector.add(allelicCount);
+        };
     }
 }
@@ -11,6 +11,7 @@ import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.param.ParamUtils;
 import org.broadinstitute.hellbender.utils.pileup.ReadPileup;
+import org.broadinstitute.hellbender.utils.pileup.ReusablePileupView;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -46,15 +47,29 @@ public final class AllelicCountCollector {
      * @param minBaseQuality minimum base quality in the read for that read to count at that position.  Must be greater than or equal to 0.
      */
     public void collectAtLocus(final Nucleotide refBase, final ReadPileup pileup, final Locatable locus, final int minBaseQuality) {
+        final AllelicCount allelicCount = countAtLocus(refBase, pileup, locus, minBaseQuality);
+        if (allelicCount != null) {
+            allelicCounts.add(allelicCount);
+        }
+    }
+
+    /**
+     * Compute the counts for a specific locus, without adding them to this class.
+     *
+     * @param refBase single nucleotide of the reference.  Not {@code null}
+     * @param pileup associated pileup at the locus.  Not {@code null}
+     * @param locus position in genome to collect alellic counts.  Not {@code null}
+     * @param minBaseQuality minimum base quality in the read for that read to count at that position.  Must be greater than or equal to 0.
+     * @return the counts, or {@code null} if the reference base is unknown
+     */
+    public static AllelicCount countAtLocus(final Nucleotide refBase, final ReadPileup pileup, final Locatable locus, final int minBaseQuality) {
         Utils.nonNull(refBase);
         Utils.nonNull(pileup);
         Utils.nonNull(locus);
         ParamUtils.isPositiveOrZero(minBaseQuality, "Minimum base quality must be zero or higher.");
 
-        if (!BASES.contains(refBase)) {
-            logger.warn(String.format("The reference position at %s has an unknown base call (value: %s). Skipping...",
-                    locus, refBase.toString()));
-            return;
+        if (!isKnownBase(refBase, locus)) {
+            return null;
         }
 
         final Nucleotide.Counter nucleotideCounter = new Nucleotide.Counter();
@@ -64,14 +79,66 @@ public final class AllelicCountCollector {
                 .filter(r -> r.getQual() >= minBaseQuality)
                 .forEach(r -> nucleotideCounter.add(r.getBase()));
 
+        return makeAllelicCount(nucleotideCounter, refBase, locus);
+    }
+
+    /**
+     * Compute the counts for a specific locus from a {@link ReusablePileupView}, without adding them to this class.
+     * The counts are the same as those computed from the equivalent {@link ReadPileup}.
+     *
+     * @param refBase single nucleotide of the reference.  Not {@code null}
+     * @param pileupView associated pileup at the locus.  Not {@code null}
+     * @param locus position in genome to collect alellic counts.  Not {@code null}
+     * @param minBaseQuality minimum base quality in the read for that read to count at that position.  Must be greater than or equal to 0.
+     * @return the counts, or {@code null} if the reference base is unknown
+     */
+    public static AllelicCount countAtLocus(final Nucleotide refBase, final ReusablePileupView pileupView, final Locatable locus, final int minBaseQuality) {
+        Utils.nonNull(refBase);
+        Utils.nonNull(pileupView);
+        Utils.nonNull(locus);
+        ParamUtils.isPositiveOrZero(minBaseQuality, "Minimum base quality must be zero or higher.");
+
+        if (!isKnownBase(refBase, locus)) {
+            return null;
+        }
+
+        final Nucleotide.Counter nucleotideCounter = new Nucleotide.Counter();
+        for (int i = 0; i < pileupView.size(); i++) {
+            if (!pileupView.isDeletion(i) && pileupView.getQual(i) >= minBaseQuality) {
+                nucleotideCounter.add(pileupView.getBase(i));
+            }
+        }
+
+        return makeAllelicCount(nucleotideCounter, refBase, locus);
+    }
+
+    private static boolean isKnownBase(final Nucleotide refBase, final Locatable locus) {
+        if (!BASES.contains(refBase)) {
+            logger.warn(String.format("The reference position at %s has an unknown base call (value: %s). Skipping...",
+                    locus, refBase.toString()));
+            return false;
+        }
+        return true;
+    }
+
+    private static AllelicCount makeAllelicCount(final Nucleotide.Counter nucleotideCounter, final Nucleotide refBase, final Locatable locus) {
         final int totalBaseCount = BASES.stream().mapToInt(b -> (int) nucleotideCounter.get(b)).sum();  //only include total ACGT counts (exclude N, etc.)
         final int refReadCount = (int) nucleotideCounter.get(refBase);
         final int altReadCount = totalBaseCount - refReadCount;                                         //we take alt = total - ref instead of the actual alt count
         final Nucleotide altBase = altReadCount == 0 ? Nucleotide.N : inferAltFromPileupBaseCounts(nucleotideCounter, refBase);
 
-        allelicCounts.add(new AllelicCount(
+        return new AllelicCount(
                 new SimpleInterval(locus.getContig(), locus.getStart(), locus.getEnd()),
-                refReadCount, altReadCount, refBase, altBase));
+                refReadCount, altReadCount, refBase, altBase);
+    }
+
+    /**
+     * Add counts computed with {@link #countAtLocus} to this class.
+     *
+     * @param allelicCount counts for a locus.  Not {@code null}
+     */
+    public void add(final AllelicCount allelicCount) {
+        allelicCounts.add(Utils.nonNull(allelicCount));
     }
 
     /**
@@ -167,6 +167,7 @@ import static org.broadinstitute.hellbender.tools.genomicsdb.GenomicsDBUtils.gen
  *     <li>The --genomicsdb-update-workspace-path must point to a existing genomicsdb workspace</li>
  *     <li>Either --genomicsdb-workspace-path or genomicsdb-update-workspace-path must be specified</li>
  *     <li>GenomicsDBImport uses temporary disk storage during import. The amount of temporary disk storage required can exceed the space available, especially when specifying a large number of intervals. The command line argument `--tmp-dir` can be used to specify an alternate temporary storage location with sufficient space..</li>
+ *     <li>When importing multiple intervals, the readers of a batch are kept open and shared by the intervals, and the readers of the next batch are opened ahead of time, so up to (--max-num-intervals-to-import-in-parallel + 1) * --batch-size GVCFs may be open at once</li>
  *     <li>It is recommended that users backup existing genomicsdb workspaces before adding new samples using --genomicsdb-update-workspace-path. If the tool fails during incremental import for any reason, the workspace may be in an inconsistent/corrupted state</li>
  * </ul>
  *
@@ -314,7 +315,9 @@ public final class GenomicsDBImport extends GATKTool {
     @Advanced
     @Argument(fullName = VCF_INITIALIZER_THREADS_LONG_NAME,
             doc = "How many simultaneous threads to use when opening VCFs in batches; higher values may improve performance " +
-                    "when network latency is an issue. Multiple reader threads are not supported when running with multiple intervals.",
+                    "when network latency is an issue. When running with multiple intervals, these threads instead open the VCFs " +
+                    "of the next batch while the current one is being imported, and VCFs that are needed right away are " +
+                    "opened by the threads importing the intervals.",
             optional = true,
             minValue = 1)
     private int vcfInitializerThreads = 1;
@@ -353,9 +356,12 @@ public final class GenomicsDBImport extends GATKTool {
             optional = true)
     public boolean useGcsHdfsConnector = false;
 
-    //executor service used when vcfInitializerThreads > 1
+    //executor service used when vcfInitializerThreads > 1, or when importing multiple intervals
     private ExecutorService inputPreloadExecutorService;
 
+    //readers shared by the intervals being imported, used when importing multiple intervals
+    private GenomicsDBReaderPool readerPool;
+
     /**
      * Get the largest interval per contig that contains the intervals specified on the command line.
      * @param getIntervals intervals to be transformed
@@ -695,26 +701,29 @@ public final class GenomicsDBImport extends GATKTool {
     }
 
     private void initializeInputPreloadExecutorService() {
-        if( vcfInitializerThreads > 1) {
-            if( intervals != null && intervals.size() == 1) {
-                final ThreadFactory threadFactory = new ThreadFactoryBuilder()
-                    .setNameFormat("readerInitializer-thread-%d")
-                    .setDaemon(true)
-                    .build();
-                this.inputPreloadExecutorService = Executors.newFixedThreadPool(vcfInitializerThreads, threadFactory);
-            }
-            else {
-                logger.warn("GenomicsDBImport cannot use multiple VCF reader threads for initialization when the "
-                    + "number of intervals is greater than 1. Falling back to serial VCF reader initialization.");
-                inputPreloadExecutorService = null;
-            }
+        final ThreadFactory threadFactory = new ThreadFactoryBuilder()
+            .setNameFormat("readerInitializer-thread-%d")
+            .setDaemon(true)
+            .build();
+        if( intervals != null && intervals.size() == 1) {
+            this.inputPreloadExecutorService = vcfInitializerThreads > 1 ?
+                    Executors.newFixedThreadPool(vcfInitializerThreads, threadFactory) : null;
         } else {
-            inputPreloadExecutorService = null;
+            // each batch is imported once per interval, so rather than reopening every VCF for each interval the readers
+            // are kept open and shared, and the readers of the next batch are opened while the current one is imported
+            this.inputPreloadExecutorService = Executors.newFixedThreadPool(vcfInitializerThreads, threadFactory);
+            this.readerPool = new GenomicsDBReaderPool(path -> getReaderFromPath(IOUtils.getPath(path.toString())),
+                    inputPreloadExecutorService);
         }
     }
 
     private Map<String, FeatureReader<VariantContext>> createSampleToReaderMap(
             final Map<String, URI> sampleNameToVcfPath, final int batchSize, final int index) {
+        if (readerPool != null) {
+            final Map<String, FeatureReader<VariantContext>> sampleToReaderMap = readerPool.getReaders(sampleNameToVcfPath, batchSize, index);
+            logger.info("Importing batch " + this.batchCount + " with " + sampleToReaderMap.size() + " samples");
+            return sampleToReaderMap;
+        }
         // TODO: fix casting since it's really ugly
         return inputPreloadExecutorService != null ?
                 getFeatureReadersInParallel((SortedMap<String, URI>) sampleNameToVcfPath, batchSize, index)
@@ -890,6 +899,9 @@ public final class GenomicsDBImport extends GATKTool {
 
     @Override
     public Object onTraversalSuccess() {
+        if (readerPool != null) {
+            logger.info("Opened " + readerPool.getNumReadersOpened() + " VCF readers for " + sampleNameToVcfPath.size() + " samples");
+        }
         if (getIntervalsFromExistingWorkspace) {
             logger.info("Interval list generated!");
         } else if (batchSize == DEFAULT_ZERO_BATCH_SIZE) {
@@ -1099,6 +1111,9 @@ public final class GenomicsDBImport extends GATKTool {
 
     @Override
     public void onShutdown(){
+        if(readerPool != null) {
+            readerPool.close();
+        }
         if(inputPreloadExecutorService != null) {
             inputPreloadExecutorService.shutdownNow();
         }
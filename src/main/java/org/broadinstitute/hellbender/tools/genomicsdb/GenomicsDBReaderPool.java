@@ -0,0 +1,253 @@
+package org.broadinstitute.hellbender.tools.genomicsdb;
+
+import htsjdk.samtools.util.CloserUtil;
+import htsjdk.tribble.CloseableTribbleIterator;
+import htsjdk.tribble.FeatureReader;
+import htsjdk.variant.variantcontext.VariantContext;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+/**
+ * A pool of open GVCF readers shared by the intervals that {@link GenomicsDBImport} imports, possibly concurrently.
+ *
+ * GenomicsDB asks for the readers of a batch of samples once for each interval, and closes them once the batch has been
+ * imported for that interval. Closing a reader handed out by this pool returns it to the pool instead, so that importing
+ * the batch for the next interval reuses the open readers, along with their headers and indexes, rather than opening
+ * every file again. While a batch is being imported, the readers of the next batch are opened in the background.
+ * Readers that are needed right away, because none is idle for their sample, are opened on the thread asking for them,
+ * so that intervals imported concurrently open them concurrently, however few threads open readers in the background.
+ *
+ * Each reader is used by one interval at a time, so the pool holds at most one reader per sample of the current batch
+ * for each interval imported concurrently, plus one per sample of the next batch. Readers of earlier batches are closed
+ * when they are returned to the pool.
+ */
+final class GenomicsDBReaderPool implements AutoCloseable {
+
+    private final Function<URI, FeatureReader<VariantContext>> readerFactory;
+    private final ExecutorService executor;
+
+    // readers (possibly still being opened) that are not in use, by sample name
+    private final Map<String, Deque<CompletableFuture<FeatureReader<VariantContext>>>> idleReaders = new HashMap<>();
+    // every reader that has been opened and not closed yet, whether it is in use or not
+    private final Set<FeatureReader<VariantContext>> openReaders = new HashSet<>();
+    // samples of the current and next batches, whose readers are kept in the pool when returned
+    private Set<String> samplesToKeep = new HashSet<>();
+    // the sample names of the last map of samples passed to getReaders, in import order
+    private Map<String, URI> sampleNameToPath = null;
+    private List<String> sampleNames = null;
+    private int currentBatchStart = -1;
+    private boolean closed = false;
+    private long numReadersOpened = 0;
+
+    /**
+     * @param readerFactory opens the reader of a GVCF
+     * @param executor used to open the readers of the next batch in the background; its threads should not be used to
+     *                 call {@link #getReaders}
+     */
+    GenomicsDBReaderPool(final Function<URI, FeatureReader<VariantContext>> readerFactory, final ExecutorService executor) {
+        this.readerFactory = Utils.nonNull(readerFactory);
+        this.executor = Utils.nonNull(executor);
+    }
+
+    /**
+     * Get readers for a batch of samples, either from the pool or by opening them. May be called concurrently for
+     * the same batch by the intervals being imported at the same time.
+     *
+     * @param sampleNameToPath all samples to import, in import order, and the paths of their GVCFs
+     * @param batchSize number of samples in a batch
+     * @param lowerSampleIndex 0-based index of the first sample of the batch
+     * @return readers for the samples of the batch, sorted by sample name, which are returned to the pool when closed
+     */
+    SortedMap<String, FeatureReader<VariantContext>> getReaders(final Map<String, URI> sampleNameToPath, final int batchSize,
+                                                              final int lowerSampleIndex) {
+        Utils.nonNull(sampleNameToPath);
+        Utils.validateArg(batchSize > 0, "batchSize must be positive");
+        Utils.validateArg(lowerSampleIndex >= 0 && lowerSampleIndex < sampleNameToPath.size(), "lowerSampleIndex is out of range");
+
+        // idle readers for the samples of the batch, or null for the samples that have none and must be opened here
+        final Map<String, CompletableFuture<FeatureReader<VariantContext>>> futures = new LinkedHashMap<>();
+        synchronized (this) {
+            Utils.validate(!closed, "the reader pool has been closed");
+            if (sampleNameToPath != this.sampleNameToPath) {
+                this.sampleNameToPath = sampleNameToPath;
+                sampleNames = new ArrayList<>(sampleNameToPath.keySet());
+            }
+            if (lowerSampleIndex != currentBatchStart) {
+                startBatch(batchSize, lowerSampleIndex);
+            }
+            final int batchEnd = lowerSampleIndex + Math.min(batchSize, sampleNames.size() - lowerSampleIndex);
+            for (final String sampleName : sampleNames.subList(lowerSampleIndex, batchEnd)) {
+                final Deque<CompletableFuture<FeatureReader<VariantContext>>> idle = idleReaders.get(sampleName);
+                if (idle != null && !idle.isEmpty()) {
+                    futures.put(sampleName, idle.poll());
+                } else {
+                    futures.put(sampleName, null);
+                    numReadersOpened++;
+                }
+            }
+        }
+
+        final SortedMap<String, FeatureReader<VariantContext>> sampleToReaderMap = new TreeMap<>();
+        futures.forEach((sampleName, future) -> {
+            final FeatureReader<VariantContext> reader = future != null ? join(future) : openReader(sampleNameToPath.get(sampleName));
+            sampleToReaderMap.put(sampleName, new PooledReader(sampleName, reader));
+        });
+        return sampleToReaderMap;
+    }
+
+    /**
+     * Close the idle readers that aren't needed any more, and start opening the readers of the batch after this one.
+     */
+    private void startBatch(final int batchSize, final int lowerSampleIndex) {
+        currentBatchStart = lowerSampleIndex;
+        final int batchEnd = lowerSampleIndex + Math.min(batchSize, sampleNames.size() - lowerSampleIndex);
+        final int nextBatchEnd = batchEnd + Math.min(batchSize, sampleNames.size() - batchEnd);
+        samplesToKeep = new HashSet<>(sampleNames.subList(lowerSampleIndex, nextBatchEnd));
+
+        final Iterator<Map.Entry<String, Deque<CompletableFuture<FeatureReader<VariantContext>>>>> it = idleReaders.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<String, Deque<CompletableFuture<FeatureReader<VariantContext>>>> entry = it.next();
+            if (!samplesToKeep.contains(entry.getKey())) {
+                entry.getValue().forEach(future -> future.thenAccept(this::closeReader));
+                it.remove();
+            }
+        }
+
+        for (final String sampleName : sampleNames.subList(batchEnd, nextBatchEnd)) {
+            final Deque<CompletableFuture<FeatureReader<VariantContext>>> idle = idleReaders.computeIfAbsent(sampleName, k -> new ArrayDeque<>());
+            if (idle.isEmpty()) {
+                final URI path = sampleNameToPath.get(sampleName);
+                numReadersOpened++;
+                idle.add(CompletableFuture.supplyAsync(() -> openReader(path), executor));
+            }
+        }
+    }
+
+    /**
+     * Open a reader on the calling thread, and keep track of it so that it is closed along with the pool.
+     * Readers of the next batch are opened by calling this on the executor.
+     */
+    private FeatureReader<VariantContext> openReader(final URI path) {
+        final FeatureReader<VariantContext> reader = readerFactory.apply(path);
+        synchronized (this) {
+            if (closed) {
+                CloserUtil.close(reader);
+            } else {
+                openReaders.add(reader);
+            }
+        }
+        return reader;
+    }
+
+    private static FeatureReader<VariantContext> join(final CompletableFuture<FeatureReader<VariantContext>> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private synchronized void returnReader(final String sampleName, final FeatureReader<VariantContext> reader) {
+        if (!closed && samplesToKeep.contains(sampleName)) {
+            idleReaders.computeIfAbsent(sampleName, k -> new ArrayDeque<>()).add(CompletableFuture.completedFuture(reader));
+        } else {
+            closeReader(reader);
+        }
+    }
+
+    private synchronized void closeReader(final FeatureReader<VariantContext> reader) {
+        if (openReaders.remove(reader)) {
+            CloserUtil.close(reader);
+        }
+    }
+
+    /**
+     * @return the number of readers this pool has opened or started opening, including those opened ahead of their batch
+     */
+    synchronized long getNumReadersOpened() {
+        return numReadersOpened;
+    }
+
+    /**
+     * @return the number of readers currently open, whether they are in use or not
+     */
+    synchronized int getNumOpenReaders() {
+        return openReaders.size();
+    }
+
+    /**
+     * Close every reader opened by this pool, including those still in use.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        openReaders.forEach(CloserUtil::close);
+        openReaders.clear();
+        idleReaders.clear();
+    }
+
+    /**
+     * A reader borrowed from the pool, which is returned to the pool rather than closed.
+     */
+    private final class PooledReader implements FeatureReader<VariantContext> {
+        private final String sampleName;
+        private final FeatureReader<VariantContext> reader;
+        private boolean returned = false;
+
+        private PooledReader(final String sampleName, final FeatureReader<VariantContext> reader) {
+            this.sampleName = sampleName;
+            this.reader = reader;
+        }
+
+        @Override
+        public CloseableTribbleIterator<VariantContext> query(final String chr, final int start, final int end) throws IOException {
+            return reader.query(chr, start, end);
+        }
+
+        @Override
+        public CloseableTribbleIterator<VariantContext> iterator() throws IOException {
+            return reader.iterator();
+        }
+
+        @Override
+        public void close() {
+            if (!returned) {
+                returned = true;
+                returnReader(sampleName, reader);
+            }
+        }
+
+        @Override
+        public List<String> getSequenceNames() {
+            return reader.getSequenceNames();
+        }
+
+        @Override
+        public Object getHeader() {
+            return reader.getHeader();
+        }
+
+        @Override
+        public boolean isQueryable() {
+            return reader.isQueryable();
+        }
+    }
+}
@@ -29,6 +29,7 @@ import org.broadinstitute.hellbender.tools.walkers.annotator.VariantAnnotatorEng
 import org.broadinstitute.hellbender.tools.walkers.mutect.filtering.Mutect2FilteringEngine;
 import org.broadinstitute.hellbender.utils.IntervalUtils;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.genotyper.IndexedSampleList;
 import org.broadinstitute.hellbender.utils.variant.GATKVCFHeaderLines;
 import org.broadinstitute.hellbender.utils.variant.GATKVariantContextUtils;
@@ -64,6 +65,24 @@ import java.util.*;
  *   -O cohort.g.vcf.gz
  * </pre>
  *
+ * <h3>Adding samples to a combined GVCF</h3>
+ * <p>
+ * A multi-sample GVCF produced by this tool can itself be given as an input, so a growing cohort can be extended
+ * incrementally: the combined GVCF carries the merge state of the samples already in it, and only the GVCFs of the new
+ * samples have to be read alongside it, rather than every per-sample GVCF of the cohort. The genotypes, PLs, ADs and
+ * reference blocks are the same as when combining all of the per-sample GVCFs at once. The rank sum annotations
+ * (BaseQRankSum, ClippingRankSum, MQRankSum, ReadPosRankSum) are not: a combined input only holds the already merged
+ * value of each, so they are approximated from that value and can differ from a combination done in one pass.
+ * Each sample should be in only one of the inputs.
+ * </p>
+ * <pre>
+ * gatk CombineGVCFs \
+ *   -R reference.fasta \
+ *   --variant cohort.g.vcf.gz \
+ *   --variant sample3.g.vcf.gz \
+ *   -O cohort.updated.g.vcf.gz
+ * </pre>
+ *
  * <h3>Caveats</h3>
  * <p>Only GVCF files produced by HaplotypeCaller (or CombineGVCFs) can be used as input for this tool. Some other
  * programs produce files that they call GVCFs but those lack some important information (accurate genotype likelihoods
@@ -186,59 +205,129 @@ public final class CombineGVCFs extends MultiVariantWalkerGroupedOnStart {
     void createIntermediateVariants(SimpleInterval intervalToClose) {
         resizeReferenceIfNeeded(intervalToClose);
 
-        // Break up the GVCF according to the provided reference blocking scheme
-        // The values returned from getIntermediateStopSites represent a proposed set of stop sites that may include
-        // intervals that are outside the actual interval being closed. These sites are filtered out below.
-        // Note: Precomputing these is really inefficient when large reference blocks are closed with
-        // fine band resolution because it results in very large collections of stop sites (tens or hundreds of millions)
-        // that must subsequently be sorted.
-        final Set<Integer> sitesToStop = getIntermediateStopSites(intervalToClose, multipleAtWhichToBreakBands);
+        // The stop sites (band breaks, ends of reference blocks and every position of a variant) are generated in order
+        // as the interval is closed, rather than collected and sorted up front, since closing large reference blocks with
+        // fine band resolution can otherwise produce tens or hundreds of millions of stop sites.
+        final IntermediateStopSites sitesToStop = new IntermediateStopSites(intervalToClose, multipleAtWhichToBreakBands, variantContextsOverlappingCurrentMerge);
+
+        // For each stopped loc that is within the interval being closed, create a fake QueuedContextState and pass it to endPreviousStats
+        for (int stoppedLoc = sitesToStop.next(); stoppedLoc != IntermediateStopSites.NO_MORE_STOP_SITES; stoppedLoc = sitesToStop.next()) {
+            SimpleInterval loc = new SimpleInterval(intervalToClose.getContig(), stoppedLoc, stoppedLoc);
+            if (isWithinInterval(loc)) {
+                byte[] refBases = Arrays.copyOfRange(storedReferenceContext.getBases(), stoppedLoc - storedReferenceContext.getWindow().getStart(), stoppedLoc - storedReferenceContext.getWindow().getStart() + 2);
+                endPreviousStates(loc, refBases, Collections.emptyList(), true);
+            }
+        }
+
+    }
+
+    /**
+     * The sites within an interval being closed at which the variant contexts overlapping the current merge have to be
+     * stopped, in increasing order. The variant contexts are snapshotted on construction, so the merge state may change
+     * while the sites are being consumed.
+     */
+    @VisibleForTesting
+    static final class IntermediateStopSites {
+        static final int NO_MORE_STOP_SITES = Integer.MAX_VALUE;
+
+        private final SimpleInterval intervalToClose;
+        private final int breakBandMultiple;
+
+        // ends of the reference blocks, sorted
+        private final int[] refBlockEnds;
+        private int refBlockIndex = 0;
+
+        // spans of the variants (every position of which is a stop site), sorted by start
+        private final int[] variantStarts;
+        private final int[] variantEnds;
+        private int variantIndex = 0;
 
-        // If any variant contexts ended (or were spanning deletions) the last context compute where we should stop them
-        for (VariantContext vc : variantContextsOverlappingCurrentMerge) {
+        private int nextPosition;
+
+        IntermediateStopSites(final SimpleInterval intervalToClose, final int breakBandMultiple, final Collection<VariantContext> variantContexts) {
+            this.intervalToClose = Utils.nonNull(intervalToClose);
+            this.breakBandMultiple = breakBandMultiple;
 
             // Asking if the number of alleles > 2 is a shorthand for a variant being present, as we expect <non-ref>
             // symbolic alleles to be present in all VariantContext. This might also be the case if we saw a spanning
             // deletion that reads into the current site, as we would expect ReferenceConfidenceVariantContextMerger to
             // insert symbolic alleles for those spanning variants.
-            if (vc.getNAlleles() > 2) {
-                for (int i = vc.getStart(); i <= vc.getEnd(); i++ ) {
-                    sitesToStop.add(i);
-                }
-            } else if (vc.getEnd() <= intervalToClose.getEnd()) {
-                sitesToStop.add(vc.getEnd());
+            final List<VariantContext> variants = new ArrayList<>();
+            final List<VariantContext> refBlocks = new ArrayList<>(variantContexts.size());
+            for (final VariantContext vc : variantContexts) {
+                (vc.getNAlleles() > 2 ? variants : refBlocks).add(vc);
             }
+            refBlockEnds = refBlocks.stream().mapToInt(VariantContext::getEnd).sorted().toArray();
+            variants.sort(Comparator.comparingInt(VariantContext::getStart));
+            variantStarts = variants.stream().mapToInt(VariantContext::getStart).toArray();
+            variantEnds = variants.stream().mapToInt(VariantContext::getEnd).toArray();
+
+            nextPosition = intervalToClose.getStart();
         }
 
-        List<Integer> stoppedLocs = new ArrayList<>(sitesToStop);
-        stoppedLocs.sort(Comparator.naturalOrder());
+        /**
+         * @return the next stop site within the interval, or {@link #NO_MORE_STOP_SITES} once they have all been returned
+         */
+        int next() {
+            if (nextPosition > intervalToClose.getEnd()) {
+                return NO_MORE_STOP_SITES;
+            }
 
-        // For each stopped loc that is within the interval being closed, create a fake QueuedContextState and pass it to endPreviousStats
-        for (int stoppedLoc : stoppedLocs) {
-            SimpleInterval loc = new SimpleInterval(intervalToClose.getContig(), stoppedLoc, stoppedLoc);
-            if (( stoppedLoc <= intervalToClose.getEnd() && stoppedLoc>= intervalToClose.getStart()) && isWithinInterval(loc)) {
-                byte[] refBases = Arrays.copyOfRange(storedReferenceContext.getBases(), stoppedLoc - storedReferenceContext.getWindow().getStart(), stoppedLoc - storedReferenceContext.getWindow().getStart() + 2);
-                endPreviousStates(loc, refBases, Collections.emptyList(), true);
+            int stopSite = nextBandStopSite(intervalToClose, breakBandMultiple, nextPosition);
+
+            while (refBlockIndex < refBlockEnds.length && refBlockEnds[refBlockIndex] < nextPosition) {
+                refBlockIndex++;
+            }
+            if (refBlockIndex < refBlockEnds.length) {
+                stopSite = Math.min(stopSite, refBlockEnds[refBlockIndex]);
+            }
+
+            // a variant that has been skipped ends before any later position, and since the variants are sorted by start
+            // the first one that hasn't yields the earliest variant position at or after the next position
+            while (variantIndex < variantEnds.length && variantEnds[variantIndex] < nextPosition) {
+                variantIndex++;
+            }
+            if (variantIndex < variantEnds.length) {
+                stopSite = Math.min(stopSite, Math.max(nextPosition, variantStarts[variantIndex]));
+            }
+
+            if (stopSite > intervalToClose.getEnd()) {
+                nextPosition = NO_MORE_STOP_SITES;
+                return NO_MORE_STOP_SITES;
             }
+            nextPosition = stopSite + 1;
+            return stopSite;
         }
+    }
 
+    /**
+     * Get the first intermediate stop site at or after a position based on the break band multiple.
+     *
+     * @return the stop site, or {@link IntermediateStopSites#NO_MORE_STOP_SITES} if there is none before the end of the interval
+     */
+    private static int nextBandStopSite(final SimpleInterval intervalToClose, final int breakBandMultiple, final int position) {
+        if ( breakBandMultiple <= 0 ) {
+            return IntermediateStopSites.NO_MORE_STOP_SITES;
+        }
+        // if the intermediate interval to close starts before the end of the first band multiple,
+        // create the first stop position at the end of the band multiple
+        // Subtract 1 here because we want to split before the block end position
+        final int firstStopSite = (intervalToClose.getStart() < (breakBandMultiple + 1) ?
+                Math.max(2, breakBandMultiple) :
+                (intervalToClose.getStart() / breakBandMultiple) * breakBandMultiple) - 1;
+        final long stopSite = position <= firstStopSite ? firstStopSite :
+                firstStopSite + ((long) position - firstStopSite + breakBandMultiple - 1) / breakBandMultiple * breakBandMultiple;
+        return stopSite + 1 <= intervalToClose.getEnd() ? (int) stopSite : IntermediateStopSites.NO_MORE_STOP_SITES;
     }
 
     // Get any intermediate stop sites based on the break band multiple.
     @VisibleForTesting
     protected final static Set<Integer> getIntermediateStopSites(final SimpleInterval intervalToClose, final int breakBandMultiple) {
         final Set<Integer> sitesToStop = new HashSet<>();
-
-        if ( breakBandMultiple > 0) {
-            // if the intermediate interval to close starts before the end of the first band multiple,
-            // create the first stop position at the end of the band multiple
-            for (int blockEndPosition = intervalToClose.getStart() < (breakBandMultiple + 1) ?
-                    Math.max(2, breakBandMultiple) :
-                    (intervalToClose.getStart() / breakBandMultiple) * breakBandMultiple;
-                 blockEndPosition <= intervalToClose.getEnd();
-                 blockEndPosition += breakBandMultiple) {
-                sitesToStop.add(blockEndPosition - 1); // Subtract 1 here because we want to split before this base
-            }
+        for (int stopSite = nextBandStopSite(intervalToClose, breakBandMultiple, Integer.MIN_VALUE);
+             stopSite != IntermediateStopSites.NO_MORE_STOP_SITES;
+             stopSite = nextBandStopSite(intervalToClose, breakBandMultiple, stopSite + 1)) {
+            sitesToStop.add(stopSite);
         }
         return sitesToStop;
     }
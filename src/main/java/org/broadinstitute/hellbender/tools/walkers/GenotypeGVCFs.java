@@ -16,6 +16,7 @@ import org.broadinstitute.hellbender.engine.FeatureContext;
 import org.broadinstitute.hellbender.engine.GATKPath;
 import org.broadinstitute.hellbender.engine.ReadsContext;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
+import org.broadinstitute.hellbender.engine.VariantLocusProcessor;
 import org.broadinstitute.hellbender.engine.VariantLocusWalker;
 import org.broadinstitute.hellbender.tools.genomicsdb.GenomicsDBArgumentCollection;
 import org.broadinstitute.hellbender.tools.genomicsdb.GenomicsDBImport;
@@ -79,6 +80,10 @@ import java.util.*;
  *   <li>The amount of temporary disk storage required by GenomicsDBImport may exceed what is available in the default location: `/tmp`. The command line argument `--tmp-dir` can be used to specify an alternate temperary storage location with sufficient space.</li>
  * </ul>
  *
+ * <h3>Multithreading</h3>
+ * <p>With <code>--site-threads</code> greater than 1, sites are genotyped concurrently, each thread with its own
+ * genotyping engine, and the output is written in the same order as in a single-threaded run.</p>
+ *
  * <h3>Special note on ploidy</h3>
  * <p>This tool is able to handle any ploidy (or mix of ploidies) intelligently; there is no need to specify ploidy
  * for non-diploid organisms.</p>
@@ -275,18 +280,45 @@ public final class GenotypeGVCFs extends VariantLocusWalker {
 
     @Override
     public void apply(final Locatable loc, List<VariantContext> variants, ReadsContext reads, ReferenceContext ref, FeatureContext features) {
+        final VariantContext regenotypedVC = genotypeSite(gvcfEngine, merger, loc, variants, ref, features);
+        if (regenotypedVC != null) {
+            vcfWriter.add(regenotypedVC);
+        }
+    }
 
+    @Override
+    protected VariantLocusProcessor makeVariantLocusProcessor() {
+        // GenotypeGVCFsEngine and the merger are not thread-safe, so each thread gets its own
+        final VariantAnnotatorEngine threadAnnotationEngine = new VariantAnnotatorEngine(makeVariantAnnotations(), dbsnp.dbsnp, Collections.emptyList(), false, keepCombined);
+        final ReferenceConfidenceVariantContextMerger threadMerger = new ReferenceConfidenceVariantContextMerger(threadAnnotationEngine, getHeaderForVariants(), somaticInput);
+        final GenotypeGVCFsEngine threadEngine = new GenotypeGVCFsEngine(threadAnnotationEngine, genotypeArgs, includeNonVariants, getHeaderForVariants());
+        threadEngine.createOutputHeader(getDefaultToolVCFHeaderLines(), keepCombined, dbsnp);
+
+        return (loc, variants, ref, features) -> {
+            final VariantContext regenotypedVC = genotypeSite(threadEngine, threadMerger, loc, variants, ref, features);
+            return regenotypedVC == null ? null : () -> vcfWriter.add(regenotypedVC);
+        };
+    }
+
+    /**
+     * Genotype the variants at a site.
+     *
+     * @return the regenotyped variant, or null if there is nothing to output at this site
+     */
+    private VariantContext genotypeSite(final GenotypeGVCFsEngine engine, final ReferenceConfidenceVariantContextMerger siteMerger,
+                                        final Locatable loc, final List<VariantContext> variants, final ReferenceContext ref, final FeatureContext features) {
         final boolean inForceOutputIntervals = forceOutputIntervalsPresent && forceOutputIntervals.overlapsAny(loc);
         final boolean forceOutput = includeNonVariants || inForceOutputIntervals;
-        final VariantContext regenotypedVC = gvcfEngine.callRegion(loc, variants, ref, features, merger, somaticInput, tlodThreshold, afTolerance, forceOutput);
+        final VariantContext regenotypedVC = engine.callRegion(loc, variants, ref, features, siteMerger, somaticInput, tlodThreshold, afTolerance, forceOutput);
 
         if (regenotypedVC != null) {
             final SimpleInterval variantStart = new SimpleInterval(regenotypedVC.getContig(), regenotypedVC.getStart(), regenotypedVC.getStart());
             if ((forceOutput || !GATKVariantContextUtils.isSpanningDeletionOnly(regenotypedVC)) &&
                     (!onlyOutputCallsStartingInIntervals || intervals.stream().anyMatch(interval -> interval.contains (variantStart)))) {
-                vcfWriter.add(regenotypedVC);
+                return regenotypedVC;
             }
         }
+        return null;
     }
 
     @Override
@@ -379,6 +379,17 @@ public class GenotypeGVCFsEngine
 
      */
     public VariantContextWriter setupVCFWriter(Set<VCFHeaderLine> defaultToolVCFHeaderLines, boolean keepCombined, DbsnpArgumentCollection dbsnp, VariantContextWriter vcfWriter) {
+        vcfWriter.writeHeader(createOutputHeader(defaultToolVCFHeaderLines, keepCombined, dbsnp));
+        return vcfWriter;
+    }
+
+    /**
+     * Create the header of the output VCF, which this engine needs for genotyping. Engines whose output is written
+     * by another engine's writer (see {@link #setupVCFWriter}) must call this before {@link #callRegion}.
+     *
+     * @return the output header
+     */
+    public VCFHeader createOutputHeader(Set<VCFHeaderLine> defaultToolVCFHeaderLines, boolean keepCombined, DbsnpArgumentCollection dbsnp) {
         final Set<VCFHeaderLine> headerLines = new LinkedHashSet<>(inputVCFHeader.getMetaDataInInputOrder());
         headerLines.addAll(defaultToolVCFHeaderLines);
 
@@ -404,9 +415,7 @@ public class GenotypeGVCFsEngine
 
         final Set<String> sampleNameSet = samples.asSetOfSamples();
         outputHeader = new VCFHeader(headerLines, new TreeSet<>(sampleNameSet));
-        vcfWriter.writeHeader(outputHeader);
-
-        return vcfWriter;
+        return outputHeader;
     }
 
 
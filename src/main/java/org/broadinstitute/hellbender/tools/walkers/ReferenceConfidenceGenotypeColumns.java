@@ -0,0 +1,179 @@
+package org.broadinstitute.hellbender.tools.walkers;
+
+import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.GenotypeBuilder;
+import htsjdk.variant.variantcontext.GenotypesContext;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.variant.GATKVariantContextUtils;
+
+import java.util.Arrays;
+
+/**
+ * The genotypes of a merged reference-confidence site, held column-wise across the cohort: the remapped PL and AD
+ * values of all samples are stored in flat primitive arrays, along with per-sample ploidy, and the
+ * {@link Genotype} objects of the merged site are only made in {@link #toGenotypesContext()}.
+ *
+ * PLs and ADs are remapped to the merged alleles through permutation tables (see {@link #add}), which are computed
+ * by the caller once per input variant context and ploidy rather than once per sample.
+ */
+final class ReferenceConfidenceGenotypeColumns {
+
+    private static final int MISSING = -1;
+
+    private final int alleleCount;
+    private int size;
+
+    private Genotype[] sourceGenotypes;
+    private String[] names;
+    private int[] ploidies;
+
+    // offset (and length) of the remapped PLs of each sample in plValues, or MISSING if the source values are kept
+    private int[] plOffsets;
+    private int[] plLengths;
+    private int[] plValues;
+    private int plValuesSize;
+
+    // offset of the remapped ADs (alleleCount values) of each sample in adValues, or MISSING if the source values are kept
+    private int[] adOffsets;
+    private int[] adValues;
+    private int adValuesSize;
+
+    /**
+     * @param alleleCount number of alleles of the merged site
+     * @param initialCapacity expected number of samples
+     */
+    ReferenceConfidenceGenotypeColumns(final int alleleCount, final int initialCapacity) {
+        Utils.validateArg(alleleCount > 0, "alleleCount must be positive");
+        Utils.validateArg(initialCapacity >= 0, "initialCapacity must not be negative");
+        this.alleleCount = alleleCount;
+        final int capacity = Math.max(initialCapacity, 1);
+        sourceGenotypes = new Genotype[capacity];
+        names = new String[capacity];
+        ploidies = new int[capacity];
+        plOffsets = new int[capacity];
+        plLengths = new int[capacity];
+        adOffsets = new int[capacity];
+        // diploid biallelic sites are the common case
+        plValues = new int[capacity * 3];
+        adValues = new int[capacity * alleleCount];
+    }
+
+    /**
+     * Add a sample to the merged site.
+     *
+     * @param source the genotype of the sample in its input variant context
+     * @param name the name of the sample in the merged site
+     * @param genotypeIndexMap element {@code i} is the index in the PLs of {@code source} of the {@code i}-th genotype
+     *                         of the merged site, or {@code null} to keep the PLs and ADs of {@code source} unchanged
+     * @param alleleIndexMap element {@code i} is the index in the alleles of the input variant context of the {@code i}-th
+     *                       allele of the merged site; only used if {@code genotypeIndexMap} is non-null
+     */
+    void add(final Genotype source, final String name, final int[] genotypeIndexMap, final int[] alleleIndexMap) {
+        Utils.nonNull(source);
+        Utils.nonNull(name);
+        if ( size == sourceGenotypes.length ) {
+            grow();
+        }
+
+        sourceGenotypes[size] = source;
+        names[size] = name;
+        ploidies[size] = source.getPloidy();
+        plOffsets[size] = MISSING;
+        adOffsets[size] = MISSING;
+
+        if ( genotypeIndexMap != null ) {
+            Utils.nonNull(alleleIndexMap);
+            Utils.validateArg(alleleIndexMap.length == alleleCount, "the allele index map doesn't match the merged alleles");
+            final int[] sourcePLs = source.getPL();
+            ensurePLCapacity(plValuesSize + genotypeIndexMap.length);
+            for ( int i = 0; i < genotypeIndexMap.length; i++ ) {
+                plValues[plValuesSize + i] = sourcePLs[genotypeIndexMap[i]];
+            }
+            plOffsets[size] = plValuesSize;
+            plLengths[size] = genotypeIndexMap.length;
+            plValuesSize += genotypeIndexMap.length;
+
+            if ( source.hasAD() ) {
+                final int[] sourceAD = source.getAD();
+                ensureADCapacity(adValuesSize + alleleCount);
+                for ( int i = 0; i < alleleCount; i++ ) {
+                    // alleles of the merged site with no counts in the input (eg., <NON_REF> in some inputs) get 0
+                    adValues[adValuesSize + i] = alleleIndexMap[i] < sourceAD.length ? sourceAD[alleleIndexMap[i]] : 0;
+                }
+                adOffsets[size] = adValuesSize;
+                adValuesSize += alleleCount;
+            }
+        }
+        size++;
+    }
+
+    private void grow() {
+        final int capacity = 2 * sourceGenotypes.length;
+        sourceGenotypes = Arrays.copyOf(sourceGenotypes, capacity);
+        names = Arrays.copyOf(names, capacity);
+        ploidies = Arrays.copyOf(ploidies, capacity);
+        plOffsets = Arrays.copyOf(plOffsets, capacity);
+        plLengths = Arrays.copyOf(plLengths, capacity);
+        adOffsets = Arrays.copyOf(adOffsets, capacity);
+    }
+
+    private void ensurePLCapacity(final int capacity) {
+        if ( capacity > plValues.length ) {
+            plValues = Arrays.copyOf(plValues, Math.max(capacity, 2 * plValues.length));
+        }
+    }
+
+    private void ensureADCapacity(final int capacity) {
+        if ( capacity > adValues.length ) {
+            adValues = Arrays.copyOf(adValues, Math.max(capacity, 2 * adValues.length));
+        }
+    }
+
+    /**
+     * @return the number of samples in the merged site
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the ploidy of the i-th sample
+     */
+    int getPloidy(final int i) {
+        return ploidies[i];
+    }
+
+    /**
+     * @return a copy of the remapped PLs of the i-th sample, or its input PLs (possibly {@code null}) if they weren't remapped
+     */
+    int[] getPL(final int i) {
+        return plOffsets[i] == MISSING ? sourceGenotypes[i].getPL() : Arrays.copyOfRange(plValues, plOffsets[i], plOffsets[i] + plLengths[i]);
+    }
+
+    /**
+     * @return a copy of the remapped ADs of the i-th sample, or its input ADs (possibly {@code null}) if they weren't remapped
+     */
+    int[] getAD(final int i) {
+        return adOffsets[i] == MISSING ? sourceGenotypes[i].getAD() : Arrays.copyOfRange(adValues, adOffsets[i], adOffsets[i] + alleleCount);
+    }
+
+    /**
+     * Make the no-call genotypes of the merged site, which keep all the other fields of the input genotypes.
+     *
+     * @return a new genotypes context with one genotype per sample, in the order they were added
+     */
+    GenotypesContext toGenotypesContext() {
+        final GenotypesContext genotypes = GenotypesContext.create(size);
+        for ( int i = 0; i < size; i++ ) {
+            // DP, GQ and the other fields are copied from the input genotype
+            final GenotypeBuilder builder = new GenotypeBuilder(sourceGenotypes[i])
+                    .name(names[i])
+                    .alleles(GATKVariantContextUtils.noCallAlleles(ploidies[i]));
+            if ( plOffsets[i] != MISSING ) {
+                builder.PL(getPL(i)).AD(adOffsets[i] == MISSING ? null : getAD(i));
+            }
+            genotypes.add(builder.make());
+        }
+        return genotypes;
+    }
+}
@@ -117,13 +117,20 @@ public final class ReferenceConfidenceVariantContextMerger {
         int depth = 0;
         final Map<String, List<?>> annotationMap = new LinkedHashMap<>();
 
-        final GenotypesContext genotypes = GenotypesContext.create();
+        // germline genotypes are merged column-wise, and only made into Genotypes once all the samples have been added
+        final GenotypesContext genotypes = doSomaticMerge ? GenotypesContext.create() : null;
+        final ReferenceConfidenceGenotypeColumns genotypeColumns = doSomaticMerge ? null :
+                new ReferenceConfidenceGenotypeColumns(allelesList.size(), vcs.stream().mapToInt(VariantContext::getNSamples).sum());
 
         for ( final VCWithNewAlleles vcWithNewAlleles : vcAndNewAllelePairs ) {
             final VariantContext vc = vcWithNewAlleles.getVc();
             final List<Allele> remappedAlleles = vcWithNewAlleles.getNewAlleles();
 
-            genotypes.addAll(mergeRefConfidenceGenotypes(vc, remappedAlleles, allelesList, samplesAreUniquified));
+            if (doSomaticMerge) {
+                genotypes.addAll(mergeSomaticRefConfidenceGenotypes(vc, remappedAlleles, allelesList, samplesAreUniquified));
+            } else {
+                addRefConfidenceGenotypeColumns(genotypeColumns, vc, remappedAlleles, allelesList, samplesAreUniquified);
+            }
             depth += calculateVCDepth(vc);
 
             if ( loc.getStart() != vc.getStart() ) {
@@ -151,7 +158,7 @@ public final class ReferenceConfidenceVariantContextMerger {
                 .chr(loc.getContig())
                 .start(loc.getStart())
                 .computeEndFromAlleles(nonSymbolicAlleles(allelesList), loc.getStart(), loc.getStart())
-                .genotypes(genotypes).unfiltered()
+                .genotypes(doSomaticMerge ? genotypes : genotypeColumns.toGenotypesContext()).unfiltered()
                 .attributes(new TreeMap<>(attributes)).log10PError(CommonInfo.NO_LOG10_PERROR);  // we will need to re-genotype later
         if (doSomaticMerge) {
             //if all samples are filtered, this will apply all those filters to the VCF
@@ -502,23 +509,73 @@ public final class ReferenceConfidenceVariantContextMerger {
 
 
     /**
-     * Merge into the context a new genotype represented by the given VariantContext for the provided list of target alleles.
-     * This method assumes that none of the alleles in the VC overlaps with any of the alleles in the set.
-     *  @param vc                    the Variant Context for the sample
+     * Add the genotypes of the given VariantContext to the columns of a germline merge, remapping their PLs and ADs
+     * to the target alleles.
+     *
+     * The allele and genotype index maps are computed once for the VariantContext (and ploidy) rather than for every
+     * sample, except when there are several spanning deletion alleles, where the best one depends on each sample's PLs.
+     *
+     * @param genotypeColumns       the columns of the merged site
+     * @param vc                    the Variant Context for the sample
      * @param remappedAlleles       the list of remapped alleles for the sample
      * @param targetAlleles         the list of target alleles
      * @param samplesAreUniquified  true if sample names have been uniquified
      */
-    private GenotypesContext mergeRefConfidenceGenotypes(final VariantContext vc,
-                                                           final List<Allele> remappedAlleles,
-                                                           final List<Allele> targetAlleles,
-                                                           final boolean samplesAreUniquified) {
-        final GenotypesContext mergedGenotypes = GenotypesContext.create();
+    private static void addRefConfidenceGenotypeColumns(final ReferenceConfidenceGenotypeColumns genotypeColumns,
+                                                        final VariantContext vc,
+                                                        final List<Allele> remappedAlleles,
+                                                        final List<Allele> targetAlleles,
+                                                        final boolean samplesAreUniquified) {
         final int maximumPloidy = vc.getMaxPloidy(GATKVariantContextUtils.DEFAULT_PLOIDY);
         // the map is different depending on the ploidy, so in order to keep this method flexible (mixed ploidies)
         // we need to get a map done (lazily inside the loop) for each ploidy, up to the maximum possible.
         final int[][] genotypeIndexMapsByPloidy = new int[maximumPloidy + 1][];
         final int maximumAlleleCount = Math.max(remappedAlleles.size(),targetAlleles.size());
+        final boolean alleleIndexMapDependsOnSample = targetAlleles.contains(Allele.SPAN_DEL) &&
+                Collections.frequency(remappedAlleles, Allele.SPAN_DEL) > 1;
+        int[] sharedAlleleIndexMap = null;
+
+        for ( final Genotype g : vc.getGenotypes() ) {
+            final String name = samplesAreUniquified ? g.getSampleName() + "." + vc.getSource() : g.getSampleName();
+            if ( !g.hasPL() ) {
+                genotypeColumns.add(g, name, null, null);
+                continue;
+            }
+
+            final int ploidy = g.getPloidy();
+            final int[] alleleIndexMap;
+            final int[] genotypeIndexMap;
+            if ( alleleIndexMapDependsOnSample ) {
+                alleleIndexMap = AlleleSubsettingUtils.getIndexesOfRelevantAllelesForGVCF(remappedAlleles, targetAlleles, vc.getStart(), g, false);
+                genotypeIndexMap = calculators.getInstance(ploidy, maximumAlleleCount).genotypeIndexMap(alleleIndexMap, calculators);
+            } else {
+                if ( sharedAlleleIndexMap == null ) {
+                    sharedAlleleIndexMap = AlleleSubsettingUtils.getIndexesOfRelevantAllelesForGVCF(remappedAlleles, targetAlleles, vc.getStart(), g, false);
+                }
+                alleleIndexMap = sharedAlleleIndexMap;
+                if ( genotypeIndexMapsByPloidy[ploidy] == null ) {
+                    genotypeIndexMapsByPloidy[ploidy] = calculators.getInstance(ploidy, maximumAlleleCount).genotypeIndexMap(alleleIndexMap, calculators);
+                }
+                genotypeIndexMap = genotypeIndexMapsByPloidy[ploidy];
+            }
+            genotypeColumns.add(g, name, genotypeIndexMap, alleleIndexMap);
+        }
+    }
+
+    /**
+     * Merge into the context a new genotype represented by the given VariantContext for the provided list of target alleles,
+     * for a somatic merge.
+     * This method assumes that none of the alleles in the VC overlaps with any of the alleles in the set.
+     *  @param vc                    the Variant Context for the sample
+     * @param remappedAlleles       the list of remapped alleles for the sample
+     * @param targetAlleles         the list of target alleles
+     * @param samplesAreUniquified  true if sample names have been uniquified
+     */
+    private GenotypesContext mergeSomaticRefConfidenceGenotypes(final VariantContext vc,
+                                                                final List<Allele> remappedAlleles,
+                                                                final List<Allele> targetAlleles,
+                                                                final boolean samplesAreUniquified) {
+        final GenotypesContext mergedGenotypes = GenotypesContext.create();
 
         for ( final Genotype g : vc.getGenotypes() ) {
             final String name;
@@ -527,67 +584,52 @@ public final class ReferenceConfidenceVariantContextMerger {
             } else {
                 name = g.getSampleName();
             }
-            final int ploidy = g.getPloidy();
             final GenotypeBuilder genotypeBuilder = new GenotypeBuilder(g);
-            if (!doSomaticMerge) {
-                if (g.hasPL()) {
-                    // lazy initialization of the genotype index map by ploidy.
-                    int[]  perSampleIndexesOfRelevantAlleles = AlleleSubsettingUtils.getIndexesOfRelevantAllelesForGVCF(remappedAlleles, targetAlleles, vc.getStart(), g, false);
-                    final int[] genotypeIndexMapByPloidy = genotypeIndexMapsByPloidy[ploidy] == null
-                            ? calculators.getInstance(ploidy, maximumAlleleCount).genotypeIndexMap(perSampleIndexesOfRelevantAlleles, calculators) //probably horribly slow
-                            : genotypeIndexMapsByPloidy[ploidy];
-                    final int[] PLs = generatePL(g, genotypeIndexMapByPloidy);
-                    final int[] AD = g.hasAD() ? AlleleSubsettingUtils.generateAD(g.getAD(), perSampleIndexesOfRelevantAlleles) : null;
-                    genotypeBuilder.PL(PLs).AD(AD);
-                }
+            genotypeBuilder.noAttributes();
+            if (g.hasDP()) {
+                genotypeBuilder.DP(g.getDP());
             }
-            else {  //doSomaticMerge
-                genotypeBuilder.noAttributes();
-                if (g.hasDP()) {
-                    genotypeBuilder.DP(g.getDP());
-                }
 
-                for (final String key : SOMATIC_FORMAT_ANNOTATIONS_TO_KEEP) {
-                    if(g.hasExtendedAttribute(key)) {
-                        genotypeBuilder.attribute(key, g.getExtendedAttribute(key));
-                    }
+            for (final String key : SOMATIC_FORMAT_ANNOTATIONS_TO_KEEP) {
+                if(g.hasExtendedAttribute(key)) {
+                    genotypeBuilder.attribute(key, g.getExtendedAttribute(key));
                 }
+            }
 
-                // lazy initialization of the genotype index map by ploidy.
-                int[] perSampleIndexesOfRelevantAlleles = AlleleSubsettingUtils.getIndexesOfRelevantAllelesForGVCF(remappedAlleles, targetAlleles, vc.getStart(), g, false);
-                final int nonRefIndex = remappedAlleles.indexOf(Allele.NON_REF_ALLELE);
-                final int[] AD;
-                if (g.hasAD()) {
-                    AD = AlleleSubsettingUtils.generateAD(g.getAD(), perSampleIndexesOfRelevantAlleles);
-                    genotypeBuilder.AD(AD);
-                } else if (g.hasDP()) {
-                    AD = new int[targetAlleles.size()];
-                    AD[0] = g.getDP();
-                    genotypeBuilder.AD(AD);
-                }
-                if (g.hasExtendedAttribute(GATKVCFConstants.ALLELE_FRACTION_KEY)) {  //homRef calls don't have AF
-                    final double[] AF = AlleleSubsettingUtils.generateAF(VariantContextGetters.getAttributeAsDoubleArray(g, GATKVCFConstants.ALLELE_FRACTION_KEY, () -> new double[]{0.0}, 0.0), perSampleIndexesOfRelevantAlleles);
-                    genotypeBuilder.attribute(GATKVCFConstants.ALLELE_FRACTION_KEY, AF);
-                }
-                else if ((g.isHomRef() || g.isNoCall()) && vc.getAlternateAlleles().size() == 1) {  //homRef blocks don't get an AF so assign it here; multi-sample GVCFs will have no-call GTs for ref blocks
-                    genotypeBuilder.attribute(GATKVCFConstants.ALLELE_FRACTION_KEY, new double[targetAlleles.size()-1]);
-                }
+            // lazy initialization of the genotype index map by ploidy.
+            int[] perSampleIndexesOfRelevantAlleles = AlleleSubsettingUtils.getIndexesOfRelevantAllelesForGVCF(remappedAlleles, targetAlleles, vc.getStart(), g, false);
+            final int nonRefIndex = remappedAlleles.indexOf(Allele.NON_REF_ALLELE);
+            final int[] AD;
+            if (g.hasAD()) {
+                AD = AlleleSubsettingUtils.generateAD(g.getAD(), perSampleIndexesOfRelevantAlleles);
+                genotypeBuilder.AD(AD);
+            } else if (g.hasDP()) {
+                AD = new int[targetAlleles.size()];
+                AD[0] = g.getDP();
+                genotypeBuilder.AD(AD);
+            }
+            if (g.hasExtendedAttribute(GATKVCFConstants.ALLELE_FRACTION_KEY)) {  //homRef calls don't have AF
+                final double[] AF = AlleleSubsettingUtils.generateAF(VariantContextGetters.getAttributeAsDoubleArray(g, GATKVCFConstants.ALLELE_FRACTION_KEY, () -> new double[]{0.0}, 0.0), perSampleIndexesOfRelevantAlleles);
+                genotypeBuilder.attribute(GATKVCFConstants.ALLELE_FRACTION_KEY, AF);
+            }
+            else if ((g.isHomRef() || g.isNoCall()) && vc.getAlternateAlleles().size() == 1) {  //homRef blocks don't get an AF so assign it here; multi-sample GVCFs will have no-call GTs for ref blocks
+                genotypeBuilder.attribute(GATKVCFConstants.ALLELE_FRACTION_KEY, new double[targetAlleles.size()-1]);
+            }
 
-                for (final String key : SOMATIC_INFO_ANNOTATIONS_TO_MOVE) {
-                    setPerSampleSomaticAttributes(vc, perSampleIndexesOfRelevantAlleles, g, genotypeBuilder, key);
-                }
+            for (final String key : SOMATIC_INFO_ANNOTATIONS_TO_MOVE) {
+                setPerSampleSomaticAttributes(vc, perSampleIndexesOfRelevantAlleles, g, genotypeBuilder, key);
+            }
 
-                if (!dropSomaticFilteringAnnotations) {
-                    for (final String key : Mutect2FilteringEngine.STANDARD_MUTECT_INFO_FIELDS_FOR_FILTERING) {
-                        setPerSampleSomaticAttributes(vc, perSampleIndexesOfRelevantAlleles, g, genotypeBuilder, key);
-                    }
+            if (!dropSomaticFilteringAnnotations) {
+                for (final String key : Mutect2FilteringEngine.STANDARD_MUTECT_INFO_FIELDS_FOR_FILTERING) {
+                    setPerSampleSomaticAttributes(vc, perSampleIndexesOfRelevantAlleles, g, genotypeBuilder, key);
                 }
-                //only copy filter status for single-sample VCs -- multi-sample VCs should already have GF updated
-                if (vc.filtersWereApplied() && vc.getSampleNames().size() == 1 && !g.isHomRef()) {
-                    //PASS has to have null filters, so we can't add an empty list
-                    if (!vc.getFilters().isEmpty()) {
-                        genotypeBuilder.filters(new ArrayList(vc.getFilters()));
-                    }
+            }
+            //only copy filter status for single-sample VCs -- multi-sample VCs should already have GF updated
+            if (vc.filtersWereApplied() && vc.getSampleNames().size() == 1 && !g.isHomRef()) {
+                //PASS has to have null filters, so we can't add an empty list
+                if (!vc.getFilters().isEmpty()) {
+                    genotypeBuilder.filters(new ArrayList(vc.getFilters()));
                 }
             }
             genotypeBuilder.alleles(GATKVariantContextUtils.noCallAlleles(g.getPloidy())).name(name);
@@ -627,29 +669,6 @@ public final class ReferenceConfidenceVariantContextMerger {
         }
     }
 
-    /**
-     * Composes a new likelihood array given the original genotype and the genotype index map.
-     *
-     * @param g the original genotype.
-     * @param genotypeIndexMapByPloidy genotype index map. The ith element indicates what genotype in {@code g} corresponds
-     *                                 to the ith genotype in the return likelihoods array.
-     *
-     * @throws NullPointerException if {@code g} or {@code genotypeIndexMapByPloidy} is {@code null}, or if {@code g}
-     *    does not contain likelihoods.
-     * @throws IndexOutOfBoundsException if {@code genotypeIndexMapByPloidy} contain non valid
-     *  genotype indices given the likelihood array in {@code g}.
-     *
-     * @return never {@code null} but an array of exactly {@code genotypeIndexMapByPloidy.length} positions.
-     */
-    private static int[] generatePL(final Genotype g, final int[] genotypeIndexMapByPloidy) {
-        final int[] PLs = new int[genotypeIndexMapByPloidy.length];
-        final int[] oldPLs = g.getPL();
-        for (int i = 0; i < PLs.length; i++) {
-            PLs[i] = oldPLs[genotypeIndexMapByPloidy[i]];
-        }
-        return PLs;
-    }
-
     /**
      * Generates a new annotation value array by adding zeros for missing alleles given the set of indexes of the Genotype's current
      * alleles from the original annotation value array.
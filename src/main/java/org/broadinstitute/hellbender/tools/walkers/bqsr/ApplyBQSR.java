@@ -12,6 +12,7 @@ import org.broadinstitute.barclay.help.DocumentedFeature;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.engine.FeatureContext;
 import org.broadinstitute.hellbender.engine.GATKPath;
+import org.broadinstitute.hellbender.engine.ReadProcessor;
 import org.broadinstitute.hellbender.engine.ReadWalker;
 import org.broadinstitute.hellbender.engine.ReferenceContext;
 import org.broadinstitute.hellbender.tools.ApplyBQSRArgumentCollection;
@@ -119,6 +120,15 @@ public final class ApplyBQSR extends ReadWalker{
         outputWriter.addRead(read);
     }
 
+    /**
+     * Reads are recalibrated by the post-filter transformer, which each read thread makes for itself,
+     * so only the writing is left for the traversal thread.
+     */
+    @Override
+    protected ReadProcessor makeReadProcessor() {
+        return (read, referenceContext, featureContext) -> () -> outputWriter.addRead(read);
+    }
+
     @Override
     public void closeTool() {
         if ( outputWriter != null ) {
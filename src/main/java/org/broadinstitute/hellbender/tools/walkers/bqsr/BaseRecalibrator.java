@@ -3,6 +3,7 @@ package org.broadinstitute.hellbender.tools.walkers.bqsr;
 import htsjdk.tribble.Feature;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.broadinstitute.barclay.argparser.Advanced;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.ArgumentCollection;
 import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
@@ -16,6 +17,7 @@ import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilterLibrary;
 import org.broadinstitute.hellbender.engine.filters.WellformedReadFilter;
 import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.OrderedWorkerPool;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.recalibration.BaseRecalibrationEngine;
@@ -89,6 +91,12 @@ public final class BaseRecalibrator extends ReadWalker {
             "(such as read group, reported quality score, machine cycle, and nucleotide context).";
 
     public static final String KNOWN_SITES_ARG_FULL_NAME = "known-sites";
+    public static final String RECALIBRATION_THREADS_LONG_NAME = "recalibration-threads";
+
+    /**
+     * Number of reads handed to a recalibration thread at a time.
+     */
+    private static final int READS_PER_BATCH = 1000;
 
     protected static final Logger logger = LogManager.getLogger(BaseRecalibrator.class);
 
@@ -119,8 +127,27 @@ public final class BaseRecalibrator extends ReadWalker {
     @WorkflowOutput
     private GATKPath recalTableFile = null;
 
+    /**
+     * Number of threads used to collect the recalibration data. Reads (and the known sites they overlap) are still
+     * read on the main traversal thread, but are then handed in batches to threads that each collect data into their
+     * own tables, and the tables are combined at the end. The result matches a single-threaded run except that the
+     * numbers of mismatches, which are sums of fractional errors, may be added up in a different order and so differ
+     * in the last digits.
+     */
+    @Advanced
+    @Argument(fullName = RECALIBRATION_THREADS_LONG_NAME, doc = "Number of threads to use for collecting recalibration data", optional = true, minValue = 1)
+    private int recalibrationThreads = 1;
+
     private BaseRecalibrationEngine recalibrationEngine;
 
+    /**
+     * Pool of per-thread engines used when {@link #recalibrationThreads} is greater than 1, otherwise {@code null}.
+     */
+    private OrderedWorkerPool<RecalibrationWorker> workerPool = null;
+
+    private List<GATKRead> batchReads = null;
+    private List<List<Feature>> batchKnownSites = null;
+
     private ReferenceDataSource referenceDataSource; // datasource for the reference. We're using a different one from the engine itself to avoid messing with its caches.
 
     /**
@@ -147,7 +174,21 @@ public final class BaseRecalibrator extends ReadWalker {
 
         recalibrationEngine = new BaseRecalibrationEngine(recalArgs, getHeaderForReads());
         recalibrationEngine.logCovariatesUsed();
-        referenceDataSource = ReferenceDataSource.of(referenceArguments.getReferencePath());
+        referenceDataSource = openReference();
+
+        if (recalibrationThreads > 1) {
+            // the first worker uses the main engine, so that the data of the others can be combined into it at the end
+            final List<RecalibrationWorker> workers = new ArrayList<>(recalibrationThreads);
+            workers.add(new RecalibrationWorker(recalibrationEngine, referenceDataSource));
+            for (int i = 1; i < recalibrationThreads; i++) {
+                // a memory-mapped reference can be shared by all of the threads
+                workers.add(new RecalibrationWorker(new BaseRecalibrationEngine(recalArgs, getHeaderForReads()),
+                        memoryMapReference ? referenceDataSource : openReference()));
+            }
+            logger.info("Collecting recalibration data using " + recalibrationThreads + " threads");
+            workerPool = new OrderedWorkerPool<>(workers, 2 * recalibrationThreads, "recalibration-thread-%d");
+            startBatch();
+        }
     }
 
     @Override
@@ -186,11 +227,55 @@ public final class BaseRecalibrator extends ReadWalker {
      */
     @Override
     public void apply( GATKRead read, ReferenceContext ref, FeatureContext featureContext ) {
-        recalibrationEngine.processRead(read, referenceDataSource, featureContext.getValues(knownSites));
+        if (workerPool == null) {
+            recalibrationEngine.processRead(read, referenceDataSource, featureContext.getValues(knownSites));
+        } else {
+            // the feature data sources are not thread-safe, so the known sites are queried here rather than by the workers
+            batchReads.add(read);
+            batchKnownSites.add(featureContext.getValues(knownSites));
+            if (batchReads.size() == READS_PER_BATCH) {
+                submitBatch();
+            }
+        }
+    }
+
+    private void startBatch() {
+        batchReads = new ArrayList<>(READS_PER_BATCH);
+        batchKnownSites = new ArrayList<>(READS_PER_BATCH);
+    }
+
+    private void submitBatch() {
+        final List<GATKRead> reads = batchReads;
+        final List<List<Feature>> readKnownSites = batchKnownSites;
+        workerPool.submit(worker -> {
+            for (int i = 0; i < reads.size(); i++) {
+                worker.engine.processRead(reads.get(i), worker.reference, readKnownSites.get(i));
+            }
+            return null;
+        });
+        startBatch();
+    }
+
+    /**
+     * Wait for all reads to be processed, and combine the data of all threads into the main engine.
+     */
+    private void combineWorkerData() {
+        if (!batchReads.isEmpty()) {
+            submitBatch();
+        }
+        workerPool.drain();
+        for (final RecalibrationWorker worker : workerPool.getWorkers()) {
+            if (worker.engine != recalibrationEngine) {
+                recalibrationEngine.combine(worker.engine);
+            }
+        }
     }
 
     @Override
     public Object onTraversalSuccess() {
+        if (workerPool != null) {
+            combineWorkerData();
+        }
         recalibrationEngine.finalizeData();
 
         logger.info("Calculating quantized quality scores...");
@@ -221,4 +306,27 @@ public final class BaseRecalibrator extends ReadWalker {
             RecalUtils.outputRecalibrationReport(recalTableStream, recalArgs, quantizationInfo, recalibrationEngine.getFinalRecalibrationTables(), recalibrationEngine.getCovariates());
         }
     }
+
+    @Override
+    public void closeTool() {
+        if (workerPool != null) {
+            workerPool.close();
+            workerPool.getWorkers().stream()
+                    .filter(worker -> worker.reference != referenceDataSource)
+                    .forEach(worker -> worker.reference.close());
+        }
+    }
+
+    /**
+     * An engine and reference data source for the exclusive use of one recalibration thread.
+     */
+    private static final class RecalibrationWorker {
+        private final BaseRecalibrationEngine engine;
+        private final ReferenceDataSource reference;
+
+        private RecalibrationWorker(final BaseRecalibrationEngine engine, final ReferenceDataSource reference) {
+            this.engine = engine;
+            this.reference = reference;
+        }
+    }
 }
\ No newline at end of file
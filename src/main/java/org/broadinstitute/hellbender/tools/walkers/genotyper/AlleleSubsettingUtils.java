@@ -383,9 +383,7 @@ public final class AlleleSubsettingUtils {
         final Permutation<Allele> allelePermutation = new IndexedAlleleList<>(originalAlleles).permutation(new IndexedAlleleList<>(newAlleles));
 
         final GenotypeLikelihoodCalculator glCalc = GL_CALCS.getInstance(ploidy, originalAlleles.size());
-        for (int oldPLIndex = 0; oldPLIndex < glCalc.genotypeCount(); oldPLIndex++) {
-            final GenotypeAlleleCounts oldAlleleCounts = glCalc.genotypeAlleleCountsAt(oldPLIndex);
-
+        glCalc.forEachGenotype((oldAlleleCounts, oldPLIndex) -> {
             final boolean containsOnlyNewAlleles = IntStream.range(0, oldAlleleCounts.distinctAlleleCount())
                     .map(oldAlleleCounts::alleleIndexAt).allMatch(allelePermutation::isKept);
 
@@ -398,7 +396,7 @@ public final class AlleleSubsettingUtils {
                 final int newPLIndex = glCalc.alleleCountsToIndex(newAlleleCounts);
                 result[newPLIndex] = oldPLIndex;
             }
-        }
+        });
         return  result;
     }
 
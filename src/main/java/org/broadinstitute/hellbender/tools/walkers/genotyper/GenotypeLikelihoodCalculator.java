@@ -6,8 +6,8 @@ import org.broadinstitute.hellbender.utils.MathUtils;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.genotyper.LikelihoodMatrix;
 
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
 
 public class GenotypeLikelihoodCalculator {
     /**
@@ -43,9 +43,10 @@ public class GenotypeLikelihoodCalculator {
      */
     final int ploidy;
     /**
-     * Max-heap for integers used for this calculator internally.
+     * Buffer for the allele indices of a genotype, as many as the {@link #ploidy} with one per copy of each allele, used
+     * to calculate the genotype's likelihood index through the {@link #alleleFirstGenotypeOffsetByPloidy} table.
      */
-    private final PriorityQueue<Integer> alleleHeap;
+    private final int[] genotypeAlleleIndices;
     /**
      * Buffer used as a temporary container for likelihood components for genotypes stratified by reads.
      *
@@ -129,7 +130,7 @@ public class GenotypeLikelihoodCalculator {
         genotypeCount = this.alleleFirstGenotypeOffsetByPloidy[ploidy][alleleCount];
         this.alleleCount = alleleCount;
         this.ploidy = ploidy;
-        alleleHeap = new PriorityQueue<>(ploidy, Comparator.<Integer>naturalOrder().reversed());
+        genotypeAlleleIndices = new int[ploidy];
         readLikelihoodsByGenotypeIndex = new double[genotypeCount][];
         genotypeAllelesAndCounts = new int[maximumDistinctAllelesInGenotype * 2];
     }
@@ -173,11 +174,9 @@ public class GenotypeLikelihoodCalculator {
             return 0;
         }
 
-        alleleHeap.clear();
-        for (int i = 0; i < alleleIndices.length; i++) {
-            alleleHeap.add(alleleIndices[i]);
-        }
-        return alleleHeapToIndex();
+        Utils.validateArg(alleleIndices.length == ploidy, "the sum of allele counts must be equal to the ploidy of the calculator");
+        System.arraycopy(alleleIndices, 0, genotypeAlleleIndices, 0, ploidy);
+        return genotypeAlleleIndicesToIndex();
     }
 
     /**
@@ -218,6 +217,30 @@ public class GenotypeLikelihoodCalculator {
         }
     }
 
+    /**
+     * Performs an action on the genotype-allele-counts of every genotype, in likelihood index order.
+     *
+     * <p>Unlike calling {@link #genotypeAlleleCountsAt(int)} for each index, this does not make a new genotype-allele-count
+     * for each genotype beyond {@link GenotypeLikelihoodCalculators#MAXIMUM_STRONG_REF_GENOTYPE_PER_PLOIDY}: those are
+     * calculated incrementally in a single reused instance. Therefore the action must neither modify the genotype-allele-counts
+     * it is given nor keep them after it returns.</p>
+     *
+     * @param action called with the genotype-allele-counts and the likelihood index of each genotype.
+     */
+    public void forEachGenotype(final ObjIntConsumer<GenotypeAlleleCounts> action) {
+        Utils.nonNull(action);
+        if (genotypeCount == 0) {
+            return;
+        }
+        GenotypeAlleleCounts alleleCounts = genotypeAlleleCounts[0];
+        for (int genotypeIndex = 0; genotypeIndex < genotypeCount; genotypeIndex++) {
+            action.accept(alleleCounts, genotypeIndex);
+            if (genotypeIndex < genotypeCount - 1) {
+                alleleCounts = nextGenotypeAlleleCounts(alleleCounts);
+            }
+        }
+    }
+
     /**
      * Calculate the likelihoods given the list of alleles and the likelihood map.
      *
@@ -456,35 +479,41 @@ public class GenotypeLikelihoodCalculator {
     public int alleleCountsToIndex(final int ... alleleCountArray) {
         Utils.nonNull(alleleCountArray, "the allele counts cannot be null");
         Utils.validateArg((alleleCountArray.length & 1) == 0, "the allele counts array cannot have odd length");
-        alleleHeap.clear();
+        int alleleIndexCount = 0;
         for (int i = 0; i < alleleCountArray.length; i += 2) {
             final int index = alleleCountArray[i];
             final int count = alleleCountArray[i+1];
             Utils.validateArg(count >= 0, "no allele count can be less than 0");
-            for (int j = 0; j < count; j++) {
-                alleleHeap.add(index);
-            }
+            Utils.validateArg(count <= ploidy - alleleIndexCount, "the sum of allele counts must be equal to the ploidy of the calculator");
+            Arrays.fill(genotypeAlleleIndices, alleleIndexCount, alleleIndexCount + count, index);
+            alleleIndexCount += count;
         }
-        return alleleHeapToIndex();
+        Utils.validateArg(alleleIndexCount == ploidy, "the sum of allele counts must be equal to the ploidy of the calculator");
+        return genotypeAlleleIndicesToIndex();
     }
 
     /**
-     * Transforms the content of the heap into an index.
+     * Transforms the allele indices in {@link #genotypeAlleleIndices}, in any order, into a likelihood index.
      *
      * <p>
-     *     The heap contents are flushed as a result, so is left ready for another use.
+     *     The buffer is sorted as a result. The index is the sum, over the copies of alleles in the genotype from the
+     *     largest allele index to the smallest, of the offset of the allele's first genotype for the remaining ploidy.
      * </p>
      *
      * @return a valid likelihood index.
      */
-    private int alleleHeapToIndex() {
-        Utils.validateArg(alleleHeap.size() == ploidy, "the sum of allele counts must be equal to the ploidy of the calculator");
-        Utils.validateArg(alleleHeap.peek() < alleleCount, () -> "invalid allele " + alleleHeap.peek() + " more than the maximum " + (alleleCount - 1));
+    private int genotypeAlleleIndicesToIndex() {
+        if (ploidy == 0) {
+            return 0;
+        }
+        Arrays.sort(genotypeAlleleIndices);
+        final int maximumAllele = genotypeAlleleIndices[ploidy - 1];
+        final int minimumAllele = genotypeAlleleIndices[0];
+        Utils.validateArg(maximumAllele < alleleCount, () -> "invalid allele " + maximumAllele + " more than the maximum " + (alleleCount - 1));
+        Utils.validateArg(minimumAllele >= 0, () -> "invalid allele " + minimumAllele + " must be equal or greater than 0 ");
         int result = 0;
         for (int p = ploidy; p > 0; p--) {
-            final int allele = alleleHeap.remove();
-            Utils.validateArg(allele >= 0, () -> "invalid allele " + allele + " must be equal or greater than 0 ");
-            result += alleleFirstGenotypeOffsetByPloidy[p][allele];
+            result += alleleFirstGenotypeOffsetByPloidy[p][genotypeAlleleIndices[p - 1]];
         }
         return result;
     }
@@ -511,7 +540,6 @@ public class GenotypeLikelihoodCalculator {
 
         final int[] result = new int[resultLength];
         final int[] sortedAlleleCounts = new int[Math.max(ploidy, alleleCount) << 1];
-        alleleHeap.clear();
         GenotypeAlleleCounts alleleCounts = genotypeAlleleCounts[0];
         for (int i = 0; i < resultLength; i++) {
             genotypeIndexMapPerGenotypeIndex(i,alleleCounts, oldToNewAlleleIndexMap, result, sortedAlleleCounts);
@@ -534,6 +562,7 @@ public class GenotypeLikelihoodCalculator {
     private void genotypeIndexMapPerGenotypeIndex(final int newGenotypeIndex, final GenotypeAlleleCounts alleleCounts, final int[] oldToNewAlleleIndexMap, final int[] destination, final int[] sortedAlleleCountsBuffer) {
         final int distinctAlleleCount = alleleCounts.distinctAlleleCount();
         alleleCounts.copyAlleleCounts(sortedAlleleCountsBuffer,0);
+        int alleleIndexCount = 0;
         for (int j = 0, jj = 0; j < distinctAlleleCount; j++) {
             final int oldIndex = sortedAlleleCountsBuffer[jj++];
             final int repeats = sortedAlleleCountsBuffer[jj++];
@@ -541,11 +570,10 @@ public class GenotypeLikelihoodCalculator {
             if (newIndex < 0 || newIndex >= alleleCount) {
                 throw new IllegalArgumentException("found invalid new allele index (" + newIndex + ") for old index (" + oldIndex + ")");
             }
-            for (int k = 0; k < repeats; k++) {
-                alleleHeap.add(newIndex);
-            }
+            Arrays.fill(genotypeAlleleIndices, alleleIndexCount, alleleIndexCount + repeats, newIndex);
+            alleleIndexCount += repeats;
         }
-        final int genotypeIndex = alleleHeapToIndex(); // this cleans the heap for the next use.
+        final int genotypeIndex = genotypeAlleleIndicesToIndex();
         destination[newGenotypeIndex] = genotypeIndex;
     }
 }
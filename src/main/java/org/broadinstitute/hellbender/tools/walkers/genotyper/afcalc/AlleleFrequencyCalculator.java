@@ -9,7 +9,6 @@ import org.apache.commons.math3.special.Gamma;
 import org.apache.commons.math3.util.MathArrays;
 import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.utils.dragstr.DragstrParams;
-import org.broadinstitute.hellbender.tools.walkers.genotyper.GenotypeAlleleCounts;
 import org.broadinstitute.hellbender.tools.walkers.genotyper.GenotypeCalculationArgumentCollection;
 import org.broadinstitute.hellbender.tools.walkers.genotyper.GenotypeLikelihoodCalculator;
 import org.broadinstitute.hellbender.tools.walkers.genotyper.GenotypeLikelihoodCalculators;
@@ -70,11 +69,9 @@ public final class AlleleFrequencyCalculator {
 
     private static double[] log10NormalizedGenotypePosteriors(final Genotype g, final GenotypeLikelihoodCalculator glCalc, final double[] log10AlleleFrequencies) {
         final double[] log10Likelihoods = g.getLikelihoods().getAsVector();
-        final double[] log10Posteriors = new IndexRange(0, glCalc.genotypeCount()).mapToDouble(genotypeIndex -> {
-            final GenotypeAlleleCounts gac = glCalc.genotypeAlleleCountsAt(genotypeIndex);
-            return gac.log10CombinationCount() + log10Likelihoods[genotypeIndex]
-                    + gac.sumOverAlleleIndicesAndCounts((index, count) -> count * log10AlleleFrequencies[index]);
-        });
+        final double[] log10Posteriors = new double[glCalc.genotypeCount()];
+        glCalc.forEachGenotype((gac, genotypeIndex) -> log10Posteriors[genotypeIndex] = gac.log10CombinationCount()
+                + log10Likelihoods[genotypeIndex] + gac.sumOverAlleleIndicesAndCounts((index, count) -> count * log10AlleleFrequencies[index]));
         return MathUtils.normalizeLog10(log10Posteriors);
     }
 
@@ -169,10 +166,10 @@ public final class AlleleFrequencyCalculator {
             // for each allele, we collect the log10 probabilities of genotypes in which the allele is absent, then add (in log space)
             // to get the log10 probability that the allele is absent in this sample
             log10AbsentPosteriors.forEach(DoubleArrayList::clear);  // clear the buffers.  Note that this is O(1) due to the primitive backing array
-            for (int genotype = 0; genotype < glCalc.genotypeCount(); genotype++) {
+            glCalc.forEachGenotype((gac, genotype) -> {
                 final double log10GenotypePosterior = log10GenotypePosteriors[genotype];
-                glCalc.genotypeAlleleCountsAt(genotype).forEachAbsentAlleleIndex(a -> log10AbsentPosteriors.get(a).add(log10GenotypePosterior), numAlleles);
-            }
+                gac.forEachAbsentAlleleIndex(a -> log10AbsentPosteriors.get(a).add(log10GenotypePosterior), numAlleles);
+            });
 
             final double[] log10PNoAllele = log10AbsentPosteriors.stream()
                     .mapToDouble(buffer -> MathUtils.log10SumLog10(buffer.toDoubleArray()))
@@ -239,8 +236,8 @@ public final class AlleleFrequencyCalculator {
 
             final double[] log10GenotypePosteriors = log10NormalizedGenotypePosteriors(g, glCalc, log10AlleleFrequencies);
 
-            new IndexRange(0, glCalc.genotypeCount()).forEach(genotypeIndex ->
-                glCalc.genotypeAlleleCountsAt(genotypeIndex).forEachAlleleIndexAndCount((alleleIndex, count) ->
+            glCalc.forEachGenotype((gac, genotypeIndex) ->
+                gac.forEachAlleleIndexAndCount((alleleIndex, count) ->
                         log10Result[alleleIndex] = MathUtils.log10SumLog10(log10Result[alleleIndex], log10GenotypePosteriors[genotypeIndex] + MathUtils.log10(count))));
         }
         return MathUtils.applyToArrayInPlace(log10Result, x -> Math.pow(10.0, x));
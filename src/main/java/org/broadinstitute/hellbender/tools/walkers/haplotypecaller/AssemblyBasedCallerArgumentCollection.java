@@ -4,11 +4,17 @@ import htsjdk.variant.variantcontext.VariantContext;
 import org.broadinstitute.barclay.argparser.Advanced;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.ArgumentCollection;
+import org.broadinstitute.barclay.argparser.CommandLineException;
+import org.broadinstitute.hellbender.engine.AssemblyRegionWalker;
 import org.broadinstitute.hellbender.engine.FeatureInput;
+import org.broadinstitute.hellbender.engine.GATKPath;
 import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.readthreading.ReadThreadingAssembler;
 import org.broadinstitute.hellbender.utils.haplotype.HaplotypeBAMWriter;
 import org.broadinstitute.hellbender.utils.smithwaterman.SmithWatermanAligner;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Set of arguments for Assembly Based Callers
  */
@@ -31,6 +37,7 @@ public abstract class AssemblyBasedCallerArgumentCollection {
     public static final String EMIT_REF_CONFIDENCE_LONG_NAME = "emit-ref-confidence";
     public static final String EMIT_REF_CONFIDENCE_SHORT_NAME = "ERC";
     public static final String ALLELE_EXTENSION_LONG_NAME = "allele-informative-reads-overlap-margin";
+    public static final String REGION_RESULT_CACHE_LONG_NAME = "region-result-cache";
 
     public ReadThreadingAssembler createReadThreadingAssembler() {
         final ReadThreadingAssembler assemblyEngine = assemblerArgs.makeReadThreadingAssembler();
@@ -42,6 +49,43 @@ public abstract class AssemblyBasedCallerArgumentCollection {
 
     protected abstract ReadThreadingAssemblerArgumentCollection getReadThreadingAssemblerArgumentCollection();
 
+    /**
+     * Validate that these arguments can be used with the given number of assembly region threads. Debugging outputs
+     * that are written directly by a calling engine (rather than by the tool) can't be shared by the independent
+     * per-thread engines used for multithreaded region processing, so they are rejected.
+     *
+     * @param regionThreads number of assembly region threads requested
+     */
+    public void validateRegionThreads(final int regionThreads) {
+        if ( regionThreads > 1 ) {
+            final List<String> engineOutputs = getEngineOutputArgumentNames();
+            if ( ! engineOutputs.isEmpty() ) {
+                throw new CommandLineException(String.format("The argument(s) %s cannot be used with --%s greater than 1",
+                        String.join(", ", engineOutputs), AssemblyRegionWalker.REGION_THREADS_LONG_NAME));
+            }
+        }
+    }
+
+    /**
+     * @return the names of all arguments that were specified and cause a calling engine to write its own output
+     */
+    protected List<String> getEngineOutputArgumentNames() {
+        final List<String> names = new ArrayList<>();
+        if ( bamOutputPath != null ) {
+            names.add(BAM_OUTPUT_LONG_NAME);
+        }
+        if ( assemblerArgs.graphOutput != null ) {
+            names.add("graph-output");
+        }
+        if ( assemblerArgs.haplotypeHistogramOutput != null ) {
+            names.add("haplotype-debug-histogram-output");
+        }
+        if ( assemblerArgs.captureAssemblyFailureBAM ) {
+            names.add(ReadThreadingAssemblerArgumentCollection.CAPTURE_ASSEMBLY_FAILURE_BAM_LONG_NAME);
+        }
+        return names;
+    }
+
     @ArgumentCollection
     public ReadThreadingAssemblerArgumentCollection assemblerArgs = getReadThreadingAssemblerArgumentCollection();
 
@@ -148,4 +192,16 @@ public abstract class AssemblyBasedCallerArgumentCollection {
                     "that overlap the variant or any base no further than this distance expressed in base pairs",
             optional = true)
     public int informativeReadOverlapMargin = 2;
+
+    /**
+     * Directory in which the haplotypes assembled for each active region, and the likelihoods of its reads given those
+     * haplotypes, are saved.  When a later run with the same directory sees a region with exactly the same reads,
+     * reference and assembly (or likelihood) arguments, it reuses the saved results instead of repeating the assembly
+     * (or PairHMM).  This makes it much cheaper to rerun on the same input with only genotyping or annotation
+     * arguments changed.  Results are identical with and without the cache, which can take a lot of disk space for
+     * deep data.  Debugging output from the assembler, such as --graph-output, is not written for reused regions.
+     */
+    @Advanced
+    @Argument(fullName = REGION_RESULT_CACHE_LONG_NAME, doc = "Directory in which to save and reuse the assembly and read likelihood results for each region", optional = true)
+    public GATKPath regionResultCache = null;
 }
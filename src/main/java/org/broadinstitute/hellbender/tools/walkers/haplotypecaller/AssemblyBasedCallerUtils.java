@@ -267,6 +267,27 @@ public final class AssemblyBasedCallerUtils {
                                                   final ReadThreadingAssembler assemblyEngine,
                                                   final SmithWatermanAligner aligner,
                                                   final boolean correctOverlappingBaseQualities){
+        return assembleReads(region, givenAlleles, argumentCollection, header, sampleList, logger, referenceReader, assemblyEngine,
+                aligner, correctOverlappingBaseQualities, null);
+    }
+
+    /**
+     * As {@link #assembleReads(AssemblyRegion, List, AssemblyBasedCallerArgumentCollection, SAMFileHeader, SampleList, Logger, ReferenceSequenceFile, ReadThreadingAssembler, SmithWatermanAligner, boolean)},
+     * reusing the haplotypes assembled for the region by a previous run if resultCache has them.
+     *
+     * @param resultCache cache of assembled haplotypes, or null to always run the assembler
+     */
+    public static AssemblyResultSet assembleReads(final AssemblyRegion region,
+                                                  final List<VariantContext> givenAlleles,
+                                                  final AssemblyBasedCallerArgumentCollection argumentCollection,
+                                                  final SAMFileHeader header,
+                                                  final SampleList sampleList,
+                                                  final Logger logger,
+                                                  final ReferenceSequenceFile referenceReader,
+                                                  final ReadThreadingAssembler assemblyEngine,
+                                                  final SmithWatermanAligner aligner,
+                                                  final boolean correctOverlappingBaseQualities,
+                                                  final RegionResultCache resultCache){
         finalizeRegion(region, argumentCollection.assemblerArgs.errorCorrectReads, argumentCollection.dontUseSoftClippedBases, (byte)(argumentCollection.minBaseQualityScore - 1), header, sampleList, correctOverlappingBaseQualities, argumentCollection.softClipLowQualityEnds);
         if( argumentCollection.assemblerArgs.debugAssembly) {
             logger.info("Assembling " + region.getSpan() + " with " + region.size() + " reads:    (with overlap region = " + region.getPaddedSpan() + ")");
@@ -286,8 +307,18 @@ public final class AssemblyBasedCallerUtils {
                         null)
                 : new PileupReadErrorCorrector(argumentCollection.assemblerArgs.pileupErrorCorrectionLogOdds, header);
         try {
-            final AssemblyResultSet assemblyResultSet = assemblyEngine.runLocalAssembly(region, refHaplotype, fullReferenceWithPadding,
-                    paddedReferenceLoc, readErrorCorrector, header, aligner);
+            final String cacheKey = resultCache == null ? null : resultCache.getAssemblyKey(region, fullReferenceWithPadding, paddedReferenceLoc);
+            final Optional<List<Haplotype>> cachedHaplotypes = resultCache == null ? Optional.empty() : resultCache.getHaplotypes(cacheKey);
+            final AssemblyResultSet assemblyResultSet;
+            if (cachedHaplotypes.isPresent()) {
+                assemblyResultSet = makeAssemblyResultSet(region, refHaplotype, fullReferenceWithPadding, paddedReferenceLoc, cachedHaplotypes.get());
+            } else {
+                assemblyResultSet = assemblyEngine.runLocalAssembly(region, refHaplotype, fullReferenceWithPadding,
+                        paddedReferenceLoc, readErrorCorrector, header, aligner);
+                if (resultCache != null) {
+                    resultCache.putHaplotypes(cacheKey, assemblyResultSet.getHaplotypeList());
+                }
+            }
             if (!givenAlleles.isEmpty()) {
                 addGivenAlleles(region.getPaddedSpan().getStart(), givenAlleles, argumentCollection.maxMnpDistance, aligner, refHaplotype, assemblyResultSet);
             }
@@ -308,6 +339,22 @@ public final class AssemblyBasedCallerUtils {
         }
     }
 
+    /**
+     * Make the result set {@link ReadThreadingAssembler#runLocalAssembly} returns for the given haplotypes, without the
+     * assembly graphs, which are not needed for calling.
+     */
+    private static AssemblyResultSet makeAssemblyResultSet(final AssemblyRegion region, final Haplotype refHaplotype, final byte[] fullReferenceWithPadding,
+                                                           final SimpleInterval paddedReferenceLoc, final List<Haplotype> haplotypes) {
+        final AssemblyResultSet resultSet = new AssemblyResultSet();
+        resultSet.setRegionForGenotyping(region);
+        resultSet.setFullReferenceWithPadding(fullReferenceWithPadding);
+        resultSet.setPaddedReferenceLoc(paddedReferenceLoc);
+        refHaplotype.setGenomeLocation(region.getPaddedSpan());
+        // use the caller's reference haplotype, as the assembler does
+        haplotypes.forEach(haplotype -> resultSet.add(haplotype.isReference() ? refHaplotype : haplotype));
+        return resultSet;
+    }
+
     @VisibleForTesting
     static void addGivenAlleles(final int assemblyRegionStart, final List<VariantContext> givenAlleles, final int maxMnpDistance,
                                 final SmithWatermanAligner aligner, final Haplotype refHaplotype, final AssemblyResultSet assemblyResultSet) {
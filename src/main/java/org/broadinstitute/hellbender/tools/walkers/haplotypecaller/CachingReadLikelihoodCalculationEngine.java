@@ -0,0 +1,50 @@
+package org.broadinstitute.hellbender.tools.walkers.haplotypecaller;
+
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.genotyper.AlleleLikelihoods;
+import org.broadinstitute.hellbender.utils.genotyper.SampleList;
+import org.broadinstitute.hellbender.utils.haplotype.Haplotype;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Likelihood engine that reuses the likelihoods saved in a {@link RegionResultCache} when it has them, and otherwise
+ * computes them with another engine and saves them.
+ */
+public final class CachingReadLikelihoodCalculationEngine implements ReadLikelihoodCalculationEngine {
+
+    private final ReadLikelihoodCalculationEngine engine;
+    private final RegionResultCache cache;
+
+    /**
+     * @param engine engine used to compute the likelihoods that are not in the cache
+     * @param cache cache of likelihoods, whose keys must account for all of the arguments of engine
+     */
+    public CachingReadLikelihoodCalculationEngine(final ReadLikelihoodCalculationEngine engine, final RegionResultCache cache) {
+        this.engine = Utils.nonNull(engine);
+        this.cache = Utils.nonNull(cache);
+    }
+
+    @Override
+    public AlleleLikelihoods<GATKRead, Haplotype> computeReadLikelihoods(final AssemblyResultSet assemblyResultSet, final SampleList samples,
+                                                                         final Map<String, List<GATKRead>> perSampleReadList) {
+        Utils.nonNull(assemblyResultSet, "assemblyResultSet is null");
+        Utils.nonNull(samples, "samples is null");
+        Utils.nonNull(perSampleReadList, "perSampleReadList is null");
+
+        final List<Haplotype> haplotypes = assemblyResultSet.getHaplotypeList();
+        final String key = cache.getLikelihoodsKey(haplotypes, samples, perSampleReadList);
+        return cache.getLikelihoods(key, haplotypes, samples, perSampleReadList).orElseGet(() -> {
+            final AlleleLikelihoods<GATKRead, Haplotype> likelihoods = engine.computeReadLikelihoods(assemblyResultSet, samples, perSampleReadList);
+            cache.putLikelihoods(key, likelihoods, perSampleReadList);
+            return likelihoods;
+        });
+    }
+
+    @Override
+    public void close() {
+        engine.close();
+    }
+}
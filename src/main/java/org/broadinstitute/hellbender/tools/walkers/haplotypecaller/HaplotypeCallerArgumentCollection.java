@@ -203,4 +203,16 @@ public class HaplotypeCallerArgumentCollection extends AssemblyBasedCallerArgume
     @Advanced
     @Argument(fullName= USE_FILTERED_READS_FOR_ANNOTATIONS_LONG_NAME, doc = "Use the contamination-filtered read maps for the purposes of annotating variants", optional=true)
     public boolean useFilteredReadMapForAnnotations = false;
+
+    @Override
+    protected List<String> getEngineOutputArgumentNames() {
+        final List<String> names = super.getEngineOutputArgumentNames();
+        if ( assemblyStateOutput != null ) {
+            names.add("debug-assembly-region-state");
+        }
+        if ( genotyperDebugOutStream != null ) {
+            names.add("debug-genotyper-output");
+        }
+        return names;
+    }
 }
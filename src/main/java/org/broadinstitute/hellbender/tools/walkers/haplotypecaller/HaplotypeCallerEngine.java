@@ -1,5 +1,6 @@
 package org.broadinstitute.hellbender.tools.walkers.haplotypecaller;
 
+import com.google.common.annotations.VisibleForTesting;
 import htsjdk.samtools.SAMFileHeader;
 import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.samtools.reference.ReferenceSequenceFile;
@@ -83,6 +84,9 @@ public final class HaplotypeCallerEngine implements AssemblyRegionEvaluator {
 
     private ReadLikelihoodCalculationEngine likelihoodCalculationEngine = null;
 
+    // saved assembly and likelihood results of previous runs, if requested
+    private RegionResultCache resultCache = null;
+
     private HaplotypeCallerGenotypingEngine genotypingEngine = null;
 
     private VariantAnnotatorEngine annotationEngine = null;
@@ -239,6 +243,10 @@ public final class HaplotypeCallerEngine implements AssemblyRegionEvaluator {
         haplotypeBAMWriter = AssemblyBasedCallerUtils.createBamWriter(hcArgs, createBamOutIndex, createBamOutMD5, readsHeader);
         assemblyEngine = hcArgs.createReadThreadingAssembler();
         likelihoodCalculationEngine = AssemblyBasedCallerUtils.createLikelihoodCalculationEngine(hcArgs.likelihoodArgs, !hcArgs.softClipLowQualityEnds);
+        if ( hcArgs.regionResultCache != null ) {
+            resultCache = new RegionResultCache(hcArgs.regionResultCache, hcArgs);
+            likelihoodCalculationEngine = new CachingReadLikelihoodCalculationEngine(likelihoodCalculationEngine, resultCache);
+        }
     }
 
     private boolean isVCFMode() {
@@ -364,12 +372,27 @@ public final class HaplotypeCallerEngine implements AssemblyRegionEvaluator {
     public VariantContextWriter makeVCFWriter( final GATKPath outputVCF, final SAMSequenceDictionary readsDictionary,
                                                final boolean createOutputVariantIndex, final boolean  createOutputVariantMD5,
                                                final boolean sitesOnlyMode ) {
+        return makeVCFWriter(outputVCF, readsDictionary, createOutputVariantIndex, createOutputVariantMD5, sitesOnlyMode, false);
+    }
+
+    /**
+     * Create a VCF or GVCF writer as appropriate, given our arguments
+     *
+     * @param outputVCF location to which the vcf should be written
+     * @param readsDictionary sequence dictionary for the reads
+     * @param asyncOutput if true, the output is encoded, compressed and indexed on a background thread
+     * @return a VCF or GVCF writer as appropriate, ready to use
+     */
+    public VariantContextWriter makeVCFWriter( final GATKPath outputVCF, final SAMSequenceDictionary readsDictionary,
+                                               final boolean createOutputVariantIndex, final boolean  createOutputVariantMD5,
+                                               final boolean sitesOnlyMode, final boolean asyncOutput ) {
         Utils.nonNull(outputVCF);
         Utils.nonNull(readsDictionary);
 
-        final List<Options> options = new ArrayList<>(2);
+        final List<Options> options = new ArrayList<>(3);
         if (createOutputVariantIndex) {options.add(Options.INDEX_ON_THE_FLY);}
         if (sitesOnlyMode) {options.add(Options.DO_NOT_WRITE_GENOTYPES);}
+        if (asyncOutput) {options.add(Options.USE_ASYNC_IO);}
 
         VariantContextWriter writer = GATKVariantContextUtils.createVCFWriter(
                 outputVCF.toPath(),
@@ -569,7 +592,7 @@ public final class HaplotypeCallerEngine implements AssemblyRegionEvaluator {
         }
 
         // run the local assembler, getting back a collection of information on how we should proceed
-        final AssemblyResultSet untrimmedAssemblyResult =  AssemblyBasedCallerUtils.assembleReads(region, givenAlleles, hcArgs, readsHeader, samplesList, logger, referenceReader, assemblyEngine, aligner, !hcArgs.doNotCorrectOverlappingBaseQualities);
+        final AssemblyResultSet untrimmedAssemblyResult =  AssemblyBasedCallerUtils.assembleReads(region, givenAlleles, hcArgs, readsHeader, samplesList, logger, referenceReader, assemblyEngine, aligner, !hcArgs.doNotCorrectOverlappingBaseQualities, resultCache);
 
         if (assemblyDebugOutStream != null) {
             try {
@@ -765,12 +788,21 @@ public final class HaplotypeCallerEngine implements AssemblyRegionEvaluator {
         }
     }
 
+    /**
+     * @return the cache of per-region assembly and likelihood results, or null if --region-result-cache was not given
+     */
+    @VisibleForTesting
+    RegionResultCache getRegionResultCache() {
+        return resultCache;
+    }
+
     /**
      * Shutdown this HC engine, closing resources as appropriate
      */
     public void shutdown() {
         likelihoodCalculationEngine.close();
         aligner.close();
+        assemblyEngine.close();
         if ( haplotypeBAMWriter.isPresent() ) {
             haplotypeBAMWriter.get().close();
         }
@@ -792,6 +824,9 @@ public final class HaplotypeCallerEngine implements AssemblyRegionEvaluator {
         HaplotypeCallerGenotypingDebugger.close();
         // Write assembly region debug output if present
         assemblyEngine.printDebugHistograms();
+        if ( resultCache != null ) {
+            resultCache.logStatistics();
+        }
 
     }
 
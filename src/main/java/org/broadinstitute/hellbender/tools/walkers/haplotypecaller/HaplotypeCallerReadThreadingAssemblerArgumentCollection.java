@@ -7,6 +7,7 @@ import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.readthreading
 
 import java.io.File;
 import java.util.Collections;
+import java.util.List;
 
 public class HaplotypeCallerReadThreadingAssemblerArgumentCollection extends ReadThreadingAssemblerArgumentCollection {
     private static final long serialVersionUID = 6520834L;
@@ -35,6 +36,7 @@ public class HaplotypeCallerReadThreadingAssemblerArgumentCollection extends Rea
 
     @Override
     public ReadThreadingAssembler makeReadThreadingAssembler() {
+        validateKmerSizeThreads();
         final ReadThreadingAssembler assemblyEngine = new ReadThreadingAssembler(maxNumHaplotypesInPopulation, Collections.unmodifiableList(kmerSizes),
                 dontIncreaseKmerSizesForCycles, allowNonUniqueKmersInRef, numPruningSamples, useAdaptivePruning ? 0 : minPruneFactor,
                 useAdaptivePruning, initialErrorRateForPruning, pruningLogOddsThreshold, pruningSeedingLogOddsThreshold, maxUnprunedVariants, useLinkedDeBruijnGraph,
@@ -43,6 +45,7 @@ public class HaplotypeCallerReadThreadingAssemblerArgumentCollection extends Rea
         assemblyEngine.setRecoverDanglingBranches(!doNotRecoverDanglingBranches);
         assemblyEngine.setRecoverAllDanglingBranches(recoverAllDanglingBranches);
         assemblyEngine.setMinDanglingBranchLength(minDanglingBranchLength);
+        assemblyEngine.setKmerSizeThreads(kmerSizeThreads);
         assemblyEngine.setArtificialHaplotypeRecoveryMode(disableArtificialHaplotypeRecovery);
 
         if ( graphOutput != null ) {
@@ -54,4 +57,12 @@ public class HaplotypeCallerReadThreadingAssemblerArgumentCollection extends Rea
 
         return assemblyEngine;
     }
+
+    @Override
+    public List<Object> getAssemblyParameters() {
+        final List<Object> parameters = super.getAssemblyParameters();
+        parameters.add(useAdaptivePruning);
+        parameters.add(doNotRecoverDanglingBranches);
+        return parameters;
+    }
 }
@@ -10,6 +10,9 @@ import org.broadinstitute.hellbender.utils.QualityUtils;
 import org.broadinstitute.hellbender.utils.pairhmm.PairHMM;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Set of arguments related to {@link ReadLikelihoodCalculationEngine} implementations
@@ -106,4 +109,17 @@ public final class LikelihoodEngineArgumentCollection implements Serializable {
 
     @ArgumentCollection
     public PairHMMNativeArgumentCollection pairHMMNativeArgs = new PairHMMNativeArgumentCollection();
+
+    /**
+     * Get the values of all arguments that can change the read likelihoods computed for a given set of haplotypes and
+     * reads.  These are used to key cached likelihoods, so arguments that only affect performance are left out.
+     *
+     * @return a new mutable list of argument values
+     */
+    public List<Object> getLikelihoodParameters() {
+        return new ArrayList<>(Arrays.asList(BASE_QUALITY_SCORE_THRESHOLD, dragstrParams == null ? null : dragstrParams.getURIString(),
+                dontUseDragstrPairHMMScores, gcpHMM, expectedErrorRatePerBase, pairHMM, pcrErrorModel,
+                phredScaledGlobalReadMismappingRate, disableSymmetricallyNormalizeAllelesToReference, disableCapReadQualitiesToMapQ,
+                enableDynamicReadDisqualification, readDisqualificationThresholdConstant, pairHMMNativeArgs.getPairHMMArgs().useDoublePrecision));
+    }
 }
@@ -6,6 +6,7 @@ import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.readthreading
 
 import java.io.File;
 import java.util.Collections;
+import java.util.List;
 
 public class MutectReadThreadingAssemblerArgumentCollection extends ReadThreadingAssemblerArgumentCollection {
     private static final long serialVersionUID = 5304L;
@@ -21,6 +22,7 @@ public class MutectReadThreadingAssemblerArgumentCollection extends ReadThreadin
 
     @Override
     public ReadThreadingAssembler makeReadThreadingAssembler() {
+        validateKmerSizeThreads();
         final ReadThreadingAssembler assemblyEngine = new ReadThreadingAssembler(maxNumHaplotypesInPopulation, Collections.unmodifiableList(kmerSizes),
                 dontIncreaseKmerSizesForCycles, allowNonUniqueKmersInRef, numPruningSamples, disableAdaptivePruning ? minPruneFactor : 0,
                 !disableAdaptivePruning, initialErrorRateForPruning, pruningLogOddsThreshold, pruningSeedingLogOddsThreshold, maxUnprunedVariants, useLinkedDeBruijnGraph,
@@ -29,6 +31,7 @@ public class MutectReadThreadingAssemblerArgumentCollection extends ReadThreadin
         assemblyEngine.setRecoverDanglingBranches(true);
         assemblyEngine.setRecoverAllDanglingBranches(recoverAllDanglingBranches);
         assemblyEngine.setMinDanglingBranchLength(minDanglingBranchLength);
+        assemblyEngine.setKmerSizeThreads(kmerSizeThreads);
         assemblyEngine.setArtificialHaplotypeRecoveryMode(disableArtificialHaplotypeRecovery);
 
         if ( graphOutput != null ) {
@@ -42,4 +45,11 @@ public class MutectReadThreadingAssemblerArgumentCollection extends ReadThreadin
 
         return assemblyEngine;
     }
+
+    @Override
+    public List<Object> getAssemblyParameters() {
+        final List<Object> parameters = super.getAssemblyParameters();
+        parameters.add(disableAdaptivePruning);
+        return parameters;
+    }
 }
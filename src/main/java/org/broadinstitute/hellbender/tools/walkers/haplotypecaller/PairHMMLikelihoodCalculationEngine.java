@@ -184,9 +184,11 @@ public final class PairHMMLikelihoodCalculationEngine implements ReadLikelihoodC
         // Add likelihoods for each sample's reads to our result
         final AlleleLikelihoods<GATKRead, Haplotype> result = new AlleleLikelihoods<>(samples, haplotypes, perSampleReadList);
         final int sampleCount = result.numberOfSamples();
+        final List<LikelihoodMatrix<GATKRead, Haplotype>> sampleMatrices = new ArrayList<>(sampleCount);
         for (int i = 0; i < sampleCount; i++) {
-                computeReadLikelihoods(result.sampleMatrix(i));
+            sampleMatrices.add(result.sampleMatrix(i));
         }
+        computeReadLikelihoods(sampleMatrices);
 
         result.normalizeLikelihoods(log10globalReadMismappingRate, symmetricallyNormalizeAllelesToReference);
 
@@ -324,19 +326,31 @@ public final class PairHMMLikelihoodCalculationEngine implements ReadLikelihoodC
         pairHMM.initialize(haplotypes, perSampleReadList, readMaxLength, haplotypeMaxLength);
     }
 
-    private void computeReadLikelihoods(final LikelihoodMatrix<GATKRead, Haplotype> likelihoods) {
-        // Modify the read qualities by applying the PCR error model and capping the minimum base,insertion,deletion qualities
-        final List<GATKRead> processedReads = modifyReadQualities(likelihoods.evidence());
-
-        for(int counter = 0; counter < processedReads.size(); counter++) {
-            GATKRead read = processedReads.get(counter);
-            if (HaplotypeCallerGenotypingDebugger.isEnabled()) {
-                HaplotypeCallerGenotypingDebugger.println("read "+counter +": "+read.getName()+" cigar: "+read.getCigar()+" mapQ: "+read.getMappingQuality()+" loc: ["+read.getStart() +"-"+ read.getEnd()+"] unclippedloc: ["+read.getUnclippedStart()+"-"+read.getUnclippedEnd()+"]");
-                HaplotypeCallerGenotypingDebugger.println(Arrays.toString(read.getBaseQualitiesNoCopy()));
+    /**
+     * Compute the likelihoods for all samples with a single batched PairHMM call, so that PairHMM implementations with
+     * a high per-call overhead (the native ones) see every read in the region at once rather than one sample at a time.
+     *
+     * The batch never spans several regions: the native PairHMM computes every read in a call against every haplotype
+     * in it, so pooling regions (each with its own haplotypes) would compute pairs that are never used, and would require
+     * genotyping to wait for later regions. With a single sample, the batch is therefore the same as the unbatched call.
+     */
+    private void computeReadLikelihoods(final List<LikelihoodMatrix<GATKRead, Haplotype>> sampleMatrices) {
+        final List<List<GATKRead>> processedReadsPerSample = new ArrayList<>(sampleMatrices.size());
+        for (final LikelihoodMatrix<GATKRead, Haplotype> likelihoods : sampleMatrices) {
+            // Modify the read qualities by applying the PCR error model and capping the minimum base,insertion,deletion qualities
+            final List<GATKRead> processedReads = modifyReadQualities(likelihoods.evidence());
+
+            for(int counter = 0; counter < processedReads.size(); counter++) {
+                GATKRead read = processedReads.get(counter);
+                if (HaplotypeCallerGenotypingDebugger.isEnabled()) {
+                    HaplotypeCallerGenotypingDebugger.println("read "+counter +": "+read.getName()+" cigar: "+read.getCigar()+" mapQ: "+read.getMappingQuality()+" loc: ["+read.getStart() +"-"+ read.getEnd()+"] unclippedloc: ["+read.getUnclippedStart()+"-"+read.getUnclippedEnd()+"]");
+                    HaplotypeCallerGenotypingDebugger.println(Arrays.toString(read.getBaseQualitiesNoCopy()));
+                }
             }
+            processedReadsPerSample.add(processedReads);
         }
         // Run the PairHMM to calculate the log10 likelihood of each (processed) reads' arising from each haplotype
-        pairHMM.computeLog10Likelihoods(likelihoods, processedReads, inputScoreImputator);
+        pairHMM.batchComputeLog10Likelihoods(sampleMatrices, processedReadsPerSample, inputScoreImputator);
     }
 
     /**
@@ -3,12 +3,15 @@ package org.broadinstitute.hellbender.tools.walkers.haplotypecaller;
 import com.google.common.collect.Lists;
 import org.broadinstitute.barclay.argparser.Advanced;
 import org.broadinstitute.barclay.argparser.Argument;
+import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.barclay.argparser.Hidden;
 import org.broadinstitute.hellbender.engine.spark.AssemblyRegionArgumentCollection;
 import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.readthreading.ReadThreadingAssembler;
 import org.broadinstitute.hellbender.utils.MathUtils;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -27,6 +30,9 @@ public abstract class ReadThreadingAssemblerArgumentCollection implements Serial
     public static final String KMER_SIZE_LONG_NAME = "kmer-size";
     public static final String DONT_INCREASE_KMER_SIZE_LONG_NAME = "dont-increase-kmer-sizes-for-cycles";
     public static final String LINKED_DE_BRUIJN_GRAPH_LONG_NAME = "linked-de-bruijn-graph";
+    public static final String KMER_SIZE_THREADS_LONG_NAME = "kmer-size-threads";
+    public static final String DEBUG_GRAPH_TRANSFORMATIONS_LONG_NAME = "debug-graph-transformations";
+    public static final String GRAPH_OUTPUT_LONG_NAME = "graph-output";
 
     // -----------------------------------------------------------------------------------------------
     // arguments to control internal behavior of the read threading assembler
@@ -47,6 +53,17 @@ public abstract class ReadThreadingAssemblerArgumentCollection implements Serial
     @Argument(fullName= DONT_INCREASE_KMER_SIZE_LONG_NAME, doc="Disable iterating over kmer sizes when graph cycles are detected", optional = true)
     public boolean dontIncreaseKmerSizesForCycles = false;
 
+    /**
+     * Number of threads used to build and prune the assembly graphs for the different kmer sizes of an assembly region
+     * concurrently. The graphs for all the requested kmer sizes are built at the same time, and when none of them can be
+     * used the retries with increasing kmer sizes are made this many at a time. The assembly results do not depend on
+     * this setting. Does not apply to --linked-de-bruijn-graph, where each kmer size depends on the haplotypes found
+     * with the previous one. Cannot be combined with --debug-graph-transformations or --graph-output.
+     */
+    @Advanced
+    @Argument(fullName= KMER_SIZE_THREADS_LONG_NAME, doc="Number of threads used to assemble the graphs for different kmer sizes concurrently", optional = true, minValue = 1)
+    public int kmerSizeThreads = 1;
+
     /**
      * By default, the program does not allow processing of reference sections that contain non-unique kmers. Disabling
      * this check may cause problems in the assembly graph.
@@ -166,13 +183,13 @@ public abstract class ReadThreadingAssemblerArgumentCollection implements Serial
     public boolean debugAssembly;
 
     @Hidden
-    @Argument(fullName="debug-graph-transformations", doc="Write DOT formatted graph files out of the assembler for only this graph size", optional = true)
+    @Argument(fullName=DEBUG_GRAPH_TRANSFORMATIONS_LONG_NAME, doc="Write DOT formatted graph files out of the assembler for only this graph size", optional = true)
     public boolean debugGraphTransformations = false;
 
     /**
      * This argument is meant for debugging and is not immediately useful for normal analysis use.
      */
-    @Argument(fullName="graph-output", shortName="graph", doc="Write debug assembly graph information to this file", optional = true)
+    @Argument(fullName=GRAPH_OUTPUT_LONG_NAME, shortName="graph", doc="Write debug assembly graph information to this file", optional = true)
     public String graphOutput = null;
 
     /**
@@ -223,4 +240,31 @@ public abstract class ReadThreadingAssemblerArgumentCollection implements Serial
     public int minObservationsForKmerToBeSolid = 20;
 
     public abstract ReadThreadingAssembler makeReadThreadingAssembler();
+
+    /**
+     * Reject debug graph outputs together with concurrent kmer size assembly, since the concurrent attempts would
+     * write to the same files.
+     */
+    protected void validateKmerSizeThreads() {
+        if ( kmerSizeThreads > 1 && (debugGraphTransformations || graphOutput != null) ) {
+            throw new CommandLineException.BadArgumentValue(KMER_SIZE_THREADS_LONG_NAME, String.valueOf(kmerSizeThreads),
+                    "must be 1 when --" + DEBUG_GRAPH_TRANSFORMATIONS_LONG_NAME + " or --" + GRAPH_OUTPUT_LONG_NAME + " is given");
+        }
+    }
+
+    /**
+     * Get the values of all arguments that can change the haplotypes assembled from a given region and set of reads.
+     * These are used to key cached assembly results, so arguments that only control debugging output or performance
+     * are left out.  Subclasses with arguments of their own that affect assembly must add them.
+     *
+     * @return a new mutable list of argument values
+     */
+    public List<Object> getAssemblyParameters() {
+        return new ArrayList<>(Arrays.asList(kmerSizes, dontIncreaseKmerSizesForCycles, allowNonUniqueKmersInRef, numPruningSamples,
+                minDanglingBranchLength, recoverAllDanglingBranches, maxNumHaplotypesInPopulation, minPruneFactor,
+                initialErrorRateForPruning, pruningLogOddsThreshold, pruningSeedingLogOddsThreshold, maxUnprunedVariants,
+                useLinkedDeBruijnGraph, disableArtificialHaplotypeRecovery, enableLegacyGraphCycleDetection,
+                minMatchingBasesToDanglingEndRecovery, pileupErrorCorrectionLogOdds, errorCorrectReads,
+                kmerLengthForReadErrorCorrection, minObservationsForKmerToBeSolid));
+    }
 }
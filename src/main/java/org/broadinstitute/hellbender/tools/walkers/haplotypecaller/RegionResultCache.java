@@ -0,0 +1,416 @@
+package org.broadinstitute.hellbender.tools.walkers.haplotypecaller;
+
+import htsjdk.samtools.TextCigarCodec;
+import htsjdk.samtools.util.Locatable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.broadinstitute.hellbender.engine.AssemblyRegion;
+import org.broadinstitute.hellbender.engine.GATKPath;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.genotyper.AlleleLikelihoods;
+import org.broadinstitute.hellbender.utils.genotyper.IndexedAlleleList;
+import org.broadinstitute.hellbender.utils.genotyper.LikelihoodMatrix;
+import org.broadinstitute.hellbender.utils.genotyper.SampleList;
+import org.broadinstitute.hellbender.utils.haplotype.Haplotype;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * On-disk cache of the haplotypes assembled for each assembly region and of the likelihoods of its reads given those
+ * haplotypes, so that reruns on the same input can skip local assembly and the PairHMM.
+ *
+ * <p>
+ *     Results are keyed by a digest of everything they depend on: for assembled haplotypes, the region, its reference
+ *     bases, its (already finalized) reads and the assembly arguments; for likelihoods, the haplotypes, the reads of each
+ *     sample and the likelihood arguments.  Any difference in these simply misses the cache, so stale entries are never
+ *     used.  Each entry is a separate file, written to a temporary file and then moved into place, so that several
+ *     engines (or runs) can share a cache directory.
+ * </p>
+ *
+ * <p>
+ *     Not thread-safe: each calling engine should have its own instance.
+ * </p>
+ */
+public final class RegionResultCache {
+    private static final Logger logger = LogManager.getLogger(RegionResultCache.class);
+
+    // change this whenever the file format or the contents of the keys change, so that old entries are ignored
+    private static final int FORMAT_VERSION = 1;
+
+    private static final String HAPLOTYPES_EXTENSION = ".haplotypes";
+    private static final String LIKELIHOODS_EXTENSION = ".likelihoods";
+
+    private final Path directory;
+    private final String assemblyParameters;
+    private final String likelihoodParameters;
+
+    private int assemblyLookups = 0;
+    private int assemblyHits = 0;
+    private int likelihoodLookups = 0;
+    private int likelihoodHits = 0;
+
+    /**
+     * @param directory directory holding the cache, created if it doesn't exist
+     * @param args arguments of the calling tool, used to key the cached results
+     */
+    public RegionResultCache(final GATKPath directory, final AssemblyBasedCallerArgumentCollection args) {
+        Utils.nonNull(directory);
+        Utils.nonNull(args);
+        this.directory = directory.toPath();
+        try {
+            Files.createDirectories(this.directory);
+        } catch (final IOException e) {
+            throw new UserException.CouldNotCreateOutputFile(directory, "could not create the region result cache directory", e);
+        }
+
+        // the class of the argument collection distinguishes the callers, whose engines are set up differently
+        assemblyParameters = String.join(",", args.getClass().getName(), String.valueOf(args.assemblerArgs.getAssemblyParameters()),
+                String.valueOf(args.minBaseQualityScore), String.valueOf(args.smithWatermanImplementation));
+        likelihoodParameters = String.join(",", args.getClass().getName(), String.valueOf(args.likelihoodArgs.getLikelihoodParameters()),
+                String.valueOf(args.softClipLowQualityEnds));
+    }
+
+    /**
+     * Compute the key for the haplotypes assembled from a region.  This must be called before assembly, while the
+     * reads are as they were given to the assembler.
+     *
+     * @param region the region to assemble, with its reads already finalized for assembly
+     * @param fullReferenceWithPadding the reference bases the region is assembled against
+     * @param paddedReferenceLoc the span of fullReferenceWithPadding
+     * @return the key for the assembled haplotypes
+     */
+    public String getAssemblyKey(final AssemblyRegion region, final byte[] fullReferenceWithPadding, final SimpleInterval paddedReferenceLoc) {
+        Utils.nonNull(region);
+        Utils.nonNull(fullReferenceWithPadding);
+        Utils.nonNull(paddedReferenceLoc);
+        final MessageDigest digest = newDigest(assemblyParameters);
+        update(digest, region.getSpan().toString());
+        update(digest, region.getPaddedSpan().toString());
+        update(digest, paddedReferenceLoc.toString());
+        update(digest, fullReferenceWithPadding);
+        updateWithReads(digest, region.getReads());
+        return toKey(digest);
+    }
+
+    /**
+     * Compute the key for the likelihoods of some reads given some haplotypes
+     *
+     * @param haplotypes the haplotypes, in the order the likelihoods will be computed for them
+     * @param samples the samples
+     * @param perSampleReadList the reads of each sample, in the order the likelihoods will be computed for them
+     * @return the key for the likelihoods
+     */
+    public String getLikelihoodsKey(final List<Haplotype> haplotypes, final SampleList samples, final Map<String, List<GATKRead>> perSampleReadList) {
+        Utils.nonNull(haplotypes);
+        Utils.nonNull(samples);
+        Utils.nonNull(perSampleReadList);
+        final MessageDigest digest = newDigest(likelihoodParameters);
+        update(digest, haplotypes.size());
+        for (final Haplotype haplotype : haplotypes) {
+            update(digest, haplotype.isReference() ? 1 : 0);
+            update(digest, haplotype.getBases());
+        }
+        for (final String sample : samples.asListOfSamples()) {
+            update(digest, sample);
+            updateWithReads(digest, perSampleReadList.getOrDefault(sample, Collections.emptyList()));
+        }
+        return toKey(digest);
+    }
+
+    /**
+     * @param key key from {@link #getAssemblyKey}
+     * @return the cached haplotypes for the key, if any, in the order they were saved
+     */
+    public Optional<List<Haplotype>> getHaplotypes(final String key) {
+        assemblyLookups++;
+        final Optional<List<Haplotype>> result = read(getPath(key, HAPLOTYPES_EXTENSION), in -> {
+            final int count = in.readInt();
+            final List<Haplotype> haplotypes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final boolean isReference = in.readBoolean();
+                final Haplotype haplotype = new Haplotype(readBytes(in), isReference);
+                haplotype.setAlignmentStartHapwrtRef(in.readInt());
+                final String cigar = in.readUTF();
+                if (!cigar.isEmpty()) {
+                    haplotype.setCigar(TextCigarCodec.decode(cigar));
+                }
+                haplotype.setGenomeLocation(new SimpleInterval(in.readUTF(), in.readInt(), in.readInt()));
+                haplotype.setScore(in.readDouble());
+                haplotype.setKmerSize(in.readInt());
+                haplotypes.add(haplotype);
+            }
+            return haplotypes;
+        });
+        if (result.isPresent()) {
+            assemblyHits++;
+        }
+        return result;
+    }
+
+    /**
+     * Save the haplotypes assembled for a region
+     *
+     * @param key key from {@link #getAssemblyKey}
+     * @param haplotypes the assembled haplotypes, all of which must have a genome location
+     */
+    public void putHaplotypes(final String key, final List<Haplotype> haplotypes) {
+        Utils.nonNull(haplotypes);
+        write(getPath(key, HAPLOTYPES_EXTENSION), out -> {
+            out.writeInt(haplotypes.size());
+            for (final Haplotype haplotype : haplotypes) {
+                final Locatable location = Utils.nonNull(haplotype.getGenomeLocation(), "haplotype genomeLocation cannot be null");
+                out.writeBoolean(haplotype.isReference());
+                writeBytes(out, haplotype.getBases());
+                out.writeInt(haplotype.getAlignmentStartHapwrtRef());
+                out.writeUTF(haplotype.getCigar() == null ? "" : TextCigarCodec.encode(haplotype.getCigar()));
+                out.writeUTF(location.getContig());
+                out.writeInt(location.getStart());
+                out.writeInt(location.getEnd());
+                out.writeDouble(haplotype.getScore());
+                out.writeInt(haplotype.getKmerSize());
+            }
+        });
+    }
+
+    /**
+     * Get cached likelihoods, including the removal of any reads that were filtered out as poorly modeled
+     *
+     * @param key key from {@link #getLikelihoodsKey} for the same haplotypes, samples and reads
+     * @return new likelihoods for the given reads, equal to those that were saved, if there are any for the key
+     */
+    public Optional<AlleleLikelihoods<GATKRead, Haplotype>> getLikelihoods(final String key, final List<Haplotype> haplotypes, final SampleList samples,
+                                                                          final Map<String, List<GATKRead>> perSampleReadList) {
+        likelihoodLookups++;
+        final Optional<AlleleLikelihoods<GATKRead, Haplotype>> result = read(getPath(key, LIKELIHOODS_EXTENSION), in -> {
+            final AlleleLikelihoods<GATKRead, Haplotype> likelihoods = new AlleleLikelihoods<>(samples, new IndexedAlleleList<>(haplotypes), perSampleReadList);
+            if (in.readInt() != likelihoods.numberOfAlleles() || in.readInt() != likelihoods.numberOfSamples()) {
+                throw new IOException("wrong number of haplotypes or samples");
+            }
+
+            final Set<GATKRead> filtered = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int s = 0; s < likelihoods.numberOfSamples(); s++) {
+                final LikelihoodMatrix<GATKRead, Haplotype> matrix = likelihoods.sampleMatrix(s);
+                if (in.readInt() != matrix.evidenceCount()) {
+                    throw new IOException("wrong number of reads for sample " + likelihoods.getSample(s));
+                }
+                final boolean[] retained = new boolean[matrix.evidenceCount()];
+                for (int r = 0; r < retained.length; r++) {
+                    retained[r] = in.readBoolean();
+                    if (!retained[r]) {
+                        filtered.add(matrix.getEvidence(r));
+                    }
+                }
+                for (int a = 0; a < matrix.numberOfAlleles(); a++) {
+                    for (int r = 0; r < retained.length; r++) {
+                        if (retained[r]) {
+                            matrix.set(a, r, in.readDouble());
+                        }
+                    }
+                }
+            }
+
+            // remove the reads that were filtered out, in the same way and so with the same side effects as originally
+            likelihoods.filterPoorlyModeledEvidence(read -> filtered.contains(read) ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY);
+            return likelihoods;
+        });
+        if (result.isPresent()) {
+            likelihoodHits++;
+        }
+        return result;
+    }
+
+    /**
+     * Save computed likelihoods.  Nothing is saved if the likelihoods are not in log10 or if their reads are not the
+     * given reads, in order, less any that were filtered out as poorly modeled.
+     *
+     * @param key key from {@link #getLikelihoodsKey} for the haplotypes, samples and reads of likelihoods
+     * @param likelihoods the likelihoods computed for perSampleReadList
+     */
+    public void putLikelihoods(final String key, final AlleleLikelihoods<GATKRead, Haplotype> likelihoods, final Map<String, List<GATKRead>> perSampleReadList) {
+        Utils.nonNull(likelihoods);
+        Utils.nonNull(perSampleReadList);
+        if (likelihoods.isNaturalLog()) {
+            return;
+        }
+        final List<boolean[]> retainedBySample = new ArrayList<>(likelihoods.numberOfSamples());
+        for (int s = 0; s < likelihoods.numberOfSamples(); s++) {
+            final List<GATKRead> reads = perSampleReadList.getOrDefault(likelihoods.getSample(s), Collections.emptyList());
+            final List<GATKRead> evidence = likelihoods.sampleEvidence(s);
+            final boolean[] retained = new boolean[reads.size()];
+            int e = 0;
+            for (int r = 0; r < reads.size(); r++) {
+                if (e < evidence.size() && evidence.get(e) == reads.get(r)) {
+                    retained[r] = true;
+                    e++;
+                }
+            }
+            if (e != evidence.size()) {
+                logger.debug("Not caching likelihoods whose reads differ from the input reads");
+                return;
+            }
+            retainedBySample.add(retained);
+        }
+
+        write(getPath(key, LIKELIHOODS_EXTENSION), out -> {
+            out.writeInt(likelihoods.numberOfAlleles());
+            out.writeInt(likelihoods.numberOfSamples());
+            for (int s = 0; s < likelihoods.numberOfSamples(); s++) {
+                final boolean[] retained = retainedBySample.get(s);
+                out.writeInt(retained.length);
+                for (final boolean r : retained) {
+                    out.writeBoolean(r);
+                }
+                final LikelihoodMatrix<GATKRead, Haplotype> matrix = likelihoods.sampleMatrix(s);
+                for (int a = 0; a < matrix.numberOfAlleles(); a++) {
+                    for (int r = 0; r < matrix.evidenceCount(); r++) {
+                        out.writeDouble(matrix.get(a, r));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the number of assemblies looked up in the cache
+     */
+    public int getAssemblyLookups() {
+        return assemblyLookups;
+    }
+
+    /**
+     * @return the number of assemblies reused from the cache
+     */
+    public int getAssemblyHits() {
+        return assemblyHits;
+    }
+
+    /**
+     * @return the number of read likelihood calculations looked up in the cache
+     */
+    public int getLikelihoodLookups() {
+        return likelihoodLookups;
+    }
+
+    /**
+     * @return the number of read likelihood calculations reused from the cache
+     */
+    public int getLikelihoodHits() {
+        return likelihoodHits;
+    }
+
+    /**
+     * Log the number of results reused from the cache
+     */
+    public void logStatistics() {
+        logger.info(String.format("Region result cache reused %d of %d assemblies and %d of %d read likelihood calculations",
+                assemblyHits, assemblyLookups, likelihoodHits, likelihoodLookups));
+    }
+
+    private Path getPath(final String key, final String extension) {
+        Utils.nonNull(key);
+        // spread the entries over subdirectories to keep directory sizes reasonable
+        return directory.resolve(key.substring(0, 2)).resolve(key + extension);
+    }
+
+    @FunctionalInterface
+    private interface EntryReader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface EntryWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static <T> Optional<T> read(final Path path, final EntryReader<T> reader) {
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return Optional.empty();
+            }
+            return Optional.of(reader.read(in));
+        } catch (final NoSuchFileException e) {
+            return Optional.empty();
+        } catch (final IOException | RuntimeException e) {
+            // a bad entry only costs us recomputing the result, which then replaces it
+            logger.warn("Ignoring unreadable region result cache entry " + path.toUri() + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static void write(final Path path, final EntryWriter writer) {
+        final Path temporaryPath = path.resolveSibling(path.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.createDirectories(path.getParent());
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+                out.writeInt(FORMAT_VERSION);
+                writer.write(out);
+            }
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException e) {
+            throw new UserException.CouldNotCreateOutputFile(path.toUri().toString(), "could not write region result cache entry", e);
+        }
+    }
+
+    private static byte[] readBytes(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeBytes(final DataOutputStream out, final byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static MessageDigest newDigest(final String parameters) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("MD5");
+            update(digest, FORMAT_VERSION);
+            update(digest, parameters);
+            return digest;
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 digest algorithm not present", e);
+        }
+    }
+
+    private static void updateWithReads(final MessageDigest digest, final List<GATKRead> reads) {
+        update(digest, reads.size());
+        for (final GATKRead read : reads) {
+            // covers the bases, qualities, alignment, flags and all tags (including the indel qualities) of the read
+            update(digest, read.getSAMString());
+        }
+    }
+
+    private static void update(final MessageDigest digest, final int value) {
+        digest.update(new byte[] {(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value});
+    }
+
+    // values are prefixed by their length, so that the digests of different sequences of values can't collide trivially
+    private static void update(final MessageDigest digest, final byte[] bytes) {
+        update(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    private static void update(final MessageDigest digest, final String value) {
+        update(digest, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String toKey(final MessageDigest digest) {
+        final StringBuilder key = new StringBuilder();
+        for (final byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+}
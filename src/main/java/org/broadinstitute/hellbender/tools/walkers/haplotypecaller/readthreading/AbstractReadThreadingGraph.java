@@ -51,7 +51,7 @@ public abstract class AbstractReadThreadingGraph extends BaseGraph<MultiDeBruijn
     /**
      * A map from kmers -> their corresponding vertex in the graph
      */
-    protected final Map<Kmer, MultiDeBruijnVertex> kmerToVertexMap = new LinkedHashMap<>();
+    protected final PackedKmerMap<MultiDeBruijnVertex> kmerToVertexMap;
     protected final boolean debugGraphTransformations;
     protected final byte minBaseQualityToUseInAssembly;
     protected List<MultiDeBruijnVertex> referencePath = null;
@@ -59,7 +59,7 @@ public abstract class AbstractReadThreadingGraph extends BaseGraph<MultiDeBruijn
     // --------------------------------------------------------------------------------
     // state variables, initialized in setToInitialState()
     // --------------------------------------------------------------------------------
-    private Kmer refSource = null;
+    private byte[] refSource = null;
     private boolean startThreadingOnlyAtExistingVertex = false;
     private int maxMismatchesInDanglingHead = -1; // this argument exists purely for testing purposes in constructing helpful tests and is currently not hooked up
     private boolean increaseCountsThroughBranches = false; // this may increase the branches without bounds
@@ -71,6 +71,7 @@ public abstract class AbstractReadThreadingGraph extends BaseGraph<MultiDeBruijn
 
     AbstractReadThreadingGraph(int kmerSize, EdgeFactory<MultiDeBruijnVertex, MultiSampleEdge> edgeFactory) {
         super(kmerSize, edgeFactory);
+        kmerToVertexMap = new PackedKmerMap<>(kmerSize);
         debugGraphTransformations = false;
         minBaseQualityToUseInAssembly = 0;
     }
@@ -85,6 +86,7 @@ public abstract class AbstractReadThreadingGraph extends BaseGraph<MultiDeBruijn
 
         Utils.validateArg(kmerSize > 0, () -> "bad minkKmerSize " + kmerSize);
 
+        kmerToVertexMap = new PackedKmerMap<>(kmerSize);
         this.debugGraphTransformations = debugGraphTransformations;
         this.minBaseQualityToUseInAssembly = minBaseQualityToUseInAssembly;
         this.minMatchingBasesToDanglingEndRecovery = numDanglingMatchingPrefixBases;
@@ -93,14 +95,15 @@ public abstract class AbstractReadThreadingGraph extends BaseGraph<MultiDeBruijn
     /**
      * Checks whether a kmer can be the threading start based on the current threading start location policy.
      *
-     * @param kmer the query kmer.
+     * @param sequence the sequence containing the query kmer.
+     * @param start the offset of the query kmer in sequence.
      * @return {@code true} if we can start thread the sequence at this kmer, {@code false} otherwise.
      * @see #setThreadingStartOnlyAtExistingVertex(boolean)
      */
-    protected abstract boolean isThreadingStart(final Kmer kmer, final boolean startThreadingOnlyAtExistingVertex);
+    protected abstract boolean isThreadingStart(final byte[] sequence, final int start, final boolean startThreadingOnlyAtExistingVertex);
 
-    // get the next kmerVertex for ChainExtension and validate if necessary.
-    protected abstract MultiDeBruijnVertex getNextKmerVertexForChainExtension(final Kmer kmer, final boolean isRef, final MultiDeBruijnVertex prevVertex);
+    // get the next kmerVertex (for the kmer of sequence at start) for ChainExtension and validate if necessary.
+    protected abstract MultiDeBruijnVertex getNextKmerVertexForChainExtension(final byte[] sequence, final int start, final boolean isRef, final MultiDeBruijnVertex prevVertex);
 
     // perform any necessary preprocessing on the graph (such as non-unique kmer determination) before the graph is constructed
     protected abstract void preprocessReads();
@@ -117,10 +120,11 @@ public abstract class AbstractReadThreadingGraph extends BaseGraph<MultiDeBruijn
     /**
      * Define the behavior for how the graph should keep track of a potentially new kmer.
      *
-     * @param kmer      (potentially) new kmer to track
+     * @param sequence  the sequence containing the (potentially) new kmer to track
+     * @param start     the offset of the kmer in sequence
      * @param newVertex corresponding vertex for that kmer
      */
-    protected abstract void trackKmer(Kmer kmer, MultiDeBruijnVertex newVertex);
+    protected abstract void trackKmer(byte[] sequence, int start, MultiDeBruijnVertex newVertex);
 
     /**
      * Determine whether the provided cigar is okay to merge into the reference path
@@ -202,8 +206,7 @@ public abstract class AbstractReadThreadingGraph extends BaseGraph<MultiDeBruijn
         }
 
         for (int i = seqForKmers.start; i < seqForKmers.stop - kmerSize; i++) {
-            final Kmer kmer1 = new Kmer(seqForKmers.sequence, i, kmerSize);
-            if (isThreadingStart(kmer1, startThreadingOnlyAtExistingVertex)) {
+            if (isThreadingStart(seqForKmers.sequence, i, startThreadingOnlyAtExistingVertex)) {
                 return i;
             }
         }
@@ -290,7 +293,7 @@ public abstract class AbstractReadThreadingGraph extends BaseGraph<MultiDeBruijn
             }
             referencePath = new ArrayList<>(seqForKmers.sequence.length - kmerSize);
             referencePath.add(startingVertex);
-            refSource = new Kmer(seqForKmers.sequence, seqForKmers.start, kmerSize);
+            refSource = Arrays.copyOfRange(seqForKmers.sequence, seqForKmers.start, seqForKmers.start + kmerSize);
         }
 
         // loop over all of the bases in sequence, extending the graph by one base at each point, as appropriate
@@ -365,8 +368,9 @@ public abstract class AbstractReadThreadingGraph extends BaseGraph<MultiDeBruijn
         final boolean result = super.removeVertex(V);
         if (result) {
             final byte[] sequence = V.getSequence();
-            final Kmer kmer = new Kmer(sequence);
-            kmerToVertexMap.remove(kmer);
+            if (sequence.length == kmerSize) {
+                kmerToVertexMap.remove(sequence, 0);
+            }
         }
         return result;
     }
@@ -961,33 +965,35 @@ public abstract class AbstractReadThreadingGraph extends BaseGraph<MultiDeBruijn
      * @return a non-null vertex
      */
     private MultiDeBruijnVertex getOrCreateKmerVertex(final byte[] sequence, final int start) {
-        final Kmer kmer = new Kmer(sequence, start, kmerSize);
-        final MultiDeBruijnVertex vertex = getKmerVertex(kmer, true);
-        return (vertex != null) ? vertex : createVertex(kmer);
+        final MultiDeBruijnVertex vertex = getKmerVertex(sequence, start, true);
+        return (vertex != null) ? vertex : createVertex(sequence, start);
     }
 
     /**
-     * Get the unique vertex for kmer, or null if not possible.
+     * Get the unique vertex for the kmer of sequence starting at start, or null if not possible.
      *
      * @param allowRefSource if true, we will allow kmer to match the reference source vertex
      * @return a vertex for kmer, or null (either because it doesn't exist or is non-unique for graphs that have such a distinction)
      */
-    protected MultiDeBruijnVertex getKmerVertex(final Kmer kmer, final boolean allowRefSource) {
-        if (!allowRefSource && kmer.equals(refSource)) {
+    protected MultiDeBruijnVertex getKmerVertex(final byte[] sequence, final int start, final boolean allowRefSource) {
+        if (!allowRefSource && isRefSource(sequence, start)) {
             return null;
         }
 
-        return kmerToVertexMap.get(kmer);
+        return kmerToVertexMap.get(sequence, start);
+    }
+
+    private boolean isRefSource(final byte[] sequence, final int start) {
+        return refSource != null && Utils.equalRange(refSource, 0, sequence, start, kmerSize);
     }
 
     /**
-     * Create a new vertex for kmer.  Add it to the kmerToVertexMap map if appropriate.
+     * Create a new vertex for the kmer of sequence starting at start.  Add it to the kmerToVertexMap map if appropriate.
      *
-     * @param kmer the kmer we want to create a vertex for
      * @return the non-null created vertex
      */
-    private MultiDeBruijnVertex createVertex(final Kmer kmer) {
-        final MultiDeBruijnVertex newVertex = new MultiDeBruijnVertex(kmer.bases());
+    private MultiDeBruijnVertex createVertex(final byte[] sequence, final int start) {
+        final MultiDeBruijnVertex newVertex = new MultiDeBruijnVertex(Arrays.copyOfRange(sequence, start, start + kmerSize));
         final int prevSize = vertexSet().size();
         addVertex(newVertex);
 
@@ -995,7 +1001,7 @@ public abstract class AbstractReadThreadingGraph extends BaseGraph<MultiDeBruijn
         if (vertexSet().size() != prevSize + 1) {
             throw new IllegalStateException("Adding vertex " + newVertex + " to graph didn't increase the graph size");
         }
-        trackKmer(kmer, newVertex);
+        trackKmer(sequence, start, newVertex);
 
         return newVertex;
     }
@@ -1025,11 +1031,10 @@ public abstract class AbstractReadThreadingGraph extends BaseGraph<MultiDeBruijn
         }
 
         // none of our outgoing edges had our unique suffix base, so we check for an opportunity to merge back in
-        final Kmer kmer = new Kmer(sequence, kmerStart, kmerSize);
-        final MultiDeBruijnVertex mergeVertex = getNextKmerVertexForChainExtension(kmer, isRef, prevVertex);
+        final MultiDeBruijnVertex mergeVertex = getNextKmerVertexForChainExtension(sequence, kmerStart, isRef, prevVertex);
 
         // either use our merge vertex, or create a new one in the chain
-        final MultiDeBruijnVertex nextVertex = mergeVertex == null ? createVertex(kmer) : mergeVertex;
+        final MultiDeBruijnVertex nextVertex = mergeVertex == null ? createVertex(sequence, kmerStart) : mergeVertex;
         addEdge(prevVertex, nextVertex, ((MyEdgeFactory) getEdgeFactory()).createEdge(isRef, count));
         return nextVertex;
     }
@@ -1080,7 +1085,7 @@ public abstract class AbstractReadThreadingGraph extends BaseGraph<MultiDeBruijn
 
     @Override
     public MultiDeBruijnVertex findKmer(final Kmer k) {
-        return kmerToVertexMap.get(k);
+        return k.length() == kmerSize ? kmerToVertexMap.get(k.bases(), 0) : null;
     }
 
     /**
@@ -0,0 +1,324 @@
+package org.broadinstitute.hellbender.tools.walkers.haplotypecaller.readthreading;
+
+import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.Kmer;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash map from the kmers of a fixed size to non-null values, used by the read threading graphs to index their vertices.
+ *
+ * <p>
+ *     Kmers are looked up directly by their position in a base array, so that threading a sequence through the graph
+ *     does not allocate a {@link Kmer} (and a map entry) per position. Kmers made only of the bases A, C, G and T are
+ *     packed two bits per base into longs and stored in primitive arrays with open addressing and linear probing.
+ *     The rare kmers that contain any other byte (Ns, lower case or IUPAC bases from the reference) are kept in a
+ *     regular {@link HashMap} keyed by {@link Kmer}, so that keys are compared exactly as {@link Kmer#equals} would.
+ * </p>
+ *
+ * <p>
+ *     Not thread-safe: lookups share a scratch buffer for the packed key.
+ * </p>
+ */
+final class PackedKmerMap<V> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int BASES_PER_WORD = Long.SIZE / 2;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final byte NOT_PACKABLE = -1;
+
+    private static final byte[] BASE_CODES = new byte[256];
+    static {
+        Arrays.fill(BASE_CODES, NOT_PACKABLE);
+        BASE_CODES['A'] = 0;
+        BASE_CODES['C'] = 1;
+        BASE_CODES['G'] = 2;
+        BASE_CODES['T'] = 3;
+    }
+    private static final byte[] CODE_BASES = {'A', 'C', 'G', 'T'};
+
+    private final int kmerSize;
+    private final int wordsPerKmer;
+    private final long[] scratchKey;
+
+    // slot i holds the packed key in keys[i * wordsPerKmer, (i + 1) * wordsPerKmer); empty slots have a null value
+    private long[] keys;
+    private int[] hashes;
+    private Object[] values;
+    private int mask;
+    private int packedSize = 0;
+
+    private final Map<Kmer, V> unpackable = new HashMap<>();
+
+    /**
+     * @param kmerSize the size of all kmers in this map, must be >= 1
+     */
+    PackedKmerMap(final int kmerSize) {
+        Utils.validateArg(kmerSize > 0, () -> "bad kmerSize " + kmerSize);
+        this.kmerSize = kmerSize;
+        wordsPerKmer = (kmerSize + BASES_PER_WORD - 1) / BASES_PER_WORD;
+        scratchKey = new long[wordsPerKmer];
+        allocate(INITIAL_CAPACITY);
+    }
+
+    int getKmerSize() {
+        return kmerSize;
+    }
+
+    /**
+     * @return the number of kmers in this map
+     */
+    int size() {
+        return packedSize + unpackable.size();
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Get the value for the kmer of bases starting at start
+     *
+     * @param bases the bases containing the kmer, with at least kmerSize bases from start
+     * @param start the offset of the first base of the kmer
+     * @return the value for the kmer, or null if the kmer is not in this map
+     */
+    V get(final byte[] bases, final int start) {
+        if (!pack(bases, start)) {
+            return unpackable.get(new Kmer(bases, start, kmerSize));
+        }
+        final int slot = findSlot(hash(scratchKey, 0));
+        return slot < 0 ? null : valueAt(slot);
+    }
+
+    boolean containsKey(final byte[] bases, final int start) {
+        return get(bases, start) != null;
+    }
+
+    /**
+     * Associate the kmer of bases starting at start with value.  The bases are copied, so the caller is free to modify
+     * them afterwards.
+     *
+     * @return the previous value for the kmer, or null if there was none
+     */
+    V put(final byte[] bases, final int start, final V value) {
+        return put(bases, start, value, false);
+    }
+
+    /**
+     * Associate the kmer of bases starting at start with value, unless the kmer is already in this map.
+     *
+     * @return the current value for the kmer if there is one (in which case the map is unchanged), or null otherwise
+     */
+    V putIfAbsent(final byte[] bases, final int start, final V value) {
+        return put(bases, start, value, true);
+    }
+
+    private V put(final byte[] bases, final int start, final V value, final boolean onlyIfAbsent) {
+        Utils.nonNull(value);
+        if (!pack(bases, start)) {
+            final Kmer kmer = new Kmer(Arrays.copyOfRange(bases, start, start + kmerSize));
+            return onlyIfAbsent ? unpackable.putIfAbsent(kmer, value) : unpackable.put(kmer, value);
+        }
+
+        final int hash = hash(scratchKey, 0);
+        final int slot = findSlot(hash);
+        if (slot >= 0) {
+            final V previous = valueAt(slot);
+            if (!onlyIfAbsent) {
+                values[slot] = value;
+            }
+            return previous;
+        }
+
+        if ((packedSize + 1) * 2 > values.length) {
+            allocate(values.length * 2);
+            insert(scratchKey, 0, hash, value);
+        } else {
+            store(-slot - 1, scratchKey, 0, hash, value);
+        }
+        packedSize++;
+        return null;
+    }
+
+    /**
+     * Remove the kmer of bases starting at start from this map
+     *
+     * @return the value the kmer had, or null if it was not in this map
+     */
+    V remove(final byte[] bases, final int start) {
+        if (!pack(bases, start)) {
+            return unpackable.remove(new Kmer(bases, start, kmerSize));
+        }
+        int hole = findSlot(hash(scratchKey, 0));
+        if (hole < 0) {
+            return null;
+        }
+        final V previous = valueAt(hole);
+
+        // backward shift deletion: move up any later entry of the probe run that would no longer be reachable
+        int slot = (hole + 1) & mask;
+        while (values[slot] != null) {
+            final int idealSlot = hashes[slot] & mask;
+            if (((slot - idealSlot) & mask) >= ((slot - hole) & mask)) {
+                store(hole, keys, slot * wordsPerKmer, hashes[slot], values[slot]);
+                hole = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        values[hole] = null;
+        packedSize--;
+        return previous;
+    }
+
+    void clear() {
+        Arrays.fill(values, null);
+        packedSize = 0;
+        unpackable.clear();
+    }
+
+    /**
+     * @return a new list of the values in this map, in no particular (but deterministic) order
+     */
+    List<V> values() {
+        final List<V> result = new ArrayList<>(size());
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != null) {
+                result.add(valueAt(slot));
+            }
+        }
+        result.addAll(unpackable.values());
+        return result;
+    }
+
+    /**
+     * @return a new list of the kmers in this map, in the same order as {@link #values()}
+     */
+    List<Kmer> kmers() {
+        final List<Kmer> result = new ArrayList<>(size());
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != null) {
+                result.add(new Kmer(unpack(slot)));
+            }
+        }
+        result.addAll(unpackable.keySet());
+        return result;
+    }
+
+    /**
+     * Pack the kmer of bases starting at start into scratchKey
+     *
+     * @return false if the kmer contains a base other than A, C, G or T and cannot be packed
+     */
+    private boolean pack(final byte[] bases, final int start) {
+        Utils.validIndex(start + kmerSize - 1, bases.length);
+        for (int word = 0; word < wordsPerKmer; word++) {
+            final int wordStart = start + word * BASES_PER_WORD;
+            final int wordEnd = Math.min(wordStart + BASES_PER_WORD, start + kmerSize);
+            long packed = 0;
+            for (int i = wordStart; i < wordEnd; i++) {
+                final byte code = BASE_CODES[bases[i] & 0xFF];
+                if (code == NOT_PACKABLE) {
+                    return false;
+                }
+                packed = (packed << 2) | code;
+            }
+            scratchKey[word] = packed;
+        }
+        return true;
+    }
+
+    private byte[] unpack(final int slot) {
+        final byte[] bases = new byte[kmerSize];
+        for (int word = 0; word < wordsPerKmer; word++) {
+            final int wordStart = word * BASES_PER_WORD;
+            final int wordEnd = Math.min(wordStart + BASES_PER_WORD, kmerSize);
+            long packed = keys[slot * wordsPerKmer + word];
+            for (int i = wordEnd - 1; i >= wordStart; i--) {
+                bases[i] = CODE_BASES[(int) (packed & 3)];
+                packed >>>= 2;
+            }
+        }
+        return bases;
+    }
+
+    private int hash(final long[] words, final int offset) {
+        long h = 0;
+        for (int word = 0; word < wordsPerKmer; word++) {
+            h = (h ^ words[offset + word]) * 0x9E3779B97F4A7C15L;
+        }
+        // finalization step of MurmurHash3, so that the low bits used to pick a slot depend on all of the bases
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * @return the slot holding the packed kmer in scratchKey, or -(the empty slot where it would be inserted) - 1
+     */
+    private int findSlot(final int hash) {
+        int slot = hash & mask;
+        while (values[slot] != null) {
+            if (hashes[slot] == hash && keyMatches(slot)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -slot - 1;
+    }
+
+    private boolean keyMatches(final int slot) {
+        final int offset = slot * wordsPerKmer;
+        for (int word = 0; word < wordsPerKmer; word++) {
+            if (keys[offset + word] != scratchKey[word]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void allocate(final int capacity) {
+        final long[] oldKeys = keys;
+        final int[] oldHashes = hashes;
+        final Object[] oldValues = values;
+
+        keys = new long[capacity * wordsPerKmer];
+        hashes = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+
+        if (oldValues != null) {
+            for (int slot = 0; slot < oldValues.length; slot++) {
+                if (oldValues[slot] != null) {
+                    insert(oldKeys, slot * wordsPerKmer, oldHashes[slot], oldValues[slot]);
+                }
+            }
+        }
+    }
+
+    // insert a key known to be absent
+    private void insert(final long[] keySource, final int keyOffset, final int hash, final Object value) {
+        int slot = hash & mask;
+        while (values[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        store(slot, keySource, keyOffset, hash, value);
+    }
+
+    private void store(final int slot, final long[] keySource, final int keyOffset, final int hash, final Object value) {
+        System.arraycopy(keySource, keyOffset, keys, slot * wordsPerKmer, wordsPerKmer);
+        hashes[slot] = hash;
+        values[slot] = value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(final int slot) {
+        return (V) values[slot];
+    }
+}
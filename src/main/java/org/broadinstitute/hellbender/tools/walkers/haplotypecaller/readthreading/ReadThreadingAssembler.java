@@ -2,13 +2,16 @@ package org.broadinstitute.hellbender.tools.walkers.haplotypecaller.readthreadin
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import htsjdk.samtools.Cigar;
 import htsjdk.samtools.CigarOperator;
 import htsjdk.samtools.SAMFileHeader;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.broadinstitute.gatk.nativebindings.smithwaterman.SWOverhangStrategy;
+import org.broadinstitute.gatk.nativebindings.smithwaterman.SWParameters;
 import org.broadinstitute.hellbender.engine.AssemblyRegion;
+import org.broadinstitute.hellbender.exceptions.GATKException;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.AssemblyResult;
 import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.AssemblyResultSet;
@@ -23,14 +26,20 @@ import org.broadinstitute.hellbender.utils.param.ParamUtils;
 import org.broadinstitute.hellbender.utils.read.CigarUtils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.smithwaterman.SmithWatermanAligner;
+import org.broadinstitute.hellbender.utils.smithwaterman.SmithWatermanAlignment;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-public final class ReadThreadingAssembler {
+public final class ReadThreadingAssembler implements AutoCloseable {
     private static final Logger logger = LogManager.getLogger(ReadThreadingAssembler.class);
 
     static final int DEFAULT_NUM_PATHS_PER_GRAPH = 128;
@@ -74,6 +83,9 @@ public final class ReadThreadingAssembler {
     private Histogram haplotypeHistogram = null;
     private Histogram kmersUsedHistogram = null;
 
+    private int kmerSizeThreads = 1;
+    private ExecutorService kmerSizeExecutor = null; // created on first use when kmerSizeThreads > 1
+
     public ReadThreadingAssembler(final int maxAllowedPathsForReadThreadingAssembler, final List<Integer> kmerSizes,
                                   final boolean dontIncreaseKmerSizesForCycles, final boolean allowNonUniqueKmersInRef,
                                   final int numPruningSamples, final int pruneFactor, final boolean useAdaptivePruning,
@@ -543,28 +555,97 @@ public final class ReadThreadingAssembler {
     @VisibleForTesting
     List<AssemblyResult> assemble(final List<GATKRead> reads, final Haplotype refHaplotype, final SAMFileHeader header, final SmithWatermanAligner aligner) {
         final List<AssemblyResult> results = new LinkedList<>();
+        // the aligner (possibly a native one) is not thread-safe, so attempts running concurrently take turns using it
+        final SmithWatermanAligner graphAligner = kmerSizeThreads > 1 ? new SynchronizedAligner(aligner) : aligner;
 
         // first, try using the requested kmer sizes
-        for ( final int kmerSize : kmerSizes ) {
-            addResult(results, createGraph(reads, refHaplotype, kmerSize, dontIncreaseKmerSizesForCycles, allowNonUniqueKmersInRef, header, aligner));
-        }
+        final List<Supplier<AssemblyResult>> requestedAttempts = kmerSizes.stream()
+                .map(kmerSize -> (Supplier<AssemblyResult>) () -> createGraph(reads, refHaplotype, kmerSize, dontIncreaseKmerSizesForCycles, allowNonUniqueKmersInRef, header, graphAligner))
+                .collect(Collectors.toList());
+        createGraphs(requestedAttempts).forEach(result -> addResult(results, result));
 
         // if none of those worked, iterate over larger sizes if allowed to do so
         if ( results.isEmpty() && !dontIncreaseKmerSizesForCycles ) {
-            int kmerSize = arrayMaxInt(kmerSizes) + KMER_SIZE_ITERATION_INCREASE;
-            int numIterations = 1;
-            while ( results.isEmpty() && numIterations <= MAX_KMER_ITERATIONS_TO_ATTEMPT ) {
-                // on the last attempt we will allow low complexity graphs
-                final boolean lastAttempt = numIterations == MAX_KMER_ITERATIONS_TO_ATTEMPT;
-                addResult(results, createGraph(reads, refHaplotype, kmerSize, lastAttempt, lastAttempt, header, aligner));
-                kmerSize += KMER_SIZE_ITERATION_INCREASE;
-                numIterations++;
+            final List<Integer> largerKmerSizes = getExpandedKmerList().subList(kmerSizes.size(), kmerSizes.size() + MAX_KMER_ITERATIONS_TO_ATTEMPT);
+            // try kmerSizeThreads sizes at a time, keeping the first (smallest) size that works, as if they were tried one by one
+            for ( int waveStart = 0; results.isEmpty() && waveStart < largerKmerSizes.size(); waveStart += kmerSizeThreads ) {
+                final List<Supplier<AssemblyResult>> wave = new ArrayList<>(kmerSizeThreads);
+                for ( int i = waveStart; i < Math.min(waveStart + kmerSizeThreads, largerKmerSizes.size()); i++ ) {
+                    final int kmerSize = largerKmerSizes.get(i);
+                    // on the last attempt we will allow low complexity graphs
+                    final boolean lastAttempt = i == largerKmerSizes.size() - 1;
+                    wave.add(() -> createGraph(reads, refHaplotype, kmerSize, lastAttempt, lastAttempt, header, graphAligner));
+                }
+                createGraphs(wave).stream().filter(Objects::nonNull).findFirst().ifPresent(results::add);
             }
         }
 
         return results;
     }
 
+    /**
+     * Run independent graph creation attempts, concurrently if {@link #setKmerSizeThreads} was given more than one thread.
+     * The first attempt runs on the calling thread.
+     *
+     * @param attempts attempts to run, each returning the result of {@link #createGraph}
+     * @return the (possibly null) results of the attempts, in the same order as attempts
+     */
+    private List<AssemblyResult> createGraphs(final List<Supplier<AssemblyResult>> attempts) {
+        if ( kmerSizeThreads == 1 || attempts.size() < 2 ) {
+            return attempts.stream().map(Supplier::get).collect(Collectors.toList());
+        }
+
+        if ( kmerSizeExecutor == null ) {
+            // concurrent attempts would write their debug graphs to the same files
+            Utils.validate(!debugGraphTransformations && graphOutputPath == null,
+                    "Debug graph output is not supported when creating graphs for several kmer sizes concurrently");
+            kmerSizeExecutor = Executors.newFixedThreadPool(kmerSizeThreads - 1,
+                    new ThreadFactoryBuilder().setNameFormat("kmer-size-assembly-%d").setDaemon(true).build());
+        }
+        final List<Future<AssemblyResult>> futures = attempts.subList(1, attempts.size()).stream()
+                .map(attempt -> kmerSizeExecutor.submit(attempt::get))
+                .collect(Collectors.toList());
+
+        final List<AssemblyResult> results = new ArrayList<>(attempts.size());
+        try {
+            results.add(attempts.get(0).get());
+            for ( final Future<AssemblyResult> future : futures ) {
+                results.add(future.get());
+            }
+        } catch ( final InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new GATKException("Interrupted while waiting for assembly graphs", e);
+        } catch ( final ExecutionException e ) {
+            // rethrow unchecked exceptions from the attempt unchanged so they are reported properly
+            if ( e.getCause() instanceof RuntimeException ) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GATKException("Problem creating an assembly graph", e.getCause());
+        } finally {
+            // don't leave attempts running into the next region if this one failed
+            futures.forEach(future -> future.cancel(true));
+        }
+        return results;
+    }
+
+    /**
+     * An aligner that lets only one thread at a time use the aligner it wraps
+     */
+    private static final class SynchronizedAligner implements SmithWatermanAligner {
+        private final SmithWatermanAligner aligner;
+
+        private SynchronizedAligner(final SmithWatermanAligner aligner) {
+            this.aligner = aligner;
+        }
+
+        @Override
+        public SmithWatermanAlignment align(final byte[] ref, final byte[] alt, final SWParameters parameters, final SWOverhangStrategy overhangStrategy) {
+            synchronized (aligner) {
+                return aligner.align(ref, alt, parameters, overhangStrategy);
+            }
+        }
+    }
+
     /**
      * Method for getting a list of all of the specified kmer sizes to test for the graph including kmer expansions
      * @return
@@ -849,6 +930,29 @@ public final class ReadThreadingAssembler {
         this.minDanglingBranchLength = minDanglingBranchLength;
     }
 
+    /**
+     * Set the number of threads used to create the graphs for different kmer sizes concurrently.  This only applies
+     * to the default (sequence graph) assembly mode; the linked de Bruijn graph mode decides whether to try the next
+     * kmer size based on the haplotypes found with the previous one, so always runs its attempts one at a time.
+     *
+     * @param kmerSizeThreads number of threads, including the calling thread; must be positive
+     */
+    public void setKmerSizeThreads( final int kmerSizeThreads ) {
+        ParamUtils.isPositive(kmerSizeThreads, "kmerSizeThreads must be positive");
+        Utils.validate(kmerSizeExecutor == null, "Cannot change the number of kmer size threads after assembly has started");
+        this.kmerSizeThreads = kmerSizeThreads;
+    }
+
+    /**
+     * Stop the threads used to create graphs for different kmer sizes concurrently, if any
+     */
+    @Override
+    public void close() {
+        if ( kmerSizeExecutor != null ) {
+            kmerSizeExecutor.shutdownNow();
+        }
+    }
+
     @VisibleForTesting
     void setJustReturnRawGraph(final boolean justReturnRawGraph) {
         this.justReturnRawGraph = justReturnRawGraph;
@@ -27,7 +27,7 @@ public class ReadThreadingGraph extends AbstractReadThreadingGraph {
     /**
      * A set of non-unique kmers that cannot be used as merge points in the graph
      */
-    protected Set<Kmer> nonUniqueKmers;
+    protected PackedKmerMap<Boolean> nonUniqueKmers;
 
     /**
      * Constructs an empty read-threading-grpah provided the kmerSize.
@@ -87,9 +87,9 @@ public class ReadThreadingGraph extends AbstractReadThreadingGraph {
 
     // only add the new kmer to the map if it exists and isn't in our non-unique kmer list
     @Override
-    protected void trackKmer(final Kmer kmer, final MultiDeBruijnVertex newVertex) {
-        if ( ! nonUniqueKmers.contains(kmer) && ! kmerToVertexMap.containsKey(kmer) ) {
-            kmerToVertexMap.put(kmer, newVertex);
+    protected void trackKmer(final byte[] sequence, final int start, final MultiDeBruijnVertex newVertex) {
+        if ( ! nonUniqueKmers.containsKey(sequence, start) ) {
+            kmerToVertexMap.putIfAbsent(sequence, start, newVertex);
         }
     }
 
@@ -103,12 +103,13 @@ public class ReadThreadingGraph extends AbstractReadThreadingGraph {
      *
      * @see #setThreadingStartOnlyAtExistingVertex(boolean)
      *
-     * @param kmer the query kmer.
+     * @param sequence the sequence containing the query kmer.
+     * @param start the offset of the query kmer in sequence.
      * @return {@code true} if we can start thread the sequence at this kmer, {@code false} otherwise.
      */
-    protected boolean isThreadingStart(final Kmer kmer, final boolean startThreadingOnlyAtExistingVertex) {
-        Utils.nonNull(kmer);
-        return startThreadingOnlyAtExistingVertex ? kmerToVertexMap.containsKey(kmer) : !nonUniqueKmers.contains(kmer);
+    protected boolean isThreadingStart(final byte[] sequence, final int start, final boolean startThreadingOnlyAtExistingVertex) {
+        Utils.nonNull(sequence);
+        return startThreadingOnlyAtExistingVertex ? kmerToVertexMap.containsKey(sequence, start) : !nonUniqueKmers.containsKey(sequence, start);
     }
 
     /**
@@ -119,22 +120,19 @@ public class ReadThreadingGraph extends AbstractReadThreadingGraph {
      * @param kmerSize the kmer size to check for non-unique kmers of
      * @return a non-null NonUniqueResult
      */
-    private static Set<Kmer> determineNonUniques(final int kmerSize, Collection<SequenceForKmers> withNonUniques) {
-        final Set<Kmer> nonUniqueKmers = new HashSet<>();
+    private static PackedKmerMap<Boolean> determineNonUniques(final int kmerSize, Collection<SequenceForKmers> withNonUniques) {
+        final PackedKmerMap<Boolean> nonUniqueKmers = new PackedKmerMap<>(kmerSize);
+        final PackedKmerMap<Boolean> kmersInSequence = new PackedKmerMap<>(kmerSize);
 
         // loop over all sequences that have non-unique kmers in them from the previous iterator
         final Iterator<SequenceForKmers> it = withNonUniques.iterator();
         while ( it.hasNext() ) {
             final SequenceForKmers sequenceForKmers = it.next();
 
-            // determine the non-unique kmers for this sequence
-            final Collection<Kmer> nonUniquesFromSeq = determineNonUniqueKmers(sequenceForKmers, kmerSize);
-            if ( nonUniquesFromSeq.isEmpty() ) {
+            // determine the non-unique kmers for this sequence, keeping track of them for this kmerSize
+            if ( ! addNonUniqueKmers(sequenceForKmers, kmersInSequence, nonUniqueKmers) ) {
                 // remove this sequence from future consideration
                 it.remove();
-            } else {
-                // keep track of the non-uniques for this kmerSize, and keep it in the list of sequences that have non-uniques
-                nonUniqueKmers.addAll(nonUniquesFromSeq);
             }
         }
 
@@ -156,17 +154,30 @@ public class ReadThreadingGraph extends AbstractReadThreadingGraph {
      * @return a non-null collection of non-unique kmers in sequence
      */
     static Collection<Kmer> determineNonUniqueKmers(final SequenceForKmers seqForKmers, final int kmerSize) {
-        // count up occurrences of kmers within each read
-        final Set<Kmer> allKmers = new LinkedHashSet<>();
-        final List<Kmer> nonUniqueKmers = new ArrayList<>();
-        final int stopPosition = seqForKmers.stop - kmerSize;
+        final PackedKmerMap<Boolean> nonUniqueKmers = new PackedKmerMap<>(kmerSize);
+        addNonUniqueKmers(seqForKmers, new PackedKmerMap<>(kmerSize), nonUniqueKmers);
+        return nonUniqueKmers.kmers();
+    }
+
+    /**
+     * Add the non-unique kmers of a sequence to nonUniqueKmers
+     * @param seqForKmers a sequence to get kmers from
+     * @param kmersInSequence scratch map used to count up occurrences of kmers within the sequence; cleared before use
+     * @param nonUniqueKmers the map of non-unique kmers to add to
+     * @return true if the sequence has any non-unique kmers
+     */
+    private static boolean addNonUniqueKmers(final SequenceForKmers seqForKmers, final PackedKmerMap<Boolean> kmersInSequence,
+                                             final PackedKmerMap<Boolean> nonUniqueKmers) {
+        kmersInSequence.clear();
+        boolean foundNonUnique = false;
+        final int stopPosition = seqForKmers.stop - kmersInSequence.getKmerSize();
         for (int i = 0; i <= stopPosition; i++) {
-            final Kmer kmer = new Kmer(seqForKmers.sequence, i, kmerSize);
-            if (!allKmers.add(kmer)) {
-                nonUniqueKmers.add(kmer);
+            if (kmersInSequence.putIfAbsent(seqForKmers.sequence, i, Boolean.TRUE) != null) {
+                nonUniqueKmers.putIfAbsent(seqForKmers.sequence, i, Boolean.TRUE);
+                foundNonUnique = true;
             }
         }
-        return nonUniqueKmers;
+        return foundNonUnique;
     }
 
     @Override
@@ -181,12 +192,12 @@ public class ReadThreadingGraph extends AbstractReadThreadingGraph {
      */
     @VisibleForTesting
     Set<Kmer> getNonUniqueKmers() {
-        return nonUniqueKmers;
+        return new LinkedHashSet<>(nonUniqueKmers.kmers());
     }
 
     @Override
-    protected MultiDeBruijnVertex getNextKmerVertexForChainExtension(final Kmer kmer, final boolean isRef, final MultiDeBruijnVertex prevVertex) {
-        final MultiDeBruijnVertex uniqueMergeVertex = getKmerVertex(kmer, false);
+    protected MultiDeBruijnVertex getNextKmerVertexForChainExtension(final byte[] sequence, final int start, final boolean isRef, final MultiDeBruijnVertex prevVertex) {
+        final MultiDeBruijnVertex uniqueMergeVertex = getKmerVertex(sequence, start, false);
 
         Utils.validate(!(isRef && uniqueMergeVertex != null), "Found a unique vertex to merge into the reference graph " + prevVertex + " -> " + uniqueMergeVertex);
 
@@ -1,5 +1,6 @@
 package org.broadinstitute.hellbender.tools.walkers.mutect;
 
+import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.writer.VariantContextWriter;
 import org.broadinstitute.barclay.argparser.Argument;
 import org.broadinstitute.barclay.argparser.ArgumentCollection;
@@ -229,6 +230,8 @@ public final class Mutect2 extends AssemblyRegionWalker {
 
     private Mutect2Engine m2Engine;
 
+    private Collection<Annotation> variantAnnotations;
+
     @Override
     public boolean useVariantAnnotations() { return true;}
 
@@ -257,8 +260,9 @@ public final class Mutect2 extends AssemblyRegionWalker {
 
     @Override
     public void onTraversalStart() {
-        VariantAnnotatorEngine annotatorEngine = new VariantAnnotatorEngine(makeVariantAnnotations(), null, Collections.emptyList(), false, false);
-        m2Engine = new Mutect2Engine(MTAC, assemblyRegionArgs, createOutputBamIndex, createOutputBamMD5, getHeaderForReads(), referenceArguments.getReferenceSpecifier(), annotatorEngine);
+        MTAC.validateRegionThreads(regionThreads);
+        variantAnnotations = makeVariantAnnotations();
+        m2Engine = makeMutect2Engine(true);
         vcfWriter = createVCFWriter(outputVCF);
         if (m2Engine.emitReferenceConfidence()) {
             logger.warn("Note that the Mutect2 reference confidence mode is in BETA -- the likelihoods model and output format are subject to change in subsequent versions.");
@@ -277,6 +281,11 @@ public final class Mutect2 extends AssemblyRegionWalker {
         m2Engine.writeHeader(vcfWriter, getDefaultToolVCFHeaderLines());
     }
 
+    private Mutect2Engine makeMutect2Engine(final boolean collectLocusOutputs) {
+        final VariantAnnotatorEngine annotatorEngine = new VariantAnnotatorEngine(variantAnnotations, null, Collections.emptyList(), false, false);
+        return new Mutect2Engine(MTAC, assemblyRegionArgs, createOutputBamIndex, createOutputBamMD5, getHeaderForReads(), referenceArguments.getReferenceSpecifier(), annotatorEngine, collectLocusOutputs);
+    }
+
     @Override
     public Collection<Annotation> makeVariantAnnotations(){
         final Collection<Annotation> annotations = super.makeVariantAnnotations();
@@ -306,6 +315,27 @@ public final class Mutect2 extends AssemblyRegionWalker {
         m2Engine.callRegion(region, referenceContext, featureContext).forEach(vcfWriter::add);
     }
 
+    /**
+     * Each region thread gets its own {@link Mutect2Engine} for calling. Active region determination (and with it the
+     * callable sites and F1R2 outputs) stays with the main engine on the traversal thread.
+     */
+    @Override
+    protected AssemblyRegionProcessor makeAssemblyRegionProcessor() {
+        final Mutect2Engine engine = makeMutect2Engine(false);
+        return new AssemblyRegionProcessor() {
+            @Override
+            public Runnable process(final AssemblyRegion region, final ReferenceContext referenceContext, final FeatureContext featureContext) {
+                final List<VariantContext> calls = engine.callRegion(region, referenceContext, featureContext);
+                return () -> calls.forEach(vcfWriter::add);
+            }
+
+            @Override
+            public void close() {
+                engine.shutdown();
+            }
+        };
+    }
+
     @Override
     public void closeTool() {
         if (vcfWriter != null) {
@@ -99,6 +99,7 @@ public final class Mutect2Engine implements AssemblyRegionEvaluator {
     private CachingIndexedFastaSequenceFile referenceReader;
     private ReadThreadingAssembler assemblyEngine;
     private ReadLikelihoodCalculationEngine likelihoodCalculationEngine;
+    private RegionResultCache resultCache = null;
     private SomaticGenotypingEngine genotypingEngine;
     private Optional<HaplotypeBAMWriter> haplotypeBAMWriter;
     private VariantAnnotatorEngine annotationEngine;
@@ -125,6 +126,18 @@ public final class Mutect2Engine implements AssemblyRegionEvaluator {
      * @param annotatorEngine annotator engine built with desired annotations
      */
     public Mutect2Engine(final M2ArgumentCollection MTAC, AssemblyRegionArgumentCollection assemblyRegionArgs, final boolean createBamOutIndex, final boolean createBamOutMD5, final SAMFileHeader header, final GATKPath referenceSpec, final VariantAnnotatorEngine annotatorEngine) {
+        this(MTAC, assemblyRegionArgs, createBamOutIndex, createBamOutMD5, header, referenceSpec, annotatorEngine, true);
+    }
+
+    /**
+     * Create and initialize a new Mutect2Engine, optionally without the per-locus outputs (F1R2 counts) that are
+     * collected during active region determination. Engines that are only used to call regions, such as the per-thread
+     * engines of a multithreaded region traversal, never evaluate loci and so must not create these outputs.
+     *
+     * @param collectLocusOutputs true to collect F1R2 counts if they were requested in {@code MTAC}
+     */
+    public Mutect2Engine(final M2ArgumentCollection MTAC, AssemblyRegionArgumentCollection assemblyRegionArgs, final boolean createBamOutIndex, final boolean createBamOutMD5, final SAMFileHeader header, final GATKPath referenceSpec, final VariantAnnotatorEngine annotatorEngine,
+                         final boolean collectLocusOutputs) {
         this.MTAC = Utils.nonNull(MTAC);
         this.header = Utils.nonNull(header);
         minCallableDepth = MTAC.callableDepth;
@@ -147,12 +160,16 @@ public final class Mutect2Engine implements AssemblyRegionEvaluator {
         annotationEngine = Utils.nonNull(annotatorEngine);
         assemblyEngine = MTAC.createReadThreadingAssembler();
         likelihoodCalculationEngine = AssemblyBasedCallerUtils.createLikelihoodCalculationEngine(MTAC.likelihoodArgs, true);
+        if (MTAC.regionResultCache != null) {
+            resultCache = new RegionResultCache(MTAC.regionResultCache, MTAC);
+            likelihoodCalculationEngine = new CachingReadLikelihoodCalculationEngine(likelihoodCalculationEngine, resultCache);
+        }
         genotypingEngine = new SomaticGenotypingEngine(MTAC, normalSamples, annotationEngine);
         haplotypeBAMWriter = AssemblyBasedCallerUtils.createBamWriter(MTAC, createBamOutIndex, createBamOutMD5, header);
         trimmer = new AssemblyRegionTrimmer(assemblyRegionArgs, header.getSequenceDictionary());
         referenceConfidenceModel = new SomaticReferenceConfidenceModel(samplesList, header, 0, MTAC.minAF);  //TODO: do something classier with the indel size arg
         final List<String> tumorSamples = ReadUtils.getSamplesFromHeader(header).stream().filter(this::isTumorSample).collect(Collectors.toList());
-        f1R2CountsCollector = MTAC.f1r2TarGz == null ? Optional.empty() : Optional.of(new F1R2CountsCollector(MTAC.f1r2Args, header, MTAC.f1r2TarGz, tumorSamples));
+        f1R2CountsCollector = MTAC.f1r2TarGz == null || !collectLocusOutputs ? Optional.empty() : Optional.of(new F1R2CountsCollector(MTAC.f1r2Args, header, MTAC.f1r2TarGz, tumorSamples));
     }
 
     //default M2 read filters.  Cheap ones come first in order to fail fast.
@@ -230,7 +247,7 @@ public final class Mutect2Engine implements AssemblyRegionEvaluator {
         final List<VariantContext> givenAlleles = featureContext.getValues(MTAC.alleles).stream()
                 .filter(vc -> MTAC.forceCallFiltered || vc.isNotFiltered()).collect(Collectors.toList());
 
-        final AssemblyResultSet untrimmedAssemblyResult = AssemblyBasedCallerUtils.assembleReads(originalAssemblyRegion, givenAlleles, MTAC, header, samplesList, logger, referenceReader, assemblyEngine, aligner, false);
+        final AssemblyResultSet untrimmedAssemblyResult = AssemblyBasedCallerUtils.assembleReads(originalAssemblyRegion, givenAlleles, MTAC, header, samplesList, logger, referenceReader, assemblyEngine, aligner, false, resultCache);
 
         final SortedSet<VariantContext> allVariationEvents = untrimmedAssemblyResult.getVariationEvents(MTAC.maxMnpDistance);
         final AssemblyRegionTrimmer.Result trimmingResult = trimmer.trim(originalAssemblyRegion, allVariationEvents, referenceContext);
@@ -355,8 +372,12 @@ public final class Mutect2Engine implements AssemblyRegionEvaluator {
     public void shutdown() {
         likelihoodCalculationEngine.close();
         aligner.close();
+        assemblyEngine.close();
         haplotypeBAMWriter.ifPresent(writer -> writer.close());
         referenceReader.close();
+        if (resultCache != null) {
+            resultCache.logStatistics();
+        }
     }
 
     @Override
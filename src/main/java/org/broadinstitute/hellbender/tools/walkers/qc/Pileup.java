@@ -146,6 +146,23 @@ public final class Pileup extends LocusWalker {
 
     @Override
     public void apply(AlignmentContext alignmentContext, ReferenceContext referenceContext, FeatureContext featureContext) {
+        out.print(formatPileup(alignmentContext, referenceContext, featureContext));
+    }
+
+    @Override
+    protected LocusProcessor makeLocusProcessor() {
+        return (alignmentContext, referenceContext, featureContext) -> {
+            final String pileupLine = formatPileup(alignmentContext, referenceContext, featureContext);
+            return () -> out.print(pileupLine);
+        };
+    }
+
+    /**
+     * Format the output line for a locus
+     *
+     * @return the pileup line, including the trailing newline
+     */
+    private String formatPileup(final AlignmentContext alignmentContext, final ReferenceContext referenceContext, final FeatureContext featureContext) {
         final String features = getFeaturesString(featureContext);
         final ReadPileup basePileup = alignmentContext.getBasePileup().makeFilteredPileup(pe -> !pe.isDeletion());
         final StringBuilder s = new StringBuilder();
@@ -159,7 +176,7 @@ public final class Pileup extends LocusWalker {
             s.append(" ").append(createVerboseOutput(basePileup));
         }
         s.append("\n");
-        out.print(s.toString());
+        return s.toString();
     }
 
     /**
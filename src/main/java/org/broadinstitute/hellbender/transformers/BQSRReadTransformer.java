@@ -1,5 +1,6 @@
 package org.broadinstitute.hellbender.transformers;
 
+import com.google.common.annotations.VisibleForTesting;
 import htsjdk.samtools.SAMFileHeader;
 import htsjdk.samtools.SAMTag;
 import htsjdk.samtools.SAMUtils;
@@ -7,7 +8,6 @@ import org.broadinstitute.hellbender.exceptions.UserException.MalformedRead;
 import org.broadinstitute.hellbender.tools.ApplyBQSRArgumentCollection;
 import org.broadinstitute.hellbender.utils.QualityUtils;
 import org.broadinstitute.hellbender.utils.Utils;
-import org.broadinstitute.hellbender.utils.collections.NestedIntegerArray;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.read.ReadUtils;
 import org.broadinstitute.hellbender.utils.recalibration.*;
@@ -49,6 +49,10 @@ public final class BQSRReadTransformer implements ReadTransformer {
     private byte[] staticQuantizedMapping;
     private final CovariateKeyCache keyCache;
 
+    // the quantized quality for each recalibrated quality, unboxed from quantizationInfo
+    private final byte[] quantizedQuals;
+    private final RecalibratedQualityLookup qualityLookup;
+
     /**
      * Constructor using a GATK Report file
      *
@@ -98,6 +102,13 @@ public final class BQSRReadTransformer implements ReadTransformer {
         //Note: We pre-create the varargs arrays that will be used in the calls. Otherwise we're spending a lot of time allocating those int[] objects
         empiricalQualCovsArgs = new RecalDatum[totalCovariateCount - specialCovariateCount];
         keyCache = new CovariateKeyCache();//one cache per transformer
+
+        final List<Byte> quantizedQualsList = quantizationInfo.getQuantizedQuals();
+        quantizedQuals = new byte[quantizedQualsList.size()];
+        for (int i = 0; i < quantizedQuals.length; i++) {
+            quantizedQuals[i] = quantizedQualsList.get(i);
+        }
+        qualityLookup = new RecalibratedQualityLookup(recalibrationTables, totalCovariateCount, specialCovariateCount);
     }
 
     /**
@@ -132,6 +143,19 @@ public final class BQSRReadTransformer implements ReadTransformer {
      */
     @Override
     public GATKRead apply(final GATKRead originalRead) {
+        return recalibrate(originalRead, true);
+    }
+
+    /**
+     * Same as {@link #apply}, but evaluates the recalibration model from the tables for every base instead of using
+     * the flattened lookup.  Kept to check and benchmark the lookup against.
+     */
+    @VisibleForTesting
+    GATKRead applyWithoutLookup(final GATKRead originalRead) {
+        return recalibrate(originalRead, false);
+    }
+
+    private GATKRead recalibrate(final GATKRead originalRead, final boolean useLookup) {
         final GATKRead read = useOriginalBaseQualities ? ReadUtils.resetOriginalBaseQualities(originalRead) : originalRead;
 
         if (emitOriginalQuals && ! read.hasAttribute(SAMTag.OQ.name())) { // Save the old qualities if the tag isn't already taken in the read
@@ -161,39 +185,76 @@ public final class BQSRReadTransformer implements ReadTransformer {
         }
         final byte[] quals = read.getBaseQualities();
 
-        final int readLength = quals.length;
         final double epsilon = globalQScorePrior > 0.0 ? globalQScorePrior : empiricalQualRG.getEstimatedQReported();
 
-        final NestedIntegerArray<RecalDatum> qualityScoreTable = recalibrationTables.getQualityScoreTable();
-        final List<Byte> quantizedQuals = quantizationInfo.getQuantizedQuals();
+        if (useLookup) {
+            recalibrateQualities(quals, fullReadKeySet, empiricalQualRG, epsilon);
+        } else {
+            recalibrateQualitiesFromTables(quals, fullReadKeySet, empiricalQualRG, epsilon);
+        }
+        read.setBaseQualities(quals);
+        return read;
+    }
+
+    /**
+     * Recalibrates the qualities of a read in place, using the flattened lookup.
+     * The lookup row only depends on the read group and reported quality, so it is reused across runs of bases with
+     * the same quality.
+     */
+    private void recalibrateQualities(final byte[] quals, final int[][] fullReadKeySet, final RecalDatum empiricalQualRG, final double epsilon) {
+        double[] row = null;
+        int rowQual = -1;
 
         //Note: this loop is under very heavy use in applyBQSR. Keep it slim.
-        for (int offset = 0; offset < readLength; offset++) { // recalibrate all bases in the read
+        for (int offset = 0; offset < quals.length; offset++) { // recalibrate all bases in the read
 
             // only recalibrate usable qualities (the original quality will come from the instrument -- reported quality)
             if (quals[offset] < preserveQLessThan) {
                 continue;
             }
-            Arrays.fill(empiricalQualCovsArgs, null);  //clear the array
             final int[] keySet = fullReadKeySet[offset];
+            if (row == null || keySet[1] != rowQual) {
+                row = qualityLookup.getRow(keySet[0], keySet[1], empiricalQualRG, epsilon);
+                rowQual = keySet[1];
+            }
 
+            // qualities beyond the tables are rare enough to go through the tables directly
+            final double recalibratedQualDouble = row != null ? qualityLookup.getRecalibratedQuality(row, keySet)
+                    : estimateQualityFromTables(keySet, empiricalQualRG, epsilon);
+            quals[offset] = quantize(recalibratedQualDouble);
+        }
+    }
 
-            final RecalDatum empiricalQualQS = qualityScoreTable.get3Keys(keySet[0], keySet[1], BASE_SUBSTITUTION_INDEX);
-
-            for (int i = specialCovariateCount; i < totalCovariateCount; i++) {
-                if (keySet[i] >= 0) {
-                    empiricalQualCovsArgs[i - specialCovariateCount] = recalibrationTables.getTable(i).get4Keys(keySet[0], keySet[1], keySet[i], BASE_SUBSTITUTION_INDEX);
-                }
+    /**
+     * Recalibrates the qualities of a read in place, evaluating the model from the recalibration tables for every base.
+     */
+    private void recalibrateQualitiesFromTables(final byte[] quals, final int[][] fullReadKeySet, final RecalDatum empiricalQualRG, final double epsilon) {
+        for (int offset = 0; offset < quals.length; offset++) {
+            if (quals[offset] < preserveQLessThan) {
+                continue;
             }
-            final double recalibratedQualDouble = hierarchicalBayesianQualityEstimate(epsilon, empiricalQualRG, empiricalQualQS, empiricalQualCovsArgs);
+            quals[offset] = quantize(estimateQualityFromTables(fullReadKeySet[offset], empiricalQualRG, epsilon));
+        }
+    }
+
+    private double estimateQualityFromTables(final int[] keySet, final RecalDatum empiricalQualRG, final double epsilon) {
+        Arrays.fill(empiricalQualCovsArgs, null);  //clear the array
 
-            final byte recalibratedQualityScore = quantizedQuals.get(getRecalibratedQual(recalibratedQualDouble));
+        final RecalDatum empiricalQualQS = recalibrationTables.getQualityScoreTable().get3Keys(keySet[0], keySet[1], BASE_SUBSTITUTION_INDEX);
 
-            // Bin to static quals
-            quals[offset] = staticQuantizedMapping == null ? recalibratedQualityScore : staticQuantizedMapping[recalibratedQualityScore];
+        for (int i = specialCovariateCount; i < totalCovariateCount; i++) {
+            if (keySet[i] >= 0) {
+                empiricalQualCovsArgs[i - specialCovariateCount] = recalibrationTables.getTable(i).get4Keys(keySet[0], keySet[1], keySet[i], BASE_SUBSTITUTION_INDEX);
+            }
         }
-        read.setBaseQualities(quals);
-        return read;
+        return hierarchicalBayesianQualityEstimate(epsilon, empiricalQualRG, empiricalQualQS, empiricalQualCovsArgs);
+    }
+
+    private byte quantize(final double recalibratedQualDouble) {
+        final byte recalibratedQualityScore = quantizedQuals[getRecalibratedQual(recalibratedQualDouble)];
+
+        // Bin to static quals
+        return staticQuantizedMapping == null ? recalibratedQualityScore : staticQuantizedMapping[recalibratedQualityScore];
     }
 
     // recalibrated quality is bound between 1 and MAX_QUAL
@@ -205,20 +266,35 @@ public final class BQSRReadTransformer implements ReadTransformer {
                                                               final RecalDatum empiricalQualRG,
                                                               final RecalDatum empiricalQualQS,
                                                               final RecalDatum... empiricalQualCovs ) {
-        final double globalDeltaQ = empiricalQualRG == null ? 0.0 : empiricalQualRG.getEmpiricalQuality(epsilon) - epsilon;
-        final double deltaQReported = empiricalQualQS == null ? 0.0 : empiricalQualQS.getEmpiricalQuality(globalDeltaQ + epsilon) - (globalDeltaQ + epsilon);
+        final double conditionalPrior2 = conditionalQualityPrior(epsilon, empiricalQualRG, empiricalQualQS);
 
         double deltaQCovariates = 0.0;
-        final double conditionalPrior2 = deltaQReported + globalDeltaQ + epsilon;
         for( final RecalDatum empiricalQualCov : empiricalQualCovs ) {
             if (empiricalQualCov != null) {
-                deltaQCovariates += empiricalQualCov.getEmpiricalQuality(conditionalPrior2) - conditionalPrior2;
+                deltaQCovariates += covariateQualityShift(conditionalPrior2, empiricalQualCov);
             }
         }
 
         return conditionalPrior2 + deltaQCovariates;
     }
 
+    /**
+     * @return the part of {@link #hierarchicalBayesianQualityEstimate} given by the read group and quality score
+     * tables, which serves as the prior for the optional covariates
+     */
+    static double conditionalQualityPrior( final double epsilon, final RecalDatum empiricalQualRG, final RecalDatum empiricalQualQS ) {
+        final double globalDeltaQ = empiricalQualRG == null ? 0.0 : empiricalQualRG.getEmpiricalQuality(epsilon) - epsilon;
+        final double deltaQReported = empiricalQualQS == null ? 0.0 : empiricalQualQS.getEmpiricalQuality(globalDeltaQ + epsilon) - (globalDeltaQ + epsilon);
+        return deltaQReported + globalDeltaQ + epsilon;
+    }
+
+    /**
+     * @return the quality shift contributed by one optional covariate datum on top of the conditional prior
+     */
+    static double covariateQualityShift( final double conditionalPrior, final RecalDatum empiricalQualCov ) {
+        return empiricalQualCov.getEmpiricalQuality(conditionalPrior) - conditionalPrior;
+    }
+
     /**
      * Constructs an array that maps particular quantized values to a rounded value in staticQuantizedQuals
      *
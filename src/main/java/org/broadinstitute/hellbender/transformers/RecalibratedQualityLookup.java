@@ -0,0 +1,114 @@
+package org.broadinstitute.hellbender.transformers;
+
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.recalibration.EventType;
+import org.broadinstitute.hellbender.utils.recalibration.RecalDatum;
+import org.broadinstitute.hellbender.utils.recalibration.RecalibrationTables;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A flattened view of the base substitution entries of a set of {@link RecalibrationTables}, used by
+ * {@link BQSRReadTransformer} to turn covariate keys into recalibrated qualities without walking the tables and
+ * re-evaluating the hierarchical model for every base.
+ *
+ * There is one row of doubles per (read group, reported quality) pair.  The first entry of a row is the conditional
+ * prior given by the read group and quality score tables, and the rest hold the quality shift contributed by each
+ * value of each optional covariate, one covariate after the other.  Rows are created the first time their read group
+ * and quality are seen and their shifts are filled in as they are first needed, so the result for every base is
+ * exactly what {@link BQSRReadTransformer#hierarchicalBayesianQualityEstimate} would give for it.
+ */
+final class RecalibratedQualityLookup implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int BASE_SUBSTITUTION_INDEX = EventType.BASE_SUBSTITUTION.ordinal();
+
+    // marks a shift that has not been computed yet
+    private static final double UNKNOWN_SHIFT = Double.NaN;
+
+    private final RecalibrationTables recalibrationTables;
+    private final int specialCovariateCount;
+    private final int numQuals;
+
+    // for each optional covariate, the number of values it can take and where its shifts start in a row
+    private final int[] covariateDimensions;
+    private final int[] covariateOffsets;
+    private final int rowLength;
+
+    // indexed by read group key * numQuals + reported quality
+    private final double[][] rows;
+
+    RecalibratedQualityLookup(final RecalibrationTables recalibrationTables, final int totalCovariateCount, final int specialCovariateCount) {
+        this.recalibrationTables = Utils.nonNull(recalibrationTables);
+        this.specialCovariateCount = specialCovariateCount;
+
+        final int[] qualityScoreDimensions = recalibrationTables.getQualityScoreTable().getDimensions();
+        numQuals = qualityScoreDimensions[1];
+
+        covariateDimensions = new int[totalCovariateCount - specialCovariateCount];
+        covariateOffsets = new int[covariateDimensions.length];
+        int offset = 1;
+        for (int i = 0; i < covariateDimensions.length; i++) {
+            covariateDimensions[i] = recalibrationTables.getTable(i + specialCovariateCount).getDimensions()[2];
+            covariateOffsets[i] = offset;
+            offset += covariateDimensions[i];
+        }
+        rowLength = offset;
+
+        rows = new double[qualityScoreDimensions[0] * numQuals][];
+    }
+
+    /**
+     * Get the row for a read group and reported quality, creating it if this is the first time they are seen.
+     *
+     * @param rgKey read group key of the base
+     * @param qual reported quality key of the base
+     * @param empiricalQualRG the read group datum for rgKey
+     * @param epsilon the global quality prior for rgKey
+     * @return the row, or null if the quality is outside of the recalibration tables
+     */
+    double[] getRow(final int rgKey, final int qual, final RecalDatum empiricalQualRG, final double epsilon) {
+        if (qual < 0 || qual >= numQuals) {
+            return null;
+        }
+        final int index = rgKey * numQuals + qual;
+        double[] row = rows[index];
+        if (row == null) {
+            row = new double[rowLength];
+            final RecalDatum empiricalQualQS = recalibrationTables.getQualityScoreTable().get3Keys(rgKey, qual, BASE_SUBSTITUTION_INDEX);
+            row[0] = BQSRReadTransformer.conditionalQualityPrior(epsilon, empiricalQualRG, empiricalQualQS);
+            Arrays.fill(row, 1, rowLength, UNKNOWN_SHIFT);
+            rows[index] = row;
+        }
+        return row;
+    }
+
+    /**
+     * @param row the row for the read group and reported quality of the base, as returned by {@link #getRow}
+     * @param keySet the covariate keys of the base
+     * @return the recalibrated quality of the base, before rounding and quantization
+     */
+    double getRecalibratedQuality(final double[] row, final int[] keySet) {
+        double deltaQCovariates = 0.0;
+        for (int i = 0; i < covariateDimensions.length; i++) {
+            final int key = keySet[i + specialCovariateCount];
+            if (key >= 0 && key < covariateDimensions[i]) {
+                final int index = covariateOffsets[i] + key;
+                double shift = row[index];
+                if (Double.isNaN(shift)) {
+                    shift = computeShift(row[0], i, keySet[0], keySet[1], key);
+                    row[index] = shift;
+                }
+                deltaQCovariates += shift;
+            }
+        }
+        return row[0] + deltaQCovariates;
+    }
+
+    private double computeShift(final double conditionalPrior, final int covariate, final int rgKey, final int qual, final int key) {
+        final RecalDatum empiricalQualCov = recalibrationTables.getTable(covariate + specialCovariateCount).get4Keys(rgKey, qual, key, BASE_SUBSTITUTION_INDEX);
+        // a missing datum contributes nothing, and adding 0.0 leaves the sum unchanged
+        return empiricalQualCov == null ? 0.0 : BQSRReadTransformer.covariateQualityShift(conditionalPrior, empiricalQualCov);
+    }
+}
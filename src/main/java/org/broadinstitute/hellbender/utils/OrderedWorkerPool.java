@@ -0,0 +1,142 @@
+package org.broadinstitute.hellbender.utils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Runs tasks on a fixed pool of threads, each of which has exclusive use of one caller-supplied worker object
+ * (typically an engine that is not thread-safe), while completing the tasks on the submitting thread in submission order.
+ *
+ * Each task is a function of a worker that returns a {@link Runnable} "completion". Completions are run on the thread
+ * that calls {@link #submit}/{@link #drain}, strictly in the order the tasks were submitted, which makes this suitable
+ * for writing output that has to stay sorted. At most {@code maxTasksInFlight} tasks are outstanding at once: when
+ * that limit is reached, {@link #submit} blocks until the oldest task finishes and runs its completion.
+ *
+ * This class is not thread-safe: all calls must come from a single (submitting) thread.
+ *
+ * @param <W> type of the per-thread worker
+ */
+public final class OrderedWorkerPool<W> implements AutoCloseable {
+
+    private final List<W> workers;
+    private final BlockingQueue<W> idleWorkers;
+    private final ExecutorService executorService;
+    private final int maxTasksInFlight;
+    private final Queue<Future<Runnable>> tasksInFlight;
+
+    /**
+     * @param workers one worker per thread; the pool will run {@code workers.size()} threads
+     * @param maxTasksInFlight maximum number of submitted tasks whose completions have not yet been run;
+     *                         must be at least {@code workers.size()}
+     * @param threadNameFormat name format for the pool threads, as accepted by {@link ThreadFactoryBuilder#setNameFormat}
+     */
+    public OrderedWorkerPool(final List<W> workers, final int maxTasksInFlight, final String threadNameFormat) {
+        Utils.nonEmpty(workers, "workers");
+        Utils.validateArg(maxTasksInFlight >= workers.size(), "maxTasksInFlight must be at least the number of workers");
+        Utils.nonNull(threadNameFormat);
+
+        this.workers = Collections.unmodifiableList(new ArrayList<>(workers));
+        this.idleWorkers = new ArrayBlockingQueue<>(workers.size(), false, workers);
+        this.maxTasksInFlight = maxTasksInFlight;
+        this.tasksInFlight = new ArrayDeque<>(maxTasksInFlight);
+        this.executorService = Executors.newFixedThreadPool(workers.size(),
+                new ThreadFactoryBuilder().setNameFormat(threadNameFormat).setDaemon(true).build());
+    }
+
+    /**
+     * @return the workers backing this pool, in the order they were provided
+     */
+    public List<W> getWorkers() {
+        return workers;
+    }
+
+    /**
+     * @return the number of submitted tasks whose completions have not yet been run
+     */
+    public int getNumTasksInFlight() {
+        return tasksInFlight.size();
+    }
+
+    /**
+     * Submit a task for background execution. If the maximum number of tasks is already in flight, first waits for
+     * the oldest task and runs its completion on this thread.
+     *
+     * @param task function that runs on a pool thread with exclusive use of a worker, and returns the completion to be
+     *             run on the submitting thread (may return {@code null} if there is nothing to complete)
+     */
+    public void submit(final Function<W, Runnable> task) {
+        Utils.nonNull(task);
+        while ( tasksInFlight.size() >= maxTasksInFlight ) {
+            completeOldestTask();
+        }
+        tasksInFlight.add(executorService.submit(() -> {
+            final W worker = idleWorkers.take();
+            try {
+                return task.apply(worker);
+            } finally {
+                idleWorkers.add(worker);
+            }
+        }));
+    }
+
+    /**
+     * Run, in order, the completions of all tasks that have already finished, without waiting for any others.
+     */
+    public void completeFinishedTasks() {
+        while ( ! tasksInFlight.isEmpty() && tasksInFlight.peek().isDone() ) {
+            completeOldestTask();
+        }
+    }
+
+    /**
+     * Wait for all submitted tasks and run their completions, in order, on this thread.
+     */
+    public void drain() {
+        while ( ! tasksInFlight.isEmpty() ) {
+            completeOldestTask();
+        }
+    }
+
+    private void completeOldestTask() {
+        final Runnable completion;
+        try {
+            completion = tasksInFlight.remove().get();
+        } catch ( final InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new GATKException("Interrupted while waiting for a background task", e);
+        } catch ( final ExecutionException e ) {
+            // rethrow unchecked exceptions (e.g. UserExceptions) from the task unchanged so they are reported properly
+            if ( e.getCause() instanceof RuntimeException ) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GATKException("Problem running background task", e.getCause());
+        }
+        if ( completion != null ) {
+            completion.run();
+        }
+    }
+
+    /**
+     * Shut down the pool threads, abandoning any tasks still in flight. Call {@link #drain} first to complete them.
+     * Does not close the workers.
+     */
+    @Override
+    public void close() {
+        tasksInFlight.forEach(task -> task.cancel(true));
+        tasksInFlight.clear();
+        executorService.shutdownNow();
+    }
+}
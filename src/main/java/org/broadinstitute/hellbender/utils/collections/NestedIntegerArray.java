@@ -9,33 +9,53 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+/**
+ * A table of values addressed by a fixed number of non-negative integer keys.
+ *
+ * Values are stored in one flat row per combination of the first two keys, with the remaining keys laid out in
+ * row-major order inside the row, so a lookup is a single computed index instead of a walk through one nested array
+ * per dimension.  Rows are only allocated once a value is put in them, so combinations of read group and quality
+ * that never show up cost no more than they did with nested arrays.
+ */
 public final class NestedIntegerArray<T extends Serializable> implements Serializable {
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 2L;
 
     private static final Logger logger = LogManager.getLogger(NestedIntegerArray.class);
 
-    protected final Object[] data;
+    // data[key0 * dimensions[1] + key1] is the row for the first two keys, or null if nothing has been put in it yet
+    // (with a single dimension, data[key0] is a row holding just the value for key0)
+    protected final Object[][] data;
 
     protected final int numDimensions;
     protected final int[] dimensions;
 
-    // Preallocate the first two dimensions to limit contention during tree traversals in put()
-    private static final int NUM_DIMENSIONS_TO_PREALLOCATE = 2;
+    // strides[i] is the distance within a row between consecutive values of key i (strides[0] and strides[1] are unused)
+    private final int[] strides;
+    private final int rowSize;
 
     public NestedIntegerArray(final int... dimensions) {
         numDimensions = dimensions.length;
         Utils.validateArg(numDimensions > 0, "There must be at least one dimension to an NestedIntegerArray");
         this.dimensions = Arrays.copyOf(dimensions, dimensions.length);
+        for ( final int dimension : dimensions ) {
+            Utils.validateArg(dimension > 0, () -> "Dimensions of a NestedIntegerArray must be positive but got " + Arrays.toString(dimensions));
+        }
 
-        final int dimensionsToPreallocate = Math.min(dimensions.length, NUM_DIMENSIONS_TO_PREALLOCATE);
+        strides = new int[numDimensions];
+        long size = 1;
+        for ( int i = numDimensions - 1; i > 1; i-- ) {
+            strides[i] = (int)size;
+            size *= dimensions[i];
+            Utils.validateArg(size <= Integer.MAX_VALUE, () -> "Dimensions " + Arrays.toString(dimensions) + " are too large for a NestedIntegerArray");
+        }
+        rowSize = (int)size;
 
-        if ( logger.isDebugEnabled() ) logger.debug(String.format("Creating NestedIntegerArray with dimensions %s", Arrays.toString(dimensions)));
-        if ( logger.isDebugEnabled() ) logger.debug(String.format("Pre-allocating first %d dimensions", dimensionsToPreallocate));
+        final long numRows = numDimensions == 1 ? dimensions[0] : (long)dimensions[0] * dimensions[1];
+        Utils.validateArg(numRows <= Integer.MAX_VALUE, () -> "Dimensions " + Arrays.toString(dimensions) + " are too large for a NestedIntegerArray");
 
-        data = new Object[dimensions[0]];
-        preallocateArray(data, 0, dimensionsToPreallocate);
+        if ( logger.isDebugEnabled() ) logger.debug(String.format("Creating NestedIntegerArray with dimensions %s and rows of %d values", Arrays.toString(dimensions), rowSize));
 
-        if ( logger.isDebugEnabled() ) logger.debug(String.format("Done pre-allocating first %d dimensions", dimensionsToPreallocate));
+        data = new Object[(int)numRows][];
     }
 
     /**
@@ -45,52 +65,29 @@ public final class NestedIntegerArray<T extends Serializable> implements Seriali
         return dimensions;
     }
 
-    /**
-     * Recursively allocate the first dimensionsToPreallocate dimensions of the tree
-     *
-     * Pre-allocating the first few dimensions helps limit contention during tree traversals in put()
-     *
-     * @param subarray current node in the tree
-     * @param dimension current level in the tree
-     * @param dimensionsToPreallocate preallocate only this many dimensions (starting from the first)
-     */
-    private void preallocateArray(final Object[] subarray, final int dimension, final int dimensionsToPreallocate ) {
-        if ( dimension >= dimensionsToPreallocate - 1 ) {
-            return;
-        }
-
-        for ( int i = 0; i < subarray.length; i++ ) {
-            subarray[i] = new Object[dimensions[dimension + 1]];
-            preallocateArray((Object[])subarray[i], dimension + 1, dimensionsToPreallocate);
-        }
-    }
-
     @SuppressWarnings("unchecked")
     public T get(final int... keys) {
-        final int numNestedDimensions = numDimensions - 1;
-        Object[] myData = data;
-
-        for( int i = 0; i < numNestedDimensions; i++ ) {
-            if ( keys[i] >= dimensions[i] )
+        for ( int i = 0; i < numDimensions; i++ ) {
+            if ( keys[i] < 0 || keys[i] >= dimensions[i] )
                 return null;
+        }
 
-            myData = (Object[])myData[keys[i]];
-            if ( myData == null )
-                return null;
+        int offset = 0;
+        for ( int i = 2; i < numDimensions; i++ ) {
+            offset += keys[i] * strides[i];
         }
 
-        return (T)myData[keys[numNestedDimensions]];
+        return leaf(offset, data[rowIndex(keys)]);
     }
 
     @SuppressWarnings("unchecked")
-    private T leaf(final int key, final Object[] array){
+    private T leaf(final int offset, final Object[] row){
         //Note: bounds check is done in the caller
-        return array == null ? null : (T) array[key];
+        return row == null ? null : (T) row[offset];
     }
 
-    private Object[] nextDimension(final int key, final Object[] array){
-        //Note: bounds check is done in the caller
-        return array == null ? null : (Object[]) array[key];
+    private int rowIndex(final int[] keys) {
+        return numDimensions == 1 ? keys[0] : keys[0] * dimensions[1] + keys[1];
     }
 
     /**
@@ -98,9 +95,8 @@ public final class NestedIntegerArray<T extends Serializable> implements Seriali
      * Varargs have a large cost because the arg array is allocated every time.
      * Using a specialized method eliminates that performance problem.
      */
-    @SuppressWarnings("unchecked")
     public T get1Key(final int key0) {
-        return leaf(key0, data);
+        return leaf(0, data[key0]);
     }
 
     /**
@@ -108,12 +104,11 @@ public final class NestedIntegerArray<T extends Serializable> implements Seriali
      * Varargs have a large cost because the arg array is allocated every time.
      * Using a specialized method eliminates that performance problem.
      */
-    @SuppressWarnings("unchecked")
     public T get2Keys(final int key0, final int key1) {
-        if ( key0 >= dimensions[0] || key1 >= dimensions[1] ) {
+        if ( key0 < 0 || key0 >= dimensions[0] || key1 < 0 || key1 >= dimensions[1] ) {
             return null;
         }
-        return leaf(key1, nextDimension(key0, data));
+        return leaf(0, data[key0 * dimensions[1] + key1]);
     }
 
     /**
@@ -121,12 +116,11 @@ public final class NestedIntegerArray<T extends Serializable> implements Seriali
      * Varargs have a large cost because the arg array is allocated every time.
      * Using a specialized method eliminates that performance problem.
      */
-    @SuppressWarnings("unchecked")
     public T get3Keys(final int key0, final int key1, final int key2) {
-        if (key0 >= dimensions[0] || key1 >= dimensions[1] || key2 >= dimensions[2] ) {
+        if ( key0 < 0 || key0 >= dimensions[0] || key1 < 0 || key1 >= dimensions[1] || key2 < 0 || key2 >= dimensions[2] ) {
             return null;
         }
-        return leaf(key2, nextDimension(key1, nextDimension(key0, data)));
+        return leaf(key2, data[key0 * dimensions[1] + key1]);
     }
 
     /**
@@ -134,59 +128,52 @@ public final class NestedIntegerArray<T extends Serializable> implements Seriali
      * Varargs have a large cost because the arg array is allocated every time.
      * Using a specialized method eliminates that performance problem.
      */
-    @SuppressWarnings("unchecked")
     public T get4Keys(final int key0, final int key1, final int key2, final int key3) {
-        if (key0 >= dimensions[0] || key1 >= dimensions[1] || key2 >= dimensions[2] || key3 >= dimensions[3]) {
+        if ( key0 < 0 || key0 >= dimensions[0] || key1 < 0 || key1 >= dimensions[1] || key2 < 0 || key2 >= dimensions[2] || key3 < 0 || key3 >= dimensions[3] ) {
             return null;
         }
-        return leaf(key3, nextDimension(key2, nextDimension(key1, nextDimension(key0, data))));
+        return leaf(key2 * strides[2] + key3, data[key0 * dimensions[1] + key1]);
     }
 
     /**
      * Insert a value at the position specified by the given keys.
      *
      * @param value value to insert
-     * @param keys keys specifying the location of the value in the tree
+     * @param keys keys specifying the location of the value in the table
      */
     public void put(final T value, final int... keys) { // WARNING! value comes before the keys!
         Utils.validateArg( keys.length == numDimensions, () -> "Exactly " + numDimensions + " keys should be passed to this NestedIntegerArray but " + keys.length + " were provided");
 
-        final int numNestedDimensions = numDimensions - 1;
-        Object[] myData = data;
-        for ( int i = 0; i < numNestedDimensions; i++ ) {
-            if ( keys[i] >= dimensions[i] )
-                throw new IllegalArgumentException("Key " + keys[i] + " is too large for dimension " + i + " (max is " + (dimensions[i]-1) + ")");
-
-            // If we're at or beyond the last dimension that was pre-allocated, we need to
-            // check to see if the next branch exists, and if it doesn't, create it
-            if ( i >= NUM_DIMENSIONS_TO_PREALLOCATE - 1 ) {
-                if ( myData[keys[i]] == null ) {
-                    myData[keys[i]] = new Object[dimensions[i + 1]];
-                }
-            }
-
-            myData = (Object[])myData[keys[i]];
+        // every key is checked here, since a key out of range for its own dimension
+        // would otherwise silently land on the slot of some other combination of keys
+        int offset = 0;
+        for ( int i = 0; i < numDimensions; i++ ) {
+            if ( keys[i] < 0 || keys[i] >= dimensions[i] )
+                throw new IllegalArgumentException("Key " + keys[i] + " is out of range for dimension " + i + " (max is " + (dimensions[i]-1) + ")");
+            if ( i > 1 )
+                offset += keys[i] * strides[i];
         }
 
-        myData[keys[numNestedDimensions]] = value;
+        final int rowIndex = rowIndex(keys);
+        Object[] row = data[rowIndex];
+        if ( row == null ) {
+            row = new Object[rowSize];
+            data[rowIndex] = row;
+        }
+        row[offset] = value;
     }
 
     public List<T> getAllValues() {
         final List<T> result = new ArrayList<>();
-        fillAllValues(data, result);
-        return result;
-    }
-
-    @SuppressWarnings("unchecked")
-    private void fillAllValues(final Object[] array, final List<T> result) {
-        for ( final Object value : array ) {
-            if ( value == null )
+        for ( final Object[] row : data ) {
+            if ( row == null )
                 continue;
-            if ( value instanceof Object[] )
-                fillAllValues((Object[])value, result);
-            else
-                result.add((T)value);
+            for ( final Object value : row ) {
+                if ( value != null )
+                    result.add(castValue(value));
+            }
         }
+        return result;
     }
 
     public static class Leaf<T> {
@@ -199,32 +186,41 @@ public final class NestedIntegerArray<T extends Serializable> implements Seriali
         }
     }
 
+    /**
+     * @return every value in the table along with its keys, ordered by the first key, then the second, and so on
+     */
     public List<Leaf<T>> getAllLeaves() {
         final List<Leaf<T>> result = new ArrayList<>();
-        fillAllLeaves(data, new int[0], result);
+        for ( int rowIndex = 0; rowIndex < data.length; rowIndex++ ) {
+            final Object[] row = data[rowIndex];
+            if ( row == null )
+                continue;
+            for ( int offset = 0; offset < row.length; offset++ ) {
+                if ( row[offset] != null )
+                    result.add(new Leaf<>(keysForOffset(rowIndex, offset), castValue(row[offset])));
+            }
+        }
         return result;
     }
 
-    @SuppressWarnings("unchecked")
-    private void fillAllLeaves(final Object[] array, final int[] path, final List<Leaf<T>> result) {
-        for ( int key = 0; key < array.length; key++ ) {
-            final Object value = array[key];
-            if ( value == null )
-                continue;
-            final int[] newPath = appendToPath(path, key);
-            if ( value instanceof Object[] ) {
-                fillAllLeaves((Object[]) value, newPath, result);
-            } else {
-                result.add(new Leaf<>(newPath, (T)value));
-            }
+    private int[] keysForOffset(final int rowIndex, final int offset) {
+        final int[] keys = new int[numDimensions];
+        if ( numDimensions == 1 ) {
+            keys[0] = rowIndex;
+            return keys;
         }
+        keys[0] = rowIndex / dimensions[1];
+        keys[1] = rowIndex % dimensions[1];
+        int remainder = offset;
+        for ( int i = 2; i < numDimensions; i++ ) {
+            keys[i] = remainder / strides[i];
+            remainder %= strides[i];
+        }
+        return keys;
     }
 
-    private int[] appendToPath(final int[] path, final int newKey) {
-        final int[] newPath = new int[path.length + 1];
-        for ( int i = 0; i < path.length; i++ )
-            newPath[i] = path[i];
-        newPath[path.length] = newKey;
-        return newPath;
+    @SuppressWarnings("unchecked")
+    private T castValue(final Object value) {
+        return (T)value;
     }
 }
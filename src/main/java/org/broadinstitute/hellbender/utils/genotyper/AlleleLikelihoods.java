@@ -61,16 +61,21 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
     protected final List<List<EVIDENCE>> filteredEvidenceBySampleIndex;
 
     /**
-     * Indexed per sample, allele and finally evidence (within sample).
+     * Indexed per sample, and then flattened by allele and finally evidence (within sample).
      * <p>
-     *     valuesBySampleIndex[s][a][r] == lnLk(R_r | A_a) where R_r comes from Sample s.
+     *     valuesBySampleIndex[s][a * C + r] == lnLk(R_r | A_a) where R_r comes from Sample s and C is
+     *     {@code likelihoodsMatrixEvidenceCapacityBySampleIndex[s]}.
+     * </p>
+     * <p>
+     *     Keeping a single array per sample, rather than one per allele, saves many small allocations and keeps
+     *     each allele's likelihoods contiguous. New alleles are appended at the end of the array.
      * </p>
      */
-    private final double[][][] valuesBySampleIndex;
+    private final double[][] valuesBySampleIndex;
 
     /**
      * Keeps track of the maximum number of evidences and likelihood values that can be stored
-     * stored across all alleles.
+     * stored across all alleles.  This is also the stride between alleles in each sample's values array.
      */
     private final int[] likelihoodsMatrixEvidenceCapacityBySampleIndex;
 
@@ -140,7 +145,7 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
         final int alleleCount = alleles.numberOfAlleles();
 
         evidenceBySampleIndex = new ArrayList<>(sampleCount);
-        valuesBySampleIndex = new double[sampleCount][][];
+        valuesBySampleIndex = new double[sampleCount][];
         likelihoodsMatrixEvidenceCapacityBySampleIndex = new int[sampleCount]; // set to 0s; what we need.
         referenceAlleleIndex = findReferenceAllele(alleles);
         numberOfEvidences = new int[sampleCount];
@@ -161,7 +166,7 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
                       final SampleList samples,
                       final List<List<EVIDENCE>> evidenceBySampleIndex,
                       final List<List<EVIDENCE>> filteredEvidenceBySampleIndex,
-                      final double[][][] values) {
+                      final double[][] values) {
         this.samples = samples;
         this.alleles = alleles;
         this.evidenceBySampleIndex = evidenceBySampleIndex;
@@ -183,13 +188,8 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
           .map(i -> evidenceBySampleIndex.get(i).size())
           .toArray();
 
-        // We take the shortest allele's values array as the maximum evidence capacity for
-        // each sample.
-        likelihoodsMatrixEvidenceCapacityBySampleIndex = Arrays.stream(values)
-                .mapToInt(sampleValues -> Arrays.stream(sampleValues)
-                        .mapToInt(v -> v.length)
-                        .min().orElse(0))
-                .toArray();
+        // The values arrays are sized to hold exactly the evidence of each sample.
+        likelihoodsMatrixEvidenceCapacityBySampleIndex = numberOfEvidences.clone();
     }
 
     // Add all the indices to alleles, sample and evidence in the look-up maps.
@@ -201,9 +201,8 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
             evidenceBySampleIndex.add(sampleEvidences == null ? new ArrayList<>() : new ArrayList<>(sampleEvidences));
             final int sampleEvidenceCount = evidenceBySampleIndex.get(s).size();
 
-            final double[][] sampleValues = new double[alleleCount][sampleEvidenceCount];
             likelihoodsMatrixEvidenceCapacityBySampleIndex[s] = sampleEvidenceCount;
-            valuesBySampleIndex[s] = sampleValues;
+            valuesBySampleIndex[s] = new double[alleleCount * sampleEvidenceCount];
         }
     }
 
@@ -333,10 +332,13 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
         final int alleleCount = alleles.numberOfAlleles();
 
         for (int s = 0; s < sampleCount; s++) {
+            final double[] sampleValues = valuesBySampleIndex[s];
             final int evidenceCount = sampleEvidenceCount(s);
+            final int capacity = likelihoodsMatrixEvidenceCapacityBySampleIndex[s];
             for (int a = 0; a < alleleCount; a++) {
-                for (int e = 0; e < evidenceCount; e++) {
-                    valuesBySampleIndex[s][a][e] = MathUtils.log10ToLog(valuesBySampleIndex[s][a][e]);
+                final int offset = a * capacity;
+                for (int e = offset; e < offset + evidenceCount; e++) {
+                    sampleValues[e] = MathUtils.log10ToLog(sampleValues[e]);
                 }
             }
         }
@@ -392,7 +394,7 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
         }
 
         for (int s = 0; s < valuesBySampleIndex.length; s++) {
-            final double[][] sampleValues = valuesBySampleIndex[s];
+            final double[] sampleValues = valuesBySampleIndex[s];
             final int evidenceCount = evidenceBySampleIndex.get(s).size();
             for (int r = 0; r < evidenceCount; r++) {
                 normalizeLikelihoodsPerEvidence(maximumLikelihoodDifferenceCap, sampleValues, s, r, symmetricallyNormalizeAllelesToReference);
@@ -402,7 +404,7 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
 
     // Does the normalizeLikelihoods job for each piece of evidence.
     private void normalizeLikelihoodsPerEvidence(final double maximumBestAltLikelihoodDifference,
-                                                 final double[][] sampleValues, final int sampleIndex, final int evidenceIndex, final boolean symmetricallyNormalizeAllelesToReference) {
+                                                 final double[] sampleValues, final int sampleIndex, final int evidenceIndex, final boolean symmetricallyNormalizeAllelesToReference) {
 
         //allow the best allele to be the reference because asymmetry leads to strange artifacts like het calls with >90% alt reads
         final BestAllele bestAllele = searchBestAllele(sampleIndex,evidenceIndex,symmetricallyNormalizeAllelesToReference);
@@ -410,11 +412,12 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
         final double worstLikelihoodCap = bestAllele.likelihood + maximumBestAltLikelihoodDifference;
 
         final int alleleCount = alleles.numberOfAlleles();
+        final int capacity = likelihoodsMatrixEvidenceCapacityBySampleIndex[sampleIndex];
 
         // Guarantee to be the case by enclosing code.
-        for (int a = 0; a < alleleCount; a++) {
-            if (sampleValues[a][evidenceIndex] < worstLikelihoodCap) {
-                sampleValues[a][evidenceIndex] = worstLikelihoodCap;
+        for (int a = 0, i = evidenceIndex; a < alleleCount; a++, i += capacity) {
+            if (sampleValues[i] < worstLikelihoodCap) {
+                sampleValues[i] = worstLikelihoodCap;
             }
         }
 
@@ -471,18 +474,19 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
             return new BestAllele(sampleIndex, evidenceIndex, MISSING_INDEX, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
         }
 
-        final double[][] sampleValues = valuesBySampleIndex[sampleIndex];
+        final double[] sampleValues = valuesBySampleIndex[sampleIndex];
+        final int capacity = likelihoodsMatrixEvidenceCapacityBySampleIndex[sampleIndex];
         int bestAlleleIndex = canBeReference || referenceAlleleIndex != 0 ? 0 : 1;
 
         int secondBestIndex = 0;
-        double bestLikelihood = sampleValues[bestAlleleIndex][evidenceIndex];
+        double bestLikelihood = sampleValues[bestAlleleIndex * capacity + evidenceIndex];
         double secondBestLikelihood = Double.NEGATIVE_INFINITY;
 
         for (int a = bestAlleleIndex + 1; a < alleleCount; a++) {
             if (!canBeReference && referenceAlleleIndex == a) {
                 continue;
             }
-            final double candidateLikelihood = sampleValues[a][evidenceIndex];
+            final double candidateLikelihood = sampleValues[a * capacity + evidenceIndex];
             if (candidateLikelihood > bestLikelihood) {
                 secondBestIndex = bestAlleleIndex;
                 bestAlleleIndex = a;
@@ -498,7 +502,7 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
             double bestPriority = priorities[bestAlleleIndex];
             double secondBestPriority = priorities[secondBestIndex];
             for (int a = 0; a < alleleCount; a++) {
-                final double candidateLikelihood = sampleValues[a][evidenceIndex];
+                final double candidateLikelihood = sampleValues[a * capacity + evidenceIndex];
                 if (a == bestAlleleIndex || (!canBeReference && a == referenceAlleleIndex) || bestLikelihood - candidateLikelihood > getInformativeThreshold()) {
                     continue;
                 }
@@ -516,8 +520,8 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
             }
         }
 
-        bestLikelihood = sampleValues[bestAlleleIndex][evidenceIndex];
-        secondBestLikelihood = secondBestIndex != bestAlleleIndex ? sampleValues[secondBestIndex][evidenceIndex] : Double.NEGATIVE_INFINITY;
+        bestLikelihood = sampleValues[bestAlleleIndex * capacity + evidenceIndex];
+        secondBestLikelihood = secondBestIndex != bestAlleleIndex ? sampleValues[secondBestIndex * capacity + evidenceIndex] : Double.NEGATIVE_INFINITY;
 
         return new BestAllele(sampleIndex, evidenceIndex, bestAlleleIndex, bestLikelihood, secondBestLikelihood);
     }
@@ -591,19 +595,21 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
             referenceAlleleIndex = oldAlleleCount + indexOfReferenceInAllelesToAdd.getAsInt();
         }
 
-        //copy old allele likelihoods and set new allele likelihoods to the default value
+        //copy old allele likelihoods and set new allele likelihoods to the default value; as alleles are the outermost
+        //dimension of the values the new alleles simply go at the end.
         for (int s = 0; s < samples.numberOfSamples(); s++) {
             final int sampleEvidenceCount = evidenceBySampleIndex.get(s).size();
-            final double[][] newValuesBySampleIndex = Arrays.copyOf(valuesBySampleIndex[s], newAlleleCount);
+            final int capacity = likelihoodsMatrixEvidenceCapacityBySampleIndex[s];
+            final double[] newSampleValues = Arrays.copyOf(valuesBySampleIndex[s], newAlleleCount * capacity);
             for (int a = oldAlleleCount; a < newAlleleCount; a++) {
-                newValuesBySampleIndex[a] = new double[likelihoodsMatrixEvidenceCapacityBySampleIndex[s]];
+                final int offset = a * capacity;
                 if (defaultLikelihood != 0.0) {
-                    Arrays.fill(newValuesBySampleIndex[a], 0, sampleEvidenceCount, defaultLikelihood);
+                    Arrays.fill(newSampleValues, offset, offset + sampleEvidenceCount, defaultLikelihood);
                 }
                 // Fill the rest with NaNs
-                Arrays.fill(newValuesBySampleIndex[a], sampleEvidenceCount, newValuesBySampleIndex[a].length, Double.NaN);
+                Arrays.fill(newSampleValues, offset + sampleEvidenceCount, offset + capacity, Double.NaN);
             }
-            valuesBySampleIndex[s] = newValuesBySampleIndex;
+            valuesBySampleIndex[s] = newSampleValues;
         }
         return true;
     }
@@ -623,7 +629,7 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
      */
     public <U, NEW_EVIDENCE_TYPE extends Locatable> AlleleLikelihoods<NEW_EVIDENCE_TYPE, A> groupEvidence(final Function<EVIDENCE, U> groupingFunction, final Function<List<EVIDENCE>, NEW_EVIDENCE_TYPE> gather) {
         final int sampleCount = samples.numberOfSamples();
-        final double[][][] newLikelihoodValues = new double[sampleCount][][];
+        final double[][] newLikelihoodValues = new double[sampleCount][];
         final int alleleCount = alleles.numberOfAlleles();
 
         final List<List<NEW_EVIDENCE_TYPE>> newEvidenceBySampleIndex = new ArrayList<>(sampleCount);
@@ -635,15 +641,16 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
 
             final int newEvidenceCount = evidenceGroups.size();
 
-            final double[][] oldSampleValues = valuesBySampleIndex[s];
-            newLikelihoodValues[s] = new double[alleleCount][newEvidenceCount];
+            final double[] oldSampleValues = valuesBySampleIndex[s];
+            final int oldCapacity = likelihoodsMatrixEvidenceCapacityBySampleIndex[s];
+            final double[] newSampleValues = newLikelihoodValues[s] = new double[alleleCount * newEvidenceCount];
 
             // For each old allele and read we update the new table keeping the maximum likelihood.
             for (int newEvidenceIndex = 0; newEvidenceIndex < newEvidenceCount; newEvidenceIndex++) {
-                for (int a = 0; a < alleleCount; a++) {
-                    for (final EVIDENCE evidence : evidenceGroups.get(newEvidenceIndex)) {
-                        final int oldEvidenceIndex = evidenceIndex(s, evidence);
-                        newLikelihoodValues[s][a][newEvidenceIndex] += oldSampleValues[a][oldEvidenceIndex];
+                for (final EVIDENCE evidence : evidenceGroups.get(newEvidenceIndex)) {
+                    final int oldEvidenceIndex = evidenceIndex(s, evidence);
+                    for (int a = 0; a < alleleCount; a++) {
+                        newSampleValues[a * newEvidenceCount + newEvidenceIndex] += oldSampleValues[a * oldCapacity + oldEvidenceIndex];
                     }
                 }
             }
@@ -688,7 +695,7 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
         final int[] oldToNewAlleleIndexMap = oldToNewAlleleIndexMap(newToOldAlleleMap, oldAlleleCount, newAlleles);
 
         // We calculate the marginal likelihoods.
-        final double[][][] newLikelihoodValues = marginalLikelihoods(oldAlleleCount, newAlleleCount, oldToNewAlleleIndexMap);
+        final double[][] newLikelihoodValues = marginalLikelihoods(oldAlleleCount, newAlleleCount, oldToNewAlleleIndexMap);
 
         final int sampleCount = samples.numberOfSamples();
 
@@ -710,29 +717,31 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
     }
 
     // Calculate the marginal likelihoods considering the old -> new allele index mapping.
-    private double[][][] marginalLikelihoods(final int oldAlleleCount, final int newAlleleCount,
-                                             final int[] oldToNewAlleleIndexMap) {
+    private double[][] marginalLikelihoods(final int oldAlleleCount, final int newAlleleCount,
+                                           final int[] oldToNewAlleleIndexMap) {
         final int sampleCount = samples.numberOfSamples();
-        final double[][][] result = new double[sampleCount][][];
+        final double[][] result = new double[sampleCount][];
 
         for (int s = 0; s < sampleCount; s++) {
             final int sampleEvidenceCount = evidenceBySampleIndex.get(s).size();
-            final double[][] oldSampleValues = valuesBySampleIndex[s];
-            final double[][] newSampleValues = result[s] = new double[newAlleleCount][sampleEvidenceCount];
+            final int oldCapacity = likelihoodsMatrixEvidenceCapacityBySampleIndex[s];
+            final double[] oldSampleValues = valuesBySampleIndex[s];
+            final double[] newSampleValues = result[s] = new double[newAlleleCount * sampleEvidenceCount];
             // We initiate all likelihoods to -Inf.
-            for (int a = 0; a < newAlleleCount; a++) {
-                Arrays.fill(newSampleValues[a], Double.NEGATIVE_INFINITY);
-            }
-            // For each old allele and read we update the new table keeping the maximum likelihood.
-            for (int r = 0; r < sampleEvidenceCount; r++) {
-                for (int a = 0; a < oldAlleleCount; a++) {
-                    final int newAlleleIndex = oldToNewAlleleIndexMap[a];
-                    if (newAlleleIndex == MISSING_INDEX) {
-                        continue;
-                    }
-                    final double likelihood = oldSampleValues[a][r];
-                    if (likelihood > newSampleValues[newAlleleIndex][r]) {
-                        newSampleValues[newAlleleIndex][r] = likelihood;
+            Arrays.fill(newSampleValues, Double.NEGATIVE_INFINITY);
+            // For each old allele and read we update the new table keeping the maximum likelihood;
+            // going allele by allele we scan both tables sequentially.
+            for (int a = 0; a < oldAlleleCount; a++) {
+                final int newAlleleIndex = oldToNewAlleleIndexMap[a];
+                if (newAlleleIndex == MISSING_INDEX) {
+                    continue;
+                }
+                final int oldOffset = a * oldCapacity;
+                final int newOffset = newAlleleIndex * sampleEvidenceCount;
+                for (int r = 0; r < sampleEvidenceCount; r++) {
+                    final double likelihood = oldSampleValues[oldOffset + r];
+                    if (likelihood > newSampleValues[newOffset + r]) {
+                        newSampleValues[newOffset + r] = likelihood;
                     }
                 }
             }
@@ -798,27 +807,30 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
 
     // Extends the likelihood arrays-matrices.
     private void extendsLikelihoodArrays(final double initialLikelihood, final int sampleIndex, final int oldEvidenceCount, final int newEvidenceCount) {
-        final double[][] sampleValues = valuesBySampleIndex[sampleIndex];
         final int numberOfAlleles = alleles.numberOfAlleles();
-        ensureLikelihoodsMatrixEvidenceCapacity(sampleIndex, newEvidenceCount, sampleValues, numberOfAlleles);
+        ensureLikelihoodsMatrixEvidenceCapacity(sampleIndex, newEvidenceCount, numberOfAlleles);
+        final double[] sampleValues = valuesBySampleIndex[sampleIndex];
+        final int capacity = likelihoodsMatrixEvidenceCapacityBySampleIndex[sampleIndex];
         for (int a = 0; a < numberOfAlleles; a++) {
-            Arrays.fill(sampleValues[a], oldEvidenceCount, newEvidenceCount, initialLikelihood);
+            Arrays.fill(sampleValues, a * capacity + oldEvidenceCount, a * capacity + newEvidenceCount, initialLikelihood);
         }
     }
 
-    // Resizes the lk value holding arrays to be able to handle at least "x" amount of evidence.
-    private void ensureLikelihoodsMatrixEvidenceCapacity(final int sampleIndex, final int x,
-                                                         final double[][] sampleValues, final int numberOfAlleles) {
+    // Resizes the lk value holding array to be able to handle at least "x" amount of evidence.
+    private void ensureLikelihoodsMatrixEvidenceCapacity(final int sampleIndex, final int x, final int numberOfAlleles) {
         final int currentCapacity = likelihoodsMatrixEvidenceCapacityBySampleIndex[sampleIndex];
         if (currentCapacity < x) {
             final int newCapacity = Math.max(currentCapacity, x) << 1; // we double it to avoid repetitive 1-element extensions resizing.
+            final double[] oldSampleValues = valuesBySampleIndex[sampleIndex];
+            final double[] newSampleValues = new double[numberOfAlleles * newCapacity];
+            // We don't need the following fill for this to work as intended but
+            // with NaN we ensure some clear failure output in case there is a bug that
+            // uses "zombie" likelihoods (e.g. github issue {@link https://github.com/broadinstitute/gatk/pull/7153 #7153).
+            Arrays.fill(newSampleValues, Double.NaN);
             for (int a  = 0; a < numberOfAlleles; a++) {
-                sampleValues[a] = Arrays.copyOf(sampleValues[a], newCapacity);
-                // We don't need the following fill for this to work as intended but
-                // with NaN we ensure some clear failure output in case there is a bug that
-                // uses "zombie" likelihoods (e.g. github issue {@link https://github.com/broadinstitute/gatk/pull/7153 #7153).
-                Arrays.fill(sampleValues[a], currentCapacity, newCapacity, Double.NaN);
+                System.arraycopy(oldSampleValues, a * currentCapacity, newSampleValues, a * newCapacity, currentCapacity);
             }
+            valuesBySampleIndex[sampleIndex] = newSampleValues;
             likelihoodsMatrixEvidenceCapacityBySampleIndex[sampleIndex] = newCapacity;
         }
     }
@@ -893,13 +905,14 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
         final double[] qualifiedAlleleLikelihoods = new double[nonSymbolicAlleleCount];
         final Median medianCalculator = new Median();
         for (int s = 0; s < samples.numberOfSamples(); s++) {
-            final double[][] sampleValues = valuesBySampleIndex[s];
+            final double[] sampleValues = valuesBySampleIndex[s];
+            final int capacity = likelihoodsMatrixEvidenceCapacityBySampleIndex[s];
             final int evidenceCount = evidenceBySampleIndex.get(s).size();
             for (int r = 0; r < evidenceCount; r++) {
                 final BestAllele bestAllele = searchBestAllele(s, r, true);
                 int numberOfQualifiedAlleleLikelihoods = 0;
                 for (int i = 0; i < alleleCount; i++) {
-                    final double alleleLikelihood = sampleValues[i][r];
+                    final double alleleLikelihood = sampleValues[i * capacity + r];
                     if (i != nonRefAlleleIndex && alleleLikelihood < bestAllele.likelihood
                             && !Double.isNaN(alleleLikelihood) && allelesToConsider.indexOfAllele(alleles.getAllele(i)) != MISSING_INDEX) {
                         qualifiedAlleleLikelihoods[numberOfQualifiedAlleleLikelihoods++] = alleleLikelihood;
@@ -910,7 +923,7 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
                 // so the evidence is not informative at all given the existing alleles. Unless there is only one (or zero) concrete
                 // alleles with give the same (the best) likelihood to the NON-REF. When there is only one (or zero) concrete
                 // alleles we set the NON-REF likelihood to NaN.
-                sampleValues[nonRefAlleleIndex][r] = !Double.isNaN(nonRefLikelihood) ? nonRefLikelihood
+                sampleValues[nonRefAlleleIndex * capacity + r] = !Double.isNaN(nonRefLikelihood) ? nonRefLikelihood
                         : nonSymbolicAlleleCount <= 1 ? Double.NaN : bestAllele.likelihood;
             }
         }
@@ -1105,10 +1118,11 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
     protected double maximumLikelihoodOverAllAlleles(final int sampleIndex, final int evidenceIndex) {
         double result = Double.NEGATIVE_INFINITY;
         final int alleleCount = alleles.numberOfAlleles();
-        final double[][] sampleValues = valuesBySampleIndex[sampleIndex];
-        for (int a = 0; a < alleleCount; a++) {
-            if (sampleValues[a][evidenceIndex] > result) {
-                result = sampleValues[a][evidenceIndex];
+        final int capacity = likelihoodsMatrixEvidenceCapacityBySampleIndex[sampleIndex];
+        final double[] sampleValues = valuesBySampleIndex[sampleIndex];
+        for (int a = 0, i = evidenceIndex; a < alleleCount; a++, i += capacity) {
+            if (sampleValues[i] > result) {
+                result = sampleValues[i];
             }
         }
         return result;
@@ -1201,16 +1215,23 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
                 numRemoved++;
             } else {
                 newEvidence.add(oldEvidence.get(n));
+            }
+        }
 
-                // update the likelihoods arrays in place
-                for (final double[] alleleValues : valuesBySampleIndex[sampleIndex]) {
-                    alleleValues[n - numRemoved] = alleleValues[n];
+        // update the likelihoods array in place, one allele at a time, and set to NaN lks of the deleted positions.
+        final double[] sampleValues = valuesBySampleIndex[sampleIndex];
+        final int capacity = likelihoodsMatrixEvidenceCapacityBySampleIndex[sampleIndex];
+        final int alleleCount = alleles.numberOfAlleles();
+        for (int a = 0; a < alleleCount; a++) {
+            final int offset = a * capacity;
+            for (int n = evidencesToRemove[0] + 1, numRemoved = 1; n < oldEvidenceCount; n++) {
+                if (numRemoved < numToRemove && n == evidencesToRemove[numRemoved]) {
+                    numRemoved++;
+                } else {
+                    sampleValues[offset + n - numRemoved] = sampleValues[offset + n];
                 }
             }
-        }
-        // set to NaN lks of the deleted positions in lk value arrays.
-        for (final double[] alleleValues : valuesBySampleIndex[sampleIndex]) {
-            Arrays.fill(alleleValues, newEvidenceCount, alleleValues.length, Double.NaN);
+            Arrays.fill(sampleValues, offset + newEvidenceCount, offset + capacity, Double.NaN);
         }
         evidenceBySampleIndex.set(sampleIndex, newEvidence);
         numberOfEvidences[sampleIndex] = newEvidenceCount;
@@ -1303,16 +1324,16 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
 
         @Override
         public void set(final int alleleIndex, final int evidenceIndex, final double value) {
-            Utils.validIndex(alleleIndex, valuesBySampleIndex[sampleIndex].length);
+            Utils.validIndex(alleleIndex, alleles.numberOfAlleles());
             Utils.validIndex(evidenceIndex,  numberOfEvidences[sampleIndex]);
-            valuesBySampleIndex[sampleIndex][alleleIndex][evidenceIndex] = value;
+            valuesBySampleIndex[sampleIndex][alleleIndex * likelihoodsMatrixEvidenceCapacityBySampleIndex[sampleIndex] + evidenceIndex] = value;
         }
 
         @Override
         public double get(final int alleleIndex, final int evidenceIndex) {
-            Utils.validIndex(alleleIndex, valuesBySampleIndex[sampleIndex].length);
+            Utils.validIndex(alleleIndex, alleles.numberOfAlleles());
             Utils.validIndex(evidenceIndex, numberOfEvidences[sampleIndex]);
-            return valuesBySampleIndex[sampleIndex][alleleIndex][evidenceIndex];
+            return valuesBySampleIndex[sampleIndex][alleleIndex * likelihoodsMatrixEvidenceCapacityBySampleIndex[sampleIndex] + evidenceIndex];
         }
 
         @Override
@@ -1352,8 +1373,9 @@ public class AlleleLikelihoods<EVIDENCE extends Locatable, A extends Allele> imp
         @Override
         public void copyAlleleLikelihoods(final int alleleIndex, final double[] dest, final int offset) {
             Utils.nonNull(dest);
-            Utils.validIndex(alleleIndex, valuesBySampleIndex[sampleIndex].length);
-            System.arraycopy(valuesBySampleIndex[sampleIndex][alleleIndex], 0, dest, offset, numberOfEvidences[sampleIndex]);
+            Utils.validIndex(alleleIndex, alleles.numberOfAlleles());
+            System.arraycopy(valuesBySampleIndex[sampleIndex], alleleIndex * likelihoodsMatrixEvidenceCapacityBySampleIndex[sampleIndex],
+                    dest, offset, numberOfEvidences[sampleIndex]);
         }
     }
 }
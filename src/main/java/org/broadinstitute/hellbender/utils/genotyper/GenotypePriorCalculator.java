@@ -3,7 +3,6 @@ package org.broadinstitute.hellbender.utils.genotyper;
 import htsjdk.variant.variantcontext.Allele;
 import org.apache.commons.math3.util.MathArrays;
 import org.broadinstitute.hellbender.utils.dragstr.DragstrParams;
-import org.broadinstitute.hellbender.tools.walkers.genotyper.GenotypeAlleleCounts;
 import org.broadinstitute.hellbender.tools.walkers.genotyper.GenotypeCalculationArgumentCollection;
 import org.broadinstitute.hellbender.tools.walkers.genotyper.GenotypeLikelihoodCalculator;
 import org.broadinstitute.hellbender.utils.MathUtils;
@@ -152,12 +151,13 @@ public final class GenotypePriorCalculator {
         final int numberOfGenotypes = lkCalculator.genotypeCount();
         final double[] result = new double[numberOfGenotypes];
         // implied = result[0] = 0.0;
-        for (int g = 1; g < numberOfGenotypes; g++) {
-            final GenotypeAlleleCounts gac = lkCalculator.genotypeAlleleCountsAt(g);
-            result[g] = gac.sumOverAlleleIndicesAndCounts((idx, cnt) -> cnt == 2
-                    ? homValues[alleleTypes[idx]]
-                    : hetValues[alleleTypes[idx]] + diffValues[alleleTypes[idx]] * (cnt - 1));
-        }
+        lkCalculator.forEachGenotype((gac, g) -> {
+            if (g > 0) {
+                result[g] = gac.sumOverAlleleIndicesAndCounts((idx, cnt) -> cnt == 2
+                        ? homValues[alleleTypes[idx]]
+                        : hetValues[alleleTypes[idx]] + diffValues[alleleTypes[idx]] * (cnt - 1));
+            }
+        });
         return result;
     }
 
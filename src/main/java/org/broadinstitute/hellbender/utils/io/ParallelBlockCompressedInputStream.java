@@ -0,0 +1,308 @@
+package org.broadinstitute.hellbender.utils.io;
+
+import htsjdk.samtools.util.BlockCompressedStreamConstants;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the uncompressed contents of a BGZF (block-compressed) stream, such as a BAM file, inflating blocks
+ * ahead of the reader on a pool of threads.
+ *
+ * Every BGZF block starts with a header that gives its compressed size, so blocks can be split off the compressed
+ * stream on the reading thread without inflating them (which is where the time goes). Up to {@code maxBlocksInFlight}
+ * blocks are handed to the pool at a time, and their contents are returned in their original order.
+ *
+ * Unlike {@link htsjdk.samtools.util.BlockCompressedInputStream}, this stream does not support seeking or virtual
+ * file pointers: it is only meant for reading a whole file from the start. The pool is not owned by the stream,
+ * and is left running when the stream is closed.
+ */
+public final class ParallelBlockCompressedInputStream extends InputStream {
+
+    private static final byte[] EMPTY_BLOCK = new byte[0];
+
+    // the Inflater of each pool thread, reused for all the blocks it inflates
+    private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private final InputStream compressedStream;
+    private final String source;
+    private final ExecutorService inflaterPool;
+    private final int maxBlocksInFlight;
+    private final Statistics statistics;
+    private final Queue<Future<byte[]>> blocksInFlight;
+
+    private boolean endOfCompressedStream = false;
+    private byte[] currentBlock = EMPTY_BLOCK;
+    private int positionInCurrentBlock = 0;
+
+    /**
+     * @param compressedStream BGZF stream, positioned at the start of a block; closed when this stream is closed
+     * @param source description of the stream, for error messages
+     * @param inflaterPool threads to inflate blocks on
+     * @param maxBlocksInFlight maximum number of blocks that have been read from compressedStream but not yet returned
+     *                          by this stream; must be positive
+     * @param statistics where to record the amount of data inflated
+     */
+    public ParallelBlockCompressedInputStream(final InputStream compressedStream, final String source,
+                                              final ExecutorService inflaterPool, final int maxBlocksInFlight,
+                                              final Statistics statistics) {
+        this.compressedStream = Utils.nonNull(compressedStream);
+        this.source = Utils.nonNull(source);
+        this.inflaterPool = Utils.nonNull(inflaterPool);
+        Utils.validateArg(maxBlocksInFlight > 0, "maxBlocksInFlight must be positive");
+        this.maxBlocksInFlight = maxBlocksInFlight;
+        this.statistics = Utils.nonNull(statistics);
+        this.blocksInFlight = new ArrayDeque<>(maxBlocksInFlight);
+    }
+
+    @Override
+    public int read() throws IOException {
+        return ensureCurrentBlockHasData() ? currentBlock[positionInCurrentBlock++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+        Utils.nonNull(buffer);
+        if ( offset < 0 || length < 0 || length > buffer.length - offset ) {
+            throw new IndexOutOfBoundsException();
+        }
+        if ( length == 0 ) {
+            return 0;
+        }
+
+        int copied = 0;
+        while ( copied < length && ensureCurrentBlockHasData() ) {
+            final int lengthFromBlock = Math.min(length - copied, currentBlock.length - positionInCurrentBlock);
+            System.arraycopy(currentBlock, positionInCurrentBlock, buffer, offset + copied, lengthFromBlock);
+            positionInCurrentBlock += lengthFromBlock;
+            copied += lengthFromBlock;
+        }
+        return copied == 0 ? -1 : copied;
+    }
+
+    @Override
+    public int available() {
+        return currentBlock.length - positionInCurrentBlock;
+    }
+
+    /**
+     * Move on to the next non-empty block if the current one has been consumed.
+     *
+     * @return false if there is no more data
+     */
+    private boolean ensureCurrentBlockHasData() throws IOException {
+        while ( positionInCurrentBlock == currentBlock.length ) {
+            submitBlocks();
+            if ( blocksInFlight.isEmpty() ) {
+                return false;
+            }
+            currentBlock = awaitBlock(blocksInFlight.remove());
+            positionInCurrentBlock = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Read compressed blocks and hand them to the pool until {@link #maxBlocksInFlight} are in flight.
+     */
+    private void submitBlocks() throws IOException {
+        while ( ! endOfCompressedStream && blocksInFlight.size() < maxBlocksInFlight ) {
+            final byte[] compressedBlock = readCompressedBlock();
+            if ( compressedBlock == null ) {
+                endOfCompressedStream = true;
+            } else {
+                blocksInFlight.add(inflaterPool.submit(() -> inflateBlock(compressedBlock)));
+            }
+        }
+    }
+
+    private byte[] awaitBlock(final Future<byte[]> block) throws IOException {
+        final long startNanos = System.nanoTime();
+        final boolean hadToWait = ! block.isDone();
+        try {
+            return block.get();
+        } catch ( final InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while inflating " + source);
+        } catch ( final ExecutionException e ) {
+            if ( e.getCause() instanceof IOException ) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Problem inflating " + source, e.getCause());
+        } finally {
+            if ( hadToWait ) {
+                statistics.readerWaits.incrementAndGet();
+                statistics.readerWaitNanos.addAndGet(System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    /**
+     * @return the next whole compressed block (header, data and footer), or null at the end of the stream
+     */
+    private byte[] readCompressedBlock() throws IOException {
+        final byte[] header = new byte[BlockCompressedStreamConstants.BLOCK_HEADER_LENGTH];
+        final int headerLength = readFully(header, 0, header.length);
+        if ( headerLength == 0 ) {
+            return null;
+        }
+        if ( headerLength < header.length || ! isBGZFBlockHeader(header) ) {
+            throw new IOException("Invalid BGZF block header in " + source);
+        }
+
+        final int blockLength = unpackUnsignedShort(header, BlockCompressedStreamConstants.BLOCK_LENGTH_OFFSET) + 1;
+        if ( blockLength < BlockCompressedStreamConstants.BLOCK_HEADER_LENGTH + BlockCompressedStreamConstants.BLOCK_FOOTER_LENGTH ) {
+            throw new IOException("Invalid BGZF block size " + blockLength + " in " + source);
+        }
+        final byte[] block = new byte[blockLength];
+        System.arraycopy(header, 0, block, 0, header.length);
+        if ( readFully(block, header.length, blockLength - header.length) < blockLength - header.length ) {
+            throw new IOException("Truncated BGZF block at the end of " + source);
+        }
+        statistics.compressedBytes.addAndGet(blockLength);
+        return block;
+    }
+
+    private static boolean isBGZFBlockHeader(final byte[] header) {
+        return header[0] == BlockCompressedStreamConstants.GZIP_ID1 &&
+                header[1] == (byte) BlockCompressedStreamConstants.GZIP_ID2 &&
+                header[2] == BlockCompressedStreamConstants.GZIP_CM_DEFLATE &&
+                (header[3] & BlockCompressedStreamConstants.GZIP_FLG) != 0 &&
+                unpackUnsignedShort(header, 10) == BlockCompressedStreamConstants.GZIP_XLEN &&
+                header[12] == BlockCompressedStreamConstants.BGZF_ID1 &&
+                header[13] == BlockCompressedStreamConstants.BGZF_ID2 &&
+                unpackUnsignedShort(header, 14) == BlockCompressedStreamConstants.BGZF_LEN;
+    }
+
+    /**
+     * Inflate a whole compressed block. Runs on a pool thread.
+     */
+    private byte[] inflateBlock(final byte[] block) throws IOException {
+        final long startNanos = System.nanoTime();
+        final int footerOffset = block.length - BlockCompressedStreamConstants.BLOCK_FOOTER_LENGTH;
+        final int uncompressedLength = unpackInt(block, footerOffset + 4);
+        if ( uncompressedLength < 0 || uncompressedLength > BlockCompressedStreamConstants.DEFAULT_UNCOMPRESSED_BLOCK_SIZE ) {
+            throw new IOException("Invalid uncompressed BGZF block size " + uncompressedLength + " in " + source);
+        }
+
+        final byte[] uncompressed = new byte[uncompressedLength];
+        final Inflater inflater = INFLATERS.get();
+        inflater.reset();
+        inflater.setInput(block, BlockCompressedStreamConstants.BLOCK_HEADER_LENGTH,
+                footerOffset - BlockCompressedStreamConstants.BLOCK_HEADER_LENGTH);
+        try {
+            int inflated = 0;
+            while ( inflated < uncompressedLength && ! inflater.finished() ) {
+                final int n = inflater.inflate(uncompressed, inflated, uncompressedLength - inflated);
+                if ( n == 0 && (inflater.needsInput() || inflater.needsDictionary()) ) {
+                    break;
+                }
+                inflated += n;
+            }
+            if ( inflated != uncompressedLength ) {
+                throw new IOException("Corrupt BGZF block in " + source + ": expected " + uncompressedLength +
+                        " bytes, but inflated " + inflated);
+            }
+        } catch ( final DataFormatException e ) {
+            throw new IOException("Corrupt BGZF block in " + source, e);
+        }
+
+        statistics.uncompressedBytes.addAndGet(uncompressedLength);
+        statistics.inflateNanos.addAndGet(System.nanoTime() - startNanos);
+        return uncompressed;
+    }
+
+    /**
+     * @return number of bytes read, which is less than length only at the end of the compressed stream
+     */
+    private int readFully(final byte[] buffer, final int offset, final int length) throws IOException {
+        int total = 0;
+        while ( total < length ) {
+            final int n = compressedStream.read(buffer, offset + total, length - total);
+            if ( n < 0 ) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    private static int unpackUnsignedShort(final byte[] buffer, final int offset) {
+        return (buffer[offset] & 0xFF) | ((buffer[offset + 1] & 0xFF) << 8);
+    }
+
+    private static int unpackInt(final byte[] buffer, final int offset) {
+        return (buffer[offset] & 0xFF) | ((buffer[offset + 1] & 0xFF) << 8) |
+                ((buffer[offset + 2] & 0xFF) << 16) | ((buffer[offset + 3] & 0xFF) << 24);
+    }
+
+    /**
+     * Abandon any blocks still being inflated, and close the compressed stream.
+     */
+    @Override
+    public void close() throws IOException {
+        blocksInFlight.forEach(block -> block.cancel(false));
+        blocksInFlight.clear();
+        currentBlock = EMPTY_BLOCK;
+        positionInCurrentBlock = 0;
+        endOfCompressedStream = true;
+        compressedStream.close();
+    }
+
+    /**
+     * Amount of data inflated, and of time spent inflating it, by one or more {@link ParallelBlockCompressedInputStream}s.
+     * Safe to update and query from several threads.
+     */
+    public static final class Statistics {
+        private final AtomicLong compressedBytes = new AtomicLong();
+        private final AtomicLong uncompressedBytes = new AtomicLong();
+        private final AtomicLong inflateNanos = new AtomicLong();
+        private final AtomicLong readerWaits = new AtomicLong();
+        private final AtomicLong readerWaitNanos = new AtomicLong();
+
+        /**
+         * @return number of compressed bytes read, including BGZF headers and footers
+         */
+        public long getCompressedBytes() { return compressedBytes.get(); }
+
+        /**
+         * @return number of bytes produced by inflating blocks
+         */
+        public long getUncompressedBytes() { return uncompressedBytes.get(); }
+
+        /**
+         * @return total time spent inflating blocks, summed over all threads, in seconds
+         */
+        public double getInflateSeconds() { return inflateNanos.get() / (double) TimeUnit.SECONDS.toNanos(1); }
+
+        /**
+         * @return number of times a reader had to wait for a block to be inflated
+         */
+        public long getNumReaderWaits() { return readerWaits.get(); }
+
+        /**
+         * @return total time readers spent waiting for blocks to be inflated, in seconds
+         */
+        public double getReaderWaitSeconds() { return readerWaitNanos.get() / (double) TimeUnit.SECONDS.toNanos(1); }
+
+        /**
+         * @return a one-line, human-readable summary of these statistics
+         */
+        public String getSummaryLine() {
+            return String.format("%.1f MB inflated to %.1f MB using %.2f thread-seconds, reader waited %d times (%.2f s)",
+                    getCompressedBytes() / 1e6, getUncompressedBytes() / 1e6, getInflateSeconds(),
+                    getNumReaderWaits(), getReaderWaitSeconds());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.broadinstitute.hellbender.utils.iterators;
+
+import htsjdk.samtools.BAMRecordCodec;
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFormatException;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMUtils;
+import htsjdk.samtools.ValidationStringency;
+import htsjdk.samtools.util.BinaryCodec;
+import htsjdk.samtools.util.CloseableIterator;
+import htsjdk.samtools.util.CloserUtil;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the records of a BAM file whose (uncompressed) contents are read from a stream, such as a
+ * {@link org.broadinstitute.hellbender.utils.io.ParallelBlockCompressedInputStream}.
+ *
+ * The header in the stream is skipped over rather than parsed: records are decoded against a header that the caller
+ * has already read (typically the one from a {@link htsjdk.samtools.SamReader} over the same file). As in htsjdk's
+ * own BAM iterator, records are validated according to the given validation stringency.
+ */
+public final class BAMRecordStreamIterator implements CloseableIterator<SAMRecord> {
+
+    private static final byte[] BAM_MAGIC = "BAM\1".getBytes();
+
+    private final InputStream uncompressedStream;
+    private final BAMRecordCodec codec;
+    private final ValidationStringency validationStringency;
+    private SAMRecord nextRecord;
+    private long numRecordsDecoded;
+
+    /**
+     * @param uncompressedStream uncompressed contents of a BAM file, starting with its magic number; closed when this iterator is closed
+     * @param header header of the BAM file
+     * @param validationStringency how to handle invalid records
+     * @param source description of the stream, for error messages
+     */
+    public BAMRecordStreamIterator(final InputStream uncompressedStream, final SAMFileHeader header,
+                                   final ValidationStringency validationStringency, final String source) {
+        this.uncompressedStream = Utils.nonNull(uncompressedStream);
+        Utils.nonNull(header);
+        this.validationStringency = Utils.nonNull(validationStringency);
+        Utils.nonNull(source);
+
+        skipHeader(new BinaryCodec(uncompressedStream), source);
+        codec = new BAMRecordCodec(header);
+        codec.setInputStream(uncompressedStream, source);
+        advance();
+    }
+
+    /**
+     * Skip over the magic number, header text and reference sequences at the start of a BAM file.
+     */
+    private static void skipHeader(final BinaryCodec binaryCodec, final String source) {
+        final byte[] magic = new byte[BAM_MAGIC.length];
+        binaryCodec.readBytes(magic);
+        if ( ! Arrays.equals(magic, BAM_MAGIC) ) {
+            throw new SAMFormatException("Invalid BAM file header in " + source);
+        }
+        skipBytes(binaryCodec, binaryCodec.readInt());
+        final int numReferences = binaryCodec.readInt();
+        for ( int i = 0; i < numReferences; i++ ) {
+            skipBytes(binaryCodec, binaryCodec.readInt());  // name
+            binaryCodec.readInt();                           // length
+        }
+    }
+
+    private static void skipBytes(final BinaryCodec binaryCodec, final int length) {
+        if ( length < 0 ) {
+            throw new SAMFormatException("Invalid BAM file header: negative length " + length);
+        }
+        binaryCodec.readBytes(new byte[length]);
+    }
+
+    private void advance() {
+        nextRecord = codec.decode();
+        if ( nextRecord != null ) {
+            ++numRecordsDecoded;
+            nextRecord.setValidationStringency(validationStringency);
+            if ( validationStringency != ValidationStringency.SILENT ) {
+                SAMUtils.processValidationErrors(nextRecord.isValid(validationStringency == ValidationStringency.STRICT),
+                        numRecordsDecoded, validationStringency);
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextRecord != null;
+    }
+
+    @Override
+    public SAMRecord next() {
+        if ( ! hasNext() ) {
+            throw new NoSuchElementException("No more records in BAM stream");
+        }
+        final SAMRecord record = nextRecord;
+        advance();
+        return record;
+    }
+
+    @Override
+    public void close() {
+        nextRecord = null;
+        CloserUtil.close(uncompressedStream);
+    }
+}
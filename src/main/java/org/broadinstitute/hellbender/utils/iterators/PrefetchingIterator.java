@@ -0,0 +1,258 @@
+package org.broadinstitute.hellbender.utils.iterators;
+
+import htsjdk.samtools.util.CloseableIterator;
+import org.broadinstitute.hellbender.exceptions.GATKException;
+import org.broadinstitute.hellbender.utils.Utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An iterator that pulls elements from a nested iterator on a background thread, ahead of the consumer.
+ *
+ * All work done by the nested iterator (for reads: decompression, decoding, filtering and transformation) happens on
+ * the background thread, which hands elements to the consumer in batches through a bounded queue. This overlaps that
+ * work with the consumer's own processing, at the cost of holding up to {@code maxBatches * batchSize} elements in
+ * memory. The nested iterator must not be used by anyone else while this iterator is open.
+ *
+ * How often the consumer had to wait for the producer (or vice versa), and the depth of the queue, are recorded in a
+ * {@link Statistics} object, which may be shared by several iterators.
+ *
+ * @param <T> type of element
+ */
+public final class PrefetchingIterator<T> implements CloseableIterator<T> {
+
+    private static final long PRODUCER_POLL_MILLIS = 100;
+
+    // Marks the end of the nested iteration in the queue; compared by identity
+    private final List<T> endOfData = Collections.unmodifiableList(new ArrayList<>());
+
+    private final Iterator<T> nestedIterator;
+    private final int batchSize;
+    private final BlockingQueue<List<T>> queue;
+    private final Statistics statistics;
+    private final Thread producer;
+
+    private volatile boolean closed = false;
+    private volatile Throwable producerError = null;
+
+    private Iterator<T> currentBatch = Collections.emptyIterator();
+    private boolean exhausted = false;
+
+    /**
+     * Create a new PrefetchingIterator and start prefetching immediately.
+     *
+     * @param nestedIterator iterator from which to pull elements on the background thread
+     * @param batchSize number of elements to hand to the consumer at once
+     * @param maxBatches maximum number of batches that may be waiting for the consumer
+     * @param statistics statistics object to which to record queue depth and stalls
+     */
+    public PrefetchingIterator(final Iterator<T> nestedIterator, final int batchSize, final int maxBatches, final Statistics statistics) {
+        this.nestedIterator = Utils.nonNull(nestedIterator);
+        Utils.validateArg(batchSize > 0, "batchSize must be > 0");
+        Utils.validateArg(maxBatches > 0, "maxBatches must be > 0");
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(maxBatches);
+        this.statistics = Utils.nonNull(statistics);
+
+        producer = new Thread(this::produce, "prefetching-iterator");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    private void produce() {
+        try {
+            List<T> batch = new ArrayList<>(batchSize);
+            while ( ! closed && nestedIterator.hasNext() ) {
+                batch.add(nestedIterator.next());
+                if ( batch.size() == batchSize ) {
+                    if ( ! enqueue(batch) ) {
+                        return;
+                    }
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if ( ! batch.isEmpty() && ! enqueue(batch) ) {
+                return;
+            }
+        } catch ( final Throwable e ) {
+            producerError = e;
+        }
+
+        // if we were closed, nobody is waiting for the end marker
+        enqueue(endOfData);
+    }
+
+    /**
+     * Put a batch in the queue, waiting for room if necessary.
+     *
+     * @return false if this iterator was closed before the batch could be queued
+     */
+    private boolean enqueue(final List<T> batch) {
+        if ( queue.offer(batch) ) {
+            return true;
+        }
+        final long start = System.nanoTime();
+        try {
+            // poll for closure rather than being interrupted by close(), since interrupting a thread that is reading
+            // from an NIO channel closes the channel, which may be shared with other readers
+            while ( ! queue.offer(batch, PRODUCER_POLL_MILLIS, TimeUnit.MILLISECONDS) ) {
+                if ( closed ) {
+                    return false;
+                }
+            }
+        } catch ( final InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        statistics.producerStalls.incrementAndGet();
+        statistics.producerStallNanos.addAndGet(System.nanoTime() - start);
+        return true;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while ( ! currentBatch.hasNext() && ! exhausted ) {
+            final List<T> batch = takeBatch();
+            if ( batch == endOfData ) {
+                exhausted = true;
+                if ( producerError != null ) {
+                    rethrowProducerError();
+                }
+            } else {
+                currentBatch = batch.iterator();
+            }
+        }
+        return currentBatch.hasNext();
+    }
+
+    private List<T> takeBatch() {
+        Utils.validate(! closed, "iterator has been closed");
+        statistics.queueDepthTotal.addAndGet(queue.size());
+        statistics.batches.incrementAndGet();
+
+        List<T> batch = queue.poll();
+        if ( batch == null ) {
+            final long start = System.nanoTime();
+            try {
+                batch = queue.take();
+            } catch ( final InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                throw new GATKException("Interrupted while waiting for prefetched data", e);
+            }
+            statistics.consumerStalls.incrementAndGet();
+            statistics.consumerStallNanos.addAndGet(System.nanoTime() - start);
+        }
+        return batch;
+    }
+
+    private void rethrowProducerError() {
+        if ( producerError instanceof RuntimeException ) {
+            throw (RuntimeException) producerError;
+        } else if ( producerError instanceof Error ) {
+            throw (Error) producerError;
+        }
+        throw new GATKException("Error while prefetching data", producerError);
+    }
+
+    @Override
+    public T next() {
+        if ( ! hasNext() ) {
+            throw new NoSuchElementException("Iterator exhausted");
+        }
+        return currentBatch.next();
+    }
+
+    /**
+     * Stop prefetching and wait for the background thread to exit, after which the nested iterator (and the data
+     * source behind it) is no longer in use and may be closed. Any prefetched elements are discarded.
+     */
+    @Override
+    public void close() {
+        if ( closed ) {
+            return;
+        }
+        closed = true;
+        // make room for a producer waiting on a full queue, so that it notices the closure promptly
+        queue.clear();
+        try {
+            producer.join();
+        } catch ( final InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+        queue.clear();
+        currentBatch = Collections.emptyIterator();
+        exhausted = true;
+    }
+
+    /**
+     * @return true if the background thread is still running, that is, until the nested iterator is exhausted or
+     *         this iterator is closed
+     */
+    public boolean isPrefetching() {
+        return producer.isAlive();
+    }
+
+    /**
+     * Thread-safe counters describing how well prefetching is keeping up, accumulated over all iterators that share
+     * this object. A consumer stall means the consumer had to wait for data (prefetching is not keeping up); a
+     * producer stall means the queue was full (the consumer is the bottleneck, and more batches would not help).
+     */
+    public static final class Statistics {
+        private final AtomicLong batches = new AtomicLong();
+        private final AtomicLong queueDepthTotal = new AtomicLong();
+        private final AtomicLong consumerStalls = new AtomicLong();
+        private final AtomicLong consumerStallNanos = new AtomicLong();
+        private final AtomicLong producerStalls = new AtomicLong();
+        private final AtomicLong producerStallNanos = new AtomicLong();
+
+        /**
+         * @return number of batches handed to consumers
+         */
+        public long getNumBatches() { return batches.get(); }
+
+        /**
+         * @return average number of batches waiting in the queue when a consumer asked for the next batch
+         */
+        public double getMeanQueueDepth() {
+            final long numBatches = batches.get();
+            return numBatches == 0 ? 0.0 : (double) queueDepthTotal.get() / numBatches;
+        }
+
+        /**
+         * @return number of times a consumer had to wait for a batch
+         */
+        public long getNumConsumerStalls() { return consumerStalls.get(); }
+
+        /**
+         * @return total time consumers spent waiting for batches, in seconds
+         */
+        public double getConsumerStallSeconds() { return consumerStallNanos.get() / (double) TimeUnit.SECONDS.toNanos(1); }
+
+        /**
+         * @return number of times a producer had to wait for room in the queue
+         */
+        public long getNumProducerStalls() { return producerStalls.get(); }
+
+        /**
+         * @return total time producers spent waiting for room in the queue, in seconds
+         */
+        public double getProducerStallSeconds() { return producerStallNanos.get() / (double) TimeUnit.SECONDS.toNanos(1); }
+
+        /**
+         * @return a one-line, human-readable summary of these statistics
+         */
+        public String getSummaryLine() {
+            return String.format("%d batches prefetched, mean queue depth %.2f, consumer waited %d times (%.2f s), producer waited %d times (%.2f s)",
+                    getNumBatches(), getMeanQueueDepth(), getNumConsumerStalls(), getConsumerStallSeconds(),
+                    getNumProducerStalls(), getProducerStallSeconds());
+        }
+    }
+}
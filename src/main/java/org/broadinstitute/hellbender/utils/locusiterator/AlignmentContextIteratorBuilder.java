@@ -30,6 +30,7 @@ public class AlignmentContextIteratorBuilder {
     private boolean isKeepUniqueReadListInLibs;
     private boolean isIncludeDeletions;
     private boolean isIncludeNs;
+    private boolean isUseReusablePileupViews;
     private LIBSDownsamplingInfo downsamplingInfo;
 
     public void setEmitEmptyLoci(boolean emitEmptyLoci) {
@@ -48,6 +49,10 @@ public class AlignmentContextIteratorBuilder {
         isIncludeNs = includeNs;
     }
 
+    public void setUseReusablePileupViews(boolean useReusablePileupViews) {
+        isUseReusablePileupViews = useReusablePileupViews;
+    }
+
     public void setDownsamplingInfo(LIBSDownsamplingInfo downsamplingInfo) {
         this.downsamplingInfo = downsamplingInfo;
     }
@@ -57,6 +62,7 @@ public class AlignmentContextIteratorBuilder {
         isKeepUniqueReadListInLibs = false;
         isIncludeDeletions = true;
         isIncludeNs = false;
+        isUseReusablePileupViews = false;
         downsamplingInfo = LocusIteratorByState.NO_DOWNSAMPLING;
     }
 
@@ -75,7 +81,7 @@ public class AlignmentContextIteratorBuilder {
         Utils.nonNull(readIterator, "Read iterator cannot be null");
         final boolean isDefinitelyReference = (dictionary != null) && isReference ;
         return createAlignmentContextIterator(intervalsForTraversal, header, readIterator, dictionary, downsamplingInfo,
-                isDefinitelyReference, isEmitEmptyLoci, isKeepUniqueReadListInLibs, isIncludeDeletions, isIncludeNs);
+                isDefinitelyReference, isEmitEmptyLoci, isKeepUniqueReadListInLibs, isIncludeDeletions, isIncludeNs, isUseReusablePileupViews);
     }
 
     /**
@@ -94,6 +100,7 @@ public class AlignmentContextIteratorBuilder {
      *                                       available via the transferReadsFromAllPreviousPileups interface (this parameter is specific to {@link LocusIteratorByState})
      * @param isIncludeDeletions include reads with deletion on the loci in question
      * @param isIncludeNs include reads with N on the loci in question
+     * @param isUseReusablePileupViews produce contexts backed by reusable pileup views (see {@link LocusIteratorByState#useReusablePileupViews})
      * @return iterator that produces AlignmentContexts ready for consumption (e.g. by a {@link org.broadinstitute.hellbender.engine.LocusWalker})
      */
     private static Iterator<AlignmentContext> createAlignmentContextIterator(final List<SimpleInterval> intervalsForTraversal,
@@ -105,7 +112,8 @@ public class AlignmentContextIteratorBuilder {
                                                                              boolean emitEmptyLoci,
                                                                              boolean isKeepUniqueReadListInLibs,
                                                                              boolean isIncludeDeletions,
-                                                                             boolean isIncludeNs) {
+                                                                             boolean isIncludeNs,
+                                                                             boolean isUseReusablePileupViews) {
 
         // get the samples from the read groups
         final Set<String> samples = header.getReadGroups().stream()
@@ -123,12 +131,21 @@ public class AlignmentContextIteratorBuilder {
             if (!areIntervalsSpecified(finalIntervals)) {
                 finalIntervals = IntervalUtils.getAllIntervalsForReference(dictionary);
             }
+            if (isUseReusablePileupViews) {
+                libs.useReusablePileupViews(finalIntervals);
+            }
             final IntervalLocusIterator intervalLocusIterator = new IntervalLocusIterator(finalIntervals.iterator());
             return new IntervalAlignmentContextIterator(libs, intervalLocusIterator, header.getSequenceDictionary());
         } else if (areIntervalsSpecified(finalIntervals)) {
+            if (isUseReusablePileupViews) {
+                libs.useReusablePileupViews(finalIntervals);
+            }
             return new IntervalOverlappingIterator<>(libs, finalIntervals, header.getSequenceDictionary());
         } else {
             // prepare the iterator
+            if (isUseReusablePileupViews) {
+                libs.useReusablePileupViews(null);
+            }
             return libs;
         }
     }
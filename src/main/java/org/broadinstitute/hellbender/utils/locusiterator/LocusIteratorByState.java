@@ -3,6 +3,7 @@ package org.broadinstitute.hellbender.utils.locusiterator;
 import com.google.common.annotations.VisibleForTesting;
 import htsjdk.samtools.CigarOperator;
 import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.samtools.util.Locatable;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -12,6 +13,7 @@ import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.downsampling.DownsamplingMethod;
 import org.broadinstitute.hellbender.utils.pileup.PileupElement;
 import org.broadinstitute.hellbender.utils.pileup.ReadPileup;
+import org.broadinstitute.hellbender.utils.pileup.ReusablePileupView;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.read.ReadUtils;
 
@@ -86,6 +88,25 @@ public final class LocusIteratorByState implements Iterator<AlignmentContext> {
      */
     private AlignmentContext nextAlignmentContext;
 
+    /**
+     * Dictionary of the reads, used to order loci against {@link #pileupViewIntervals}
+     */
+    private final SAMSequenceDictionary dictionary;
+
+    /**
+     * If not null, pileups are filled into these views, alternately, instead of into new ReadPileups.
+     * See {@link #useReusablePileupViews}.
+     */
+    private ReusablePileupView[] pileupViews;
+    private int nextPileupView;
+
+    /**
+     * If not null, only loci overlapping these intervals produce alignment contexts when using reusable pileup views.
+     * {@link #pileupViewIntervalIndex} is the first interval that doesn't end before the current locus.
+     */
+    private List<SimpleInterval> pileupViewIntervals;
+    private int pileupViewIntervalIndex;
+
     // -----------------------------------------------------------------------------------------------------------------
     //
     // constructors and other basic operations
@@ -224,6 +245,31 @@ public final class LocusIteratorByState implements Iterator<AlignmentContext> {
         this.includeReadsWithNsAtLoci = includeReadsWithNsAtLoci;
         this.samples = new ArrayList<>(samples);
         this.readStates = new ReadStateManager(samIterator, this.samples, downsamplingInfo, keepUniqueReadListInLIBS, header);
+        this.dictionary = header.getSequenceDictionary();
+    }
+
+    /**
+     * Produce alignment contexts whose pileups are held in reusable {@link ReusablePileupView}s instead of in new
+     * {@link ReadPileup}s of new {@link PileupElement}s, which avoids allocating objects for every read at every locus.
+     * Must be called before the first call to {@link #hasNext()} or {@link #next()}.
+     *
+     * Two views are used in turn, so each context stays valid until the context after the next one is produced:
+     * callers may look ahead by one context, but must be done with a context by the time they request the
+     * context two positions after it (see {@link AlignmentContext#getPileupView()}).
+     *
+     * Since iterators that restrict the loci to a set of intervals look ahead past the loci that they skip, the
+     * intervals can be given here, in which case loci outside of them are skipped before their pileup is made.
+     *
+     * @param intervals if not null, only produce contexts for loci that overlap these intervals, which must be sorted
+     *                  in the order of the sequence dictionary of the reads and must not overlap
+     */
+    public void useReusablePileupViews(final List<SimpleInterval> intervals) {
+        Utils.validate(nextAlignmentContext == null, "reusable pileup views must be requested before iteration starts");
+        Utils.validateArg(intervals == null || dictionary != null, "the reads must have a sequence dictionary to restrict pileup views to intervals");
+        pileupViews = new ReusablePileupView[] { new ReusablePileupView(), new ReusablePileupView() };
+        nextPileupView = 0;
+        pileupViewIntervals = intervals;
+        pileupViewIntervalIndex = 0;
     }
 
     /**
@@ -316,6 +362,14 @@ public final class LocusIteratorByState implements Iterator<AlignmentContext> {
 
             final Locatable location = getLocation();
 
+            if (pileupViews != null) {
+                if (isInPileupViewIntervals(location)) {
+                    nextAlignmentContext = fillPileupView(location);
+                }
+                readStates.updateReadStates(); // critical - must be called after we get the current state offsets and location
+                continue;
+            }
+
             // We don't need to keep the pileup elements separated by sample within this method,
             // since they are just going to get combined into one monolithic pileup anyway
             // when we construct the final ReadPileup below. This optimization speeds up the
@@ -329,18 +383,8 @@ public final class LocusIteratorByState implements Iterator<AlignmentContext> {
                 while (iterator.hasNext()) {
                     // state object with the read/offset information
                     final AlignmentStateMachine state = iterator.next();
-                    final GATKRead read = state.getRead();
-                    final CigarOperator op = state.getCigarOperator();
-
-                    if (!includeReadsWithNsAtLoci && op == CigarOperator.N) {
-                        continue;
-                    }
-
-                    if (!dontIncludeReadInPileup(read, location.getStart())) {
-                        if (!includeReadsWithDeletionAtLoci && op == CigarOperator.D) {
-                            continue;
-                        }
 
+                    if (includeInPileup(state, location)) {
                         allPileupElements.add(state.makePileupElement());
                     }
                 }
@@ -353,6 +397,68 @@ public final class LocusIteratorByState implements Iterator<AlignmentContext> {
         }
     }
 
+    /**
+     * Should the read of this state be included in the pileup at location?
+     */
+    private boolean includeInPileup(final AlignmentStateMachine state, final Locatable location) {
+        final CigarOperator op = state.getCigarOperator();
+
+        if (!includeReadsWithNsAtLoci && op == CigarOperator.N) {
+            return false;
+        }
+
+        return !dontIncludeReadInPileup(state.getRead(), location.getStart()) &&
+                (includeReadsWithDeletionAtLoci || op != CigarOperator.D);
+    }
+
+    /**
+     * Fill the next reusable pileup view with the pileup at location, without advancing the read states.
+     *
+     * @return a context backed by the view, or null if the pileup is empty
+     */
+    private AlignmentContext fillPileupView(final Locatable location) {
+        final ReusablePileupView view = pileupViews[nextPileupView];
+        view.reset(location);
+
+        for (final Map.Entry<String, PerSampleReadStateManager> sampleStatePair : readStates) {
+            final Iterator<AlignmentStateMachine> iterator = sampleStatePair.getValue().iterator();
+            while (iterator.hasNext()) {
+                final AlignmentStateMachine state = iterator.next();
+                if (includeInPileup(state, location)) {
+                    view.add(state.getRead(), state.getReadOffset(), state.getCurrentCigarElement(),
+                            state.getCurrentCigarElementOffset(), state.getOffsetIntoCurrentCigarElement());
+                }
+            }
+        }
+
+        if (view.isEmpty()) {
+            // nothing refers to the view, so it can be filled again for the next locus
+            return null;
+        }
+        nextPileupView = 1 - nextPileupView;
+        return new AlignmentContext(location, view);
+    }
+
+    /**
+     * Does location overlap {@link #pileupViewIntervals}? Locations must be queried in increasing order.
+     */
+    private boolean isInPileupViewIntervals(final Locatable location) {
+        if (pileupViewIntervals == null) {
+            return true;
+        }
+        final int contigIndex = dictionary.getSequenceIndex(location.getContig());
+        while (pileupViewIntervalIndex < pileupViewIntervals.size()) {
+            final SimpleInterval interval = pileupViewIntervals.get(pileupViewIntervalIndex);
+            final int intervalContigIndex = dictionary.getSequenceIndex(interval.getContig());
+            if (intervalContigIndex < contigIndex || (intervalContigIndex == contigIndex && interval.getEnd() < location.getStart())) {
+                pileupViewIntervalIndex++;
+            } else {
+                return intervalContigIndex == contigIndex && interval.getStart() <= location.getStart();
+            }
+        }
+        return false;
+    }
+
     /**
      * Should this read be excluded from the pileup?
      *
@@ -0,0 +1,380 @@
+package org.broadinstitute.hellbender.utils.pairhmm;
+
+import org.broadinstitute.hellbender.utils.QualityUtils;
+import org.broadinstitute.hellbender.utils.genotyper.LikelihoodMatrix;
+import org.broadinstitute.hellbender.utils.haplotype.Haplotype;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.broadinstitute.hellbender.utils.pairhmm.PairHMMModel.*;
+
+/**
+ * Pure-Java, SIMD-friendly version of {@link LoglessPairHMM}, for use when the native AVX PairHMM is unavailable.
+ *
+ * Rather than computing one read-haplotype matrix at a time, each read is run against up to {@link #LANES} haplotypes
+ * in lockstep. The match, insertion and deletion rows are stored interleaved by haplotype ("lanes"), so the innermost
+ * loop updates the same cell of every haplotype's matrix with identical arithmetic and no data dependencies between
+ * iterations. HotSpot's superword optimization compiles this loop to packed SIMD instructions on any platform that
+ * has them, with no native library. Haplotypes of different lengths share a lane block by padding the shorter ones;
+ * the padding columns never feed back into the columns that are summed for the result.
+ *
+ * The computation can be done in double precision, in which case the results are identical to those of
+ * {@link LoglessPairHMM}, or, like the native implementation, in single precision with a fallback to double precision
+ * for any read-haplotype pair whose single precision result underflows. Because Java cannot flush subnormal values to
+ * zero in hardware, single precision is not usually faster here, so {@link PairHMM.Implementation#JAVA_VECTOR_LOGLESS_CACHING}
+ * uses double precision.
+ */
+public final class JavaVectorLoglessPairHMM extends PairHMM {
+
+    /**
+     * Number of haplotypes computed together. Wide enough to fill the vector registers of current CPUs, small enough to
+     * keep the working rows in cache for typical haplotype lengths.
+     */
+    static final int LANES = 16;
+
+    private static final double INITIAL_CONDITION = LoglessPairHMM.INITIAL_CONDITION;
+    private static final double INITIAL_CONDITION_LOG10 = LoglessPairHMM.INITIAL_CONDITION_LOG10;
+
+    // the native implementation uses the same initial condition and underflow threshold for single precision
+    private static final float INITIAL_CONDITION_FLOAT = (float) Math.pow(2, 120);
+    private static final double INITIAL_CONDITION_FLOAT_LOG10 = Math.log10(INITIAL_CONDITION_FLOAT);
+    private static final float MIN_ACCEPTED_FLOAT = 1e-28f;
+
+    private final boolean useDoublePrecision;
+
+    private double[][] transition = null;
+
+    // per-lane haplotype data for the current block of haplotypes
+    private final int[] laneHaplotypeLengths = new int[LANES];
+    private byte[] laneHaplotypeBases = new byte[0];
+    private int numColumns;
+
+    // match masks (1 where the read base matches the haplotype base, otherwise 0) and their complements, per read base,
+    // computed lazily for each block of haplotypes
+    private final double[][] matchMasks = new double[256][];
+    private final double[][] mismatchMasks = new double[256][];
+    private final float[][] matchMasksFloat = new float[256][];
+    private final float[][] mismatchMasksFloat = new float[256][];
+    private final boolean[] masksComputed = new boolean[256];
+
+    // rolling match/insertion/deletion rows
+    private double[] prevMatch = new double[0], prevInsertion = new double[0], prevDeletion = new double[0];
+    private double[] curMatch = new double[0], curInsertion = new double[0], curDeletion = new double[0];
+    private float[] prevMatchFloat = new float[0], prevInsertionFloat = new float[0], prevDeletionFloat = new float[0];
+    private float[] curMatchFloat = new float[0], curInsertionFloat = new float[0], curDeletionFloat = new float[0];
+
+    private final double[] laneResults = new double[LANES];
+    private final double[] laneResultsDouble = new double[LANES];
+
+    /**
+     * @param useDoublePrecision if true, always compute in double precision; otherwise compute in single precision and
+     *                           fall back to double precision only for results that underflow
+     */
+    public JavaVectorLoglessPairHMM(final boolean useDoublePrecision) {
+        this.useDoublePrecision = useDoublePrecision;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void doNotUseTristateCorrection() {
+        doNotUseTristateCorrection = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void computeLog10Likelihoods(final LikelihoodMatrix<GATKRead, Haplotype> logLikelihoods,
+                                        final List<GATKRead> processedReads,
+                                        final PairHMMInputScoreImputator inputScoreImputator) {
+        if (processedReads.isEmpty()) {
+            return;
+        }
+        if (doProfiling) {
+            startTime = System.nanoTime();
+        }
+
+        final List<Haplotype> haplotypes = logLikelihoods.alleles();
+        final int haplotypeCount = haplotypes.size();
+        final int readCount = processedReads.size();
+
+        final List<PairHMMInputScoreImputation> inputScores = new ArrayList<>(readCount);
+        for (final GATKRead read : processedReads) {
+            inputScores.add(inputScoreImputator.impute(read));
+        }
+
+        mLogLikelihoodArray = new double[readCount * haplotypeCount];
+        for (int firstHaplotype = 0; firstHaplotype < haplotypeCount; firstHaplotype += LANES) {
+            final int laneCount = Math.min(LANES, haplotypeCount - firstHaplotype);
+            loadHaplotypes(haplotypes, firstHaplotype, laneCount);
+
+            for (int r = 0; r < readCount; r++) {
+                final GATKRead read = processedReads.get(r);
+                final PairHMMInputScoreImputation scores = inputScores.get(r);
+                computeLanes(read.getBases(), read.getBaseQualities(), scores.insOpenPenalties(), scores.delOpenPenalties(),
+                        scores.gapContinuationPenalties(), laneCount);
+                for (int lane = 0; lane < laneCount; lane++) {
+                    final int a = firstHaplotype + lane;
+                    logLikelihoods.set(a, r, laneResults[lane]);
+                    mLogLikelihoodArray[r * haplotypeCount + a] = laneResults[lane];
+                }
+            }
+        }
+
+        if (doProfiling) {
+            threadLocalPairHMMComputeTimeDiff = (System.nanoTime() - startTime);
+            pairHMMComputeTime += threadLocalPairHMMComputeTimeDiff;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Computes a single read-haplotype pair in the first lane; {@link #computeLog10Likelihoods} is the efficient entry point.
+     */
+    @Override
+    protected double subComputeReadLikelihoodGivenHaplotypeLog10(final byte[] haplotypeBases,
+                                                                 final byte[] readBases,
+                                                                 final byte[] readQuals,
+                                                                 final byte[] insertionGOP,
+                                                                 final byte[] deletionGOP,
+                                                                 final byte[] overallGCP,
+                                                                 final int hapStartIndex,
+                                                                 final boolean recacheReadValues,
+                                                                 final int nextHapStartIndex) {
+        loadHaplotypes(haplotypeBases);
+        computeLanes(readBases, readQuals, insertionGOP, deletionGOP, overallGCP, 1);
+        return laneResults[0];
+    }
+
+    private void loadHaplotypes(final List<Haplotype> haplotypes, final int first, final int count) {
+        final byte[][] bases = new byte[count][];
+        for (int lane = 0; lane < count; lane++) {
+            bases[lane] = haplotypes.get(first + lane).getBases();
+        }
+        loadHaplotypes(bases);
+    }
+
+    /**
+     * Lay out the bases of up to {@link #LANES} haplotypes interleaved by column, and invalidate the cached match masks.
+     */
+    private void loadHaplotypes(final byte[]... haplotypeBases) {
+        int maxLength = 0;
+        for (final byte[] bases : haplotypeBases) {
+            maxLength = Math.max(maxLength, bases.length);
+        }
+        numColumns = maxLength + 1;
+        final int size = numColumns * LANES;
+        if (laneHaplotypeBases.length < size) {
+            laneHaplotypeBases = new byte[size];
+        }
+        Arrays.fill(laneHaplotypeBases, 0, size, (byte) 0);
+        Arrays.fill(laneHaplotypeLengths, 0);
+        for (int lane = 0; lane < haplotypeBases.length; lane++) {
+            final byte[] bases = haplotypeBases[lane];
+            laneHaplotypeLengths[lane] = bases.length;
+            for (int j = 0; j < bases.length; j++) {
+                laneHaplotypeBases[(j + 1) * LANES + lane] = bases[j];
+            }
+        }
+        Arrays.fill(masksComputed, false);
+    }
+
+    /**
+     * Compute the log10 likelihoods of one read against every loaded haplotype, leaving the results in {@link #laneResults}.
+     */
+    private void computeLanes(final byte[] readBases, final byte[] readQuals, final byte[] insertionGOP,
+                              final byte[] deletionGOP, final byte[] overallGCP, final int laneCount) {
+        if (transition == null || transition.length <= readBases.length) {
+            transition = PairHMMModel.createTransitionMatrix(readBases.length);
+        }
+        PairHMMModel.qualToTransProbs(transition, insertionGOP, deletionGOP, overallGCP);
+        ensureRowCapacity(numColumns * LANES);
+
+        if (useDoublePrecision) {
+            computeLanesDouble(readBases, readQuals, laneResults);
+            return;
+        }
+
+        final boolean underflow = computeLanesFloat(readBases, readQuals, laneCount);
+        if (underflow) {
+            computeLanesDouble(readBases, readQuals, laneResultsDouble);
+            for (int lane = 0; lane < laneCount; lane++) {
+                if (Double.isNaN(laneResults[lane])) {
+                    laneResults[lane] = laneResultsDouble[lane];
+                }
+            }
+        }
+    }
+
+    private void computeLanesDouble(final byte[] readBases, final byte[] readQuals, final double[] results) {
+        final int size = numColumns * LANES;
+        double[] prevM = prevMatch, prevI = prevInsertion, prevD = prevDeletion;
+        double[] curM = curMatch, curI = curInsertion, curD = curDeletion;
+
+        Arrays.fill(prevM, 0, size, 0.0);
+        Arrays.fill(prevI, 0, size, 0.0);
+        for (int lane = 0; lane < LANES; lane++) {
+            // free deletions in the beginning
+            final double initialValue = laneHaplotypeLengths[lane] == 0 ? 0.0 : INITIAL_CONDITION / laneHaplotypeLengths[lane];
+            for (int j = 0; j < numColumns; j++) {
+                prevD[j * LANES + lane] = initialValue;
+            }
+        }
+        for (int i = 1; i <= readBases.length; i++) {
+            // the first column is outside the haplotype, so nothing can be aligned there
+            Arrays.fill(curM, 0, LANES, 0.0);
+            Arrays.fill(curI, 0, LANES, 0.0);
+            Arrays.fill(curD, 0, LANES, 0.0);
+            final byte readBase = readBases[i - 1];
+            computeMasks(readBase);
+            final double[] match = matchMasks[readBase & 0xFF];
+            final double[] mismatch = mismatchMasks[readBase & 0xFF];
+            final double matchPrior = QualityUtils.qualToProb(readQuals[i - 1]);
+            final double mismatchPrior = QualityUtils.qualToErrorProb(readQuals[i - 1]) / (doNotUseTristateCorrection ? 1.0 : LoglessPairHMM.TRISTATE_CORRECTION);
+            final double[] t = transition[i];
+            final double mm = t[matchToMatch], im = t[indelToMatch], mi = t[matchToInsertion];
+            final double ii = t[insertionToInsertion], md = t[matchToDeletion], dd = t[deletionToDeletion];
+
+            for (int offset = LANES; offset < size; offset += LANES) {
+                final int diagonal = offset - LANES;
+                for (int lane = 0; lane < LANES; lane++) {
+                    final int k = offset + lane;
+                    final double prior = match[k] * matchPrior + mismatch[k] * mismatchPrior;
+                    curM[k] = prior * (prevM[diagonal + lane] * mm + prevI[diagonal + lane] * im + prevD[diagonal + lane] * im);
+                    curI[k] = prevM[k] * mi + prevI[k] * ii;
+                    curD[k] = curM[diagonal + lane] * md + curD[diagonal + lane] * dd;
+                }
+            }
+
+            double[] swap = prevM; prevM = curM; curM = swap;
+            swap = prevI; prevI = curI; curI = swap;
+            swap = prevD; prevD = curD; curD = swap;
+        }
+
+        // sum over the paths ending in the match and insertion states in the last row, as in LoglessPairHMM
+        for (int lane = 0; lane < LANES; lane++) {
+            double finalSumProbabilities = 0.0;
+            for (int j = 1; j <= laneHaplotypeLengths[lane]; j++) {
+                finalSumProbabilities += prevM[j * LANES + lane] + prevI[j * LANES + lane];
+            }
+            results[lane] = Math.log10(finalSumProbabilities) - INITIAL_CONDITION_LOG10;
+        }
+    }
+
+    /**
+     * @return true if any lane underflowed, in which case its entry in {@link #laneResults} is set to NaN
+     */
+    private boolean computeLanesFloat(final byte[] readBases, final byte[] readQuals, final int laneCount) {
+        final int size = numColumns * LANES;
+        float[] prevM = prevMatchFloat, prevI = prevInsertionFloat, prevD = prevDeletionFloat;
+        float[] curM = curMatchFloat, curI = curInsertionFloat, curD = curDeletionFloat;
+
+        Arrays.fill(prevM, 0, size, 0.0f);
+        Arrays.fill(prevI, 0, size, 0.0f);
+        for (int lane = 0; lane < LANES; lane++) {
+            final float initialValue = laneHaplotypeLengths[lane] == 0 ? 0.0f : INITIAL_CONDITION_FLOAT / laneHaplotypeLengths[lane];
+            for (int j = 0; j < numColumns; j++) {
+                prevD[j * LANES + lane] = initialValue;
+            }
+        }
+        for (int i = 1; i <= readBases.length; i++) {
+            Arrays.fill(curM, 0, LANES, 0.0f);
+            Arrays.fill(curI, 0, LANES, 0.0f);
+            Arrays.fill(curD, 0, LANES, 0.0f);
+            final byte readBase = readBases[i - 1];
+            computeMasks(readBase);
+            final float[] match = matchMasksFloat[readBase & 0xFF];
+            final float[] mismatch = mismatchMasksFloat[readBase & 0xFF];
+            final float matchPrior = (float) QualityUtils.qualToProb(readQuals[i - 1]);
+            final float mismatchPrior = (float) (QualityUtils.qualToErrorProb(readQuals[i - 1]) / (doNotUseTristateCorrection ? 1.0 : LoglessPairHMM.TRISTATE_CORRECTION));
+            final double[] t = transition[i];
+            final float mm = (float) t[matchToMatch], im = (float) t[indelToMatch], mi = (float) t[matchToInsertion];
+            final float ii = (float) t[insertionToInsertion], md = (float) t[matchToDeletion], dd = (float) t[deletionToDeletion];
+
+            for (int offset = LANES; offset < size; offset += LANES) {
+                final int diagonal = offset - LANES;
+                for (int lane = 0; lane < LANES; lane++) {
+                    final int k = offset + lane;
+                    final float prior = match[k] * matchPrior + mismatch[k] * mismatchPrior;
+                    final float matchValue = prior * (prevM[diagonal + lane] * mm + prevI[diagonal + lane] * im + prevD[diagonal + lane] * im);
+                    final float insertionValue = prevM[k] * mi + prevI[k] * ii;
+                    final float deletionValue = curM[diagonal + lane] * md + curD[diagonal + lane] * dd;
+                    // flush subnormals to zero by hand (the native code sets the FTZ flag): arithmetic on them is very slow
+                    curM[k] = matchValue < Float.MIN_NORMAL ? 0.0f : matchValue;
+                    curI[k] = insertionValue < Float.MIN_NORMAL ? 0.0f : insertionValue;
+                    curD[k] = deletionValue < Float.MIN_NORMAL ? 0.0f : deletionValue;
+                }
+            }
+
+            float[] swap = prevM; prevM = curM; curM = swap;
+            swap = prevI; prevI = curI; curI = swap;
+            swap = prevD; prevD = curD; curD = swap;
+        }
+
+        boolean underflow = false;
+        for (int lane = 0; lane < laneCount; lane++) {
+            float finalSumProbabilities = 0.0f;
+            for (int j = 1; j <= laneHaplotypeLengths[lane]; j++) {
+                finalSumProbabilities += prevM[j * LANES + lane] + prevI[j * LANES + lane];
+            }
+            if (finalSumProbabilities < MIN_ACCEPTED_FLOAT) {
+                laneResults[lane] = Double.NaN;
+                underflow = true;
+            } else {
+                laneResults[lane] = Math.log10(finalSumProbabilities) - INITIAL_CONDITION_FLOAT_LOG10;
+            }
+        }
+        return underflow;
+    }
+
+    /**
+     * Compute, if not already done for the loaded haplotypes, the masks selecting the match or mismatch prior for a read base
+     */
+    private void computeMasks(final byte readBase) {
+        final int index = readBase & 0xFF;
+        if (masksComputed[index]) {
+            return;
+        }
+        final int size = numColumns * LANES;
+        if (matchMasks[index] == null || matchMasks[index].length < size) {
+            final int capacity = laneHaplotypeBases.length;
+            matchMasks[index] = new double[capacity];
+            mismatchMasks[index] = new double[capacity];
+            matchMasksFloat[index] = new float[capacity];
+            mismatchMasksFloat[index] = new float[capacity];
+        }
+        for (int k = 0; k < size; k++) {
+            final byte haplotypeBase = laneHaplotypeBases[k];
+            final boolean isMatch = readBase == haplotypeBase || readBase == (byte) 'N' || haplotypeBase == (byte) 'N';
+            matchMasks[index][k] = isMatch ? 1.0 : 0.0;
+            mismatchMasks[index][k] = isMatch ? 0.0 : 1.0;
+            matchMasksFloat[index][k] = isMatch ? 1.0f : 0.0f;
+            mismatchMasksFloat[index][k] = isMatch ? 0.0f : 1.0f;
+        }
+        masksComputed[index] = true;
+    }
+
+    private void ensureRowCapacity(final int size) {
+        if (prevMatch.length >= size) {
+            return;
+        }
+        prevMatch = new double[size];
+        prevInsertion = new double[size];
+        prevDeletion = new double[size];
+        curMatch = new double[size];
+        curInsertion = new double[size];
+        curDeletion = new double[size];
+        prevMatchFloat = new float[size];
+        prevInsertionFloat = new float[size];
+        prevDeletionFloat = new float[size];
+        curMatchFloat = new float[size];
+        curInsertionFloat = new float[size];
+        curDeletionFloat = new float[size];
+    }
+}
@@ -50,6 +50,13 @@ public abstract class PairHMM implements Closeable{
             logger.info("Using the non-hardware-accelerated Java LOGLESS_CACHING PairHMM implementation");
             return hmm;
         }),
+        /* Pure-Java version of LOGLESS_CACHING that computes several haplotypes at once in a form the JIT compiles to SIMD instructions.
+           Gives the same results as LOGLESS_CACHING, much faster, without requiring the native library */
+        JAVA_VECTOR_LOGLESS_CACHING(args -> {
+            final JavaVectorLoglessPairHMM hmm = new JavaVectorLoglessPairHMM(true);
+            logger.info("Using the Java JAVA_VECTOR_LOGLESS_CACHING PairHMM implementation");
+            return hmm;
+        }),
         /* Optimized AVX implementation of LOGLESS_CACHING called through JNI. Throws if AVX is not available */
         AVX_LOGLESS_CACHING(args -> {
             // Constructor will throw a UserException if AVX is not available
@@ -239,6 +246,27 @@ public abstract class PairHMM implements Closeable{
         }
     }
 
+    /**
+     * Compute likelihoods for several lists of reads against the same haplotypes at once, for example the reads of
+     * every sample in a region. This is equivalent to calling
+     * {@link #computeLog10Likelihoods(LikelihoodMatrix, List, PairHMMInputScoreImputator)} for each matrix in turn,
+     * which is what the default implementation does. Implementations that pay a fixed cost per call (such as the
+     * native vectorized ones) override this to process all of the read-haplotype pairs as a single batch. Since the
+     * matrices share their haplotypes, a batch cannot span regions with different haplotypes.
+     *
+     * @param logLikelihoods where to store the log likelihoods, one matrix per list of reads. All matrices must have
+     *                       the same haplotypes as alleles.
+     * @param processedReads reads to analyze for each matrix, in the same order as {@code logLikelihoods}
+     */
+    public void batchComputeLog10Likelihoods(final List<? extends LikelihoodMatrix<GATKRead, Haplotype>> logLikelihoods,
+                                             final List<List<GATKRead>> processedReads,
+                                             final PairHMMInputScoreImputator inputScoreImputator) {
+        Utils.validateArg(logLikelihoods.size() == processedReads.size(), "there must be one list of reads per likelihood matrix");
+        for (int i = 0; i < logLikelihoods.size(); i++) {
+            computeLog10Likelihoods(logLikelihoods.get(i), processedReads.get(i), inputScoreImputator);
+        }
+    }
+
     /**
      * Compute the total probability of read arising from haplotypeBases given base substitution, insertion, and deletion
      * probabilities.
@@ -10,10 +10,12 @@ import org.broadinstitute.gatk.nativebindings.pairhmm.PairHMMNativeArguments;
 import org.broadinstitute.gatk.nativebindings.pairhmm.PairHMMNativeBinding;
 import org.broadinstitute.gatk.nativebindings.pairhmm.ReadDataHolder;
 import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.genotyper.LikelihoodMatrix;
 import org.broadinstitute.hellbender.utils.haplotype.Haplotype;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -107,25 +109,41 @@ public final class VectorLoglessPairHMM extends LoglessPairHMM {
     @Override
     public void computeLog10Likelihoods(final LikelihoodMatrix<GATKRead, Haplotype> logLikelihoods,
                                         final List<GATKRead> processedReads, final PairHMMInputScoreImputator inputScoreImputator) {
-        if (processedReads.isEmpty()) {
+        batchComputeLog10Likelihoods(Collections.singletonList(logLikelihoods), Collections.singletonList(processedReads), inputScoreImputator);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * All reads for all matrices are sent to the native library in a single call, which amortizes the per-call overhead
+     * and gives multithreaded implementations (e.g. OpenMP) more work to spread across threads.
+     */
+    @Override
+    public void batchComputeLog10Likelihoods(final List<? extends LikelihoodMatrix<GATKRead, Haplotype>> logLikelihoods,
+                                             final List<List<GATKRead>> processedReads,
+                                             final PairHMMInputScoreImputator inputScoreImputator) {
+        Utils.validateArg(logLikelihoods.size() == processedReads.size(), "there must be one list of reads per likelihood matrix");
+        final int readListSize = processedReads.stream().mapToInt(List::size).sum();
+        if (readListSize == 0) {
             return;
         }
         if (doProfiling) {
             startTime = System.nanoTime();
         }
-        int readListSize = processedReads.size();
-        int numHaplotypes = logLikelihoods.numberOfAlleles();
+        final int numHaplotypes = mHaplotypeDataArray.length;
         ReadDataHolder[] readDataArray = new ReadDataHolder[readListSize];
         int idx = 0;
-        for (GATKRead read : processedReads) {
-            final PairHMMInputScoreImputation inputScoreImputation = inputScoreImputator.impute(read);
-            readDataArray[idx] = new ReadDataHolder();
-            readDataArray[idx].readBases = read.getBases();
-            readDataArray[idx].readQuals = read.getBaseQualities();
-            readDataArray[idx].insertionGOP = inputScoreImputation.insOpenPenalties();
-            readDataArray[idx].deletionGOP = inputScoreImputation.delOpenPenalties();
-            readDataArray[idx].overallGCP = inputScoreImputation.gapContinuationPenalties();
-            ++idx;
+        for (final List<GATKRead> reads : processedReads) {
+            for (GATKRead read : reads) {
+                final PairHMMInputScoreImputation inputScoreImputation = inputScoreImputator.impute(read);
+                readDataArray[idx] = new ReadDataHolder();
+                readDataArray[idx].readBases = read.getBases();
+                readDataArray[idx].readQuals = read.getBaseQualities();
+                readDataArray[idx].insertionGOP = inputScoreImputation.insOpenPenalties();
+                readDataArray[idx].deletionGOP = inputScoreImputation.delOpenPenalties();
+                readDataArray[idx].overallGCP = inputScoreImputation.gapContinuationPenalties();
+                ++idx;
+            }
         }
 
         mLogLikelihoodArray = new double[readListSize * numHaplotypes];      //to store results
@@ -138,17 +156,21 @@ public final class VectorLoglessPairHMM extends LoglessPairHMM {
         pairHmm.computeLikelihoods(readDataArray, mHaplotypeDataArray, mLogLikelihoodArray);
 
         int readIdx = 0;
-        for (int r = 0; r < readListSize; r++) {
-            int hapIdx = 0;
-            for (final Haplotype haplotype : logLikelihoods.alleles()) {
-
-                //Since the order of haplotypes in the List<Haplotype> and alleleHaplotypeMap is different,
-                //get idx of current haplotype in the list and use this idx to get the right likelihoodValue
-                final int idxInsideHaplotypeList = haplotypeToHaplotypeListIdxMap.get(haplotype);
-                logLikelihoods.set(hapIdx, r, mLogLikelihoodArray[readIdx + idxInsideHaplotypeList]);
-                ++hapIdx;
+        for (int m = 0; m < logLikelihoods.size(); m++) {
+            final LikelihoodMatrix<GATKRead, Haplotype> matrix = logLikelihoods.get(m);
+            final int numReads = processedReads.get(m).size();
+            for (int r = 0; r < numReads; r++) {
+                int hapIdx = 0;
+                for (final Haplotype haplotype : matrix.alleles()) {
+
+                    //Since the order of haplotypes in the List<Haplotype> and alleleHaplotypeMap is different,
+                    //get idx of current haplotype in the list and use this idx to get the right likelihoodValue
+                    final int idxInsideHaplotypeList = haplotypeToHaplotypeListIdxMap.get(haplotype);
+                    matrix.set(hapIdx, r, mLogLikelihoodArray[readIdx + idxInsideHaplotypeList]);
+                    ++hapIdx;
+                }
+                readIdx += numHaplotypes;
             }
-            readIdx += numHaplotypes;
         }
         if (doProfiling) {
             threadLocalPairHMMComputeTimeDiff = (System.nanoTime() - startTime);
@@ -157,7 +179,6 @@ public final class VectorLoglessPairHMM extends LoglessPairHMM {
         }
     }
 
-
     @Override
     public void close() {
         pairHmm.done();
@@ -0,0 +1,247 @@
+package org.broadinstitute.hellbender.utils.pileup;
+
+import htsjdk.samtools.CigarElement;
+import htsjdk.samtools.CigarOperator;
+import htsjdk.samtools.util.Locatable;
+import org.broadinstitute.hellbender.utils.BaseUtils;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A lightweight pileup at a single locus, held in parallel arrays that are refilled in place for each new locus
+ * instead of as a list of {@link PileupElement} objects.
+ *
+ * Element {@code i} of the view describes the same aligned base as the {@link PileupElement} that would be made from
+ * the same read state, and {@link #makePileupElement(int)}/{@link #makeReadPileup()} convert back to those classes
+ * for code that needs them. Bases and qualities are copied out of the reads when the view is filled, so that the
+ * common per-base queries don't have to go back to the reads.
+ *
+ * Since views are reused, a view (and anything that refers to it) is only valid until it is {@link #reset} for the
+ * next locus. {@link #getGeneration()} can be used to detect that a view has been refilled.
+ *
+ * As in {@link PileupElement}, the per-element accessors are hot and don't check their index against {@link #size()}.
+ */
+public final class ReusablePileupView {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 100;
+
+    private Locatable location;
+    private int size;
+    private long generation;
+
+    private GATKRead[] reads;
+    private int[] offsets;
+    private CigarElement[] cigarElements;
+    private int[] cigarElementIndices;
+    private int[] offsetsInCigarElements;
+    private byte[] bases;
+    private byte[] quals;
+
+    /**
+     * Create an empty view, with room for a typical number of elements.
+     */
+    public ReusablePileupView() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create an empty view.
+     *
+     * @param initialCapacity number of elements the view can hold before it has to grow
+     */
+    public ReusablePileupView(final int initialCapacity) {
+        Utils.validateArg(initialCapacity >= 0, "initialCapacity must not be negative");
+        allocate(initialCapacity);
+    }
+
+    /**
+     * Create a (non-reused) view of the elements of a pileup.
+     *
+     * @param pileup the pileup to copy
+     * @return a view with the location and elements of the pileup
+     */
+    public static ReusablePileupView of(final ReadPileup pileup) {
+        Utils.nonNull(pileup);
+        final ReusablePileupView view = new ReusablePileupView(pileup.size());
+        view.reset(pileup.getLocation());
+        for (final PileupElement element : pileup) {
+            view.add(element.getRead(), element.getOffset(), element.getCurrentCigarElement(),
+                    element.getCurrentCigarOffset(), element.getOffsetInCurrentCigar());
+        }
+        return view;
+    }
+
+    private void allocate(final int capacity) {
+        reads = new GATKRead[capacity];
+        offsets = new int[capacity];
+        cigarElements = new CigarElement[capacity];
+        cigarElementIndices = new int[capacity];
+        offsetsInCigarElements = new int[capacity];
+        bases = new byte[capacity];
+        quals = new byte[capacity];
+    }
+
+    private void grow() {
+        final int capacity = Math.max(DEFAULT_INITIAL_CAPACITY, 2 * reads.length);
+        reads = Arrays.copyOf(reads, capacity);
+        offsets = Arrays.copyOf(offsets, capacity);
+        cigarElements = Arrays.copyOf(cigarElements, capacity);
+        cigarElementIndices = Arrays.copyOf(cigarElementIndices, capacity);
+        offsetsInCigarElements = Arrays.copyOf(offsetsInCigarElements, capacity);
+        bases = Arrays.copyOf(bases, capacity);
+        quals = Arrays.copyOf(quals, capacity);
+    }
+
+    /**
+     * Empty this view so that it can be filled for a new locus, invalidating anything that refers to its previous contents.
+     *
+     * @param location the new locus
+     */
+    public void reset(final Locatable location) {
+        this.location = Utils.nonNull(location);
+        // don't keep the previous reads alive
+        Arrays.fill(reads, 0, size, null);
+        Arrays.fill(cigarElements, 0, size, null);
+        size = 0;
+        generation++;
+    }
+
+    /**
+     * Add an element to this view. The arguments are the same as those of the corresponding {@link PileupElement} constructor.
+     *
+     * @param read the read aligned to this locus
+     * @param offset the offset of the aligned base in the read
+     * @param cigarElement the cigar element of the read that is aligned to this locus
+     * @param cigarElementIndex the index of cigarElement in the cigar of the read
+     * @param offsetInCigarElement the offset of this locus within cigarElement
+     */
+    public void add(final GATKRead read, final int offset, final CigarElement cigarElement, final int cigarElementIndex, final int offsetInCigarElement) {
+        if (size == reads.length) {
+            grow();
+        }
+        reads[size] = read;
+        offsets[size] = offset;
+        cigarElements[size] = cigarElement;
+        cigarElementIndices[size] = cigarElementIndex;
+        offsetsInCigarElements[size] = offsetInCigarElement;
+        final boolean isDeletion = cigarElement.getOperator() == CigarOperator.D;
+        bases[size] = isDeletion ? PileupElement.DELETION_BASE : read.getBase(offset);
+        quals[size] = isDeletion ? PileupElement.DELETION_QUAL : read.getBaseQuality(offset);
+        size++;
+    }
+
+    /**
+     * @return the locus of this view
+     */
+    public Locatable getLocation() {
+        return location;
+    }
+
+    /**
+     * @return the number of elements in this view
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if there are no elements in this view
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return a number that changes every time this view is reset
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return the read of the i-th element
+     */
+    public GATKRead getRead(final int i) {
+        return reads[i];
+    }
+
+    /**
+     * @return the offset in its read of the i-th element
+     */
+    public int getOffset(final int i) {
+        return offsets[i];
+    }
+
+    /**
+     * @return the base of the i-th element, or {@link PileupElement#DELETION_BASE} if it is a deletion
+     */
+    public byte getBase(final int i) {
+        return bases[i];
+    }
+
+    /**
+     * @return the base quality of the i-th element, or {@link PileupElement#DELETION_QUAL} if it is a deletion
+     */
+    public byte getQual(final int i) {
+        return quals[i];
+    }
+
+    /**
+     * @return true if the i-th element is a deletion
+     */
+    public boolean isDeletion(final int i) {
+        return cigarElements[i].getOperator() == CigarOperator.D;
+    }
+
+    /**
+     * @return true if the read of the i-th element is on the reverse strand
+     */
+    public boolean isReverseStrand(final int i) {
+        return reads[i].isReverseStrand();
+    }
+
+    /**
+     * Get the counts of A, C, G and T bases, in that order, as in {@link ReadPileup#getBaseCounts()}.
+     *
+     * @return the number of non-deletion elements for each base
+     */
+    public int[] getBaseCounts() {
+        final int[] counts = new int[4];
+        for (int i = 0; i < size; i++) {
+            if (cigarElements[i].getOperator() != CigarOperator.D) {
+                final int index = BaseUtils.simpleBaseToBaseIndex(bases[i]);
+                if (index != -1) {
+                    counts[index]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @return a new {@link PileupElement} equivalent to the i-th element
+     */
+    public PileupElement makePileupElement(final int i) {
+        return new PileupElement(reads[i], offsets[i], cigarElements[i], cigarElementIndices[i], offsetsInCigarElements[i]);
+    }
+
+    /**
+     * @return a new {@link ReadPileup} with the location and elements of this view
+     */
+    public ReadPileup makeReadPileup() {
+        final List<PileupElement> elements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            elements.add(makePileupElement(i));
+        }
+        return new ReadPileup(location, elements);
+    }
+
+    @Override
+    public String toString() {
+        return "ReusablePileupView{location=" + location + ", size=" + size + '}';
+    }
+}
@@ -237,6 +237,19 @@ public final class BaseRecalibrationEngine implements Serializable {
         return numReadsProcessed;
     }
 
+    /**
+     * Add the data collected by another engine, for example one that processed a different subset of the reads on
+     * another thread, to this engine.  Neither engine may have been finalized.
+     *
+     * @param other engine with the same arguments and read groups as this one
+     */
+    public void combine( final BaseRecalibrationEngine other ) {
+        Utils.nonNull(other);
+        Utils.validate(!finalized && !other.finalized, "Cannot combine engines after finalizeData() has been called");
+        recalTables.combine(other.recalTables);
+        numReadsProcessed += other.numReadsProcessed;
+    }
+
     /**
      * Update the recalibration statistics using the information in recalInfo
      * @param recalInfo data structure holding information about the recalibration values for a single read
@@ -385,6 +385,72 @@ public final class FeatureDataSourceUnitTest extends GATKBaseTest {
         }
     }
 
+    /**
+     * Tests that caching stays correct when the cache is refilled up to the end of expected query intervals,
+     * including for queries that fall outside of the expected intervals
+     */
+    @Test(dataProvider = "SingleDataSourceMultipleQueriesTestData")
+    public void testSingleDataSourceMultipleQueriesWithExpectedQueryIntervals( final List<Pair<SimpleInterval, List<String>>> testQueries ) {
+        try (final FeatureDataSource<VariantContext> featureSource = new FeatureDataSource<>(QUERY_TEST_VCF)) {
+            final List<SimpleInterval> expectedIntervals = new ArrayList<>();
+            for ( int i = 0; i < testQueries.size(); i += 2 ) {
+                expectedIntervals.add(testQueries.get(i).getLeft());
+            }
+            featureSource.setExpectedQueryIntervals(expectedIntervals);
+
+            for ( Pair<SimpleInterval, List<String>> testQuery : testQueries ) {
+                final SimpleInterval queryInterval = testQuery.getLeft();
+                final List<String> expectedVariantIDs = testQuery.getRight();
+
+                final List<VariantContext> queryResults = featureSource.queryAndPrefetch(queryInterval);
+                checkVariantQueryResults(queryResults, expectedVariantIDs, queryInterval);
+            }
+        }
+    }
+
+    @Test
+    public void testLookaheadForQueryStraddlingEndOfExpectedInterval() {
+        try (final FeatureDataSource<VariantContext> featureSource = new FeatureDataSource<>(QUERY_TEST_VCF)) {
+            featureSource.setExpectedQueryIntervals(Arrays.asList(new SimpleInterval("1", 100, 200), new SimpleInterval("1", 10000, 11000)));
+
+            // a query padded past the end of an expected interval still gets the configured lookahead past its own end
+            featureSource.queryAndPrefetch(new SimpleInterval("1", 190, 210));
+            Assert.assertEquals(featureSource.getLastRefillInterval(), new SimpleInterval("1", 190, 210 + FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES));
+
+            // so the next, similarly padded query is a cache hit
+            final SimpleInterval refill = featureSource.getLastRefillInterval();
+            featureSource.queryAndPrefetch(new SimpleInterval("1", 195, 215));
+            Assert.assertSame(featureSource.getLastRefillInterval(), refill);
+
+            // a grown lookahead that would end in the gap is trimmed to the configured lookahead past the preceding interval
+            featureSource.queryAndPrefetch(new SimpleInterval("1", 1250, 1300));
+            Assert.assertEquals(featureSource.getCurrentLookaheadBases(), 2 * FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES);
+            Assert.assertEquals(featureSource.getLastRefillInterval(), new SimpleInterval("1", 1250, 1300 + FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES));
+        }
+    }
+
+    @Test
+    public void testLookaheadAdaptsToQueryPattern() {
+        try (final FeatureDataSource<VariantContext> featureSource = new FeatureDataSource<>(QUERY_TEST_VCF)) {
+            featureSource.queryAndPrefetch(new SimpleInterval("1", 100, 200));
+            Assert.assertEquals(featureSource.getCurrentLookaheadBases(), FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES);
+
+            // cache misses just past the end of the cache grow the lookahead
+            featureSource.queryAndPrefetch(new SimpleInterval("1", 1300, 1400));
+            Assert.assertEquals(featureSource.getCurrentLookaheadBases(), 2 * FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES);
+            featureSource.queryAndPrefetch(new SimpleInterval("1", 3500, 3600));
+            Assert.assertEquals(featureSource.getCurrentLookaheadBases(), 4 * FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES);
+
+            // while jumps shrink it, but never below the configured value
+            featureSource.queryAndPrefetch(new SimpleInterval("2", 100, 200));
+            Assert.assertEquals(featureSource.getCurrentLookaheadBases(), 2 * FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES);
+            featureSource.queryAndPrefetch(new SimpleInterval("1", 100, 200));
+            Assert.assertEquals(featureSource.getCurrentLookaheadBases(), FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES);
+            featureSource.queryAndPrefetch(new SimpleInterval("3", 100, 200));
+            Assert.assertEquals(featureSource.getCurrentLookaheadBases(), FeatureDataSource.DEFAULT_QUERY_LOOKAHEAD_BASES);
+        }
+    }
+
     @DataProvider(name = "GVCFQueryTestData")
     public Object[][] getGVCFQueryTestData() {
 
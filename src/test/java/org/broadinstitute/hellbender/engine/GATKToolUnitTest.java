@@ -33,6 +33,7 @@ import org.testng.annotations.Test;
 import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.*;
 
 public final class GATKToolUnitTest extends GATKBaseTest {
@@ -789,6 +790,28 @@ public final class GATKToolUnitTest extends GATKBaseTest {
         Assert.assertEquals(outFileMD5.exists(), createMD5, "The createMD5 argument was not honored");
     }
 
+    @Test
+    public void testCreateAsyncVCFWriterGivesSameOutput() throws IOException {
+        final File inputFile = new File(publicTestDir, "org/broadinstitute/hellbender/engine/example_variants.vcf");
+        final List<File> outputFiles = new ArrayList<>();
+        for (final boolean async : new boolean[] {false, true}) {
+            final TestGATKToolWithVariants tool = new TestGATKToolWithVariants();
+            final File outputFile = setupVCFWriter(inputFile, ".vcf.gz", tool, true, false, false);
+            tool.asyncVariantOutput = async;
+
+            try (final VCFFileReader reader = new VCFFileReader(inputFile, false);
+                 final VariantContextWriter writer = tool.createVCFWriter(outputFile)) {
+                writer.writeHeader(reader.getFileHeader());
+                reader.forEach(writer::add);
+            }
+            outputFiles.add(outputFile);
+        }
+
+        Assert.assertEquals(Files.readAllBytes(outputFiles.get(1).toPath()), Files.readAllBytes(outputFiles.get(0).toPath()));
+        Assert.assertEquals(Files.readAllBytes(new File(outputFiles.get(1).getAbsolutePath() + ".tbi").toPath()),
+                Files.readAllBytes(new File(outputFiles.get(0).getAbsolutePath() + ".tbi").toPath()));
+    }
+
     @DataProvider(name="createVCFWriterLenientData")
     public Object[][] createVCFWriterLenientData() {
         return new Object[][]{
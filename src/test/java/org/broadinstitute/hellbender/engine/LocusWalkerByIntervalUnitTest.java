@@ -1,6 +1,7 @@
 package org.broadinstitute.hellbender.engine;
 
 import htsjdk.samtools.util.Locatable;
+import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.cmdline.TestProgramGroup;
@@ -118,6 +119,19 @@ public class LocusWalkerByIntervalUnitTest extends CommandLineProgramTest {
     }
 
 
+    @Test(expectedExceptions = CommandLineException.BadArgumentValue.class)
+    public void testMultithreadedLociNotSupported() {
+        final TestTransformedLocusWalker tool = new TestTransformedLocusWalker(Collections.singletonList(new SimpleInterval("20:1000-2000")));
+        final String[] args = {
+                "-I", getTestDataDir() + "/../engine/CEUTrio.HiSeq.WGS.b37.NA12878.20.21.10000000-10000020.with.unmapped.bam",
+                "-R", b37_reference_20_21,
+                "-L", "20:1000-2000",
+                "--" + LocusWalker.LOCUS_THREADS_LONG_NAME, "2"
+        };
+
+        tool.instanceMain(args);
+    }
+
     @Test(dataProvider = "getOverlapsAndOverlappingDataTestCases")
     public void testOverlappingBasesCoverageInformation(List<String> inputIntervals, Locatable[] locatablesToQuery, int[] expectedApplyCounts) throws IOException {
 
@@ -1,16 +1,25 @@
 package org.broadinstitute.hellbender.engine;
 
+import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.cmdline.TestProgramGroup;
 import org.broadinstitute.hellbender.engine.filters.CountingReadFilter;
 import org.broadinstitute.hellbender.engine.filters.ReadFilter;
 import org.broadinstitute.hellbender.transformers.ReadTransformer;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.testng.Assert;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * @author Daniel Gomez-Sanchez (magicDGS)
@@ -133,4 +142,70 @@ public class LocusWalkerUnitTest extends CommandLineProgramTest {
         Assert.assertEquals(tool.totalApplyCalls, 10);
     }
 
+    private static class TestThreadedEmitUncoveredLociTool extends TestEmitUncoveredLociTool {
+        public final List<SimpleInterval> completedLoci = new ArrayList<>();
+
+        @Override
+        protected LocusProcessor makeLocusProcessor() {
+            return (alignmentContext, referenceContext, featureContext) -> {
+                final SimpleInterval locus = new SimpleInterval(alignmentContext);
+                return () -> {
+                    totalApplyCalls++;
+                    completedLoci.add(locus);
+                };
+            };
+        }
+    }
+
+    @Test
+    public void testMultithreadedLoci() {
+        final TestThreadedEmitUncoveredLociTool tool = new TestThreadedEmitUncoveredLociTool();
+
+        final String[] args = {
+                "-I", getTestDataDir()+ "/print_reads.sorted.bam",
+                "-R", getTestDataDir()+ "/print_reads.fasta",
+                "-L", "chr7:21-30",
+                "--" + LocusWalker.LOCUS_THREADS_LONG_NAME, "3",
+                "--" + LocusWalker.LOCUS_CHUNK_SIZE_LONG_NAME, "3"
+        };
+
+        tool.instanceMain(args);
+
+        Assert.assertEquals(tool.totalApplyCalls, 10);
+        Assert.assertEquals(tool.completedLoci, IntStream.rangeClosed(21, 30).mapToObj(pos -> new SimpleInterval("chr7", pos, pos)).collect(Collectors.toList()));
+    }
+
+    @Test(expectedExceptions = CommandLineException.BadArgumentValue.class)
+    public void testMultithreadedLociNotSupported() {
+        final String[] args = {
+                "-I", getTestDataDir()+ "/print_reads.sorted.bam",
+                "-R", getTestDataDir()+ "/print_reads.fasta",
+                "-L", "chr7:21-30",
+                "--" + LocusWalker.LOCUS_THREADS_LONG_NAME, "2"
+        };
+
+        new TestEmitUncoveredLociTool().instanceMain(args);
+    }
+
+    @DataProvider(name = "LocusChunks")
+    public Object[][] getLocusChunks() {
+        return new Object[][] {
+                { Collections.singletonList(new SimpleInterval("1", 1, 10)), 5,
+                        Arrays.asList(Collections.singletonList(new SimpleInterval("1", 1, 5)), Collections.singletonList(new SimpleInterval("1", 6, 10))) },
+                { Collections.singletonList(new SimpleInterval("1", 1, 10)), 4,
+                        Arrays.asList(Collections.singletonList(new SimpleInterval("1", 1, 4)), Collections.singletonList(new SimpleInterval("1", 5, 8)),
+                                Collections.singletonList(new SimpleInterval("1", 9, 10))) },
+                { Arrays.asList(new SimpleInterval("1", 1, 2), new SimpleInterval("1", 5, 6), new SimpleInterval("2", 1, 3)), 4,
+                        Arrays.asList(Arrays.asList(new SimpleInterval("1", 1, 2), new SimpleInterval("1", 5, 6)), Collections.singletonList(new SimpleInterval("2", 1, 3))) },
+                { Arrays.asList(new SimpleInterval("1", 1, 3), new SimpleInterval("2", 1, 3)), 4,
+                        Arrays.asList(Arrays.asList(new SimpleInterval("1", 1, 3), new SimpleInterval("2", 1, 1)), Collections.singletonList(new SimpleInterval("2", 2, 3))) },
+                { Collections.emptyList(), 4, Collections.emptyList() }
+        };
+    }
+
+    @Test(dataProvider = "LocusChunks")
+    public void testMakeLocusChunks(final List<SimpleInterval> intervals, final int basesPerChunk, final List<List<SimpleInterval>> expectedChunks) {
+        Assert.assertEquals(LocusWalker.makeLocusChunks(intervals, basesPerChunk), expectedChunks);
+    }
+
 }
\ No newline at end of file
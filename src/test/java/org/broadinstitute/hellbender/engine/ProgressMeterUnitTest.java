@@ -123,6 +123,29 @@ public class ProgressMeterUnitTest extends GATKBaseTest {
         Assert.assertEquals(meter.processingRate(), expectedProcessingRate, "actual processing rate differs from expected value");
     }
 
+    @Test
+    public void testDecodingRate() {
+        final ProgressMeter meter = new ProgressMeter(1.0, new ListBasedTimeFunction(Arrays.asList(1000l, 60000l * 2l + 1000l)));
+        final long[] decodedBytes = {0};
+        meter.setDecodedBytesSupplier(() -> decodedBytes[0]);
+
+        meter.start();
+        for ( int i = 1; i <= ProgressMeter.DEFAULT_RECORDS_BETWEEN_TIME_CHECKS; ++i ) {
+            decodedBytes[0] += 1000;
+            meter.update(new SimpleInterval("1", 1, 1));
+        }
+
+        // 1 MB in 2 minutes
+        Assert.assertEquals(meter.decodingRate(), 0.5, "actual decoding rate differs from expected value");
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testCantSetDecodedBytesSupplierAfterStart() {
+        final ProgressMeter pm = new ProgressMeter();
+        pm.start();
+        pm.setDecodedBytesSupplier(() -> 0L);
+    }
+
     @Test
     public void testSecondsSinceLastPrint() {
         final ListBasedTimeFunction timeFunction = new ListBasedTimeFunction(Arrays.asList(1000l, 1500l, 2000l, 2500l, 3000l));
@@ -1,5 +1,6 @@
 package org.broadinstitute.hellbender.engine;
 
+import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.barclay.argparser.CommandLineProgramProperties;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.cmdline.TestProgramGroup;
@@ -11,6 +12,8 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author Daniel Gomez-Sanchez (magicDGS)
@@ -110,4 +113,60 @@ public class ReadWalkerUnitTest extends CommandLineProgramTest {
         Assert.assertEquals(tool.totalReads, 5);
     }
 
-}
\ No newline at end of file
+    @CommandLineProgramProperties(
+            summary = "Dummy that records the reads and their reference bases, on one or more threads",
+            oneLineSummary = "empty class",
+            programGroup = TestProgramGroup.class
+    )
+    private static class TestThreadedReadWalker extends ReadWalker {
+        public final List<String> processedReads = new ArrayList<>();
+
+        private static String describe(final GATKRead read, final ReferenceContext referenceContext) {
+            return read.getName() + " " + read.getContig() + ":" + read.getStart() + " " + new String(referenceContext.getBases());
+        }
+
+        @Override
+        public void apply(GATKRead read, ReferenceContext referenceContext, FeatureContext featureContext) {
+            processedReads.add(describe(read, referenceContext));
+        }
+
+        @Override
+        protected ReadProcessor makeReadProcessor() {
+            return (read, referenceContext, featureContext) -> {
+                final String description = describe(read, referenceContext);
+                return () -> processedReads.add(description);
+            };
+        }
+    }
+
+    @Test
+    public void testMultithreadedReads() {
+        final String[] args = {
+                "-I", getTestDataDir()+ "/print_reads.sorted.bam",
+                "-R", getTestDataDir()+ "/print_reads.fasta"
+        };
+        final TestThreadedReadWalker serialTool = new TestThreadedReadWalker();
+        serialTool.instanceMain(args);
+
+        final TestThreadedReadWalker threadedTool = new TestThreadedReadWalker();
+        threadedTool.instanceMain(new String[] {
+                args[0], args[1], args[2], args[3],
+                "--" + ReadWalker.READ_THREADS_LONG_NAME, "3",
+                "--" + ReadWalker.READ_BATCH_SIZE_LONG_NAME, "2"
+        });
+
+        Assert.assertFalse(serialTool.processedReads.isEmpty());
+        Assert.assertEquals(threadedTool.processedReads, serialTool.processedReads);
+    }
+
+    @Test(expectedExceptions = CommandLineException.BadArgumentValue.class)
+    public void testMultithreadedReadsNotSupported() {
+        final String[] args = {
+                "-I", getTestDataDir()+ "/print_reads.sorted.bam",
+                "-R", getTestDataDir()+ "/print_reads.fasta",
+                "--" + ReadWalker.READ_THREADS_LONG_NAME, "2"
+        };
+
+        new TestTransformedReadWalker().instanceMain(args);
+    }
+}
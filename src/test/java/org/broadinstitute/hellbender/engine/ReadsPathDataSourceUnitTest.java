@@ -6,6 +6,7 @@ import java.util.function.Function;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.io.IOUtils;
+import org.broadinstitute.hellbender.utils.io.ParallelBlockCompressedInputStream;
 import org.broadinstitute.hellbender.testutils.XorWrapper;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.read.ReadUtils;
@@ -133,6 +134,35 @@ public final class ReadsPathDataSourceUnitTest extends GATKBaseTest {
         }
     }
 
+    @Test(dataProvider = "SingleFileCompleteTraversalData")
+    public void testSingleFileCompleteTraversalWithParallelInflation( final Path samFile, final List<String> expectedReadNames ) {
+        final ParallelBlockCompressedInputStream.Statistics statistics = new ParallelBlockCompressedInputStream.Statistics();
+        try (ReadsPathDataSource readsSource = new ReadsPathDataSource(samFile)) {
+            readsSource.enableParallelInflation(2, statistics);
+
+            traverseOnce(readsSource, samFile, expectedReadNames);
+            traverseOnce(readsSource, samFile, expectedReadNames);
+        }
+        Assert.assertTrue(statistics.getCompressedBytes() > 0);
+        Assert.assertTrue(statistics.getUncompressedBytes() > 0);
+    }
+
+    @Test
+    public void testParallelInflationMatchesSerialDecoding() {
+        final List<Path> samFiles = Arrays.asList(FIRST_TEST_BAM, SECOND_TEST_BAM, THIRD_TEST_BAM);
+        final List<String> expected = new ArrayList<>();
+        try (ReadsDataSource readsSource = new ReadsPathDataSource(samFiles)) {
+            readsSource.forEach(read -> expected.add(read.convertToSAMRecord(readsSource.getHeader()).getSAMString()));
+        }
+
+        final List<String> actual = new ArrayList<>();
+        try (ReadsPathDataSource readsSource = new ReadsPathDataSource(samFiles)) {
+            readsSource.enableParallelInflation(3, new ParallelBlockCompressedInputStream.Statistics());
+            readsSource.forEach(read -> actual.add(read.convertToSAMRecord(readsSource.getHeader()).getSAMString()));
+        }
+        Assert.assertEquals(actual, expected);
+    }
+
     private void traverseOnce(final ReadsDataSource readsSource, final Path samFile, final List<String> expectedReadNames) {
         List<GATKRead> reads = new ArrayList<>();
         for ( GATKRead read : readsSource ) {
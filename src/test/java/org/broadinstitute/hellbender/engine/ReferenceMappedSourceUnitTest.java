@@ -0,0 +1,103 @@
+package org.broadinstitute.hellbender.engine;
+
+import htsjdk.samtools.SAMException;
+import htsjdk.samtools.SAMSequenceRecord;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.io.IOUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+public final class ReferenceMappedSourceUnitTest extends GATKBaseTest {
+
+    private static final Path TEST_REFERENCE = IOUtils.getPath(hg19MiniReference);
+
+    @Test
+    public void testQueriesMatchReferenceFileSource() {
+        final Random random = new Random(13);
+        try (final ReferenceDataSource expected = new ReferenceFileSource(TEST_REFERENCE);
+             final ReferenceDataSource mapped = new ReferenceMappedSource(TEST_REFERENCE)) {
+            Assert.assertEquals(mapped.getSequenceDictionary(), expected.getSequenceDictionary());
+
+            for (final SAMSequenceRecord contig : expected.getSequenceDictionary().getSequences()) {
+                final int length = contig.getSequenceLength();
+                assertSameBases(mapped, expected, new SimpleInterval(contig.getSequenceName(), 1, length));
+                assertSameBases(mapped, expected, new SimpleInterval(contig.getSequenceName(), length, length));
+                for (int i = 0; i < 200; i++) {
+                    final int start = 1 + random.nextInt(length);
+                    final int end = Math.min(length, start + random.nextInt(500));
+                    assertSameBases(mapped, expected, new SimpleInterval(contig.getSequenceName(), start, end));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testContigsShareMappings() {
+        try (final ReferenceMappedSource mapped = new ReferenceMappedSource(TEST_REFERENCE)) {
+            Assert.assertEquals(mapped.getNumberOfMappings(), 1);
+        }
+    }
+
+    @Test
+    public void testQueriesAcrossSeveralMappings() {
+        final Random random = new Random(17);
+        // small enough that every contig of the test reference ends up in a mapping of its own
+        try (final ReferenceDataSource expected = new ReferenceFileSource(TEST_REFERENCE);
+             final ReferenceMappedSource mapped = new ReferenceMappedSource(TEST_REFERENCE, false, 1000)) {
+            final int numContigs = expected.getSequenceDictionary().size();
+            Assert.assertEquals(mapped.getNumberOfMappings(), numContigs);
+
+            for (final SAMSequenceRecord contig : expected.getSequenceDictionary().getSequences()) {
+                final int length = contig.getSequenceLength();
+                assertSameBases(mapped, expected, new SimpleInterval(contig.getSequenceName(), 1, length));
+                for (int i = 0; i < 50; i++) {
+                    final int start = 1 + random.nextInt(length);
+                    final int end = Math.min(length, start + random.nextInt(500));
+                    assertSameBases(mapped, expected, new SimpleInterval(contig.getSequenceName(), start, end));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBaseNormalization() {
+        final Path iupacReference = IOUtils.getPath(publicTestDir + "iupacFASTA.fasta");
+        for (final boolean preserveFileBases : new boolean[]{false, true}) {
+            try (final ReferenceDataSource expected = new ReferenceFileSource(iupacReference, preserveFileBases);
+                 final ReferenceDataSource mapped = new ReferenceMappedSource(iupacReference, preserveFileBases)) {
+                for (final SAMSequenceRecord contig : expected.getSequenceDictionary().getSequences()) {
+                    assertSameBases(mapped, expected, new SimpleInterval(contig.getSequenceName(), 1, contig.getSequenceLength()));
+                }
+            }
+        }
+    }
+
+    private static void assertSameBases(final ReferenceDataSource actual, final ReferenceDataSource expected, final SimpleInterval interval) {
+        Assert.assertEquals(new String(actual.queryAndPrefetch(interval).getBases()), new String(expected.queryAndPrefetch(interval).getBases()), interval.toString());
+    }
+
+    @Test(expectedExceptions = SAMException.class)
+    public void testQueryPastEndOfContig() {
+        try (final ReferenceDataSource mapped = new ReferenceMappedSource(TEST_REFERENCE)) {
+            final SAMSequenceRecord contig = mapped.getSequenceDictionary().getSequence(0);
+            mapped.queryAndPrefetch(contig.getSequenceName(), 1, contig.getSequenceLength() + 1);
+        }
+    }
+
+    @Test(expectedExceptions = UserException.MissingContigInSequenceDictionary.class)
+    public void testQueryUnknownContig() {
+        try (final ReferenceDataSource mapped = new ReferenceMappedSource(TEST_REFERENCE)) {
+            mapped.queryAndPrefetch("nonexistent", 1, 10);
+        }
+    }
+
+    @Test(expectedExceptions = UserException.CouldNotReadInputFile.class)
+    public void testCompressedReference() {
+        new ReferenceMappedSource(IOUtils.getPath(hg19MiniReference + ".gz"));
+    }
+}
@@ -4,6 +4,7 @@ import htsjdk.samtools.SamReaderFactory;
 import htsjdk.samtools.ValidationStringency;
 import org.broadinstitute.hellbender.GATKBaseTest;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
+import org.broadinstitute.hellbender.engine.ReadWalker;
 import org.broadinstitute.hellbender.engine.ReadsDataSource;
 import org.broadinstitute.hellbender.engine.ReadsPathDataSource;
 import org.broadinstitute.hellbender.testutils.ArgumentsBuilder;
@@ -50,6 +51,26 @@ public final class PrintReadsIntegrationTest extends AbstractPrintReadsIntegrati
         Assert.assertNotNull(SamReaderFactory.makeDefault().open(outFile).getFileHeader().getProgramRecord("GATK PrintReads.1"));
     }
 
+    @Test
+    public void testReadThreadsMatchSingleThreaded() throws IOException {
+        final File inFile = new File(TEST_DATA_DIR, "print_reads.sorted.bam");
+        final File serialOut = GATKBaseTest.createTempFile("testReadThreadsSerial", ".bam");
+        final File threadedOut = GATKBaseTest.createTempFile("testReadThreadsThreaded", ".bam");
+
+        runCommandLine(new String[] {
+                "--input", inFile.getAbsolutePath(),
+                "--output", serialOut.getAbsolutePath()
+        });
+        runCommandLine(new String[] {
+                "--input", inFile.getAbsolutePath(),
+                "--output", threadedOut.getAbsolutePath(),
+                "--" + ReadWalker.READ_THREADS_LONG_NAME, "3",
+                "--" + ReadWalker.READ_BATCH_SIZE_LONG_NAME, "2"
+        });
+
+        SamAssertionUtils.assertSamsEqual(threadedOut, serialOut);
+    }
+
     @DataProvider
     public Object[][] getHttpPaths(){
         final String bam = "gs://hellbender/test/resources/benchmark/CEUTrio.HiSeq.WEx.b37.NA12892.bam";
@@ -262,6 +262,26 @@ public final class GenomicsDBImportIntegrationTest extends CommandLineProgramTes
                 new String[0], 4);
     }
 
+    @Test
+    public void testGenomicsDBImportWithSharedReadersAcrossParallelIntervals() throws IOException {
+        final String workspace = createTempDir("genomicsdb-tests-").getAbsolutePath() + "/workspace";
+        final ArgumentsBuilder args = new ArgumentsBuilder()
+                .add(GenomicsDBImport.WORKSPACE_ARG_LONG_NAME, workspace)
+                .add(GenomicsDBImport.BATCHSIZE_ARG_LONG_NAME, "1")
+                .add(GenomicsDBImport.VCF_INITIALIZER_THREADS_LONG_NAME, "2")
+                .add(GenomicsDBImport.MAX_NUM_INTERVALS_TO_IMPORT_IN_PARALLEL, "2");
+        MULTIPLE_INTERVALS_THAT_WORK_WITH_COMBINE_GVCFS.forEach(args::addInterval);
+        LOCAL_GVCFS.forEach(vcf -> args.add("V", vcf));
+        runCommandLine(args);
+
+        checkJSONFilesAreWritten(workspace);
+        for (final SimpleInterval interval : MULTIPLE_INTERVALS_THAT_WORK_WITH_COMBINE_GVCFS) {
+            final List<SimpleInterval> intervals = Collections.singletonList(interval);
+            final File expectedCombinedVCF = runCombineGVCFs(LOCAL_GVCFS, intervals, b38_reference_20_21, new String[0]);
+            checkGenomicsDBAgainstExpected(workspace, intervals, expectedCombinedVCF.getAbsolutePath(), b38_reference_20_21, true, ATTRIBUTES_TO_IGNORE);
+        }
+    }
+
     @Test
     public void testGenomicsDBImportFileInputsAgainstCombineGVCFWithMultipleNonAdjacentIntervals() throws IOException {
         testGenomicsDBAgainstCombineGVCFs(LOCAL_GVCFS, MULTIPLE_NON_ADJACENT_INTERVALS_THAT_WORK_WITH_COMBINE_GVCFS,
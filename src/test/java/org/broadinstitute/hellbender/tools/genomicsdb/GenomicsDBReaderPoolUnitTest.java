@@ -0,0 +1,198 @@
+package org.broadinstitute.hellbender.tools.genomicsdb;
+
+import htsjdk.tribble.CloseableTribbleIterator;
+import htsjdk.tribble.FeatureReader;
+import htsjdk.variant.variantcontext.VariantContext;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class GenomicsDBReaderPoolUnitTest extends GATKBaseTest {
+
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void startExecutor() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterClass
+    public void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    private static final class TestReader implements FeatureReader<VariantContext> {
+        private final URI path;
+        private boolean closed = false;
+
+        private TestReader(final URI path) {
+            this.path = path;
+        }
+
+        @Override
+        public CloseableTribbleIterator<VariantContext> query(final String chr, final int start, final int end) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CloseableTribbleIterator<VariantContext> iterator() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public synchronized void close() {
+            Assert.assertFalse(closed, "reader for " + path + " closed twice");
+            closed = true;
+        }
+
+        @Override
+        public List<String> getSequenceNames() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public Object getHeader() {
+            return path;
+        }
+
+        private synchronized boolean isClosed() {
+            return closed;
+        }
+    }
+
+    private static Map<String, URI> makeSampleMap(final String... sampleNames) {
+        final Map<String, URI> sampleNameToPath = new LinkedHashMap<>();
+        for (final String sampleName : sampleNames) {
+            sampleNameToPath.put(sampleName, URI.create("file:///" + sampleName + ".g.vcf.gz"));
+        }
+        return sampleNameToPath;
+    }
+
+    private static void closeAll(final Map<String, FeatureReader<VariantContext>> readers) throws IOException {
+        for (final FeatureReader<VariantContext> reader : readers.values()) {
+            reader.close();
+        }
+    }
+
+    private static long countClosed(final List<TestReader> readers) {
+        synchronized (readers) {
+            return readers.stream().filter(TestReader::isClosed).count();
+        }
+    }
+
+    @Test
+    public void testReadersAreSharedAcrossIntervals() throws IOException {
+        final Map<String, URI> sampleNameToPath = makeSampleMap("B", "A", "D", "C");
+        final List<TestReader> created = new ArrayList<>();
+        final GenomicsDBReaderPool pool = new GenomicsDBReaderPool(path -> {
+            final TestReader reader = new TestReader(path);
+            synchronized (created) {
+                created.add(reader);
+            }
+            return reader;
+        }, executor);
+
+        // two intervals importing the first batch at the same time need their own readers
+        final Map<String, FeatureReader<VariantContext>> first = pool.getReaders(sampleNameToPath, 2, 0);
+        final Map<String, FeatureReader<VariantContext>> second = pool.getReaders(sampleNameToPath, 2, 0);
+        Assert.assertEquals(new ArrayList<>(first.keySet()), Arrays.asList("A", "B"));
+        Assert.assertEquals(first.get("A").getHeader(), sampleNameToPath.get("A"));
+        Assert.assertEquals(second.get("B").getHeader(), sampleNameToPath.get("B"));
+        // the readers of the next batch are opened ahead of time
+        Assert.assertEquals(pool.getNumReadersOpened(), 6);
+
+        // once returned, the readers are reused by the next interval
+        closeAll(first);
+        closeAll(second);
+        Assert.assertEquals(countClosed(created), 0);
+        final Map<String, FeatureReader<VariantContext>> third = pool.getReaders(sampleNameToPath, 2, 0);
+        Assert.assertEquals(pool.getNumReadersOpened(), 6);
+        closeAll(third);
+        // closing a reader twice returns it to the pool only once
+        closeAll(third);
+
+        // the next batch uses the readers opened ahead of time, and the readers of the previous batch are closed
+        final Map<String, FeatureReader<VariantContext>> fourth = pool.getReaders(sampleNameToPath, 2, 2);
+        Assert.assertEquals(new ArrayList<>(fourth.keySet()), Arrays.asList("C", "D"));
+        Assert.assertEquals(pool.getNumReadersOpened(), 6);
+        Assert.assertEquals(countClosed(created), 4);
+        Assert.assertEquals(pool.getNumOpenReaders(), 2);
+
+        pool.close();
+        Assert.assertEquals(countClosed(created), 6);
+        Assert.assertEquals(pool.getNumOpenReaders(), 0);
+        // returning a reader to a closed pool doesn't close it again
+        closeAll(fourth);
+    }
+
+    @Test(timeOut = 10000)
+    public void testReadersNeededRightAwayAreOpenedOnTheCallingThread() throws IOException {
+        // a busy executor must not hold up the readers that an interval is waiting for
+        final ExecutorService busyExecutor = Executors.newSingleThreadExecutor();
+        final CountDownLatch release = new CountDownLatch(1);
+        busyExecutor.submit(() -> {
+            release.await();
+            return null;
+        });
+        final List<Thread> openingThreads = new ArrayList<>();
+        try (final GenomicsDBReaderPool pool = new GenomicsDBReaderPool(path -> {
+            synchronized (openingThreads) {
+                openingThreads.add(Thread.currentThread());
+            }
+            return new TestReader(path);
+        }, busyExecutor)) {
+            final Map<String, URI> sampleNameToPath = makeSampleMap("A", "B", "C", "D");
+            final Map<String, FeatureReader<VariantContext>> readers = pool.getReaders(sampleNameToPath, 2, 0);
+            Assert.assertEquals(new ArrayList<>(readers.keySet()), Arrays.asList("A", "B"));
+            synchronized (openingThreads) {
+                Assert.assertEquals(openingThreads, Arrays.asList(Thread.currentThread(), Thread.currentThread()));
+            }
+            closeAll(readers);
+        } finally {
+            release.countDown();
+            busyExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLastBatchIsSmaller() throws IOException {
+        try (final GenomicsDBReaderPool pool = new GenomicsDBReaderPool(TestReader::new, executor)) {
+            final Map<String, URI> sampleNameToPath = makeSampleMap("A", "B", "C");
+            closeAll(pool.getReaders(sampleNameToPath, 2, 0));
+            final Map<String, FeatureReader<VariantContext>> last = pool.getReaders(sampleNameToPath, 2, 2);
+            Assert.assertEquals(new ArrayList<>(last.keySet()), Collections.singletonList("C"));
+            Assert.assertEquals(pool.getNumReadersOpened(), 3);
+        }
+    }
+
+    @Test(expectedExceptions = UserException.CouldNotReadInputFile.class)
+    public void testReaderFailure() {
+        try (final GenomicsDBReaderPool pool = new GenomicsDBReaderPool(path -> {
+            throw new UserException.CouldNotReadInputFile(path.toString());
+        }, executor)) {
+            pool.getReaders(makeSampleMap("A", "B"), 1, 0);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testClosedPool() {
+        final GenomicsDBReaderPool pool = new GenomicsDBReaderPool(TestReader::new, executor);
+        pool.close();
+        pool.getReaders(makeSampleMap("A"), 1, 0);
+    }
+}
@@ -270,6 +270,43 @@ public class CombineGVCFsIntegrationTest extends CommandLineProgramTest {
 
     }
 
+    private File combineTetraploidGVCFs(final List<File> inputs, final List<String> extraArgs) {
+        final File output = createTempFile("combinegvcfs", ".vcf");
+        final ArgumentsBuilder args = new ArgumentsBuilder();
+        args.addReference(new File(b37_reference_20_21))
+                .addOutput(output);
+        inputs.forEach(args::addVCF);
+        args.add("intervals", getToolTestDataDir() + "tetraploid-gvcfs.interval_list");
+        extraArgs.forEach(args::addRaw);
+        runCommandLine(args);
+        return output;
+    }
+
+    @DataProvider
+    public Object[][] incrementalCombineArgs() {
+        return new Object[][]{
+                {NO_EXTRA_ARGS},
+                {Arrays.asList("--" + CombineGVCFs.BREAK_BANDS_LONG_NAME, "100")}
+        };
+    }
+
+    // adding a sample to a combined GVCF should give the same result as combining all of the samples at once
+    @Test(dataProvider = "incrementalCombineArgs")
+    public void testAddToCombinedGvcf(final List<String> extraArgs) throws IOException {
+        final File combined = combineTetraploidGVCFs(Arrays.asList(getTestFile("tetraploid-gvcf-1.vcf"), getTestFile("tetraploid-gvcf-2.vcf")), extraArgs);
+        final File output = combineTetraploidGVCFs(Arrays.asList(combined, getTestFile("tetraploid-gvcf-3.vcf")), extraArgs);
+        final File expected = combineTetraploidGVCFs(Arrays.asList(getTestFile("tetraploid-gvcf-1.vcf"),
+                getTestFile("tetraploid-gvcf-2.vcf"), getTestFile("tetraploid-gvcf-3.vcf")), extraArgs);
+
+        final List<VariantContext> expectedVC = getVariantContexts(expected);
+        final List<VariantContext> actualVC = getVariantContexts(output);
+        final VCFHeader header = getHeaderFromFile(output);
+        // rank sum tests of a combined input are merged as one value, so they may not match those computed from all of the samples
+        final List<String> attributesToIgnore = Arrays.asList(GATKVCFConstants.BASE_QUAL_RANK_SUM_KEY, GATKVCFConstants.CLIPPING_RANK_SUM_KEY,
+                GATKVCFConstants.MAP_QUAL_RANK_SUM_KEY, GATKVCFConstants.READ_POS_RANK_SUM_KEY);
+        assertForEachElementInLists(actualVC, expectedVC, (a, e) -> VariantContextTestUtils.assertVariantContextsAreEqualAlleleOrderIndependent(a, e, attributesToIgnore, Collections.emptyList(), header));
+    }
+
     @Test
     public void testTwoSpansManyBlocksInOne() throws Exception {
         final File output = createTempFile("combinegvcfs", ".vcf");
@@ -1,5 +1,8 @@
 package org.broadinstitute.hellbender.tools.walkers;
 
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
@@ -55,4 +58,46 @@ public class CombineGVCFsUnitTest {
         Assert.assertEquals(actualStopSites, expectedCloseSites);
     }
 
+    private static VariantContext makeVC(final int start, final int end, final Allele... alts) {
+        final List<Allele> alleles = new ArrayList<>();
+        alleles.add(Allele.create("A", true));
+        alleles.addAll(Arrays.asList(alts));
+        alleles.add(Allele.NON_REF_ALLELE);
+        return new VariantContextBuilder("test", "contig", start, end, alleles).make();
+    }
+
+    @DataProvider(name="stopSitesOfVariantContexts")
+    public Object[][] getStopSitesOfVariantContextsData() {
+        final Allele alt = Allele.create("C");
+        return new Object[][] {
+                // ends of reference blocks, only within the interval
+                { new SimpleInterval("contig", 10, 30), 0, Arrays.asList(makeVC(1, 12), makeVC(5, 20), makeVC(20, 40), makeVC(1, 20)), Arrays.asList(12, 20) },
+                // every position of a variant within the interval, even if a reference block spans it
+                { new SimpleInterval("contig", 10, 30), 0, Arrays.asList(makeVC(1, 40), makeVC(8, 11, alt), makeVC(15, 15, alt), makeVC(29, 35, alt)),
+                        Arrays.asList(10, 11, 15, 29, 30) },
+                // a long variant starting before a short one
+                { new SimpleInterval("contig", 1, 10), 0, Arrays.asList(makeVC(2, 4, alt), makeVC(3, 3, alt), makeVC(8, 9)), Arrays.asList(2, 3, 4, 9) },
+                // band stop sites combined with the others
+                { new SimpleInterval("contig", 10, 30), 10, Arrays.asList(makeVC(1, 40), makeVC(12, 12, alt), makeVC(1, 19)), Arrays.asList(12, 19, 29) },
+                { new SimpleInterval("contig", 1, 5), 1, Collections.singletonList(makeVC(1, 5)), Arrays.asList(1, 2, 3, 4, 5) },
+                { new SimpleInterval("contig", 10, 30), 0, Collections.emptyList(), Collections.emptyList() }
+        };
+    }
+
+    @Test(dataProvider = "stopSitesOfVariantContexts")
+    public void testIntermediateStopSites(
+            final SimpleInterval intervalToClose,
+            final int breakBandMultiple,
+            final List<VariantContext> variantContexts,
+            final List<Integer> expectedStopSites)
+    {
+        final CombineGVCFs.IntermediateStopSites stopSites = new CombineGVCFs.IntermediateStopSites(intervalToClose, breakBandMultiple, variantContexts);
+        final List<Integer> actualStopSites = new ArrayList<>();
+        for (int stopSite = stopSites.next(); stopSite != CombineGVCFs.IntermediateStopSites.NO_MORE_STOP_SITES; stopSite = stopSites.next()) {
+            actualStopSites.add(stopSite);
+        }
+        Assert.assertEquals(actualStopSites, expectedStopSites);
+        Assert.assertEquals(stopSites.next(), CombineGVCFs.IntermediateStopSites.NO_MORE_STOP_SITES);
+    }
+
 }
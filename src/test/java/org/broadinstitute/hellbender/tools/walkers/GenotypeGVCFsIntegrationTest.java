@@ -13,6 +13,7 @@ import org.apache.commons.codec.digest.DigestUtils;
 import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
+import org.broadinstitute.hellbender.engine.VariantLocusWalker;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.testutils.ArgumentsBuilder;
 import org.broadinstitute.hellbender.testutils.GenomicsDBTestUtils;
@@ -322,6 +323,46 @@ public class GenotypeGVCFsIntegrationTest extends CommandLineProgramTest {
         assertVariantContextsMatch(input, expected, extraArgs, reference);
     }
 
+    @DataProvider
+    public Object[][] gvcfsToGenotypeMultithreaded() {
+        return new Object[][]{
+                {getTestFile(BASE_PAIR_GVCF), getTestFile(BASE_PAIR_EXPECTED), NO_EXTRA_ARGS},
+                // by-locus traversal
+                {getTestFile(BASE_PAIR_GVCF), getTestFile("expected/gvcf.basepairResolution.includeNonVariantSites.vcf"), Collections.singletonList("--" + GenotypeGVCFs.ALL_SITES_LONG_NAME)},
+                // dbsnp is queried through the per-thread feature sources
+                {CEUTRIO_20_21_GATK3_4_G_VCF, getTestFile(CEUTRIO_20_21_EXPECTED_VCF), Arrays.asList("--dbsnp", largeFileTestDir + "dbsnp_138.b37.20.21.vcf")}
+        };
+    }
+
+    @Test(dataProvider = "gvcfsToGenotypeMultithreaded")
+    public void testMultithreadedGenotyping(File input, File expected, List<String> extraArgs) throws IOException {
+        final List<String> args = new ArrayList<>(extraArgs);
+        args.add("--" + VariantLocusWalker.SITE_THREADS_LONG_NAME + " 3");
+        args.add("--" + VariantLocusWalker.SITE_BATCH_SIZE_LONG_NAME + " 7");
+        assertVariantContextsMatch(input, expected, args, b37_reference_20_21);
+    }
+
+    @DataProvider
+    public Object[][] spanningDeletionGvcfsToGenotypeMultithreaded() {
+        return new Object[][]{
+                {getTestFile("spanningDel.combined.g.vcf"), getTestFile("spanningDel.combined.gatk3.7_30_ga4f720357.expected.vcf")},
+                {getTestFile("spanningDel.delOnly.g.vcf"), getTestFile("spanningDel.delOnly.gatk3.7_30_ga4f720357.expected.vcf")},
+                {getTestFile("spanningDel.depr.delOnly.g.vcf"), getTestFile("spanningDel.depr.delOnly.gatk3.7_30_ga4f720357.expected.vcf")}
+        };
+    }
+
+    /*
+     * With one site per batch, every deletion would end its batch right before the sites with the spanning deletion
+     * alleles it covers, so those sites must be kept in the deletion's batch for their spanning deletions to be kept
+     */
+    @Test(dataProvider = "spanningDeletionGvcfsToGenotypeMultithreaded")
+    public void testMultithreadedGenotypingKeepsSpanningDeletionsAcrossBatches(File input, File expected) throws IOException {
+        final List<String> args = Arrays.asList(
+                "--" + VariantLocusWalker.SITE_THREADS_LONG_NAME + " 2",
+                "--" + VariantLocusWalker.SITE_BATCH_SIZE_LONG_NAME + " 1");
+        assertVariantContextsMatch(input, expected, args, b37_reference_20_21);
+    }
+
     private void assertVariantContextsMatch(File input, File expected, List<String> extraArgs, String reference) throws IOException {
         try {
             final VCFHeader header = VCFHeaderReader.readHeaderFrom(new SeekablePathStream(IOUtils.getPath(expected.getAbsolutePath())));
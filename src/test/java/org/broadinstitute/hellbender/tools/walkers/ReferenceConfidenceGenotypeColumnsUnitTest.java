@@ -0,0 +1,89 @@
+package org.broadinstitute.hellbender.tools.walkers;
+
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.GenotypeBuilder;
+import htsjdk.variant.variantcontext.GenotypesContext;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.tools.walkers.genotyper.AlleleSubsettingUtils;
+import org.broadinstitute.hellbender.utils.variant.GATKVariantContextUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+
+public final class ReferenceConfidenceGenotypeColumnsUnitTest extends GATKBaseTest {
+
+    private static final Allele REF = Allele.create("A", true);
+    private static final Allele ALT = Allele.create("C", false);
+
+    // input alleles A, C, <NON_REF> -> merged alleles A, G, C, <NON_REF>, where G maps to <NON_REF>
+    private static final int[] ALLELE_INDEX_MAP = {0, 2, 1, 2};
+    // diploid genotypes in the merged order AA, AG, GG, AC, GC, CC, AN, GN, CN, NN, as indices of input genotypes AA, AC, CC, AN, CN, NN
+    private static final int[] GENOTYPE_INDEX_MAP = {0, 3, 5, 1, 4, 2, 3, 5, 4, 5};
+
+    @Test
+    public void testRemapping() {
+        final Genotype remapped = new GenotypeBuilder("remapped", Arrays.asList(REF, ALT))
+                .PL(new int[]{10, 0, 20, 30, 40, 50}).AD(new int[]{3, 4, 1}).DP(8).GQ(10).attribute("XX", "yy").make();
+        final Genotype noAD = new GenotypeBuilder("noAD", Arrays.asList(REF, REF)).PL(new int[]{0, 6, 60, 9, 70, 90}).make();
+        final Genotype noPL = new GenotypeBuilder("noPL", Arrays.asList(REF, REF)).AD(new int[]{5, 0}).DP(5).make();
+
+        // start with too small a capacity, so that the columns have to grow
+        final ReferenceConfidenceGenotypeColumns columns = new ReferenceConfidenceGenotypeColumns(ALLELE_INDEX_MAP.length, 1);
+        columns.add(remapped, "remapped.1", GENOTYPE_INDEX_MAP, ALLELE_INDEX_MAP);
+        columns.add(noAD, "noAD", GENOTYPE_INDEX_MAP, ALLELE_INDEX_MAP);
+        columns.add(noPL, "noPL", null, null);
+        Assert.assertEquals(columns.size(), 3);
+
+        Assert.assertEquals(columns.getPL(0), new int[]{10, 30, 50, 0, 40, 20, 30, 50, 40, 50});
+        Assert.assertEquals(columns.getAD(0), AlleleSubsettingUtils.generateAD(remapped.getAD(), ALLELE_INDEX_MAP));
+        Assert.assertEquals(columns.getPloidy(0), 2);
+        Assert.assertNull(columns.getAD(1));
+        Assert.assertEquals(columns.getPL(2), null);
+        Assert.assertEquals(columns.getAD(2), noPL.getAD());
+
+        final GenotypesContext genotypes = columns.toGenotypesContext();
+        Assert.assertEquals(genotypes.size(), 3);
+
+        final Genotype merged = genotypes.get(0);
+        Assert.assertEquals(merged.getSampleName(), "remapped.1");
+        Assert.assertEquals(merged.getAlleles(), GATKVariantContextUtils.noCallAlleles(2));
+        Assert.assertEquals(merged.getPL(), columns.getPL(0));
+        Assert.assertEquals(merged.getAD(), columns.getAD(0));
+        Assert.assertEquals(merged.getDP(), 8);
+        Assert.assertEquals(merged.getGQ(), 10);
+        Assert.assertEquals(merged.getExtendedAttribute("XX"), "yy");
+
+        Assert.assertFalse(genotypes.get(1).hasAD());
+        Assert.assertEquals(genotypes.get(1).getPL(), columns.getPL(1));
+
+        // genotypes without PLs keep their ADs
+        Assert.assertFalse(genotypes.get(2).hasPL());
+        Assert.assertEquals(genotypes.get(2).getAD(), new int[]{5, 0});
+        Assert.assertEquals(genotypes.get(2).getDP(), 5);
+    }
+
+    @Test
+    public void testMixedPloidy() {
+        final int[] haploidGenotypeIndexMap = {0, 2, 1, 2};
+        final Genotype haploid = new GenotypeBuilder("haploid", Arrays.asList(ALT)).PL(new int[]{30, 0, 50}).make();
+        final Genotype diploid = new GenotypeBuilder("diploid", Arrays.asList(REF, ALT)).PL(new int[]{10, 0, 20, 30, 40, 50}).make();
+
+        final ReferenceConfidenceGenotypeColumns columns = new ReferenceConfidenceGenotypeColumns(ALLELE_INDEX_MAP.length, 2);
+        columns.add(haploid, "haploid", haploidGenotypeIndexMap, ALLELE_INDEX_MAP);
+        columns.add(diploid, "diploid", GENOTYPE_INDEX_MAP, ALLELE_INDEX_MAP);
+
+        final GenotypesContext genotypes = columns.toGenotypesContext();
+        Assert.assertEquals(genotypes.get(0).getPloidy(), 1);
+        Assert.assertEquals(genotypes.get(0).getPL(), new int[]{30, 50, 0, 50});
+        Assert.assertEquals(genotypes.get(1).getPloidy(), 2);
+        Assert.assertEquals(genotypes.get(1).getPL().length, GENOTYPE_INDEX_MAP.length);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testWrongAlleleIndexMapLength() {
+        final Genotype genotype = new GenotypeBuilder("sample", Arrays.asList(REF, ALT)).PL(new int[]{10, 0, 20, 30, 40, 50}).make();
+        new ReferenceConfidenceGenotypeColumns(3, 1).add(genotype, "sample", GENOTYPE_INDEX_MAP, ALLELE_INDEX_MAP);
+    }
+}
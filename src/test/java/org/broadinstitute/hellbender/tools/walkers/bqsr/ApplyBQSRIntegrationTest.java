@@ -9,6 +9,7 @@ import org.apache.commons.lang.StringUtils;
 import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
+import org.broadinstitute.hellbender.engine.ReadWalker;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.GATKBaseTest;
 import org.broadinstitute.hellbender.utils.gcs.BucketUtils;
@@ -178,6 +179,20 @@ public final class ApplyBQSRIntegrationTest extends CommandLineProgramTest {
         SamAssertionUtils.assertSamsEqual(outPath, new File(params.expectedFile).toPath(), refPath);
     }
 
+    @Test
+    public void testApplyBQSRMultithreaded() throws IOException {
+        final File outFile = GATKBaseTest.createTempFile("applyBQSRMultithreadedTest", ".bam");
+        final List<String> args = Arrays.asList(
+                "-I", new File(hiSeqBam).getAbsolutePath(),
+                "--" + StandardArgumentDefinitions.BQSR_TABLE_LONG_NAME, new File(resourceDir + "HiSeq.20mb.1RG.table.gz").getAbsolutePath(),
+                "-O", outFile.getAbsolutePath(),
+                "--" + ReadWalker.READ_THREADS_LONG_NAME, "3",
+                "--" + ReadWalker.READ_BATCH_SIZE_LONG_NAME, "100");
+        runCommandLine(args);
+
+        SamAssertionUtils.assertSamsEqual(outFile, new File(resourceDir + "expected.HiSeq.1mb.1RG.2k_lines.alternate.recalibrated.DIQ.bam"));
+    }
+
     @Test
     public void testMissingReadGroup() throws IOException {
         IntegrationTestSpec spec = new IntegrationTestSpec(
@@ -106,6 +106,19 @@ public final class BaseRecalibratorIntegrationTest extends CommandLineProgramTes
         spec.executeTest("testBQSR-" + params.args, this);
     }
 
+    @Test
+    public void testBQSRWithMultipleThreads() throws IOException {
+        final BQSRTest params = new BQSRTest(publicTestDir + "human_g1k_v37.chr17_1Mb.fasta",
+                getResourceDir() + "NA12878.chr17_69k_70k.dictFix.bam",
+                getResourceDir() + "dbsnp_132.b37.excluding_sites_after_129.chr17_69k_70k.vcf",
+                "-indels --enable-baq --" + BaseRecalibrator.RECALIBRATION_THREADS_LONG_NAME + " 3",
+                getResourceDir() + "expected.NA12878.chr17_69k_70k.txt");
+        IntegrationTestSpec spec = new IntegrationTestSpec(
+                params.getCommandLine(),
+                Arrays.asList(params.expectedFileName));
+        spec.executeTest("testBQSRWithMultipleThreads", this);
+    }
+
     @Test(description = "This is to test https://github.com/broadinstitute/hellbender/issues/322")
     public void testPlottingWorkflow() throws IOException {
         final String resourceDir = getTestDataDir() + "/" + "BQSR" + "/";
@@ -122,6 +122,25 @@ public final class GenotypeLikelihoodCalculatorUnitTest {
         }
     }
 
+    @Test(dataProvider = "ploidyAndMaximumAlleleData", dependsOnMethods = "testPloidyAndMaximumAllele")
+    public void testForEachGenotype(final int ploidy, final int alleleCount) {
+        final GenotypeLikelihoodCalculator calculator = new GenotypeLikelihoodCalculators().getInstance(ploidy, alleleCount);
+        final int[] visited = { 0 };
+        calculator.forEachGenotype((alleleCounts, index) -> {
+            Assert.assertEquals(index, visited[0]++);
+            final GenotypeAlleleCounts expected = calculator.genotypeAlleleCountsAt(index);
+            Assert.assertEquals(alleleCounts.index(), index);
+            Assert.assertEquals(alleleCounts.ploidy(), ploidy);
+            Assert.assertEquals(alleleCounts.distinctAlleleCount(), expected.distinctAlleleCount());
+            for (int j = 0; j < expected.distinctAlleleCount(); j++) {
+                Assert.assertEquals(alleleCounts.alleleIndexAt(j), expected.alleleIndexAt(j));
+                Assert.assertEquals(alleleCounts.alleleCountAt(j), expected.alleleCountAt(j));
+            }
+            Assert.assertEquals(alleleCounts.log10CombinationCount(), expected.log10CombinationCount(), 1e-10);
+        });
+        Assert.assertEquals(visited[0], calculator.genotypeCount());
+    }
+
 
     // Simple inefficient calculation of the genotype count given the ploidy.
     private int calculateGenotypeCount(final int ploidy, final int alleleCount) {
@@ -12,9 +12,11 @@ import htsjdk.variant.vcf.VCFConstants;
 import htsjdk.variant.vcf.VCFHeader;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.hellbender.CommandLineProgramTest;
 import org.broadinstitute.hellbender.cmdline.StandardArgumentDefinitions;
 import org.broadinstitute.hellbender.cmdline.argumentcollections.IntervalArgumentCollection;
+import org.broadinstitute.hellbender.engine.AssemblyRegionWalker;
 import org.broadinstitute.hellbender.engine.FeatureDataSource;
 import org.broadinstitute.hellbender.engine.ReadsDataSource;
 import org.broadinstitute.hellbender.engine.ReadsPathDataSource;
@@ -335,6 +337,89 @@ public class HaplotypeCallerIntegrationTest extends CommandLineProgramTest {
     }
 
 
+    /*
+     * Test that processing assembly regions on several threads produces exactly the same GVCF as a single-threaded run
+     */
+    @Test(dataProvider="HaplotypeCallerTestInputs")
+    public void testGVCFModeWithRegionThreadsIsConsistentWithPastResults(final String inputFileName, final String referenceFileName) throws Exception {
+        Utils.resetRandomGenerator();
+
+        final File output = createTempFile("testGVCFModeWithRegionThreadsIsConsistentWithPastResults", ".g.vcf");
+        final File expected = new File(TEST_FILES_DIR, "expected.testGVCFMode.gatk4.g.vcf");
+
+        final String[] args = {
+                "-I", inputFileName,
+                "-R", referenceFileName,
+                "-L", "20:10000000-10100000",
+                "-O", output.getAbsolutePath(),
+                "--" + AssemblyBasedCallerArgumentCollection.EMIT_REF_CONFIDENCE_LONG_NAME, ReferenceConfidenceMode.GVCF.toString(),
+                "-pairHMM", "AVX_LOGLESS_CACHING",
+                "--" + AssemblyRegionWalker.REGION_THREADS_LONG_NAME, "4",
+                "--" + StandardArgumentDefinitions.ADD_OUTPUT_VCF_COMMANDLINE, "false"
+        };
+
+        runCommandLine(args);
+
+        IntegrationTestSpec.assertEqualTextFiles(output, expected);
+    }
+
+    /*
+     * Test that a run that fills the region result cache and a run that reuses it both produce exactly the same GVCF as
+     * a run without the cache, and that the second run actually reuses the cached results
+     */
+    @Test(dataProvider="HaplotypeCallerTestInputs")
+    public void testGVCFModeWithRegionResultCacheIsConsistentWithPastResults(final String inputFileName, final String referenceFileName) throws Exception {
+        final File expected = new File(TEST_FILES_DIR, "expected.testGVCFMode.gatk4.g.vcf");
+        final File cacheDirectory = createTempDir("testGVCFModeWithRegionResultCacheIsConsistentWithPastResults");
+
+        for (final String run : Arrays.asList("fill", "reuse")) {
+            Utils.resetRandomGenerator();
+            final File output = createTempFile("testGVCFModeWithRegionResultCacheIsConsistentWithPastResults." + run, ".g.vcf");
+
+            final String[] args = {
+                    "-I", inputFileName,
+                    "-R", referenceFileName,
+                    "-L", "20:10000000-10100000",
+                    "-O", output.getAbsolutePath(),
+                    "--" + AssemblyBasedCallerArgumentCollection.EMIT_REF_CONFIDENCE_LONG_NAME, ReferenceConfidenceMode.GVCF.toString(),
+                    "-pairHMM", "AVX_LOGLESS_CACHING",
+                    "--" + AssemblyBasedCallerArgumentCollection.REGION_RESULT_CACHE_LONG_NAME, cacheDirectory.getAbsolutePath(),
+                    "--" + StandardArgumentDefinitions.ADD_OUTPUT_VCF_COMMANDLINE, "false"
+            };
+
+            final HaplotypeCaller haplotypeCaller = new HaplotypeCaller();
+            haplotypeCaller.instanceMain(args);
+
+            IntegrationTestSpec.assertEqualTextFiles(output, expected);
+
+            final RegionResultCache resultCache = ((HaplotypeCallerEngine) haplotypeCaller.assemblyRegionEvaluator()).getRegionResultCache();
+            Assert.assertNotNull(resultCache);
+            Assert.assertTrue(resultCache.getAssemblyLookups() > 0, "no assemblies were looked up in the cache");
+            Assert.assertTrue(resultCache.getLikelihoodLookups() > 0, "no likelihoods were looked up in the cache");
+            if ( run.equals("fill") ) {
+                Assert.assertEquals(resultCache.getAssemblyHits(), 0, "an empty cache should have no assembly hits");
+                Assert.assertEquals(resultCache.getLikelihoodHits(), 0, "an empty cache should have no likelihood hits");
+            } else {
+                Assert.assertTrue(resultCache.getAssemblyHits() > 0, "no assemblies were reused from the cache");
+                Assert.assertTrue(resultCache.getLikelihoodHits() > 0, "no likelihoods were reused from the cache");
+            }
+        }
+    }
+
+    @Test(expectedExceptions = CommandLineException.class)
+    public void testRegionThreadsWithBamOutIsRejected() {
+        final String[] args = {
+                "-I", NA12878_20_21_WGS_bam,
+                "-R", b37_reference_20_21,
+                "-L", "20:10000000-10010000",
+                "-O", createTempFile("testRegionThreadsWithBamOutIsRejected", ".vcf").getAbsolutePath(),
+                "-" + AssemblyBasedCallerArgumentCollection.BAM_OUTPUT_SHORT_NAME, createTempFile("testRegionThreadsWithBamOutIsRejected", ".bam").getAbsolutePath(),
+                "--" + AssemblyRegionWalker.REGION_THREADS_LONG_NAME, "2"
+        };
+
+        runCommandLine(args);
+    }
+
     /*
      * Minimal test that the non-seq graph haplotype detection code is equivalent using either seq graphs or kmer graphs
      *
@@ -0,0 +1,156 @@
+package org.broadinstitute.hellbender.tools.walkers.haplotypecaller;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.TextCigarCodec;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.engine.AssemblyRegion;
+import org.broadinstitute.hellbender.engine.GATKPath;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.genotyper.AlleleLikelihoods;
+import org.broadinstitute.hellbender.utils.genotyper.IndexedAlleleList;
+import org.broadinstitute.hellbender.utils.genotyper.IndexedSampleList;
+import org.broadinstitute.hellbender.utils.genotyper.LikelihoodMatrix;
+import org.broadinstitute.hellbender.utils.genotyper.SampleList;
+import org.broadinstitute.hellbender.utils.haplotype.Haplotype;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public final class RegionResultCacheUnitTest extends GATKBaseTest {
+
+    private static final SAMFileHeader HEADER = ArtificialReadUtils.createArtificialSamHeader(1, 1, 1000);
+    private static final SimpleInterval SPAN = new SimpleInterval("1", 101, 200);
+    private static final SimpleInterval PADDED_SPAN = new SimpleInterval("1", 51, 250);
+    private static final byte[] REFERENCE = Utils.dupBytes((byte) 'A', PADDED_SPAN.size());
+
+    private static RegionResultCache makeCache(final File directory, final HaplotypeCallerArgumentCollection args) {
+        return new RegionResultCache(new GATKPath(directory.getAbsolutePath()), args);
+    }
+
+    private static AssemblyRegion makeRegion(final byte firstBase) {
+        final AssemblyRegion region = new AssemblyRegion(SPAN, PADDED_SPAN, true, HEADER);
+        for (int i = 0; i < 3; i++) {
+            final byte[] bases = Utils.dupBytes((byte) 'A', 50);
+            bases[0] = firstBase;
+            region.add(ArtificialReadUtils.createArtificialRead(HEADER, "read" + i, "1", 101 + i, bases, Utils.dupBytes((byte) 30, 50), "50M"));
+        }
+        return region;
+    }
+
+    private static Haplotype makeHaplotype(final String bases, final boolean isRef, final String cigar) {
+        final Haplotype haplotype = new Haplotype(bases.getBytes(), isRef, 3, TextCigarCodec.decode(cigar));
+        haplotype.setGenomeLocation(PADDED_SPAN);
+        haplotype.setScore(isRef ? Double.MAX_VALUE : -1.5);
+        haplotype.setKmerSize(25);
+        return haplotype;
+    }
+
+    @Test
+    public void testAssemblyKey() {
+        final File directory = createTempDir("testAssemblyKey");
+        final HaplotypeCallerArgumentCollection args = new HaplotypeCallerArgumentCollection();
+        final String key = makeCache(directory, args).getAssemblyKey(makeRegion((byte) 'A'), REFERENCE, PADDED_SPAN);
+
+        Assert.assertEquals(makeCache(directory, args).getAssemblyKey(makeRegion((byte) 'A'), REFERENCE, PADDED_SPAN), key);
+        Assert.assertNotEquals(makeCache(directory, args).getAssemblyKey(makeRegion((byte) 'C'), REFERENCE, PADDED_SPAN), key);
+        Assert.assertNotEquals(makeCache(directory, args).getAssemblyKey(makeRegion((byte) 'A'), Utils.dupBytes((byte) 'C', REFERENCE.length), PADDED_SPAN), key);
+
+        args.assemblerArgs.kmerSizes = Arrays.asList(15, 35);
+        Assert.assertNotEquals(makeCache(directory, args).getAssemblyKey(makeRegion((byte) 'A'), REFERENCE, PADDED_SPAN), key);
+    }
+
+    @Test
+    public void testHaplotypesRoundTrip() {
+        final File directory = createTempDir("testHaplotypesRoundTrip");
+        final RegionResultCache cache = makeCache(directory, new HaplotypeCallerArgumentCollection());
+        final String key = cache.getAssemblyKey(makeRegion((byte) 'A'), REFERENCE, PADDED_SPAN);
+        Assert.assertFalse(cache.getHaplotypes(key).isPresent());
+
+        final List<Haplotype> haplotypes = Arrays.asList(makeHaplotype("ACGTACGT", true, "8M"),
+                makeHaplotype("ACGTTACGT", false, "4M1I4M"), makeHaplotype("ACGACGT", false, "3M1D4M"));
+        cache.putHaplotypes(key, haplotypes);
+
+        final List<Haplotype> cached = makeCache(directory, new HaplotypeCallerArgumentCollection()).getHaplotypes(key).get();
+        Assert.assertEquals(cached, haplotypes);
+        for (int i = 0; i < haplotypes.size(); i++) {
+            Assert.assertEquals(cached.get(i).isReference(), haplotypes.get(i).isReference());
+            Assert.assertEquals(cached.get(i).getCigar(), haplotypes.get(i).getCigar());
+            Assert.assertEquals(cached.get(i).getAlignmentStartHapwrtRef(), haplotypes.get(i).getAlignmentStartHapwrtRef());
+            Assert.assertEquals(cached.get(i).getGenomeLocation(), haplotypes.get(i).getGenomeLocation());
+            Assert.assertEquals(cached.get(i).getScore(), haplotypes.get(i).getScore());
+            Assert.assertEquals(cached.get(i).getKmerSize(), haplotypes.get(i).getKmerSize());
+        }
+    }
+
+    @Test
+    public void testLikelihoodsRoundTrip() {
+        final File directory = createTempDir("testLikelihoodsRoundTrip");
+        final RegionResultCache cache = makeCache(directory, new HaplotypeCallerArgumentCollection());
+
+        final List<Haplotype> haplotypes = Arrays.asList(makeHaplotype("ACGTACGT", true, "8M"), makeHaplotype("ACGTTACGT", false, "4M1I4M"));
+        final SampleList samples = new IndexedSampleList("sample1", "sample2");
+        final Map<String, List<GATKRead>> perSampleReadList = new LinkedHashMap<>();
+        perSampleReadList.put("sample1", makeRegion((byte) 'A').getReads());
+        perSampleReadList.put("sample2", makeRegion((byte) 'C').getReads());
+
+        final String key = cache.getLikelihoodsKey(haplotypes, samples, perSampleReadList);
+        Assert.assertFalse(cache.getLikelihoods(key, haplotypes, samples, perSampleReadList).isPresent());
+
+        // fill in some likelihoods, and filter out the middle read of the first sample as the engine would
+        final AlleleLikelihoods<GATKRead, Haplotype> likelihoods = new AlleleLikelihoods<>(samples, new IndexedAlleleList<>(haplotypes), perSampleReadList);
+        for (int s = 0; s < samples.numberOfSamples(); s++) {
+            final LikelihoodMatrix<GATKRead, Haplotype> matrix = likelihoods.sampleMatrix(s);
+            for (int a = 0; a < matrix.numberOfAlleles(); a++) {
+                for (int r = 0; r < matrix.evidenceCount(); r++) {
+                    matrix.set(a, r, s == 0 && r == 1 ? -100.0 : -(s + a + r * 0.5));
+                }
+            }
+        }
+        likelihoods.filterPoorlyModeledEvidence(read -> -10.0);
+        cache.putLikelihoods(key, likelihoods, perSampleReadList);
+
+        final AlleleLikelihoods<GATKRead, Haplotype> cached = makeCache(directory, new HaplotypeCallerArgumentCollection())
+                .getLikelihoods(key, haplotypes, samples, perSampleReadList).get();
+        Assert.assertEquals(cached.alleles(), likelihoods.alleles());
+        for (int s = 0; s < samples.numberOfSamples(); s++) {
+            Assert.assertEquals(cached.sampleEvidence(s), likelihoods.sampleEvidence(s));
+            Assert.assertEquals(cached.filteredSampleEvidence(s), likelihoods.filteredSampleEvidence(s));
+            for (int a = 0; a < likelihoods.numberOfAlleles(); a++) {
+                for (int r = 0; r < likelihoods.sampleEvidenceCount(s); r++) {
+                    Assert.assertEquals(cached.sampleMatrix(s).get(a, r), likelihoods.sampleMatrix(s).get(a, r));
+                }
+            }
+        }
+        Assert.assertEquals(cached.sampleEvidenceCount(0), 2);
+
+        // different haplotypes or reads give a different key
+        Assert.assertNotEquals(cache.getLikelihoodsKey(haplotypes.subList(0, 1), samples, perSampleReadList), key);
+        perSampleReadList.put("sample2", makeRegion((byte) 'G').getReads());
+        Assert.assertNotEquals(cache.getLikelihoodsKey(haplotypes, samples, perSampleReadList), key);
+    }
+
+    @Test
+    public void testUnreadableEntryIsIgnored() throws IOException {
+        final File directory = createTempDir("testUnreadableEntryIsIgnored");
+        final RegionResultCache cache = makeCache(directory, new HaplotypeCallerArgumentCollection());
+        final String key = cache.getAssemblyKey(makeRegion((byte) 'A'), REFERENCE, PADDED_SPAN);
+        cache.putHaplotypes(key, Collections.singletonList(makeHaplotype("ACGTACGT", true, "8M")));
+
+        // truncate the entry, as if the disk filled up while it was written
+        final List<Path> entries = Files.walk(directory.toPath()).filter(Files::isRegularFile).collect(Collectors.toList());
+        Assert.assertEquals(entries.size(), 1);
+        final byte[] contents = Files.readAllBytes(entries.get(0));
+        Files.write(entries.get(0), Arrays.copyOf(contents, contents.length / 2));
+
+        Assert.assertFalse(cache.getHaplotypes(key).isPresent());
+    }
+}
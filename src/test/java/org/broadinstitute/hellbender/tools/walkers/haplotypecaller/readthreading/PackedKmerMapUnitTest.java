@@ -0,0 +1,93 @@
+package org.broadinstitute.hellbender.tools.walkers.haplotypecaller.readthreading;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.Kmer;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.*;
+
+public final class PackedKmerMapUnitTest extends GATKBaseTest {
+
+    @DataProvider(name = "kmerSizes")
+    public Object[][] kmerSizes() {
+        // sizes below, at and above the number of bases packed into a word
+        return new Object[][] {{1}, {3}, {10}, {25}, {31}, {32}, {33}, {64}, {65}, {85}};
+    }
+
+    @Test(dataProvider = "kmerSizes")
+    public void testMatchesHashMapOfKmers(final int kmerSize) {
+        final Random random = new Random(kmerSize);
+        // mostly ACGT, with the occasional base that can't be packed
+        final byte[] alphabet = "ACGTACGTACGTACGTNa".getBytes();
+        final byte[] sequence = new byte[400];
+        for (int i = 0; i < sequence.length; i++) {
+            sequence[i] = alphabet[random.nextInt(kmerSize < 5 ? 4 : alphabet.length)];
+        }
+
+        final PackedKmerMap<Integer> map = new PackedKmerMap<>(kmerSize);
+        final Map<Kmer, Integer> expected = new HashMap<>();
+        for (int op = 0; op < 20000; op++) {
+            final int start = random.nextInt(Math.min(sequence.length - kmerSize + 1, 200));
+            final Kmer kmer = new Kmer(Arrays.copyOfRange(sequence, start, start + kmerSize));
+            switch (random.nextInt(4)) {
+                case 0:
+                    Assert.assertEquals(map.put(sequence, start, op), expected.put(kmer, op));
+                    break;
+                case 1:
+                    Assert.assertEquals(map.putIfAbsent(sequence, start, op), expected.putIfAbsent(kmer, op));
+                    break;
+                case 2:
+                    Assert.assertEquals(map.remove(sequence, start), expected.remove(kmer));
+                    break;
+                default:
+                    Assert.assertEquals(map.get(sequence, start), expected.get(kmer));
+                    Assert.assertEquals(map.containsKey(sequence, start), expected.containsKey(kmer));
+            }
+            Assert.assertEquals(map.size(), expected.size());
+        }
+
+        final List<Kmer> kmers = map.kmers();
+        final List<Integer> values = map.values();
+        Assert.assertEquals(new HashSet<>(kmers), expected.keySet());
+        for (int i = 0; i < kmers.size(); i++) {
+            Assert.assertEquals(values.get(i), expected.get(kmers.get(i)));
+        }
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertTrue(map.kmers().isEmpty());
+    }
+
+    @Test
+    public void testKeysAreCopied() {
+        final byte[] sequence = "ACGTNACGTA".getBytes();
+        final PackedKmerMap<String> map = new PackedKmerMap<>(4);
+        map.put(sequence, 0, "packed");
+        map.put(sequence, 3, "unpackable");
+        Arrays.fill(sequence, (byte) 'C');
+
+        Assert.assertEquals(map.get("ACGT".getBytes(), 0), "packed");
+        Assert.assertEquals(map.get("TNAC".getBytes(), 0), "unpackable");
+        Assert.assertNull(map.get(sequence, 0));
+    }
+
+    @Test
+    public void testCaseSensitive() {
+        final PackedKmerMap<String> map = new PackedKmerMap<>(3);
+        map.put("ACG".getBytes(), 0, "upper");
+        Assert.assertNull(map.get("acg".getBytes(), 0));
+        Assert.assertNull(map.get("aCG".getBytes(), 0));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testKmerPastEndOfSequence() {
+        new PackedKmerMap<String>(5).get("ACGT".getBytes(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNullValue() {
+        new PackedKmerMap<String>(2).put("AC".getBytes(), 0, null);
+    }
+}
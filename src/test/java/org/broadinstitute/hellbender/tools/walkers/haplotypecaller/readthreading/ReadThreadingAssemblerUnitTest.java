@@ -8,9 +8,13 @@ import htsjdk.samtools.reference.ReferenceSequenceFile;
 import htsjdk.variant.variantcontext.Allele;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.variantcontext.VariantContextBuilder;
+import org.broadinstitute.barclay.argparser.CommandLineException;
 import org.broadinstitute.hellbender.GATKBaseTest;
 import org.broadinstitute.hellbender.engine.AssemblyRegion;
+import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.AssemblyResult;
 import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.AssemblyResultSet;
+import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.HaplotypeCallerReadThreadingAssemblerArgumentCollection;
+import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.MutectReadThreadingAssemblerArgumentCollection;
 import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.graphs.*;
 import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.Utils;
@@ -29,6 +33,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.stream.Collectors;
 
 public final class ReadThreadingAssemblerUnitTest extends GATKBaseTest {
 
@@ -191,6 +196,63 @@ public final class ReadThreadingAssemblerUnitTest extends GATKBaseTest {
         return assemblyResultSet.getHaplotypeList();
     }
 
+    @DataProvider(name = "KmerSizeThreadsData")
+    public Object[][] makeKmerSizeThreadsData() {
+        return new Object[][] {{2}, {3}, {8}};
+    }
+
+    @Test(dataProvider = "KmerSizeThreadsData")
+    public void testKmerSizeThreadsDontChangeResults(final int kmerSizeThreads) {
+        // duplicate 40 bases of the reference so that the requested kmer sizes and the first larger one are non-unique in it
+        final String contig = "1";
+        final String bases = new String(seq.getSubsequenceAt(contig, 100000, 100100).getBases());
+        final byte[] refBases = (bases.substring(0, 60) + bases.substring(20, 60) + bases.substring(60)).getBytes();
+        final SimpleInterval loc = new SimpleInterval(contig, 100000, 100000 + refBases.length - 1);
+
+        final byte[] altBases = refBases.clone();
+        altBases[120] = altBases[120] == 'A' ? (byte) 'C' : (byte) 'A';
+        final List<GATKRead> reads = new LinkedList<>();
+        for ( int i = 0; i < 5; i++ ) {
+            reads.add(ArtificialReadUtils.createArtificialRead(header, "read" + i, contig, loc.getStart(), altBases.clone(),
+                    Utils.dupBytes((byte) 30, altBases.length), altBases.length + "M"));
+        }
+        final Haplotype refHaplotype = new Haplotype(refBases, true);
+        refHaplotype.setCigar(new Cigar(Collections.singletonList(new CigarElement(refBases.length, CigarOperator.M))));
+
+        final List<List<Integer>> kmerSizesUsed = new ArrayList<>();
+        final List<List<Haplotype>> haplotypes = new ArrayList<>();
+        for ( final int threads : Arrays.asList(1, kmerSizeThreads) ) {
+            try ( final ReadThreadingAssembler assembler = new ReadThreadingAssembler(ReadThreadingAssembler.DEFAULT_NUM_PATHS_PER_GRAPH,
+                    Arrays.asList(10, 25), false, false, 1, 2, false, 0.001, 2.0, 2.0, Integer.MAX_VALUE, false, false, 3) ) {
+                assembler.setKmerSizeThreads(threads);
+                kmerSizesUsed.add(assembler.assemble(reads, refHaplotype, header, SmithWatermanJavaAligner.getInstance()).stream()
+                        .map(AssemblyResult::getKmerSize).collect(Collectors.toList()));
+                haplotypes.add(assemble(assembler, refBases, loc, reads));
+            }
+        }
+
+        Assert.assertEquals(kmerSizesUsed.get(0), Collections.singletonList(45));
+        Assert.assertEquals(kmerSizesUsed.get(1), kmerSizesUsed.get(0));
+        Assert.assertEquals(haplotypes.get(1), haplotypes.get(0));
+        Assert.assertEquals(haplotypes.get(0).size(), 2);
+    }
+
+    @Test(expectedExceptions = CommandLineException.BadArgumentValue.class)
+    public void testKmerSizeThreadsWithGraphOutputIsRejected() {
+        final HaplotypeCallerReadThreadingAssemblerArgumentCollection args = new HaplotypeCallerReadThreadingAssemblerArgumentCollection();
+        args.kmerSizeThreads = 2;
+        args.graphOutput = createTempFile("graph", ".dot").getAbsolutePath();
+        args.makeReadThreadingAssembler();
+    }
+
+    @Test(expectedExceptions = CommandLineException.BadArgumentValue.class)
+    public void testKmerSizeThreadsWithDebugGraphTransformationsIsRejected() {
+        final MutectReadThreadingAssemblerArgumentCollection args = new MutectReadThreadingAssemblerArgumentCollection();
+        args.kmerSizeThreads = 2;
+        args.debugGraphTransformations = true;
+        args.makeReadThreadingAssembler();
+    }
+
     @DataProvider(name = "SimpleAssemblyTestData")
     public Object[][] makeSimpleAssemblyTestData() {
         List<Object[]> tests = new ArrayList<>();
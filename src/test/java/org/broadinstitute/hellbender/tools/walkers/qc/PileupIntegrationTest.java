@@ -1,6 +1,7 @@
 package org.broadinstitute.hellbender.tools.walkers.qc;
 
 import org.broadinstitute.hellbender.CommandLineProgramTest;
+import org.broadinstitute.hellbender.engine.LocusWalker;
 import org.broadinstitute.hellbender.exceptions.UserException;
 import org.broadinstitute.hellbender.testutils.IntegrationTestSpec;
 import org.testng.annotations.Test;
@@ -28,6 +29,21 @@ public class PileupIntegrationTest extends CommandLineProgramTest {
         testSpec.executeTest("testSimplePileup", this);
     }
 
+    @Test
+    public void testMultithreadedPileup() throws IOException {
+        // small chunks, so that the interval is split across many chunks
+        IntegrationTestSpec testSpec = new IntegrationTestSpec(
+            " -L 20:9999900-10000000" +
+                " -R " + b37_reference_20_21 +
+                " -I " + NA12878_20_21_WGS_bam +
+                " --" + LocusWalker.LOCUS_THREADS_LONG_NAME + " 4" +
+                " --" + LocusWalker.LOCUS_CHUNK_SIZE_LONG_NAME + " 7" +
+                " -O %s",
+            Arrays.asList(TEST_OUTPUT_DIRECTORY + "expectedSimplePileup.txt")
+        );
+        testSpec.executeTest("testMultithreadedPileup", this);
+    }
+
     @Test
     public void testVerbosePileup() throws IOException {
         // GATK 3.5 code have a the last line with a REDUCE RESULT that was removed in this implementation
@@ -1,11 +1,17 @@
 package org.broadinstitute.hellbender.transformers;
 
+import htsjdk.samtools.SAMFileHeader;
+import org.broadinstitute.hellbender.engine.ReadsPathDataSource;
+import org.broadinstitute.hellbender.tools.ApplyBQSRArgumentCollection;
 import org.broadinstitute.hellbender.utils.QualityUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
 import org.broadinstitute.hellbender.utils.recalibration.RecalDatum;
 import org.broadinstitute.hellbender.GATKBaseTest;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.File;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
 
@@ -89,4 +95,24 @@ public final class BQSRReadTransformerUnitTest extends GATKBaseTest {
             }
         }
     }
+
+    @Test
+    public void lookupGivesSameQualitiesAsTables() {
+        final String bqsrDir = toolsTestDir + "BQSR/";
+        final File recalTable = new File(bqsrDir + "HiSeq.20mb.1RG.table.gz");
+        try (final ReadsPathDataSource reads = new ReadsPathDataSource(Paths.get(bqsrDir + "HiSeq.1mb.1RG.2k_lines.alternate.bam"))) {
+            final SAMFileHeader header = reads.getHeader();
+            // separate reports, so that neither path sees empirical qualities cached by the other
+            final BQSRReadTransformer withLookup = new BQSRReadTransformer(header, recalTable, new ApplyBQSRArgumentCollection());
+            final BQSRReadTransformer withoutLookup = new BQSRReadTransformer(header, recalTable, new ApplyBQSRArgumentCollection());
+
+            int numReads = 0;
+            for (final GATKRead read : reads) {
+                final byte[] expected = withoutLookup.applyWithoutLookup(read.copy()).getBaseQualities();
+                Assert.assertEquals(withLookup.apply(read.copy()).getBaseQualities(), expected, read.getName());
+                numReads++;
+            }
+            Assert.assertTrue(numReads > 0);
+        }
+    }
 }
@@ -0,0 +1,100 @@
+package org.broadinstitute.hellbender.utils;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.exceptions.UserException;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class OrderedWorkerPoolUnitTest extends GATKBaseTest {
+
+    @DataProvider(name = "poolSizes")
+    public Object[][] poolSizes() {
+        return new Object[][] {
+                {1, 1}, {1, 4}, {3, 3}, {4, 8}, {8, 32}
+        };
+    }
+
+    @Test(dataProvider = "poolSizes")
+    public void testCompletionsRunInSubmissionOrder(final int numWorkers, final int maxTasksInFlight) {
+        final List<StringBuilder> workers = IntStream.range(0, numWorkers).mapToObj(n -> new StringBuilder()).collect(Collectors.toList());
+        final List<Integer> completed = new ArrayList<>();
+        final Thread submittingThread = Thread.currentThread();
+
+        try ( final OrderedWorkerPool<StringBuilder> pool = new OrderedWorkerPool<>(workers, maxTasksInFlight, "test-worker-%d") ) {
+            for ( int i = 0; i < 200; i++ ) {
+                final int taskNumber = i;
+                pool.submit(worker -> {
+                    Assert.assertNotEquals(Thread.currentThread(), submittingThread);
+                    // make later tasks tend to finish first, to exercise the reordering
+                    sleepQuietly((200 - taskNumber) % 3);
+                    worker.append(taskNumber).append(',');
+                    return () -> {
+                        Assert.assertEquals(Thread.currentThread(), submittingThread);
+                        completed.add(taskNumber);
+                    };
+                });
+                Assert.assertTrue(pool.getNumTasksInFlight() <= maxTasksInFlight);
+            }
+            pool.drain();
+            Assert.assertEquals(pool.getNumTasksInFlight(), 0);
+        }
+
+        Assert.assertEquals(completed, IntStream.range(0, 200).boxed().collect(Collectors.toList()));
+        // every task ran on exactly one worker
+        final long totalTasksRun = workers.stream().mapToLong(w -> Arrays.stream(w.toString().split(",")).filter(t -> !t.isEmpty()).count()).sum();
+        Assert.assertEquals(totalTasksRun, 200);
+    }
+
+    @Test
+    public void testWorkersAreUsedExclusively() {
+        final int numWorkers = 4;
+        final List<int[]> workers = IntStream.range(0, numWorkers).mapToObj(n -> new int[1]).collect(Collectors.toList());
+        final Set<int[]> busyWorkers = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+        try ( final OrderedWorkerPool<int[]> pool = new OrderedWorkerPool<>(workers, 16, "test-worker-%d") ) {
+            for ( int i = 0; i < 100; i++ ) {
+                pool.submit(worker -> {
+                    Assert.assertTrue(busyWorkers.add(worker), "worker used by two tasks at once");
+                    worker[0]++;
+                    sleepQuietly(1);
+                    busyWorkers.remove(worker);
+                    return null;
+                });
+            }
+            pool.drain();
+        }
+
+        Assert.assertEquals(workers.stream().mapToInt(w -> w[0]).sum(), 100);
+    }
+
+    @Test(expectedExceptions = UserException.class)
+    public void testTaskExceptionIsRethrownUnchanged() {
+        try ( final OrderedWorkerPool<Object> pool = new OrderedWorkerPool<>(Collections.singletonList(new Object()), 2, "test-worker-%d") ) {
+            pool.submit(worker -> { throw new UserException("bad input"); });
+            pool.drain();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testTooFewTasksInFlight() {
+        new OrderedWorkerPool<>(Arrays.asList(new Object(), new Object()), 1, "test-worker-%d");
+    }
+
+    private static void sleepQuietly(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch ( final InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.testng.annotations.Test;
 
 import java.util.Arrays;
 import java.util.LinkedHashSet;
+import java.util.List;
 
 public class NestedIntegerArrayUnitTest extends GATKBaseTest {
 
@@ -32,7 +33,7 @@ public class NestedIntegerArrayUnitTest extends GATKBaseTest {
         Assert.assertEquals(Arrays.asList("fred"), arr.getAllValues());
     }
 
-    @Test(expectedExceptions = ArrayIndexOutOfBoundsException.class)
+    @Test(expectedExceptions = IllegalArgumentException.class)
     public void testPutBlowupTooHighValue() throws Exception {
         NestedIntegerArray<String> arr= new NestedIntegerArray<>(2);
         arr.put("fred", 3);
@@ -156,5 +157,58 @@ public class NestedIntegerArrayUnitTest extends GATKBaseTest {
         Assert.assertNull(arr.get4Keys(0, 0, 0, 0));
 
     }
-}
 
+    @Test
+    public void testGetAllLeavesKeysAndOrder() throws Exception {
+        NestedIntegerArray<String> arr= new NestedIntegerArray<>(3, 2, 5, 4);
+        arr.put("last", 2, 1, 4, 3);
+        arr.put("middle", 1, 0, 2, 1);
+        arr.put("first", 0, 1, 0, 0);
+        arr.put("second", 1, 0, 0, 3);
+
+        final List<NestedIntegerArray.Leaf<String>> leaves = arr.getAllLeaves();
+        Assert.assertEquals(leaves.size(), 4);
+        Assert.assertEquals(leaves.get(0).keys, new int[]{0, 1, 0, 0});
+        Assert.assertEquals(leaves.get(0).value, "first");
+        Assert.assertEquals(leaves.get(1).keys, new int[]{1, 0, 0, 3});
+        Assert.assertEquals(leaves.get(1).value, "second");
+        Assert.assertEquals(leaves.get(2).keys, new int[]{1, 0, 2, 1});
+        Assert.assertEquals(leaves.get(2).value, "middle");
+        Assert.assertEquals(leaves.get(3).keys, new int[]{2, 1, 4, 3});
+        Assert.assertEquals(leaves.get(3).value, "last");
+        Assert.assertEquals(arr.getAllValues(), Arrays.asList("first", "second", "middle", "last"));
+
+        // neighbouring keys must not alias one another
+        Assert.assertNull(arr.get4Keys(1, 0, 1, 0));
+        Assert.assertNull(arr.get4Keys(2, 1, 4, 2));
+        Assert.assertNull(arr.get4Keys(1, 0, -1, 4));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testPutBlowupTooHighLastValue() throws Exception {
+        NestedIntegerArray<String> arr= new NestedIntegerArray<>(2, 3);
+        arr.put("fred", 0, 3);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testPutBlowupTooHighFirstValue() throws Exception {
+        NestedIntegerArray<String> arr= new NestedIntegerArray<>(2, 3, 4);
+        arr.put("fred", 2, 0, 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testPutBlowupNegativeFirstValue() throws Exception {
+        NestedIntegerArray<String> arr= new NestedIntegerArray<>(2, 3, 4);
+        arr.put("fred", -1, 0, 0);
+    }
+
+    @Test
+    public void testGetOutOfRangeFirstKey() throws Exception {
+        NestedIntegerArray<String> arr= new NestedIntegerArray<>(2, 3, 4);
+        arr.put("fred", 1, 0, 0);
+        Assert.assertNull(arr.get(2, 0, 0));
+        Assert.assertNull(arr.get3Keys(2, 0, 0));
+        Assert.assertNull(arr.get(-1, 0, 0));
+        Assert.assertNull(arr.get3Keys(-1, 0, 0));
+    }
+}
@@ -804,6 +804,41 @@ public final class AlleleLikelihoodsUnitTest {
         Assert.assertEquals(newLk, 0.0, " reporting the zoombie lk of 99.0?");
     }
 
+    @Test
+    public void testLikelihoodsSurviveResizingAllelesAndEvidence() {
+        final List<SimpleInterval> evidence = IntStream.range(1, 8).mapToObj(n -> new SimpleInterval("seq1", n, n)).collect(Collectors.toList());
+        final AlleleLikelihoods<SimpleInterval, Allele> lk = new AlleleLikelihoods<>(
+                SampleList.singletonSampleList("sample"),
+                AlleleList.newList(Arrays.asList(Allele.REF_A, Allele.ALT_C)),
+                Collections.singletonMap("sample", evidence.subList(0, 2)));
+        final LikelihoodMatrix<SimpleInterval, Allele> matrix = lk.sampleMatrix(0);
+        matrix.set(0, 0, -1.0);
+        matrix.set(0, 1, -2.0);
+        matrix.set(1, 0, -3.0);
+        matrix.set(1, 1, -4.0);
+
+        // grow the evidence beyond the initial capacity, then add an allele and remove some evidence
+        lk.addEvidence(Collections.singletonMap("sample", evidence.subList(2, 7)), -5.0);
+        lk.addMissingAlleles(Collections.singletonList(Allele.ALT_G), -6.0);
+        lk.retainEvidence(e -> e.getStart() != 2 && e.getStart() != 5);
+
+        Assert.assertEquals(lk.sampleEvidence(0).stream().map(SimpleInterval::getStart).collect(Collectors.toList()), Arrays.asList(1, 3, 4, 6, 7));
+        final double[][] expected = {
+                {-1.0, -5.0, -5.0, -5.0, -5.0},
+                {-3.0, -5.0, -5.0, -5.0, -5.0},
+                {-6.0, -6.0, -6.0, -6.0, -6.0}};
+        for (int a = 0; a < expected.length; a++) {
+            final double[] values = new double[5];
+            matrix.copyAlleleLikelihoods(a, values, 0);
+            Assert.assertEquals(values, expected[a]);
+        }
+
+        final AlleleLikelihoods<SimpleInterval, Allele> marginal = lk.marginalize(Collections.singletonMap(Allele.REF_A, Arrays.asList(Allele.REF_A, Allele.ALT_G)));
+        for (int r = 0; r < 5; r++) {
+            Assert.assertEquals(marginal.sampleMatrix(0).get(0, r), Math.max(expected[0][r], expected[2][r]));
+        }
+    }
+
     @DataProvider(name="readCountsAndnumberOfAllelesData")
     public Object[][] readCountsAndnumberOfAllelesData() {
         final Object[][] result = new Object[READ_COUNTS.length * ALLELE_COUNTS.length * 2][];
@@ -0,0 +1,101 @@
+package org.broadinstitute.hellbender.utils.io;
+
+import htsjdk.samtools.util.BlockCompressedInputStream;
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import org.apache.commons.io.IOUtils;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public final class ParallelBlockCompressedInputStreamUnitTest extends GATKBaseTest {
+
+    private ExecutorService inflaterPool;
+
+    @BeforeClass
+    public void startPool() {
+        inflaterPool = Executors.newFixedThreadPool(3);
+    }
+
+    @AfterClass
+    public void stopPool() {
+        inflaterPool.shutdownNow();
+    }
+
+    private static byte[] compress(final byte[] data) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final BlockCompressedOutputStream out = new BlockCompressedOutputStream(compressed, (Path) null)) {
+            out.write(data);
+        }
+        return compressed.toByteArray();
+    }
+
+    @DataProvider
+    public Object[][] blocksInFlight() {
+        return new Object[][]{{1}, {2}, {16}};
+    }
+
+    @Test(dataProvider = "blocksInFlight")
+    public void testMatchesBlockCompressedInputStream(final int maxBlocksInFlight) throws IOException {
+        // several blocks' worth of incompressible data
+        final byte[] data = new byte[200000];
+        new Random(42).nextBytes(data);
+        final byte[] compressed = compress(data);
+
+        final ParallelBlockCompressedInputStream.Statistics statistics = new ParallelBlockCompressedInputStream.Statistics();
+        try (final InputStream in = new ParallelBlockCompressedInputStream(new ByteArrayInputStream(compressed), "test",
+                inflaterPool, maxBlocksInFlight, statistics)) {
+            Assert.assertEquals(IOUtils.toByteArray(in), data);
+        }
+        Assert.assertEquals(statistics.getCompressedBytes(), compressed.length);
+        Assert.assertEquals(statistics.getUncompressedBytes(), data.length);
+    }
+
+    @Test
+    public void testBamFile() throws IOException {
+        final File bam = new File(publicTestDir + "org/broadinstitute/hellbender/engine/reads_data_source_test1.bam");
+        final byte[] expected;
+        try (final InputStream in = new BlockCompressedInputStream(bam)) {
+            expected = IOUtils.toByteArray(in);
+        }
+        try (final InputStream in = new ParallelBlockCompressedInputStream(new FileInputStream(bam), bam.getPath(),
+                inflaterPool, 4, new ParallelBlockCompressedInputStream.Statistics())) {
+            Assert.assertEquals(IOUtils.toByteArray(in), expected);
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testNotBlockCompressed() throws IOException {
+        final File text = createTempFile("not_bgzf", ".txt");
+        Files.write(text.toPath(), "this is not a BGZF file, but it is long enough to hold a block header".getBytes());
+        try (final InputStream in = new ParallelBlockCompressedInputStream(new FileInputStream(text), text.getPath(),
+                inflaterPool, 4, new ParallelBlockCompressedInputStream.Statistics())) {
+            IOUtils.toByteArray(in);
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testTruncated() throws IOException {
+        final byte[] compressed = compress("some data".getBytes());
+        try (final InputStream in = new ParallelBlockCompressedInputStream(
+                new ByteArrayInputStream(Arrays.copyOf(compressed, compressed.length / 2)), "test",
+                inflaterPool, 4, new ParallelBlockCompressedInputStream.Statistics())) {
+            IOUtils.toByteArray(in);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.broadinstitute.hellbender.utils.iterators;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class PrefetchingIteratorUnitTest extends GATKBaseTest {
+
+    @DataProvider(name = "prefetchingParameters")
+    public Object[][] prefetchingParameters() {
+        return new Object[][] {
+                // number of elements, batch size, max batches
+                {0, 10, 1},
+                {1, 10, 1},
+                {10, 10, 1},
+                {11, 10, 2},
+                {1000, 7, 3},
+                {1000, 1000, 4},
+                {1000, 1, 100}
+        };
+    }
+
+    @Test(dataProvider = "prefetchingParameters")
+    public void testAllElementsReturnedInOrder(final int numElements, final int batchSize, final int maxBatches) {
+        final List<Integer> expected = IntStream.range(0, numElements).boxed().collect(Collectors.toList());
+        final PrefetchingIterator.Statistics statistics = new PrefetchingIterator.Statistics();
+
+        try ( final PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(expected.iterator(), batchSize, maxBatches, statistics) ) {
+            Assert.assertEquals(Utils.stream(iterator).collect(Collectors.toList()), expected);
+            Assert.assertFalse(iterator.hasNext());
+        }
+
+        // one batch per full or partial batch of elements, plus the end of data marker
+        Assert.assertEquals(statistics.getNumBatches(), (numElements + batchSize - 1) / batchSize + 1);
+        Assert.assertTrue(statistics.getMeanQueueDepth() <= maxBatches);
+    }
+
+    @Test
+    public void testStatisticsAreSharedAcrossIterators() {
+        final PrefetchingIterator.Statistics statistics = new PrefetchingIterator.Statistics();
+        for ( int i = 0; i < 3; i++ ) {
+            try ( final PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(IntStream.range(0, 20).iterator(), 10, 2, statistics) ) {
+                iterator.forEachRemaining(n -> {});
+            }
+        }
+        Assert.assertEquals(statistics.getNumBatches(), 9);
+        Assert.assertNotNull(statistics.getSummaryLine());
+    }
+
+    @Test
+    public void testSlowConsumerStallsProducer() throws InterruptedException {
+        final PrefetchingIterator.Statistics statistics = new PrefetchingIterator.Statistics();
+        try ( final PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(IntStream.range(0, 100).iterator(), 1, 1, statistics) ) {
+            // give the producer time to fill the queue and block
+            Thread.sleep(200);
+            iterator.forEachRemaining(n -> {});
+        }
+        Assert.assertTrue(statistics.getNumProducerStalls() > 0);
+    }
+
+    @Test
+    public void testCloseBeforeExhaustion() {
+        final PrefetchingIterator.Statistics statistics = new PrefetchingIterator.Statistics();
+        final PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(IntStream.range(0, 100000).iterator(), 10, 2, statistics);
+        Assert.assertEquals(iterator.next().intValue(), 0);
+        iterator.close();
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testCloseStopsProducerWithoutInterrupting() throws InterruptedException {
+        final AtomicBoolean interrupted = new AtomicBoolean(false);
+        final Iterator<Integer> slowIterator = new Iterator<Integer>() {
+            private int count = 0;
+
+            @Override
+            public boolean hasNext() { return true; }
+
+            @Override
+            public Integer next() {
+                try {
+                    Thread.sleep(1);
+                } catch ( final InterruptedException e ) {
+                    interrupted.set(true);
+                }
+                return count++;
+            }
+        };
+
+        final PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(slowIterator, 5, 1, new PrefetchingIterator.Statistics());
+        Assert.assertEquals(iterator.next().intValue(), 0);
+        // let the producer fill the queue and wait for room
+        Thread.sleep(200);
+        Assert.assertTrue(iterator.isPrefetching());
+        iterator.close();
+        Assert.assertFalse(iterator.isPrefetching());
+        Assert.assertFalse(interrupted.get());
+    }
+
+    @Test(expectedExceptions = NoSuchElementException.class)
+    public void testNextOnEmptyIterator() {
+        try ( final PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(Collections.emptyIterator(), 10, 2, new PrefetchingIterator.Statistics()) ) {
+            iterator.next();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testProducerExceptionIsRethrown() {
+        final Iterator<Integer> failingIterator = new Iterator<Integer>() {
+            private int count = 0;
+
+            @Override
+            public boolean hasNext() { return true; }
+
+            @Override
+            public Integer next() {
+                if ( count == 25 ) {
+                    throw new IllegalStateException("bad element");
+                }
+                return count++;
+            }
+        };
+
+        try ( final PrefetchingIterator<Integer> iterator = new PrefetchingIterator<>(failingIterator, 10, 2, new PrefetchingIterator.Statistics()) ) {
+            iterator.forEachRemaining(n -> {});
+        }
+    }
+}
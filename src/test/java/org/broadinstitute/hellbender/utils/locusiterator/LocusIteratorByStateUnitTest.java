@@ -6,11 +6,13 @@ import htsjdk.samtools.SAMReadGroupRecord;
 import org.broadinstitute.hellbender.engine.AlignmentContext;
 import org.broadinstitute.hellbender.utils.NGSPlatform;
 import org.broadinstitute.hellbender.utils.QualityUtils;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
 import org.broadinstitute.hellbender.utils.Utils;
 import org.broadinstitute.hellbender.utils.downsampling.DownsampleType;
 import org.broadinstitute.hellbender.utils.downsampling.DownsamplingMethod;
 import org.broadinstitute.hellbender.utils.pileup.PileupElement;
 import org.broadinstitute.hellbender.utils.pileup.ReadPileup;
+import org.broadinstitute.hellbender.utils.pileup.ReusablePileupView;
 import org.broadinstitute.hellbender.utils.read.ArtificialBAMBuilder;
 import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
 import org.broadinstitute.hellbender.utils.read.GATKRead;
@@ -775,4 +777,83 @@ public final class LocusIteratorByStateUnitTest extends LocusIteratorByStateBase
         final int nExpectedPileups = nReadContainingPileups;
         Assert.assertEquals(nPileups, nExpectedPileups, "\"Wrong number of pileups seen for " + read + " with " + nClipsOnLeft + " clipped bases.");
     }
+
+    // ------------------------------------------------------------
+    //
+    // Tests for reusable pileup views
+    //
+    // ------------------------------------------------------------
+
+    private List<GATKRead> makeReadsForPileupViewTests() {
+        final List<GATKRead> reads = new ArrayList<>();
+        reads.add(ArtificialReadUtils.createArtificialRead(header, "match", 0, 1, "ACGTACGTAC".getBytes(), Utils.dupBytes((byte) 30, 10), "10M"));
+        reads.add(ArtificialReadUtils.createArtificialRead(header, "deletion", 0, 3, "GGCCTTAA".getBytes(), Utils.dupBytes((byte) 20, 8), "4M2D4M"));
+        reads.add(ArtificialReadUtils.createArtificialRead(header, "insertion", 0, 5, "TTTTAAAAAC".getBytes(), Utils.dupBytes((byte) 10, 10), "3M2I5M"));
+        reads.add(ArtificialReadUtils.createArtificialRead(header, "distant", 0, 30, "CCCCC".getBytes(), Utils.dupBytes((byte) 40, 5), "5M"));
+        return reads;
+    }
+
+    @Test
+    public void testReusablePileupViewsMatchReadPileups() {
+        final LocusIteratorByState expected = makeLIBS(makeReadsForPileupViewTests(), header);
+        final LocusIteratorByState actual = makeLIBS(makeReadsForPileupViewTests(), header);
+        actual.useReusablePileupViews(null);
+
+        int nLoci = 0;
+        while ( expected.hasNext() ) {
+            Assert.assertTrue(actual.hasNext());
+            final AlignmentContext expectedContext = expected.next();
+            final AlignmentContext actualContext = actual.next();
+            Assert.assertEquals(actualContext.getPosition(), expectedContext.getPosition());
+
+            final ReadPileup expectedPileup = expectedContext.getBasePileup();
+            final ReusablePileupView view = actualContext.getPileupView();
+            Assert.assertEquals(view.size(), expectedPileup.size());
+            Assert.assertEquals(view.getBaseCounts(), expectedPileup.getBaseCounts());
+            int i = 0;
+            for ( final PileupElement expectedElement : expectedPileup ) {
+                Assert.assertSame(view.getRead(i), expectedElement.getRead());
+                Assert.assertEquals(view.getOffset(i), expectedElement.getOffset());
+                Assert.assertEquals(view.getBase(i), expectedElement.getBase());
+                Assert.assertEquals(view.getQual(i), expectedElement.getQual());
+                Assert.assertEquals(view.isDeletion(i), expectedElement.isDeletion());
+
+                final PileupElement actualElement = view.makePileupElement(i);
+                Assert.assertEquals(actualElement.getCurrentCigarElement(), expectedElement.getCurrentCigarElement());
+                Assert.assertEquals(actualElement.getCurrentCigarOffset(), expectedElement.getCurrentCigarOffset());
+                Assert.assertEquals(actualElement.getOffsetInCurrentCigar(), expectedElement.getOffsetInCurrentCigar());
+                Assert.assertEquals(actualElement.isBeforeInsertion(), expectedElement.isBeforeInsertion());
+                i++;
+            }
+            nLoci++;
+        }
+        Assert.assertFalse(actual.hasNext());
+        Assert.assertEquals(nLoci, 12 + 5);
+    }
+
+    @Test
+    public void testReusablePileupViewsRestrictedToIntervals() {
+        final String contig = header.getSequenceDictionary().getSequence(0).getSequenceName();
+        final LocusIteratorByState li = makeLIBS(makeReadsForPileupViewTests(), header);
+        li.useReusablePileupViews(Arrays.asList(new SimpleInterval(contig, 4, 6), new SimpleInterval(contig, 20, 31)));
+
+        final List<Integer> positions = new ArrayList<>();
+        li.forEachRemaining(context -> positions.add(context.getPosition()));
+        Assert.assertEquals(positions, Arrays.asList(4, 5, 6, 30, 31));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testReusablePileupViewCannotBeUsedAfterReuse() {
+        final LocusIteratorByState li = makeLIBS(makeReadsForPileupViewTests(), header);
+        li.useReusablePileupViews(null);
+
+        final AlignmentContext first = li.next();
+        final AlignmentContext second = li.next();
+        Assert.assertEquals(second.getPileupView().size(), 1);
+        Assert.assertEquals(first.getPileupView().size(), 1);
+
+        li.next();
+        Assert.assertEquals(second.getPileupView().size(), 1);
+        first.getPileupView();
+    }
 }
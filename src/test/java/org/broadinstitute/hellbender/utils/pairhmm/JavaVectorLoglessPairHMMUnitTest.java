@@ -0,0 +1,147 @@
+package org.broadinstitute.hellbender.utils.pairhmm;
+
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.tools.walkers.haplotypecaller.StandardPairHMMInputScoreImputator;
+import org.broadinstitute.hellbender.utils.genotyper.AlleleLikelihoods;
+import org.broadinstitute.hellbender.utils.genotyper.IndexedAlleleList;
+import org.broadinstitute.hellbender.utils.genotyper.IndexedSampleList;
+import org.broadinstitute.hellbender.utils.genotyper.LikelihoodMatrix;
+import org.broadinstitute.hellbender.utils.haplotype.Haplotype;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.broadinstitute.hellbender.utils.read.ReadUtils;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public final class JavaVectorLoglessPairHMMUnitTest extends GATKBaseTest {
+
+    private static final byte CONSTANT_GCP = 10;
+    private static final String SAMPLE = "sample";
+
+    @DataProvider(name = "haplotypeAndReadCounts")
+    public Object[][] haplotypeAndReadCounts() {
+        // include haplotype counts below, at and above the number of lanes
+        return new Object[][] {
+                {1, 1}, {2, 10}, {JavaVectorLoglessPairHMM.LANES, 5}, {JavaVectorLoglessPairHMM.LANES + 1, 20}, {40, 7}
+        };
+    }
+
+    @Test(dataProvider = "haplotypeAndReadCounts")
+    public void testDoublePrecisionMatchesLoglessPairHMM(final int numHaplotypes, final int numReads) {
+        final Random random = new Random(numHaplotypes * 31 + numReads);
+        final List<Haplotype> haplotypes = makeHaplotypes(random, numHaplotypes);
+        final List<GATKRead> reads = makeReads(random, haplotypes, numReads);
+
+        final LikelihoodMatrix<GATKRead, Haplotype> expected = computeLikelihoods(new LoglessPairHMM(), haplotypes, reads);
+        final LikelihoodMatrix<GATKRead, Haplotype> actual = computeLikelihoods(new JavaVectorLoglessPairHMM(true), haplotypes, reads);
+        assertLikelihoodsEqual(actual, expected, 1e-10);
+    }
+
+    @Test(dataProvider = "haplotypeAndReadCounts")
+    public void testSinglePrecisionMatchesLoglessPairHMM(final int numHaplotypes, final int numReads) {
+        final Random random = new Random(numHaplotypes * 17 + numReads);
+        final List<Haplotype> haplotypes = makeHaplotypes(random, numHaplotypes);
+        final List<GATKRead> reads = makeReads(random, haplotypes, numReads);
+
+        final LikelihoodMatrix<GATKRead, Haplotype> expected = computeLikelihoods(new LoglessPairHMM(), haplotypes, reads);
+        final LikelihoodMatrix<GATKRead, Haplotype> actual = computeLikelihoods(new JavaVectorLoglessPairHMM(false), haplotypes, reads);
+        assertLikelihoodsEqual(actual, expected, 1e-4);
+    }
+
+    @Test
+    public void testSingleReadHaplotypePair() {
+        final Random random = new Random(7);
+        final Haplotype haplotype = makeHaplotypes(random, 1).get(0);
+        final GATKRead read = makeReads(random, Collections.singletonList(haplotype), 1).get(0);
+
+        final LoglessPairHMM logless = new LoglessPairHMM();
+        final JavaVectorLoglessPairHMM vector = new JavaVectorLoglessPairHMM(true);
+        final double[] results = new double[2];
+        int i = 0;
+        for (final PairHMM hmm : Arrays.asList(logless, vector)) {
+            hmm.initialize(read.getLength(), haplotype.length());
+            final byte[] insertionQuals = ReadUtils.getBaseInsertionQualities(read);
+            final byte[] deletionQuals = ReadUtils.getBaseDeletionQualities(read);
+            final byte[] gcps = new byte[read.getLength()];
+            Arrays.fill(gcps, CONSTANT_GCP);
+            results[i++] = hmm.computeReadLikelihoodGivenHaplotypeLog10(haplotype.getBases(), read.getBases(),
+                    read.getBaseQualities(), insertionQuals, deletionQuals, gcps, true, null);
+        }
+        Assert.assertEquals(results[1], results[0], 1e-10);
+    }
+
+    private static LikelihoodMatrix<GATKRead, Haplotype> computeLikelihoods(final PairHMM hmm, final List<Haplotype> haplotypes, final List<GATKRead> reads) {
+        final AlleleLikelihoods<GATKRead, Haplotype> likelihoods = new AlleleLikelihoods<>(new IndexedSampleList(SAMPLE),
+                new IndexedAlleleList<>(haplotypes), Collections.singletonMap(SAMPLE, reads));
+        final int maxReadLength = reads.stream().mapToInt(GATKRead::getLength).max().orElse(0);
+        final int maxHaplotypeLength = haplotypes.stream().mapToInt(Haplotype::length).max().orElse(0);
+        hmm.initialize(haplotypes, null, maxReadLength, maxHaplotypeLength);
+        hmm.computeLog10Likelihoods(likelihoods.sampleMatrix(0), reads, StandardPairHMMInputScoreImputator.newInstance(CONSTANT_GCP));
+        return likelihoods.sampleMatrix(0);
+    }
+
+    private static void assertLikelihoodsEqual(final LikelihoodMatrix<GATKRead, Haplotype> actual,
+                                               final LikelihoodMatrix<GATKRead, Haplotype> expected, final double tolerance) {
+        for (int a = 0; a < expected.numberOfAlleles(); a++) {
+            for (int r = 0; r < expected.evidenceCount(); r++) {
+                Assert.assertEquals(actual.get(a, r), expected.get(a, r), tolerance, "haplotype " + a + ", read " + r);
+            }
+        }
+    }
+
+    private static final byte[] BASES = {'A', 'C', 'G', 'T'};
+
+    private static List<Haplotype> makeHaplotypes(final Random random, final int count) {
+        final byte[] reference = randomBases(random, 400);
+        final List<Haplotype> haplotypes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // haplotypes of different lengths, with a few substitutions relative to the reference and an occasional N
+            final int start = random.nextInt(50);
+            final byte[] bases = Arrays.copyOfRange(reference, start, start + 200 + random.nextInt(150));
+            for (int j = 0; j < bases.length; j++) {
+                if (random.nextInt(100) == 0) {
+                    bases[j] = random.nextInt(10) == 0 ? (byte) 'N' : BASES[random.nextInt(BASES.length)];
+                }
+            }
+            haplotypes.add(new Haplotype(bases, i == 0));
+        }
+        return haplotypes;
+    }
+
+    private static List<GATKRead> makeReads(final Random random, final List<Haplotype> haplotypes, final int count) {
+        final List<GATKRead> reads = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // reads drawn from a haplotype, with some sequencing errors
+            final byte[] haplotypeBases = haplotypes.get(random.nextInt(haplotypes.size())).getBases();
+            final int length = 50 + random.nextInt(101);
+            final int start = random.nextInt(haplotypeBases.length - length + 1);
+            final byte[] bases = Arrays.copyOfRange(haplotypeBases, start, start + length);
+            for (int j = 0; j < length; j++) {
+                if (random.nextInt(50) == 0) {
+                    bases[j] = BASES[random.nextInt(BASES.length)];
+                }
+            }
+            final byte[] quals = new byte[length];
+            for (int j = 0; j < length; j++) {
+                quals[j] = (byte) (6 + random.nextInt(35));
+            }
+            reads.add(ArtificialReadUtils.createArtificialRead(bases, quals, length + "M"));
+        }
+        return reads;
+    }
+
+    private static byte[] randomBases(final Random random, final int length) {
+        final byte[] bases = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bases[i] = BASES[random.nextInt(BASES.length)];
+        }
+        return bases;
+    }
+}
@@ -16,8 +16,12 @@ import picard.util.BasicInputParser;
 
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public final class VectorPairHMMUnitTest extends GATKBaseTest {
 
@@ -105,6 +109,137 @@ public final class VectorPairHMMUnitTest extends GATKBaseTest {
         }
     }
 
+    @Test
+    public void testBatchedLikelihoodsMatchPerMatrixLikelihoods() {
+        final PairHMMNativeArguments args = new PairHMMNativeArguments();
+        args.useDoublePrecision = false;
+        args.maxNumberOfThreads = 1;
+
+        final String jvmVersionString = System.getProperty("java.version");
+        if (jvmVersionString.startsWith("1.11")) {
+            throw new SkipException("testBatchedLikelihoodsMatchPerMatrixLikelihoods on Java 11");
+        }
+
+        final List<Haplotype> haplotypes = new ArrayList<>();
+        final List<GATKRead> reads = new ArrayList<>();
+        final Map<GATKRead, byte[]> gcps = new HashMap<>();
+        try {
+            final BasicInputParser parser = new BasicInputParser(true, new FileInputStream(pairHMMTestData));
+            while (parser.hasNext() && reads.size() < 30) {
+                final String[] tokens = parser.next();
+                final byte[] haplotypeBases = tokens[0].getBytes();
+                if (haplotypes.size() < 3 && haplotypes.stream().noneMatch(h -> Arrays.equals(h.getBases(), haplotypeBases))) {
+                    haplotypes.add(new Haplotype(haplotypeBases, haplotypes.isEmpty()));
+                }
+                final byte[] bases = tokens[1].getBytes();
+                final GATKRead read = ArtificialReadUtils.createArtificialRead(bases, normalize(tokens[2].getBytes(), 6), bases.length + "M");
+                ReadUtils.setInsertionBaseQualities(read, normalize(tokens[3].getBytes()));
+                ReadUtils.setDeletionBaseQualities(read, normalize(tokens[4].getBytes()));
+                gcps.put(read, normalize(tokens[5].getBytes()));
+                reads.add(read);
+            }
+        } catch (final FileNotFoundException e) {
+            Assert.fail("PairHMM test data not found : " + pairHMMTestData);
+        }
+
+        final PairHMMInputScoreImputator inputScoreImputator = read ->
+            new PairHMMInputScoreImputation() {
+
+                @Override
+                public byte[] delOpenPenalties() {
+                    return ReadUtils.getBaseDeletionQualities(read);
+                }
+
+                @Override
+                public byte[] insOpenPenalties() {
+                    return ReadUtils.getBaseInsertionQualities(read);
+                }
+
+                @Override
+                public byte[] gapContinuationPenalties() {
+                    return gcps.get(read);
+                }
+            };
+
+        // split the reads unevenly into three "samples", one of them empty
+        final List<List<GATKRead>> readsPerSample = Arrays.asList(reads.subList(0, 7), Collections.emptyList(), reads.subList(7, reads.size()));
+
+        for (final VectorLoglessPairHMM.Implementation imp : VectorLoglessPairHMM.Implementation.values()) {
+            final PairHMM hmm;
+            try {
+                hmm = new VectorLoglessPairHMM(imp, args);
+            } catch (final UserException.HardwareFeatureException e ) {
+                logger.warn(String.format("PairHMM implementation %s not available, skipping test...", imp.name()));
+                continue;
+            }
+            hmm.initialize(haplotypes, null, 0, 0);
+
+            final List<double[][]> expected = new ArrayList<>();
+            for (final List<GATKRead> sampleReads : readsPerSample) {
+                final double[][] values = new double[haplotypes.size()][sampleReads.size()];
+                hmm.computeLog10Likelihoods(recordingMatrix(haplotypes, values), sampleReads, inputScoreImputator);
+                expected.add(values);
+            }
+
+            final List<double[][]> actual = new ArrayList<>();
+            final List<LikelihoodMatrix<GATKRead, Haplotype>> matrices = new ArrayList<>();
+            for (final List<GATKRead> sampleReads : readsPerSample) {
+                final double[][] values = new double[haplotypes.size()][sampleReads.size()];
+                matrices.add(recordingMatrix(haplotypes, values));
+                actual.add(values);
+            }
+            hmm.batchComputeLog10Likelihoods(matrices, readsPerSample, inputScoreImputator);
+            hmm.close();
+
+            for (int s = 0; s < readsPerSample.size(); s++) {
+                for (int h = 0; h < haplotypes.size(); h++) {
+                    Assert.assertEquals(actual.get(s)[h], expected.get(s)[h],
+                            String.format("Batched likelihoods differ for PairHMM implementation: %s.", imp.name()));
+                }
+            }
+        }
+    }
+
+    private LikelihoodMatrix<GATKRead, Haplotype> recordingMatrix(final List<Haplotype> haplotypes, final double[][] values) {
+        final LikelihoodMatrix<GATKRead, Haplotype> delegate = matrix(haplotypes);
+        return new LikelihoodMatrix<GATKRead, Haplotype>() {
+            @Override
+            public List<GATKRead> evidence() { return delegate.evidence(); }
+
+            @Override
+            public List<Haplotype> alleles() { return haplotypes; }
+
+            @Override
+            public void set(int alleleIndex, int evidenceIndex, double value) { values[alleleIndex][evidenceIndex] = value; }
+
+            @Override
+            public double get(int alleleIndex, int evidenceIndex) { return values[alleleIndex][evidenceIndex]; }
+
+            @Override
+            public int indexOfAllele(final Allele allele) { return delegate.indexOfAllele(allele); }
+
+            @Override
+            public int indexOfEvidence(GATKRead evidence) { return delegate.indexOfEvidence(evidence); }
+
+            @Override
+            public int numberOfAlleles() { return haplotypes.size(); }
+
+            @Override
+            public int evidenceCount() { return values.length == 0 ? 0 : values[0].length; }
+
+            @Override
+            public Haplotype getAllele(int alleleIndex) { return haplotypes.get(alleleIndex); }
+
+            @Override
+            public GATKRead getEvidence(int evidenceIndex) { return delegate.getEvidence(evidenceIndex); }
+
+            @Override
+            public void copyAlleleLikelihoods(int alleleIndex, double[] dest, int offset) {
+                System.arraycopy(values[alleleIndex], 0, dest, offset, values[alleleIndex].length);
+            }
+        };
+    }
+
     private static byte[] normalize(byte[] scores) {
         return normalize(scores, 0);
     }
@@ -0,0 +1,90 @@
+package org.broadinstitute.hellbender.utils.pileup;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.util.Locatable;
+import org.broadinstitute.hellbender.GATKBaseTest;
+import org.broadinstitute.hellbender.utils.SimpleInterval;
+import org.broadinstitute.hellbender.utils.Utils;
+import org.broadinstitute.hellbender.utils.read.ArtificialReadUtils;
+import org.broadinstitute.hellbender.utils.read.GATKRead;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class ReusablePileupViewUnitTest extends GATKBaseTest {
+    private static final SAMFileHeader header = ArtificialReadUtils.createArtificialSamHeader(1, 1, 1000);
+    private static final Locatable loc = new SimpleInterval("1", 5, 5);
+
+    private static ReadPileup makePileup() {
+        final GATKRead match = ArtificialReadUtils.createArtificialRead(header, "match", 0, 1, "ACGTACGTAC".getBytes(), Utils.dupBytes((byte) 30, 10), "10M");
+        final GATKRead deletion = ArtificialReadUtils.createArtificialRead(header, "deletion", 0, 3, "GGCCTT".getBytes(), Utils.dupBytes((byte) 20, 6), "2M3D4M");
+        final GATKRead reverse = ArtificialReadUtils.createArtificialRead(header, "reverse", 0, 4, "TTGG".getBytes(), Utils.dupBytes((byte) 10, 4), "4M");
+        reverse.setIsReverseStrand(true);
+        return new ReadPileup(loc, Arrays.asList(
+                new PileupElement(match, 4, match.getCigarElement(0), 0, 4),
+                new PileupElement(deletion, 1, deletion.getCigarElement(1), 1, 0),
+                new PileupElement(reverse, 1, reverse.getCigarElement(0), 0, 1)));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final ReadPileup pileup = makePileup();
+        final ReusablePileupView view = ReusablePileupView.of(pileup);
+
+        Assert.assertEquals(view.getLocation(), loc);
+        Assert.assertEquals(view.size(), pileup.size());
+        Assert.assertEquals(view.getBaseCounts(), pileup.getBaseCounts());
+        int i = 0;
+        for (final PileupElement element : pileup) {
+            Assert.assertSame(view.getRead(i), element.getRead());
+            Assert.assertEquals(view.getOffset(i), element.getOffset());
+            Assert.assertEquals(view.getBase(i), element.getBase());
+            Assert.assertEquals(view.getQual(i), element.getQual());
+            Assert.assertEquals(view.isDeletion(i), element.isDeletion());
+            Assert.assertEquals(view.isReverseStrand(i), element.getRead().isReverseStrand());
+            i++;
+        }
+        Assert.assertTrue(view.isDeletion(1));
+        Assert.assertEquals(view.getBase(1), PileupElement.DELETION_BASE);
+
+        final ReadPileup copy = view.makeReadPileup();
+        Assert.assertEquals(copy.getLocation(), pileup.getLocation());
+        Assert.assertEquals(copy.getReads(), pileup.getReads());
+        Assert.assertEquals(copy.getOffsets(), pileup.getOffsets());
+        Assert.assertEquals(copy.getBases(), pileup.getBases());
+        Assert.assertEquals(copy.getBaseQuals(), pileup.getBaseQuals());
+    }
+
+    @Test
+    public void testReuse() {
+        final ReadPileup pileup = makePileup();
+        final ReusablePileupView view = new ReusablePileupView(1);
+        Assert.assertTrue(view.isEmpty());
+
+        final List<Long> generations = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            view.reset(loc);
+            Assert.assertTrue(view.isEmpty());
+            Assert.assertFalse(generations.contains(view.getGeneration()));
+            generations.add(view.getGeneration());
+
+            // more elements than the initial capacity, so that the view grows in the first round
+            for (int copy = 0; copy <= round; copy++) {
+                for (final PileupElement element : pileup) {
+                    view.add(element.getRead(), element.getOffset(), element.getCurrentCigarElement(),
+                            element.getCurrentCigarOffset(), element.getOffsetInCurrentCigar());
+                }
+            }
+            Assert.assertEquals(view.size(), pileup.size() * (round + 1));
+            Assert.assertEquals(view.getRead(view.size() - 1), pileup.getReads().get(pileup.size() - 1));
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNegativeCapacity() {
+        new ReusablePileupView(-1);
+    }
+}